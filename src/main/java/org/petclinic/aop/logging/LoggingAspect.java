@@ -1,30 +1,59 @@
 package org.petclinic.aop.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.petclinic.config.ApplicationProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.data.domain.Slice;
 import tech.jhipster.config.JHipsterConstants;
 
 /**
- * Aspect for logging execution of service and repository Spring components.
- *
- * By default, it only runs with the "dev" profile.
+ * Aspect for tracing execution of service and repository Spring components.
+ * <p>
+ * Tracing is switched per class or package through its logger level, so it can be turned on at runtime with the
+ * {@code loggers} management endpoint: when the logger of the class is at debug level, the calls are timed by the
+ * {@code method.timed} timer and a sample of them, {@code application.tracing.sample-rate}, is logged with its
+ * arguments and result, truncated to {@code application.tracing.max-payload-length} characters.
+ * <p>
+ * The aspect is registered when {@code application.tracing.enabled} is set, which is the default of the "dev" profile.
  */
 @Aspect
 public class LoggingAspect {
 
+    static final String TIMER_NAME = "method.timed";
+
+    private static final int MAX_LOGGED_ELEMENTS = 10;
+
     private final Environment env;
 
-    public LoggingAspect(Environment env) {
+    private final ApplicationProperties.Tracing tracingProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public LoggingAspect(Environment env, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
         this.env = env;
+        this.tracingProperties = applicationProperties.getTracing();
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -83,7 +112,7 @@ public class LoggingAspect {
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
+     * Advice that times the traced methods, and logs a sample of them when they are entered and exited.
      *
      * @param joinPoint join point for advice.
      * @return result.
@@ -92,18 +121,92 @@ public class LoggingAspect {
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
         Logger log = logger(joinPoint);
-        if (log.isDebugEnabled()) {
-            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+        if (!log.isDebugEnabled()) {
+            return joinPoint.proceed();
+        }
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < tracingProperties.getSampleRate();
+        if (sampled) {
+            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), abbreviateArgs(joinPoint));
         }
+        long start = System.nanoTime();
         try {
             Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
-                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+            if (sampled) {
+                log.debug(
+                    "Exit: {}() in {} ms with result = {}",
+                    joinPoint.getSignature().getName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    abbreviate(result, tracingProperties.getMaxPayloadLength())
+                );
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
+            log.error("Illegal argument: {} in {}()", abbreviateArgs(joinPoint), joinPoint.getSignature().getName());
             throw e;
+        } finally {
+            timer(joinPoint).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        return timers.computeIfAbsent(signature.getMethod(), method ->
+            Timer.builder(TIMER_NAME)
+                .description("Execution time of the traced application methods")
+                .tag("class", signature.getDeclaringTypeName())
+                .tag("method", method.getName())
+                // Client side percentiles, computed from an HdrHistogram per timer
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+        );
+    }
+
+    private String abbreviateArgs(JoinPoint joinPoint) {
+        return abbreviate(joinPoint.getArgs(), tracingProperties.getMaxPayloadLength());
+    }
+
+    /**
+     * Renders a value for the logs with a bounded cost: collections, pages and arrays are rendered with their first
+     * elements and their size only, and the text is cut at the given length.
+     *
+     * @param value the value to render.
+     * @param maxLength the maximum length of the text.
+     * @return the text of the value.
+     */
+    static String abbreviate(Object value, int maxLength) {
+        StringBuilder text = new StringBuilder();
+        append(text, value, maxLength);
+        if (text.length() > maxLength) {
+            text.setLength(maxLength);
+            text.append("...");
+        }
+        return text.toString();
+    }
+
+    private static void append(StringBuilder text, Object value, int maxLength) {
+        if (value instanceof Object[] array) {
+            appendElements(text, Arrays.asList(array).iterator(), array.length, maxLength);
+        } else if (value instanceof Collection<?> collection) {
+            appendElements(text, collection.iterator(), collection.size(), maxLength);
+        } else if (value instanceof Slice<?> slice) {
+            text.append("Page ").append(slice.getNumber()).append(" of size ").append(slice.getSize()).append(' ');
+            appendElements(text, slice.iterator(), slice.getNumberOfElements(), maxLength);
+        } else {
+            text.append(value);
+        }
+    }
+
+    private static void appendElements(StringBuilder text, Iterator<?> elements, int size, int maxLength) {
+        text.append('[');
+        for (int i = 0; elements.hasNext() && i < MAX_LOGGED_ELEMENTS && text.length() <= maxLength; i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            append(text, elements.next(), maxLength);
+        }
+        if (size > MAX_LOGGED_ELEMENTS) {
+            text.append(", ... ").append(size).append(" elements");
         }
+        text.append(']');
     }
 }
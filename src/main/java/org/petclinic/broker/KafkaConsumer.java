@@ -1,15 +1,8 @@
 package org.petclinic.broker;
 
-import static org.springframework.web.servlet.mvc.method.annotation.SseEmitter.event;
-
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
@@ -18,34 +11,23 @@ public class KafkaConsumer implements Consumer<String> {
 
     private final Logger log = LoggerFactory.getLogger(KafkaConsumer.class);
 
-    private Map<String, SseEmitter> emitters = new HashMap<>();
+    private final SseFanOutHub sseFanOutHub;
+
+    public KafkaConsumer(SseFanOutHub sseFanOutHub) {
+        this.sseFanOutHub = sseFanOutHub;
+    }
 
     public SseEmitter register(String key) {
-        log.debug("Registering sse client for {}", key);
-        SseEmitter emitter = new SseEmitter();
-        emitter.onCompletion(() -> emitters.remove(key));
-        emitters.put(key, emitter);
-        return emitter;
+        return sseFanOutHub.register(key);
     }
 
     public void unregister(String key) {
-        log.debug("Unregistering sse emitter for: {}", key);
-        Optional.ofNullable(emitters.get(key)).ifPresent(SseEmitter::complete);
+        sseFanOutHub.unregister(key);
     }
 
     @Override
     public void accept(String input) {
         log.debug("Got message from kafka stream: {}", input);
-        emitters
-            .entrySet()
-            .stream()
-            .map(Map.Entry::getValue)
-            .forEach((SseEmitter emitter) -> {
-                try {
-                    emitter.send(event().data(input, MediaType.TEXT_PLAIN));
-                } catch (IOException e) {
-                    log.debug("error sending sse message, {}", input);
-                }
-            });
+        sseFanOutHub.publish(input);
     }
 }
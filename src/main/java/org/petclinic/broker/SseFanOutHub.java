@@ -0,0 +1,251 @@
+package org.petclinic.broker;
+
+import static org.springframework.web.servlet.mvc.method.annotation.SseEmitter.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.petclinic.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fans events out to the registered Server-Sent Events subscribers.
+ * <p>
+ * Publishing only enqueues the event for each subscriber: every subscriber has a bounded queue, drained by a small pool
+ * of sender threads, so a slow client never holds up the publisher or the other clients. When a queue is full the
+ * configured {@link ApplicationProperties.Sse.OverflowPolicy} applies. Idle subscribers get a heartbeat comment, which
+ * also detects clients that went away, and subscribers are dropped as soon as their emitter completes, times out or
+ * fails.
+ * <p>
+ * The number of subscribers, the number of queued events and the number of dropped events are published as the
+ * {@code sse.subscribers} and {@code sse.queue.depth} gauges and the {@code sse.events.dropped} counter.
+ */
+@Component
+public class SseFanOutHub {
+
+    private final Logger log = LoggerFactory.getLogger(SseFanOutHub.class);
+
+    private final ConcurrentMap<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    private final ApplicationProperties.Sse properties;
+
+    private final Executor sender;
+
+    private final AtomicLong queued = new AtomicLong();
+
+    private final Counter sentCounter;
+
+    private final Counter droppedCounter;
+
+    @Autowired
+    public SseFanOutHub(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this(
+            applicationProperties.getSse(),
+            meterRegistry,
+            Executors.newFixedThreadPool(applicationProperties.getSse().getSenderThreads(), new CustomizableThreadFactory("sse-sender-"))
+        );
+    }
+
+    SseFanOutHub(ApplicationProperties.Sse properties, MeterRegistry meterRegistry, Executor sender) {
+        this.properties = properties;
+        this.sender = sender;
+        Gauge.builder("sse.subscribers", subscribers, ConcurrentMap::size)
+            .description("Registered Server-Sent Events subscribers")
+            .register(meterRegistry);
+        Gauge.builder("sse.queue.depth", queued, AtomicLong::get)
+            .description("Events waiting to be sent, all subscribers included")
+            .register(meterRegistry);
+        this.sentCounter = Counter.builder("sse.events.sent").description("Events sent to a subscriber").register(meterRegistry);
+        this.droppedCounter = Counter.builder("sse.events.dropped")
+            .description("Events discarded because the queue of a subscriber was full")
+            .tag("policy", properties.getOverflowPolicy().name())
+            .register(meterRegistry);
+    }
+
+    /**
+     * Registers a new subscriber, replacing the previous one with the same key.
+     *
+     * @param key the key of the subscriber.
+     * @return the emitter to return from the controller.
+     */
+    public SseEmitter register(String key) {
+        log.debug("Registering sse client for {}", key);
+        SseEmitter emitter = new SseEmitter(properties.getTimeout());
+        Subscriber subscriber = new Subscriber(key, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        Subscriber previous = subscribers.put(key, subscriber);
+        if (previous != null) {
+            discard(previous);
+            previous.emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * Completes and removes the subscriber with the given key, if any.
+     *
+     * @param key the key of the subscriber.
+     */
+    public void unregister(String key) {
+        log.debug("Unregistering sse emitter for: {}", key);
+        Subscriber subscriber = subscribers.remove(key);
+        if (subscriber != null) {
+            discard(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    /**
+     * Queues an event for every subscriber, without waiting for it to be sent.
+     *
+     * @param data the data of the event.
+     */
+    public void publish(String data) {
+        for (Subscriber subscriber : subscribers.values()) {
+            int dropped = subscriber.offer(data);
+            queued.addAndGet(1 - dropped);
+            if (dropped > 0) {
+                droppedCounter.increment(dropped);
+            }
+            schedule(subscriber);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.sse.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.isIdle()) {
+                subscriber.heartbeatDue.set(true);
+                schedule(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            int sent = 0;
+            String data;
+            // Bounded so that a busy subscriber gives the sender thread back to the others
+            while (sent < properties.getQueueCapacity() && (data = subscriber.poll()) != null) {
+                queued.decrementAndGet();
+                subscriber.emitter.send(event().data(data, MediaType.TEXT_PLAIN));
+                sentCounter.increment();
+                sent++;
+            }
+            if (subscriber.heartbeatDue.getAndSet(false) && sent == 0) {
+                subscriber.emitter.send(event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Error sending sse message to {}, dropping the subscriber: {}", subscriber.key, e.getMessage());
+            remove(subscriber);
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        // An event queued while the scheduled flag was still set would otherwise wait for the next one
+        if (!subscriber.isIdle() && subscribers.get(subscriber.key) == subscriber) {
+            schedule(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber.key, subscriber);
+        discard(subscriber);
+    }
+
+    private void discard(Subscriber subscriber) {
+        queued.addAndGet(-subscriber.clear());
+    }
+
+    private final class Subscriber {
+
+        private final String key;
+
+        private final SseEmitter emitter;
+
+        private final Deque<String> queue = new ArrayDeque<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+
+        private Subscriber(String key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+
+        /**
+         * @return the number of events dropped to apply the overflow policy.
+         */
+        private synchronized int offer(String data) {
+            if (queue.size() < properties.getQueueCapacity()) {
+                queue.addLast(data);
+                return 0;
+            }
+            switch (properties.getOverflowPolicy()) {
+                case DROP_NEWEST:
+                    return 1;
+                case COALESCE:
+                    int dropped = queue.size();
+                    queue.clear();
+                    queue.addLast(data);
+                    return dropped;
+                default:
+                    queue.pollFirst();
+                    queue.addLast(data);
+                    return 1;
+            }
+        }
+
+        private synchronized String poll() {
+            return queue.pollFirst();
+        }
+
+        private synchronized boolean isIdle() {
+            return queue.isEmpty();
+        }
+
+        private synchronized int clear() {
+            int size = queue.size();
+            queue.clear();
+            return size;
+        }
+    }
+}
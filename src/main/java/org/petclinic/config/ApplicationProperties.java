@@ -1,5 +1,9 @@
 package org.petclinic.config;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +17,72 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final SearchIndex searchIndex = new SearchIndex();
+
+    private final NearCache nearCache = new NearCache();
+
+    private final Sse sse = new Sse();
+
+    private final ChangeEvents changeEvents = new ChangeEvents();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    private final Tracing tracing = new Tracing();
+
+    private final Suggest suggest = new Suggest();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Household household = new Household();
+
+    private final ReadReplicas readReplicas = new ReadReplicas();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public Sse getSse() {
+        return sse;
+    }
+
+    public ChangeEvents getChangeEvents() {
+        return changeEvents;
+    }
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public Tracing getTracing() {
+        return tracing;
+    }
+
+    public Suggest getSuggest() {
+        return suggest;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Household getHousehold() {
+        return household;
+    }
+
+    public ReadReplicas getReadReplicas() {
+        return readReplicas;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +97,503 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class SearchIndex {
+
+        private final Outbox outbox = new Outbox();
+
+        private final Reindex reindex = new Reindex();
+
+        private final QueryLimits query = new QueryLimits();
+
+        public Outbox getOutbox() {
+            return outbox;
+        }
+
+        public Reindex getReindex() {
+            return reindex;
+        }
+
+        public QueryLimits getQuery() {
+            return query;
+        }
+
+        public static class Outbox {
+
+            /**
+             * When disabled, index changes are applied synchronously in the calling thread instead of going through the outbox table.
+             */
+            private boolean enabled = true;
+
+            private int batchSize = 500;
+
+            private long pollInterval = 1000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public long getPollInterval() {
+                return pollInterval;
+            }
+
+            public void setPollInterval(long pollInterval) {
+                this.pollInterval = pollInterval;
+            }
+        }
+
+        public static class Reindex {
+
+            private int chunkSize = 1000;
+
+            /**
+             * Number of indices rebuilt at the same time.
+             */
+            private int parallelism = 2;
+
+            /**
+             * Upper bound on the documents read from the database per second, shared by all indices being rebuilt.
+             */
+            private int maxDocumentsPerSecond = 2000;
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+
+            public int getMaxDocumentsPerSecond() {
+                return maxDocumentsPerSecond;
+            }
+
+            public void setMaxDocumentsPerSecond(int maxDocumentsPerSecond) {
+                this.maxDocumentsPerSecond = maxDocumentsPerSecond;
+            }
+        }
+
+        public static class QueryLimits {
+
+            private int maxLength = 256;
+
+            /**
+             * Maximum number of words, phrases and prefixes in a search query.
+             */
+            private int maxClauses = 16;
+
+            private int minPrefixLength = 2;
+
+            /**
+             * Number of compiled search queries kept, keyed by their text.
+             */
+            private long cacheMaximumSize = 1000;
+
+            public int getMaxLength() {
+                return maxLength;
+            }
+
+            public void setMaxLength(int maxLength) {
+                this.maxLength = maxLength;
+            }
+
+            public int getMaxClauses() {
+                return maxClauses;
+            }
+
+            public void setMaxClauses(int maxClauses) {
+                this.maxClauses = maxClauses;
+            }
+
+            public int getMinPrefixLength() {
+                return minPrefixLength;
+            }
+
+            public void setMinPrefixLength(int minPrefixLength) {
+                this.minPrefixLength = minPrefixLength;
+            }
+
+            public long getCacheMaximumSize() {
+                return cacheMaximumSize;
+            }
+
+            public void setCacheMaximumSize(long cacheMaximumSize) {
+                this.cacheMaximumSize = cacheMaximumSize;
+            }
+        }
+    }
+
+    public static class NearCache {
+
+        /**
+         * When disabled, every second-level cache lookup goes to Redis.
+         */
+        private boolean enabled = true;
+
+        private long maximumSize = 10000;
+
+        private long timeToLive = 300; // in seconds
+
+        /**
+         * Per-region overrides of the maximum size and time to live, keyed by region name.
+         */
+        private final Map<String, Region> regions = new HashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public long getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(long timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public long getMaximumSize(String regionName) {
+            Region region = regions.get(regionName);
+            return region != null && region.getMaximumSize() != null ? region.getMaximumSize() : maximumSize;
+        }
+
+        public long getTimeToLive(String regionName) {
+            Region region = regions.get(regionName);
+            return region != null && region.getTimeToLive() != null ? region.getTimeToLive() : timeToLive;
+        }
+
+        public static class Region {
+
+            private Long maximumSize;
+
+            private Long timeToLive;
+
+            public Long getMaximumSize() {
+                return maximumSize;
+            }
+
+            public void setMaximumSize(Long maximumSize) {
+                this.maximumSize = maximumSize;
+            }
+
+            public Long getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Long timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+    }
+
+    public static class Sse {
+
+        /**
+         * Maximum number of events waiting to be sent to one subscriber.
+         */
+        private int queueCapacity = 256;
+
+        /**
+         * What to do with a new event when the queue of a subscriber is full.
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+        /**
+         * Number of threads writing events to the subscribers.
+         */
+        private int senderThreads = 4;
+
+        private long heartbeatInterval = 15000; // in milliseconds
+
+        private long timeout = 1800000; // in milliseconds
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public int getSenderThreads() {
+            return senderThreads;
+        }
+
+        public void setSenderThreads(int senderThreads) {
+            this.senderThreads = senderThreads;
+        }
+
+        public long getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(long heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public long getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(long timeout) {
+            this.timeout = timeout;
+        }
+
+        public enum OverflowPolicy {
+            /**
+             * Discard the oldest queued event to make room for the new one.
+             */
+            DROP_OLDEST,
+            /**
+             * Discard the new event.
+             */
+            DROP_NEWEST,
+            /**
+             * Discard every queued event and keep the new one only, for streams where the latest event supersedes the others.
+             */
+            COALESCE,
+        }
+    }
+
+    public static class ChangeEvents {
+
+        /**
+         * When disabled, entity mutations are not published to Kafka.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class VirtualThreads {
+
+        /**
+         * Virtual threads pinned to their carrier for longer than this, in milliseconds, are reported.
+         */
+        private long pinnedThreshold = 20;
+
+        public long getPinnedThreshold() {
+            return pinnedThreshold;
+        }
+
+        public void setPinnedThreshold(long pinnedThreshold) {
+            this.pinnedThreshold = pinnedThreshold;
+        }
+    }
+
+    public static class Tracing {
+
+        /**
+         * When enabled, repository, service and REST calls are traced for the classes whose logger is at debug level.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Share of the traced calls logged with their arguments and result, between 0 and 1; all of them are timed.
+         */
+        private double sampleRate = 0.01;
+
+        /**
+         * Logged arguments and results are cut after this number of characters.
+         */
+        private int maxPayloadLength = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getMaxPayloadLength() {
+            return maxPayloadLength;
+        }
+
+        public void setMaxPayloadLength(int maxPayloadLength) {
+            this.maxPayloadLength = maxPayloadLength;
+        }
+    }
+
+    public static class Suggest {
+
+        /**
+         * Upper bound on the number of suggestions a client can ask for.
+         */
+        private int maxResults = 20;
+
+        /**
+         * Number of prefixes whose suggestions are kept by each node.
+         */
+        private long cacheMaximumSize = 10000;
+
+        /**
+         * Suggestions of a prefix are served from the cache of the node for this long, so index changes show up after
+         * at most this delay.
+         */
+        private long cacheTimeToLive = 10; // in seconds
+
+        public int getMaxResults() {
+            return maxResults;
+        }
+
+        public void setMaxResults(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        public long getCacheMaximumSize() {
+            return cacheMaximumSize;
+        }
+
+        public void setCacheMaximumSize(long cacheMaximumSize) {
+            this.cacheMaximumSize = cacheMaximumSize;
+        }
+
+        public long getCacheTimeToLive() {
+            return cacheTimeToLive;
+        }
+
+        public void setCacheTimeToLive(long cacheTimeToLive) {
+            this.cacheTimeToLive = cacheTimeToLive;
+        }
+    }
+
+    public static class Bulk {
+
+        /**
+         * Upper bound on the number of entities of a bulk request, which are all saved in one transaction.
+         */
+        private int maxItems = 5000;
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+    }
+
+    public static class Household {
+
+        /**
+         * Number of visits of each pet returned with a household, latest first.
+         */
+        private int recentVisitsPerPet = 5;
+
+        public int getRecentVisitsPerPet() {
+            return recentVisitsPerPet;
+        }
+
+        public void setRecentVisitsPerPet(int recentVisitsPerPet) {
+            this.recentVisitsPerPet = recentVisitsPerPet;
+        }
+    }
+
+    public static class ReadReplicas {
+
+        /**
+         * When enabled, read-only transactions use the replicas, with the credentials and pool settings of spring.datasource.
+         */
+        private boolean enabled = false;
+
+        private List<String> urls = new ArrayList<>();
+
+        /**
+         * Replicas lagging more than this behind the primary, in seconds, are skipped until they catch up.
+         */
+        private long maxLag = 5;
+
+        private long lagCheckInterval = 1000; // in milliseconds
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getUrls() {
+            return urls;
+        }
+
+        public void setUrls(List<String> urls) {
+            this.urls = urls;
+        }
+
+        public long getMaxLag() {
+            return maxLag;
+        }
+
+        public void setMaxLag(long maxLag) {
+            this.maxLag = maxLag;
+        }
+
+        public long getLagCheckInterval() {
+            return lagCheckInterval;
+        }
+
+        public void setLagCheckInterval(long lagCheckInterval) {
+            this.lagCheckInterval = lagCheckInterval;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
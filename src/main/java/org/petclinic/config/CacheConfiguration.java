@@ -1,17 +1,24 @@
 package org.petclinic.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.net.URI;
 import java.util.concurrent.TimeUnit;
 import javax.cache.configuration.MutableConfiguration;
 import javax.cache.expiry.CreatedExpiryPolicy;
 import javax.cache.expiry.Duration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cache.spi.RegionFactory;
 import org.redisson.Redisson;
 import org.redisson.config.ClusterServersConfig;
 import org.redisson.config.Config;
 import org.redisson.config.SingleServerConfig;
 import org.redisson.jcache.configuration.RedissonConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
@@ -36,8 +43,8 @@ public class CacheConfiguration {
         URI redisUri = URI.create(jHipsterProperties.getCache().getRedis().getServer()[0]);
 
         Config config = new Config();
-        // Fix Hibernate lazy initialization https://github.com/jhipster/generator-jhipster/issues/22889
-        config.setCodec(new org.redisson.codec.SerializationCodec());
+        // Hibernate proxies and lazy collections are written as plain entities and collections, see HibernateKryo5Codec
+        config.setCodec(new HibernateKryo5Codec(CacheConfiguration.class.getClassLoader()));
         if (jHipsterProperties.getCache().getRedis().isCluster()) {
             ClusterServersConfig clusterServersConfig = config
                 .useClusterServers()
@@ -68,9 +75,45 @@ public class CacheConfiguration {
         return RedissonConfiguration.fromInstance(Redisson.create(config), jcacheConfig);
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "application.near-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public NearCacheRegionFactory nearCacheRegionFactory(
+        javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        return new NearCacheRegionFactory(
+            ((RedissonConfiguration<Object, Object>) jcacheConfiguration).getRedisson(),
+            applicationProperties.getNearCache(),
+            meterRegistry
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.near-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public NearCacheEndpoint nearCacheEndpoint(NearCacheRegionFactory nearCacheRegionFactory) {
+        return new NearCacheEndpoint(nearCacheRegionFactory);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(
+        javax.cache.CacheManager cm,
+        ObjectProvider<NearCacheRegionFactory> nearCacheRegionFactory
+    ) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cm);
+            nearCacheRegionFactory.ifAvailable(regionFactory ->
+                hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory)
+            );
+        };
+    }
+
     @Bean
     public JCacheManagerCustomizer cacheManagerCustomizer(javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration) {
         return cm -> {
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, jcacheConfiguration);
+            // Update timestamps must outlive every cached query result, otherwise stale results would be served
+            createCache(cm, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, eternal(jcacheConfiguration));
             createCache(cm, org.petclinic.domain.Owner.class.getName(), jcacheConfiguration);
             createCache(cm, org.petclinic.domain.Pet.class.getName(), jcacheConfiguration);
             createCache(cm, org.petclinic.domain.PetType.class.getName(), jcacheConfiguration);
@@ -80,10 +123,22 @@ public class CacheConfiguration {
             createCache(cm, org.petclinic.domain.Vet.class.getName() + ".specialties", jcacheConfiguration);
             createCache(cm, org.petclinic.domain.VetSpecialty.class.getName(), jcacheConfiguration);
             createCache(cm, org.petclinic.domain.Visit.class.getName(), jcacheConfiguration);
+            createCache(cm, org.petclinic.service.HouseholdService.HOUSEHOLDS_CACHE, jcacheConfiguration);
             // jhipster-needle-redis-add-entry
         };
     }
 
+    private javax.cache.configuration.Configuration<Object, Object> eternal(
+        javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration
+    ) {
+        MutableConfiguration<Object, Object> eternalConfig = new MutableConfiguration<>();
+        eternalConfig.setStatisticsEnabled(true);
+        return RedissonConfiguration.fromInstance(
+            ((RedissonConfiguration<Object, Object>) jcacheConfiguration).getRedisson(),
+            eternalConfig
+        );
+    }
+
     private void createCache(
         javax.cache.CacheManager cm,
         String cacheName,
@@ -0,0 +1,191 @@
+package org.petclinic.config;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Registration;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.DefaultSerializers;
+import com.esotericsoftware.kryo.serializers.JavaSerializer;
+import com.esotericsoftware.kryo.util.DefaultClassResolver;
+import com.esotericsoftware.kryo.util.DefaultInstantiatorStrategy;
+import com.esotericsoftware.kryo.util.MapReferenceResolver;
+import jakarta.persistence.Id;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+import org.redisson.codec.Kryo5Codec;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Kryo codec for the Redisson caches that understands Hibernate proxies and persistent collections.
+ * <p>
+ * Proxies are written as their entity class: an initialized proxy with the state of its target, an uninitialized one
+ * with its identifier only. Persistent collections are read back as the plain {@link HashSet}, {@link ArrayList} or
+ * {@link HashMap} they stand for, or as {@code null} when they were never initialized, since an empty collection would
+ * pass for their content. Nothing Hibernate generates at runtime ends up in Redis, so entries can be read back by any
+ * node, outside of any session.
+ */
+public class HibernateKryo5Codec extends Kryo5Codec {
+
+    public HibernateKryo5Codec() {
+        super();
+    }
+
+    public HibernateKryo5Codec(ClassLoader classLoader) {
+        super(classLoader);
+    }
+
+    public HibernateKryo5Codec(ClassLoader classLoader, HibernateKryo5Codec codec) {
+        super(classLoader, codec);
+    }
+
+    @Override
+    protected Kryo createKryo(ClassLoader classLoader) {
+        Kryo kryo = new Kryo(new HibernateClassResolver(), new MapReferenceResolver());
+        if (classLoader != null) {
+            kryo.setClassLoader(classLoader);
+        }
+        kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+        kryo.setRegistrationRequired(false);
+        // Entity graphs may be cyclic, for example through Vet.specialties and Specialty.vets
+        kryo.setReferences(true);
+        kryo.addDefaultSerializer(Throwable.class, new JavaSerializer());
+        kryo.addDefaultSerializer(UUID.class, new DefaultSerializers.UUIDSerializer());
+        kryo.addDefaultSerializer(URI.class, new DefaultSerializers.URISerializer());
+        kryo.addDefaultSerializer(Pattern.class, new DefaultSerializers.PatternSerializer());
+        kryo.addDefaultSerializer(PersistentCollectionSubstitute.class, new PersistentCollectionSerializer());
+        return kryo;
+    }
+
+    /**
+     * Writes Hibernate runtime classes under the name of a class every node has: proxies under their entity class, with
+     * a serializer converting them, and persistent collections under {@link PersistentCollectionSubstitute}.
+     * <p>
+     * The proxy registrations are only used for writing, the entity class is read back with its own registration.
+     */
+    static class HibernateClassResolver extends DefaultClassResolver {
+
+        private final Map<Class<?>, Registration> proxyRegistrations = new ConcurrentHashMap<>();
+
+        @Override
+        public Registration writeClass(Output output, Class type) {
+            if (type != null && HibernateProxy.class.isAssignableFrom(type)) {
+                Class<?> entityClass = type.getSuperclass();
+                super.writeClass(output, entityClass);
+                return proxyRegistrations.computeIfAbsent(type, proxyType ->
+                    new Registration(
+                        entityClass,
+                        new HibernateProxySerializer(kryo.getSerializer(entityClass)),
+                        kryo.getRegistration(entityClass).getId()
+                    )
+                );
+            }
+            if (type != null && PersistentCollection.class.isAssignableFrom(type)) {
+                return super.writeClass(output, PersistentCollectionSubstitute.class);
+            }
+            return super.writeClass(output, type);
+        }
+    }
+
+    /**
+     * Writes a proxy with the serializer of its entity class.
+     */
+    static class HibernateProxySerializer extends Serializer<Object> {
+
+        private static final Map<Class<?>, Field> ID_FIELDS = new ConcurrentHashMap<>();
+
+        private final Serializer entitySerializer;
+
+        HibernateProxySerializer(Serializer entitySerializer) {
+            this.entitySerializer = entitySerializer;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(Kryo kryo, Output output, Object proxy) {
+            LazyInitializer lazyInitializer = ((HibernateProxy) proxy).getHibernateLazyInitializer();
+            Object entity;
+            if (lazyInitializer.isUninitialized()) {
+                Class<?> entityClass = lazyInitializer.getPersistentClass();
+                entity = kryo.newInstance(entityClass);
+                Field idField = ID_FIELDS.computeIfAbsent(entityClass, HibernateProxySerializer::findIdField);
+                ReflectionUtils.setField(idField, entity, lazyInitializer.getInternalIdentifier());
+            } else {
+                entity = lazyInitializer.getImplementation();
+            }
+            entitySerializer.write(kryo, output, entity);
+        }
+
+        @Override
+        public Object read(Kryo kryo, Input input, Class<? extends Object> type) {
+            return entitySerializer.read(kryo, input, type);
+        }
+
+        private static Field findIdField(Class<?> entityClass) {
+            for (Class<?> type = entityClass; type != null; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (field.isAnnotationPresent(Id.class)) {
+                        ReflectionUtils.makeAccessible(field);
+                        return field;
+                    }
+                }
+            }
+            throw new IllegalStateException("No @Id field on " + entityClass.getName());
+        }
+    }
+
+    /**
+     * The class persistent collections are written under, never instantiated.
+     */
+    static final class PersistentCollectionSubstitute {
+
+        private PersistentCollectionSubstitute() {}
+    }
+
+    /**
+     * Writes a persistent collection as the index of the plain collection class it stands for, followed by its content
+     * written with the serializer of that class, or as {@link #UNINITIALIZED} alone, read back as {@code null}.
+     */
+    static class PersistentCollectionSerializer extends Serializer<Object> {
+
+        private static final int UNINITIALIZED = 0;
+
+        private static final List<Class<?>> PLAIN_TYPES = List.of(HashSet.class, ArrayList.class, HashMap.class);
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(Kryo kryo, Output output, Object collection) {
+            if (!((PersistentCollection<?>) collection).wasInitialized()) {
+                output.writeVarInt(UNINITIALIZED, true);
+                return;
+            }
+            Class<?> plainType = collection instanceof Set ? HashSet.class : collection instanceof Map ? HashMap.class : ArrayList.class;
+            output.writeVarInt(PLAIN_TYPES.indexOf(plainType) + 1, true);
+            kryo.getSerializer(plainType).write(kryo, output, collection);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object read(Kryo kryo, Input input, Class<? extends Object> type) {
+            int plainTypeIndex = input.readVarInt(true);
+            if (plainTypeIndex == UNINITIALIZED) {
+                return null;
+            }
+            Class<?> plainType = PLAIN_TYPES.get(plainTypeIndex - 1);
+            return kryo.getSerializer(plainType).read(kryo, input, (Class) plainType);
+        }
+    }
+}
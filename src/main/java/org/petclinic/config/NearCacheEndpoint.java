@@ -0,0 +1,43 @@
+package org.petclinic.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint reporting the size and statistics of the local tier of every near cached second-level cache region.
+ */
+@Endpoint(id = "nearcaches")
+public class NearCacheEndpoint {
+
+    private final NearCacheRegionFactory nearCacheRegionFactory;
+
+    public NearCacheEndpoint(NearCacheRegionFactory nearCacheRegionFactory) {
+        this.nearCacheRegionFactory = nearCacheRegionFactory;
+    }
+
+    @ReadOperation
+    public Map<String, NearCacheDescriptor> nearCaches() {
+        Map<String, NearCacheDescriptor> descriptors = new LinkedHashMap<>();
+        nearCacheRegionFactory
+            .getLocalCaches()
+            .forEach((regionName, localCache) -> {
+                CacheStats stats = localCache.stats();
+                descriptors.put(
+                    regionName,
+                    new NearCacheDescriptor(
+                        localCache.estimatedSize(),
+                        stats.hitCount(),
+                        stats.missCount(),
+                        stats.hitRate(),
+                        stats.evictionCount()
+                    )
+                );
+            });
+        return descriptors;
+    }
+
+    public record NearCacheDescriptor(long size, long hitCount, long missCount, double hitRate, long evictionCount) {}
+}
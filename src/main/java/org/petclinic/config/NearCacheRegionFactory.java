@@ -0,0 +1,141 @@
+package org.petclinic.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hibernate region factory adding a local Caffeine tier in front of the Redisson JCache regions.
+ * <p>
+ * Entity, collection and query result regions are near cached. The update timestamps region is not, as it must always
+ * reflect the latest write of every node. Local tiers are kept coherent through invalidation messages published on a
+ * Redis topic; a node may still serve a stale entry for the time it takes to deliver the message, and never longer than
+ * the local time to live.
+ */
+public class NearCacheRegionFactory extends JCacheRegionFactory {
+
+    private static final String INVALIDATION_TOPIC = "hibernate:near-cache:invalidations";
+
+    private final Logger log = LoggerFactory.getLogger(NearCacheRegionFactory.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, NearCacheStorageAccess> regions = new ConcurrentHashMap<>();
+
+    private final RTopic invalidationTopic;
+
+    private final ApplicationProperties.NearCache nearCacheProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private int listenerId = -1;
+
+    public NearCacheRegionFactory(
+        RedissonClient redissonClient,
+        ApplicationProperties.NearCache nearCacheProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.invalidationTopic = redissonClient.getTopic(INVALIDATION_TOPIC);
+        this.nearCacheProperties = nearCacheProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Get the local tier of every near cached region.
+     *
+     * @return the local caches, keyed by region name.
+     */
+    public Map<String, Cache<Object, Object>> getLocalCaches() {
+        Map<String, Cache<Object, Object>> localCaches = new TreeMap<>();
+        regions.forEach((regionName, region) -> localCaches.put(regionName, region.getLocalCache()));
+        return Collections.unmodifiableMap(localCaches);
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        super.prepareForUse(settings, configValues);
+        listenerId = invalidationTopic.addListener(Invalidation.class, (channel, invalidation) -> onInvalidation(invalidation));
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        if (listenerId != -1) {
+            invalidationTopic.removeListener(listenerId);
+            listenerId = -1;
+        }
+        regions.clear();
+        super.releaseFromUse();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(
+        DomainDataRegionConfig regionConfig,
+        DomainDataRegionBuildingContext buildingContext
+    ) {
+        return nearCache(regionConfig.getRegionName(), super.createDomainDataStorageAccess(regionConfig, buildingContext));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        StorageAccess storageAccess = super.createQueryResultsRegionStorageAccess(regionName, sessionFactory);
+        if (storageAccess instanceof DomainDataStorageAccess domainDataStorageAccess) {
+            return nearCache(regionName, domainDataStorageAccess);
+        }
+        return storageAccess;
+    }
+
+    private NearCacheStorageAccess nearCache(String regionName, DomainDataStorageAccess delegate) {
+        Cache<Object, Object> localCache = Caffeine.newBuilder()
+            .maximumSize(nearCacheProperties.getMaximumSize(regionName))
+            .expireAfterWrite(Duration.ofSeconds(nearCacheProperties.getTimeToLive(regionName)))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, regionName, Tags.of("cache.manager", "nearCache"));
+        NearCacheStorageAccess region = new NearCacheStorageAccess(delegate, localCache, key -> publish(regionName, key));
+        regions.put(regionName, region);
+        return region;
+    }
+
+    private void publish(String regionName, Object key) {
+        try {
+            invalidationTopic.publish(new Invalidation(nodeId, regionName, key));
+        } catch (RuntimeException e) {
+            log.warn("Could not publish the invalidation of {} in region {}: {}", key, regionName, e.getMessage());
+        }
+    }
+
+    private void onInvalidation(Invalidation invalidation) {
+        if (nodeId.equals(invalidation.nodeId())) {
+            return;
+        }
+        NearCacheStorageAccess region = regions.get(invalidation.regionName());
+        if (region != null) {
+            region.invalidateLocally(invalidation.key());
+        }
+    }
+
+    /**
+     * Message telling the other nodes to drop a key, or every key when {@code key} is {@code null}, from their local tier.
+     */
+    record Invalidation(String nodeId, String regionName, Object key) implements Serializable {}
+}
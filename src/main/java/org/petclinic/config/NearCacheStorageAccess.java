@@ -0,0 +1,114 @@
+package org.petclinic.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.util.function.Consumer;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Second-level cache storage keeping a bounded local copy of the entries of a Redis backed region.
+ * <p>
+ * Reads are served from the local tier when possible. Every write goes to Redis first, then to the local tier, and is
+ * then broadcast so that the other nodes drop their local copy of the entry.
+ */
+class NearCacheStorageAccess implements DomainDataStorageAccess {
+
+    private final DomainDataStorageAccess delegate;
+
+    private final Cache<Object, Object> localCache;
+
+    private final Consumer<Object> invalidationPublisher;
+
+    /**
+     * @param delegate the Redis backed storage.
+     * @param localCache the local tier.
+     * @param invalidationPublisher broadcasts the invalidation of a key to the other nodes, {@code null} meaning every key.
+     */
+    NearCacheStorageAccess(DomainDataStorageAccess delegate, Cache<Object, Object> localCache, Consumer<Object> invalidationPublisher) {
+        this.delegate = delegate;
+        this.localCache = localCache;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    Cache<Object, Object> getLocalCache() {
+        return localCache;
+    }
+
+    /**
+     * Drop local entries following a write made on another node.
+     *
+     * @param key the key to drop, {@code null} to drop every entry.
+     */
+    void invalidateLocally(Object key) {
+        if (key == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(key);
+        }
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Object value = localCache.getIfPresent(key);
+        if (value == null) {
+            value = delegate.getFromCache(key, session);
+            if (value != null) {
+                localCache.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void putFromLoad(Object key, Object value, SharedSessionContractImplementor session) {
+        // Loaded state is what every node would load too, so the other nodes need not be told
+        delegate.putFromLoad(key, value, session);
+        localCache.put(key, value);
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        delegate.putIntoCache(key, value, session);
+        localCache.put(key, value);
+        invalidationPublisher.accept(key);
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        delegate.removeFromCache(key, session);
+        localCache.invalidate(key);
+        invalidationPublisher.accept(key);
+    }
+
+    @Override
+    public void clearCache(SharedSessionContractImplementor session) {
+        delegate.clearCache(session);
+        localCache.invalidateAll();
+        invalidationPublisher.accept(null);
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return localCache.getIfPresent(key) != null || delegate.contains(key);
+    }
+
+    @Override
+    public void evictData() {
+        delegate.evictData();
+        localCache.invalidateAll();
+        invalidationPublisher.accept(null);
+    }
+
+    @Override
+    public void evictData(Object key) {
+        delegate.evictData(key);
+        localCache.invalidate(key);
+        invalidationPublisher.accept(key);
+    }
+
+    @Override
+    public void release() {
+        localCache.invalidateAll();
+        delegate.release();
+    }
+}
@@ -0,0 +1,204 @@
+package org.petclinic.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Hands out connections to the MySQL replicas, for the read-only transactions.
+ * <p>
+ * Each replica has its own Hikari pool, with the settings of the primary pool and its own {@code hikaricp} metrics,
+ * tagged with the pool name. Replicas are used in turn, skipping those whose lag, checked every
+ * {@code application.read-replicas.lag-check-interval}, is unknown or above {@code application.read-replicas.max-lag}.
+ * Connections come from the primary when no replica is usable, and for the rest of a request once it has written, so
+ * that it reads its own writes.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final String STICKY_PRIMARY_ATTRIBUTE = ReadReplicaRoutingDataSource.class.getName() + ".STICKY_PRIMARY";
+
+    private final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final long maxLag;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final Counter stickyPrimaryReads;
+
+    private final Counter fallbackPrimaryReads;
+
+    public ReadReplicaRoutingDataSource(
+        HikariDataSource primary,
+        ApplicationProperties.ReadReplicas properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.primary = primary;
+        this.maxLag = properties.getMaxLag();
+        for (String url : properties.getUrls()) {
+            // Not started here: a replica that is down when the application starts is only skipped
+            HikariDataSource dataSource = new HikariDataSource();
+            primary.copyStateTo(dataSource);
+            dataSource.setJdbcUrl(url);
+            dataSource.setPoolName(primary.getPoolName() + "-replica-" + (replicas.size() + 1));
+            dataSource.setReadOnly(true);
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            Replica replica = new Replica(dataSource);
+            Gauge.builder("read.replica.lag", replica, r -> r.lag)
+                .description("Replication lag of the replica in seconds, NaN when unknown")
+                .baseUnit("seconds")
+                .tag("pool", dataSource.getPoolName())
+                .register(meterRegistry);
+            replicas.add(replica);
+        }
+        this.stickyPrimaryReads = primaryReadsCounter(meterRegistry, "sticky");
+        this.fallbackPrimaryReads = primaryReadsCounter(meterRegistry, "fallback");
+        checkLag();
+    }
+
+    private static Counter primaryReadsCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("read.replica.primary.reads")
+            .description("Read-only connections taken from the primary instead of a replica")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Wrap the primary so that taking one of its connections makes the current request read from the primary.
+     *
+     * @param primary the primary data source.
+     * @return the wrapped primary data source.
+     */
+    public static DataSource stickingToPrimary(DataSource primary) {
+        return new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                stickToPrimary();
+                return super.getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                stickToPrimary();
+                return super.getConnection(username, password);
+            }
+        };
+    }
+
+    private static void stickToPrimary() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(STICKY_PRIMARY_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static boolean isStickyPrimary() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        return (
+            requestAttributes != null && requestAttributes.getAttribute(STICKY_PRIMARY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null
+        );
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return determineTarget().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTarget().getConnection(username, password);
+    }
+
+    private DataSource determineTarget() {
+        if (isStickyPrimary()) {
+            stickyPrimaryReads.increment();
+            return primary;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isUsable(maxLag)) {
+                return replica.dataSource;
+            }
+        }
+        fallbackPrimaryReads.increment();
+        return primary;
+    }
+
+    /**
+     * Check the replication lag of the replicas.
+     * <p>
+     * A replica is usable when it replicates with a lag up to {@code max-lag}, or does not replicate at all, like a
+     * managed read endpoint. It is skipped when its replication is stopped or when it cannot be reached.
+     */
+    @Scheduled(fixedDelayString = "${application.read-replicas.lag-check-interval:1000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            double lag;
+            try (
+                Connection connection = replica.dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SHOW REPLICA STATUS")
+            ) {
+                if (resultSet.next()) {
+                    long secondsBehindSource = resultSet.getLong("Seconds_Behind_Source");
+                    lag = resultSet.wasNull() ? Double.NaN : secondsBehindSource;
+                } else {
+                    lag = 0;
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Hikari fails with a runtime exception when the pool of a replica cannot start
+                log.debug("Cannot check the lag of {}: {}", replica.dataSource.getPoolName(), e.getMessage());
+                lag = Double.NaN;
+            }
+            boolean wasUsable = replica.isUsable(maxLag);
+            replica.lag = lag;
+            if (wasUsable && !replica.isUsable(maxLag)) {
+                log.warn("Replica {} is skipped until it catches up, lag: {}s", replica.dataSource.getPoolName(), lag);
+            } else if (!wasUsable && replica.isUsable(maxLag)) {
+                log.info("Replica {} is used, lag: {}s", replica.dataSource.getPoolName(), lag);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+
+        private volatile double lag = Double.NaN;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private boolean isUsable(long maxLag) {
+            return lag <= maxLag; // false while the lag is unknown, NaN
+        }
+    }
+}
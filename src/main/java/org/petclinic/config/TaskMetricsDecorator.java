@@ -0,0 +1,55 @@
+package org.petclinic.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Records, for one executor, how long tasks wait before they start, how long they run and how many are running.
+ * <p>
+ * Published as {@code task.executor.wait}, {@code task.executor.execution} and {@code task.executor.active}, tagged with
+ * the executor name and whether it runs on platform or virtual threads, so both modes can be compared: a saturated
+ * platform pool shows up as growing wait times, virtual threads as a number of running tasks well above the number of
+ * carrier threads.
+ */
+final class TaskMetricsDecorator implements TaskDecorator {
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final Timer waitTimer;
+
+    private final Timer executionTimer;
+
+    TaskMetricsDecorator(MeterRegistry meterRegistry, String name, boolean virtualThreads) {
+        Tags tags = Tags.of("name", name, "threads", virtualThreads ? "virtual" : "platform");
+        Gauge.builder("task.executor.active", active, AtomicInteger::get).description("Tasks running").tags(tags).register(meterRegistry);
+        this.waitTimer = Timer.builder("task.executor.wait")
+            .description("Time between the submission of a task and its start")
+            .tags(tags)
+            .register(meterRegistry);
+        this.executionTimer = Timer.builder("task.executor.execution")
+            .description("Time spent running a task")
+            .tags(tags)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        long submitted = System.nanoTime();
+        return () -> {
+            long started = System.nanoTime();
+            waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            try {
+                runnable.run();
+            } finally {
+                active.decrementAndGet();
+                executionTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package org.petclinic.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports virtual threads pinned to their carrier thread, which happens when they block inside a {@code synchronized}
+ * block or a native frame: the carrier cannot run other virtual threads meanwhile.
+ * <p>
+ * Pinned periods longer than the threshold are read from the {@code jdk.VirtualThreadPinned} JFR event and recorded by
+ * the {@code jvm.threads.virtual.pinned} timer; the first occurrence of each pinning stack is logged as a warning. The
+ * number of carrier threads is published as {@code jvm.threads.virtual.carriers}.
+ */
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int LOGGED_FRAMES = 15;
+
+    private final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private final Duration threshold;
+
+    private final Timer pinnedTimer;
+
+    private final Set<String> reportedStacks = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.threshold = Duration.ofMillis(applicationProperties.getVirtualThreads().getPinnedThreshold());
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+            .description("Time virtual threads spent blocked while pinned to their carrier thread")
+            .register(meterRegistry);
+        Gauge.builder("jvm.threads.virtual.carriers", VirtualThreadPinningMonitor::carrierThreads)
+            .description("Carrier threads of the virtual thread scheduler")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.debug("Monitoring virtual threads pinned for more than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        if (event.getStackTrace() == null) {
+            return;
+        }
+        List<String> frames = event
+            .getStackTrace()
+            .getFrames()
+            .stream()
+            .filter(RecordedFrame::isJavaFrame)
+            .limit(LOGGED_FRAMES)
+            .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+            .toList();
+        String stack = frames.stream().collect(Collectors.joining("\n\tat ", "\tat ", ""));
+        if (reportedStacks.add(stack)) {
+            log.warn(
+                "Virtual thread pinned to its carrier for {} ms, further occurrences are only counted:\n{}",
+                event.getDuration().toMillis(),
+                stack
+            );
+        }
+    }
+
+    private static int carrierThreads() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+}
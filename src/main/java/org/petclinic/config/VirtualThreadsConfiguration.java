@@ -0,0 +1,39 @@
+package org.petclinic.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Executor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Runs the application on virtual threads when {@code spring.threads.virtual.enabled} is set, on Java 21 or later.
+ * <p>
+ * Spring Boot switches its own executors, Undertow is handled here: servlet requests are dispatched to a virtual thread
+ * each instead of the worker pool. The {@code @Async} executor is switched in {@link AsyncConfiguration}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfiguration {
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowVirtualThreadsCustomizer(MeterRegistry meterRegistry) {
+        VirtualThreadTaskExecutor virtualThreads = new VirtualThreadTaskExecutor("undertow-");
+        TaskMetricsDecorator taskMetrics = new TaskMetricsDecorator(meterRegistry, "undertow", true);
+        Executor executor = task -> virtualThreads.execute(taskMetrics.decorate(task));
+        return factory ->
+            factory.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.setExecutor(executor).setAsyncExecutor(executor));
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        return new VirtualThreadPinningMonitor(applicationProperties, meterRegistry);
+    }
+}
@@ -10,16 +10,22 @@ import java.io.Serializable;
 @Entity
 @Table(name = "owner")
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "owner")
+@org.springframework.data.elasticsearch.annotations.Setting(settingPath = "config/elasticsearch/suggest-settings.json")
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Owner implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ownerSequenceGenerator")
+    @SequenceGenerator(name = "ownerSequenceGenerator", sequenceName = "owner_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Size(max = 30)
     @Column(name = "first_name", length = 30)
     @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Text)
@@ -27,7 +33,17 @@ public class Owner implements Serializable {
 
     @Size(max = 30)
     @Column(name = "last_name", length = 30)
-    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Text)
+    @org.springframework.data.elasticsearch.annotations.MultiField(
+        mainField = @org.springframework.data.elasticsearch.annotations.Field(
+            type = org.springframework.data.elasticsearch.annotations.FieldType.Text
+        ),
+        otherFields = @org.springframework.data.elasticsearch.annotations.InnerField(
+            suffix = "suggest",
+            type = org.springframework.data.elasticsearch.annotations.FieldType.Text,
+            analyzer = "suggest_prefixes",
+            searchAnalyzer = "suggest_search"
+        )
+    )
     private String lastName;
 
     @Size(max = 255)
@@ -42,7 +58,17 @@ public class Owner implements Serializable {
 
     @Size(max = 20)
     @Column(name = "telephone", length = 20)
-    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Text)
+    @org.springframework.data.elasticsearch.annotations.MultiField(
+        mainField = @org.springframework.data.elasticsearch.annotations.Field(
+            type = org.springframework.data.elasticsearch.annotations.FieldType.Text
+        ),
+        otherFields = @org.springframework.data.elasticsearch.annotations.InnerField(
+            suffix = "suggest",
+            type = org.springframework.data.elasticsearch.annotations.FieldType.Text,
+            analyzer = "suggest_digit_prefixes",
+            searchAnalyzer = "suggest_digits"
+        )
+    )
     private String telephone;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
@@ -60,6 +86,14 @@ public class Owner implements Serializable {
         this.id = id;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getFirstName() {
         return this.firstName;
     }
@@ -149,6 +183,7 @@ public class Owner implements Serializable {
     public String toString() {
         return "Owner{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", firstName='" + getFirstName() + "'" +
             ", lastName='" + getLastName() + "'" +
             ", address='" + getAddress() + "'" +
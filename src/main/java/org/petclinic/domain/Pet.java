@@ -11,19 +11,35 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "pet")
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "pet")
+@org.springframework.data.elasticsearch.annotations.Setting(settingPath = "config/elasticsearch/suggest-settings.json")
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Pet implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "petSequenceGenerator")
+    @SequenceGenerator(name = "petSequenceGenerator", sequenceName = "pet_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Size(max = 30)
     @Column(name = "name", length = 30)
-    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Text)
+    @org.springframework.data.elasticsearch.annotations.MultiField(
+        mainField = @org.springframework.data.elasticsearch.annotations.Field(
+            type = org.springframework.data.elasticsearch.annotations.FieldType.Text
+        ),
+        otherFields = @org.springframework.data.elasticsearch.annotations.InnerField(
+            suffix = "suggest",
+            type = org.springframework.data.elasticsearch.annotations.FieldType.Text,
+            analyzer = "suggest_prefixes",
+            searchAnalyzer = "suggest_search"
+        )
+    )
     private String name;
 
     @Column(name = "birth_date")
@@ -50,6 +66,14 @@ public class Pet implements Serializable {
         this.id = id;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return this.name;
     }
@@ -126,6 +150,7 @@ public class Pet implements Serializable {
     public String toString() {
         return "Pet{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", name='" + getName() + "'" +
             ", birthDate='" + getBirthDate() + "'" +
             "}";
@@ -3,12 +3,15 @@ package org.petclinic.domain;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A PetType.
  */
 @Entity
 @Table(name = "pet_type")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "pettype")
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class PetType implements Serializable {
@@ -16,10 +19,15 @@ public class PetType implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "petTypeSequenceGenerator")
+    @SequenceGenerator(name = "petTypeSequenceGenerator", sequenceName = "pet_type_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Size(max = 80)
     @Column(name = "name", length = 80)
     @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Text)
@@ -40,6 +48,14 @@ public class PetType implements Serializable {
         this.id = id;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return this.name;
     }
@@ -77,6 +93,7 @@ public class PetType implements Serializable {
     public String toString() {
         return "PetType{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", name='" + getName() + "'" +
             "}";
     }
@@ -0,0 +1,170 @@
+package org.petclinic.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import org.petclinic.domain.enumeration.SearchReindexStatus;
+
+/**
+ * Progress of the rebuild of one search index, committed after every chunk so an interrupted rebuild can be resumed.
+ */
+@Entity
+@Table(name = "search_reindex_checkpoint")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SearchReindexCheckpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Size(max = 50)
+    @Column(name = "entity_type", length = 50)
+    private String entityType;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "index_name", length = 100, nullable = false)
+    private String indexName;
+
+    @NotNull
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @NotNull
+    @Column(name = "indexed_count", nullable = false)
+    private Long indexedCount;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 10, nullable = false)
+    private SearchReindexStatus status;
+
+    @NotNull
+    @Column(name = "started_date", nullable = false)
+    private Instant startedDate;
+
+    @NotNull
+    @Column(name = "last_modified_date", nullable = false)
+    private Instant lastModifiedDate;
+
+    public String getEntityType() {
+        return this.entityType;
+    }
+
+    public SearchReindexCheckpoint entityType(String entityType) {
+        this.setEntityType(entityType);
+        return this;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getIndexName() {
+        return this.indexName;
+    }
+
+    public SearchReindexCheckpoint indexName(String indexName) {
+        this.setIndexName(indexName);
+        return this;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public Long getLastId() {
+        return this.lastId;
+    }
+
+    public SearchReindexCheckpoint lastId(Long lastId) {
+        this.setLastId(lastId);
+        return this;
+    }
+
+    public void setLastId(Long lastId) {
+        this.lastId = lastId;
+    }
+
+    public Long getIndexedCount() {
+        return this.indexedCount;
+    }
+
+    public SearchReindexCheckpoint indexedCount(Long indexedCount) {
+        this.setIndexedCount(indexedCount);
+        return this;
+    }
+
+    public void setIndexedCount(Long indexedCount) {
+        this.indexedCount = indexedCount;
+    }
+
+    public SearchReindexStatus getStatus() {
+        return this.status;
+    }
+
+    public SearchReindexCheckpoint status(SearchReindexStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(SearchReindexStatus status) {
+        this.status = status;
+    }
+
+    public Instant getStartedDate() {
+        return this.startedDate;
+    }
+
+    public SearchReindexCheckpoint startedDate(Instant startedDate) {
+        this.setStartedDate(startedDate);
+        return this;
+    }
+
+    public void setStartedDate(Instant startedDate) {
+        this.startedDate = startedDate;
+    }
+
+    public Instant getLastModifiedDate() {
+        return this.lastModifiedDate;
+    }
+
+    public SearchReindexCheckpoint lastModifiedDate(Instant lastModifiedDate) {
+        this.setLastModifiedDate(lastModifiedDate);
+        return this;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchReindexCheckpoint)) {
+            return false;
+        }
+        return getEntityType() != null && getEntityType().equals(((SearchReindexCheckpoint) o).getEntityType());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchReindexCheckpoint{" +
+            "entityType='" + getEntityType() + "'" +
+            ", indexName='" + getIndexName() + "'" +
+            ", lastId=" + getLastId() +
+            ", indexedCount=" + getIndexedCount() +
+            ", status='" + getStatus() + "'" +
+            ", startedDate='" + getStartedDate() + "'" +
+            ", lastModifiedDate='" + getLastModifiedDate() + "'" +
+            "}";
+    }
+}
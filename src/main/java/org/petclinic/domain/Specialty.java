@@ -6,12 +6,15 @@ import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Specialty.
  */
 @Entity
 @Table(name = "specialty")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "specialty")
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Specialty implements Serializable {
@@ -19,10 +22,15 @@ public class Specialty implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "specialtySequenceGenerator")
+    @SequenceGenerator(name = "specialtySequenceGenerator", sequenceName = "specialty_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Size(max = 80)
     @Column(name = "name", length = 80)
     @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Text)
@@ -48,6 +56,14 @@ public class Specialty implements Serializable {
         this.id = id;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return this.name;
     }
@@ -116,6 +132,7 @@ public class Specialty implements Serializable {
     public String toString() {
         return "Specialty{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", name='" + getName() + "'" +
             "}";
     }
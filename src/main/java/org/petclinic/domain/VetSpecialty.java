@@ -16,10 +16,15 @@ public class VetSpecialty implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vetSpecialtySequenceGenerator")
+    @SequenceGenerator(name = "vetSpecialtySequenceGenerator", sequenceName = "vet_specialty_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -35,6 +40,14 @@ public class VetSpecialty implements Serializable {
         this.id = id;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -58,6 +71,7 @@ public class VetSpecialty implements Serializable {
     public String toString() {
         return "VetSpecialty{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -5,35 +5,49 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.time.LocalDate;
+import org.hibernate.annotations.OptimisticLock;
 
 /**
  * A Visit.
+ * <p>
+ * Indexed as a {@link org.petclinic.domain.search.VisitSearchDocument}.
  */
 @Entity
 @Table(name = "visit")
-@org.springframework.data.elasticsearch.annotations.Document(indexName = "visit")
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Visit implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "visitSequenceGenerator")
+    @SequenceGenerator(name = "visitSequenceGenerator", sequenceName = "visit_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Column(name = "visit_date")
     private LocalDate visitDate;
 
     @Size(max = 255)
     @Column(name = "description", length = 255)
-    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Text)
     private String description;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "type", "owner" }, allowSetters = true)
     private Pet pet;
 
+    /**
+     * The owner of the pet, copied from it so that the visit history of an owner is one range of the
+     * {@code (owner_id, visit_date, id)} index. Kept in sync by the services, it does not change the version.
+     */
+    @OptimisticLock(excluded = true)
+    @Column(name = "owner_id")
+    private Long ownerId;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -49,6 +63,14 @@ public class Visit implements Serializable {
         this.id = id;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public LocalDate getVisitDate() {
         return this.visitDate;
     }
@@ -88,6 +110,19 @@ public class Visit implements Serializable {
         return this;
     }
 
+    public Long getOwnerId() {
+        return this.ownerId;
+    }
+
+    public Visit ownerId(Long ownerId) {
+        this.setOwnerId(ownerId);
+        return this;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -112,6 +147,7 @@ public class Visit implements Serializable {
     public String toString() {
         return "Visit{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", visitDate='" + getVisitDate() + "'" +
             ", description='" + getDescription() + "'" +
             "}";
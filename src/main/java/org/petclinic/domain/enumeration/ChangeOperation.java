@@ -0,0 +1,10 @@
+package org.petclinic.domain.enumeration;
+
+/**
+ * The ChangeOperation enumeration.
+ */
+public enum ChangeOperation {
+    CREATE,
+    UPDATE,
+    DELETE,
+}
@@ -0,0 +1,9 @@
+package org.petclinic.domain.enumeration;
+
+/**
+ * The SearchIndexOperation enumeration.
+ */
+public enum SearchIndexOperation {
+    INDEX,
+    DELETE,
+}
@@ -0,0 +1,10 @@
+package org.petclinic.domain.enumeration;
+
+/**
+ * The SearchReindexStatus enumeration.
+ */
+public enum SearchReindexStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+}
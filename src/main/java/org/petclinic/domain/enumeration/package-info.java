@@ -0,0 +1,4 @@
+/**
+ * Enumerations used by the domain objects.
+ */
+package org.petclinic.domain.enumeration;
@@ -0,0 +1,214 @@
+package org.petclinic.domain.search;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
+
+/**
+ * The document of the {@code visit} index: a {@link org.petclinic.domain.Visit} with the fields of its pet, pet type
+ * and owner, so that a single query can match visits on any of them.
+ * <p>
+ * Names are analysed text with an exact {@code .keyword} sub-field for filtering, sorting and aggregations. Changes to a
+ * pet, pet type or owner are propagated to the documents of their visits by the search index outbox.
+ */
+@Document(indexName = "visit")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class VisitSearchDocument implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long id;
+
+    @Field(type = FieldType.Date, format = DateFormat.date)
+    private LocalDate visitDate;
+
+    @Field(type = FieldType.Text)
+    private String description;
+
+    @Field(type = FieldType.Long)
+    private Long petId;
+
+    @MultiField(mainField = @Field(type = FieldType.Text), otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword))
+    private String petName;
+
+    @Field(type = FieldType.Long)
+    private Long petTypeId;
+
+    @MultiField(mainField = @Field(type = FieldType.Text), otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword))
+    private String petType;
+
+    @Field(type = FieldType.Long)
+    private Long ownerId;
+
+    @MultiField(mainField = @Field(type = FieldType.Text), otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword))
+    private String ownerFirstName;
+
+    @MultiField(mainField = @Field(type = FieldType.Text), otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword))
+    private String ownerLastName;
+
+    @MultiField(mainField = @Field(type = FieldType.Text), otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword))
+    private String ownerCity;
+
+    @PersistenceCreator
+    public VisitSearchDocument() {}
+
+    /**
+     * Constructor used by the JPQL projections of {@link org.petclinic.repository.VisitRepository}.
+     */
+    public VisitSearchDocument(
+        Long id,
+        LocalDate visitDate,
+        String description,
+        Long petId,
+        String petName,
+        Long petTypeId,
+        String petType,
+        Long ownerId,
+        String ownerFirstName,
+        String ownerLastName,
+        String ownerCity
+    ) {
+        this.id = id;
+        this.visitDate = visitDate;
+        this.description = description;
+        this.petId = petId;
+        this.petName = petName;
+        this.petTypeId = petTypeId;
+        this.petType = petType;
+        this.ownerId = ownerId;
+        this.ownerFirstName = ownerFirstName;
+        this.ownerLastName = ownerLastName;
+        this.ownerCity = ownerCity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getVisitDate() {
+        return visitDate;
+    }
+
+    public void setVisitDate(LocalDate visitDate) {
+        this.visitDate = visitDate;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getPetId() {
+        return petId;
+    }
+
+    public void setPetId(Long petId) {
+        this.petId = petId;
+    }
+
+    public String getPetName() {
+        return petName;
+    }
+
+    public void setPetName(String petName) {
+        this.petName = petName;
+    }
+
+    public Long getPetTypeId() {
+        return petTypeId;
+    }
+
+    public void setPetTypeId(Long petTypeId) {
+        this.petTypeId = petTypeId;
+    }
+
+    public String getPetType() {
+        return petType;
+    }
+
+    public void setPetType(String petType) {
+        this.petType = petType;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getOwnerFirstName() {
+        return ownerFirstName;
+    }
+
+    public void setOwnerFirstName(String ownerFirstName) {
+        this.ownerFirstName = ownerFirstName;
+    }
+
+    public String getOwnerLastName() {
+        return ownerLastName;
+    }
+
+    public void setOwnerLastName(String ownerLastName) {
+        this.ownerLastName = ownerLastName;
+    }
+
+    public String getOwnerCity() {
+        return ownerCity;
+    }
+
+    public void setOwnerCity(String ownerCity) {
+        this.ownerCity = ownerCity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VisitSearchDocument)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((VisitSearchDocument) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "VisitSearchDocument{" +
+            "id=" + getId() +
+            ", visitDate='" + getVisitDate() + "'" +
+            ", description='" + getDescription() + "'" +
+            ", petId=" + getPetId() +
+            ", petName='" + getPetName() + "'" +
+            ", petTypeId=" + getPetTypeId() +
+            ", petType='" + getPetType() + "'" +
+            ", ownerId=" + getOwnerId() +
+            ", ownerFirstName='" + getOwnerFirstName() + "'" +
+            ", ownerLastName='" + getOwnerLastName() + "'" +
+            ", ownerCity='" + getOwnerCity() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Elasticsearch documents which are not JPA entities.
+ */
+package org.petclinic.domain.search;
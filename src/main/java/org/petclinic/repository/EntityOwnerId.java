@@ -0,0 +1,10 @@
+package org.petclinic.repository;
+
+/**
+ * Projection of an entity on the id of the owner it belongs to.
+ */
+public interface EntityOwnerId {
+    Long getId();
+
+    Long getOwnerId();
+}
@@ -0,0 +1,10 @@
+package org.petclinic.repository;
+
+/**
+ * Projection of an entity on its version and on the version of the related entities whose fields its DTO embeds.
+ */
+public interface EntityVersions {
+    Long getVersion();
+
+    Long getEmbeddedVersion();
+}
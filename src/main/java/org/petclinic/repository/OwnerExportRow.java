@@ -0,0 +1,6 @@
+package org.petclinic.repository;
+
+/**
+ * An owner as exported for reporting, read without loading any entity.
+ */
+public record OwnerExportRow(Long id, String firstName, String lastName, String address, String city, String telephone) {}
@@ -1,7 +1,14 @@
 package org.petclinic.repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.petclinic.domain.Owner;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,25 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface OwnerRepository extends JpaRepository<Owner, Long> {}
+public interface OwnerRepository extends JpaRepository<Owner, Long>, VersionedRepository, SearchIndexedRepository {
+    Slice<Owner> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    String SELECT_EXPORT_ROWS =
+        "select new org.petclinic.repository.OwnerExportRow(owner.id, owner.firstName, owner.lastName, owner.address," +
+        " owner.city, owner.telephone) from Owner owner";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = VisitRepository.EXPORT_FETCH_SIZE))
+    @Query(SELECT_EXPORT_ROWS + " order by owner.id")
+    Stream<OwnerExportRow> streamExportRows();
+
+    /**
+     * Stream the owners with at least one visit in the given date range.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = VisitRepository.EXPORT_FETCH_SIZE))
+    @Query(
+        SELECT_EXPORT_ROWS +
+        " where exists (select visit.id from Visit visit where visit.pet.owner = owner and visit.visitDate between :from and :to)" +
+        " order by owner.id"
+    )
+    Stream<OwnerExportRow> streamExportRowsByVisitDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
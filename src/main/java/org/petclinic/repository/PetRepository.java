@@ -1,10 +1,12 @@
 package org.petclinic.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.petclinic.domain.Pet;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,7 +15,7 @@ import org.springframework.stereotype.Repository;
  * Spring Data JPA repository for the Pet entity.
  */
 @Repository
-public interface PetRepository extends JpaRepository<Pet, Long> {
+public interface PetRepository extends JpaRepository<Pet, Long>, SearchIndexedRepository {
     default Optional<Pet> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -26,15 +28,42 @@ public interface PetRepository extends JpaRepository<Pet, Long> {
         return this.findAllWithToOneRelationships(pageable);
     }
 
-    @Query(
-        value = "select pet from Pet pet left join fetch pet.type left join fetch pet.owner",
-        countQuery = "select count(pet) from Pet pet"
-    )
+    default List<Pet> findAllWithEagerRelationships(Collection<Long> ids) {
+        return this.findAllWithToOneRelationships(ids);
+    }
+
+    default Slice<Pet> findAllWithEagerRelationshipsByIdGreaterThan(Long id, Pageable pageable) {
+        return this.findAllWithToOneRelationshipsByIdGreaterThan(id, pageable);
+    }
+
+    // The pet type is resolved through the second-level cache rather than joined on every page
+    @Query(value = "select pet from Pet pet left join fetch pet.owner", countQuery = "select count(pet) from Pet pet")
     Page<Pet> findAllWithToOneRelationships(Pageable pageable);
 
     @Query("select pet from Pet pet left join fetch pet.type left join fetch pet.owner")
     List<Pet> findAllWithToOneRelationships();
 
-    @Query("select pet from Pet pet left join fetch pet.type left join fetch pet.owner where pet.id =:id")
+    @Query("select pet from Pet pet left join fetch pet.type left join fetch pet.owner where pet.id in :ids")
+    List<Pet> findAllWithToOneRelationships(@Param("ids") Collection<Long> ids);
+
+    @Query("select pet from Pet pet left join fetch pet.type left join fetch pet.owner where pet.id > :id order by pet.id")
+    Slice<Pet> findAllWithToOneRelationshipsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query("select pet from Pet pet left join fetch pet.owner where pet.id =:id")
     Optional<Pet> findOneWithToOneRelationships(@Param("id") Long id);
+
+    @Query("select pet from Pet pet left join fetch pet.type where pet.owner.id = :ownerId order by pet.name, pet.id")
+    List<Pet> findAllWithTypeByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("select pet.owner.id from Pet pet where pet.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+    @Query("select pet.id as id, pet.owner.id as ownerId from Pet pet where pet.id in :ids")
+    List<EntityOwnerId> findOwnerIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        "select pet.version as version, coalesce(type.version, 0) + coalesce(owner.version, 0) as embeddedVersion" +
+        " from Pet pet left join pet.type type left join pet.owner owner where pet.id = :id"
+    )
+    Optional<EntityVersions> findVersionsById(@Param("id") Long id);
 }
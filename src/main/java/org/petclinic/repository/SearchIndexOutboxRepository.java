@@ -0,0 +1,28 @@
+package org.petclinic.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import org.petclinic.domain.SearchIndexOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the SearchIndexOutbox entity.
+ */
+@Repository
+public interface SearchIndexOutboxRepository extends JpaRepository<SearchIndexOutbox, Long> {
+    /**
+     * Lock the oldest pending entries. Rows already locked by another node are skipped
+     * ({@code -2} is Hibernate's {@code SKIP LOCKED} timeout), so several relays can drain concurrently.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select searchIndexOutbox from SearchIndexOutbox searchIndexOutbox order by searchIndexOutbox.id")
+    List<SearchIndexOutbox> findBatchForUpdate(Pageable pageable);
+
+    @Query("select min(searchIndexOutbox.createdDate) from SearchIndexOutbox searchIndexOutbox")
+    Instant findOldestCreatedDate();
+}
@@ -0,0 +1,16 @@
+package org.petclinic.repository;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Reads which of some entities still exist without loading them, for the rebuild of their search index.
+ */
+@NoRepositoryBean
+public interface SearchIndexedRepository {
+    @Query("select entity.id from #{#entityName} entity where entity.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,15 @@
+package org.petclinic.repository;
+
+import java.util.List;
+import org.petclinic.domain.SearchReindexCheckpoint;
+import org.petclinic.domain.enumeration.SearchReindexStatus;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the SearchReindexCheckpoint entity.
+ */
+@Repository
+public interface SearchReindexCheckpointRepository extends JpaRepository<SearchReindexCheckpoint, String> {
+    List<SearchReindexCheckpoint> findAllByStatus(SearchReindexStatus status);
+}
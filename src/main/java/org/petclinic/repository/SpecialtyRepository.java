@@ -1,6 +1,11 @@
 package org.petclinic.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.petclinic.domain.Specialty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +14,14 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface SpecialtyRepository extends JpaRepository<Specialty, Long> {}
+public interface SpecialtyRepository extends JpaRepository<Specialty, Long>, VersionedRepository, SearchIndexedRepository {
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Specialty> findAll();
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<Specialty> findAll(Pageable pageable);
+
+    List<Specialty> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
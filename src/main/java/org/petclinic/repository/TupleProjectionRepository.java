@@ -0,0 +1,80 @@
+package org.petclinic.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository reading some attributes of an entity as tuples, selecting their columns alone instead of loading the
+ * entity and its associations.
+ * <p>
+ * Attributes are given by their path, such as {@code type.name}. An association is left joined once for all the
+ * attributes selected or sorted through it, except for its id, read from the foreign key. The query is written as JPQL
+ * rather than built with the criteria API, so that Hibernate caches its plan for the following pages.
+ */
+@Repository
+public class TupleProjectionRepository {
+
+    private static final String ALIAS = "entity";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Get a page of some attributes of an entity.
+     *
+     * @param domainClass the class of the entity.
+     * @param attributePaths the paths of the attributes to select.
+     * @param pageable the pagination information, sorted by attribute paths.
+     * @return the page of tuples, with the values of the attributes in the order of their paths.
+     * @throws org.springframework.data.mapping.PropertyReferenceException if a path is not one of the entity.
+     */
+    public Page<Object[]> findAll(Class<?> domainClass, List<String> attributePaths, Pageable pageable) {
+        String entityName = entityManager.getMetamodel().entity(domainClass).getName();
+        Map<String, String> joins = new LinkedHashMap<>();
+        String select = attributePaths
+            .stream()
+            .map(attributePath -> expression(domainClass, attributePath, joins))
+            .collect(Collectors.joining(", "));
+        String orderBy = pageable
+            .getSort()
+            .stream()
+            .map(order -> expression(domainClass, order.getProperty(), joins) + " " + order.getDirection().name().toLowerCase(Locale.ROOT))
+            .collect(Collectors.joining(", "));
+        StringBuilder query = new StringBuilder("select ").append(select).append(" from ").append(entityName).append(' ').append(ALIAS);
+        joins.forEach((join, joinAlias) -> query.append(" left join ").append(join).append(' ').append(joinAlias));
+        if (!orderBy.isEmpty()) {
+            query.append(" order by ").append(orderBy);
+        }
+
+        TypedQuery<Object[]> typedQuery = entityManager.createQuery(query.toString(), Object[].class);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<Object[]> content = typedQuery.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () ->
+            entityManager.createQuery("select count(" + ALIAS + ") from " + entityName + " " + ALIAS, Long.class).getSingleResult()
+        );
+    }
+
+    private static String expression(Class<?> domainClass, String attributePath, Map<String, String> joins) {
+        // Resolving the path checks it, so that only attribute names end up in the query
+        List<String> names = PropertyPath.from(attributePath, domainClass).stream().map(PropertyPath::getSegment).toList();
+        int joined = Math.max(names.get(names.size() - 1).equals("id") ? names.size() - 2 : names.size() - 1, 0);
+        String source = ALIAS;
+        for (String name : names.subList(0, joined)) {
+            source = joins.computeIfAbsent(source + "." + name, join -> "join" + joins.size());
+        }
+        return source + "." + String.join(".", names.subList(joined, names.size()));
+    }
+}
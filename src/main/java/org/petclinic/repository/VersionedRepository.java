@@ -0,0 +1,15 @@
+package org.petclinic.repository;
+
+import java.util.Optional;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Reads the version of a versioned entity without loading it, to answer the conditional requests of the REST resources.
+ */
+@NoRepositoryBean
+public interface VersionedRepository {
+    @Query("select entity.version from #{#entityName} entity where entity.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
@@ -1,11 +1,13 @@
 package org.petclinic.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.petclinic.domain.Vet;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,9 +15,15 @@ import org.springframework.stereotype.Repository;
  *
  * When extending this class, extend VetRepositoryWithBagRelationships too.
  * For more information refer to https://github.com/jhipster/generator-jhipster/issues/17990.
+ * The read paths of the REST API go through VetRepositoryWithSpecialtyNames, which does not hydrate entities.
  */
 @Repository
-public interface VetRepository extends VetRepositoryWithBagRelationships, JpaRepository<Vet, Long> {
+public interface VetRepository
+    extends
+        VetRepositoryWithBagRelationships,
+        VetRepositoryWithSpecialtyNames,
+        JpaRepository<Vet, Long>,
+        SearchIndexedRepository {
     default Optional<Vet> findOneWithEagerRelationships(Long id) {
         return this.fetchBagRelationships(this.findById(id));
     }
@@ -27,4 +35,20 @@ public interface VetRepository extends VetRepositoryWithBagRelationships, JpaRep
     default Page<Vet> findAllWithEagerRelationships(Pageable pageable) {
         return this.fetchBagRelationships(this.findAll(pageable));
     }
+
+    default List<Vet> findAllWithEagerRelationships(Collection<Long> ids) {
+        return this.fetchBagRelationships(this.findAllById(ids));
+    }
+
+    default List<Vet> findAllWithEagerRelationshipsByIdGreaterThan(Long id, Pageable pageable) {
+        return this.fetchBagRelationships(this.findByIdGreaterThanOrderByIdAsc(id, pageable));
+    }
+
+    List<Vet> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query(
+        "select vet.version as version, coalesce(sum(specialty.version), 0) as embeddedVersion" +
+        " from Vet vet left join vet.specialties specialty where vet.id = :id group by vet.version"
+    )
+    Optional<EntityVersions> findVersionsById(@Param("id") Long id);
 }
@@ -0,0 +1,11 @@
+package org.petclinic.repository;
+
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface VetRepositoryWithSpecialtyNames {
+    Page<VetWithSpecialtyNames> findAllWithSpecialtyNames(Pageable pageable);
+
+    Optional<VetWithSpecialtyNames> findOneWithSpecialtyNames(Long id);
+}
@@ -0,0 +1,61 @@
+package org.petclinic.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Utility repository reading vets with the versions and names of their specialties in a single query, grouped by vet,
+ * instead of loading the entities and then their specialties bag.
+ * <p>
+ * The name is concatenated to the id and version through {@code coalesce}, as the aggregate skips null entries. On MySQL the
+ * aggregate is {@code group_concat}, truncated at {@code group_concat_max_len}, which the prod data source raises.
+ */
+public class VetRepositoryWithSpecialtyNamesImpl implements VetRepositoryWithSpecialtyNames {
+
+    private static final String ID_PARAMETER = "id";
+
+    private static final String SELECT_VETS =
+        "select new org.petclinic.repository.VetWithSpecialtyNames(vet.id, vet.version, vet.firstName, vet.lastName," +
+        " listagg(cast(specialty.id as String) || ':' || cast(specialty.version as String) || coalesce(':' || specialty.name, ''), '" +
+        VetWithSpecialtyNames.SPECIALTY_SEPARATOR +
+        "') within group (order by specialty.name))" +
+        " from Vet vet left join vet.specialties specialty";
+
+    private static final String GROUP_BY_VET = " group by vet.id, vet.version, vet.firstName, vet.lastName";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<VetWithSpecialtyNames> findAllWithSpecialtyNames(Pageable pageable) {
+        TypedQuery<VetWithSpecialtyNames> query = entityManager.createQuery(
+            QueryUtils.applySorting(SELECT_VETS + GROUP_BY_VET, pageable.getSort(), "vet"),
+            VetWithSpecialtyNames.class
+        );
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<VetWithSpecialtyNames> content = query.getResultList();
+        // The count query only runs when the total cannot be deduced from the page itself
+        return PageableExecutionUtils.getPage(content, pageable, () ->
+            entityManager.createQuery("select count(vet) from Vet vet", Long.class).getSingleResult()
+        );
+    }
+
+    @Override
+    public Optional<VetWithSpecialtyNames> findOneWithSpecialtyNames(Long id) {
+        return entityManager
+            .createQuery(SELECT_VETS + " where vet.id = :id" + GROUP_BY_VET, VetWithSpecialtyNames.class)
+            .setParameter(ID_PARAMETER, id)
+            .getResultList()
+            .stream()
+            .findFirst();
+    }
+}
@@ -1,6 +1,8 @@
 package org.petclinic.repository;
 
+import java.util.List;
 import org.petclinic.domain.VetSpecialty;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +11,6 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface VetSpecialtyRepository extends JpaRepository<VetSpecialty, Long> {}
+public interface VetSpecialtyRepository extends JpaRepository<VetSpecialty, Long>, VersionedRepository, SearchIndexedRepository {
+    List<VetSpecialty> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
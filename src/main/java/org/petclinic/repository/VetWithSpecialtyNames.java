@@ -0,0 +1,15 @@
+package org.petclinic.repository;
+
+/**
+ * A vet with the ids, versions and names of its specialties, read in one query by {@link VetRepositoryWithSpecialtyNames}.
+ * <p>
+ * The specialties are aggregated by the database into a single column: one {@code id:version:name} entry per specialty,
+ * or {@code id:version} alone for a specialty without name, ordered by name and separated by
+ * {@link #SPECIALTY_SEPARATOR}, or {@code null} when the vet has none.
+ */
+public record VetWithSpecialtyNames(Long id, long version, String firstName, String lastName, String specialties) {
+    /**
+     * ASCII record separator, which is not expected in a specialty name.
+     */
+    public static final String SPECIALTY_SEPARATOR = "\u001e";
+}
@@ -0,0 +1,16 @@
+package org.petclinic.repository;
+
+import java.time.LocalDate;
+
+/**
+ * A visit as exported for reporting, with the pet and owner it belongs to, read without loading any entity.
+ */
+public record VisitExportRow(
+    Long id,
+    LocalDate visitDate,
+    String description,
+    Long petId,
+    String petName,
+    Long ownerId,
+    String ownerLastName
+) {}
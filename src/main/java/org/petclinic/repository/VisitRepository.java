@@ -1,10 +1,17 @@
 package org.petclinic.repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.petclinic.domain.Visit;
+import org.petclinic.domain.search.VisitSearchDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,7 +20,7 @@ import org.springframework.stereotype.Repository;
  * Spring Data JPA repository for the Visit entity.
  */
 @Repository
-public interface VisitRepository extends JpaRepository<Visit, Long> {
+public interface VisitRepository extends JpaRepository<Visit, Long>, SearchIndexedRepository {
     default Optional<Visit> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -26,12 +33,161 @@ public interface VisitRepository extends JpaRepository<Visit, Long> {
         return this.findAllWithToOneRelationships(pageable);
     }
 
+    default List<Visit> findAllWithEagerRelationships(Collection<Long> ids) {
+        return this.findAllWithToOneRelationships(ids);
+    }
+
+    default Slice<Visit> findAllWithEagerRelationshipsByIdGreaterThan(Long id, Pageable pageable) {
+        return this.findAllWithToOneRelationshipsByIdGreaterThan(id, pageable);
+    }
+
     @Query(value = "select visit from Visit visit left join fetch visit.pet", countQuery = "select count(visit) from Visit visit")
     Page<Visit> findAllWithToOneRelationships(Pageable pageable);
 
     @Query("select visit from Visit visit left join fetch visit.pet")
     List<Visit> findAllWithToOneRelationships();
 
+    @Query("select visit from Visit visit left join fetch visit.pet where visit.id in :ids")
+    List<Visit> findAllWithToOneRelationships(@Param("ids") Collection<Long> ids);
+
+    @Query("select visit from Visit visit left join fetch visit.pet where visit.id > :id order by visit.id")
+    Slice<Visit> findAllWithToOneRelationshipsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query("select visit from Visit visit left join fetch visit.pet where visit.visitDate is not null")
+    Slice<Visit> findAllWithToOneRelationshipsByVisitDateNotNull(Pageable pageable);
+
+    @Query(
+        "select visit from Visit visit left join fetch visit.pet where (visit.visitDate, visit.id) > (:visitDate, :id) order by visit.visitDate asc, visit.id asc"
+    )
+    Slice<Visit> findAllWithToOneRelationshipsByVisitDateAndIdAfter(
+        @Param("visitDate") LocalDate visitDate,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    @Query(
+        "select visit from Visit visit left join fetch visit.pet where (visit.visitDate, visit.id) < (:visitDate, :id) order by visit.visitDate desc, visit.id desc"
+    )
+    Slice<Visit> findAllWithToOneRelationshipsByVisitDateAndIdBefore(
+        @Param("visitDate") LocalDate visitDate,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    // The visit history of a pet is a range of the (pet_id, visit_date, id) index, read backwards
+    @Query(
+        "select visit from Visit visit left join fetch visit.pet where visit.pet.id = :petId and visit.visitDate is not null" +
+        " order by visit.visitDate desc, visit.id desc"
+    )
+    Slice<Visit> findAllWithToOneRelationshipsByPetId(@Param("petId") Long petId, Pageable pageable);
+
+    @Query(
+        "select visit from Visit visit left join fetch visit.pet where visit.pet.id = :petId" +
+        " and (visit.visitDate, visit.id) < (:visitDate, :id) order by visit.visitDate desc, visit.id desc"
+    )
+    Slice<Visit> findAllWithToOneRelationshipsByPetIdAndVisitDateAndIdBefore(
+        @Param("petId") Long petId,
+        @Param("visitDate") LocalDate visitDate,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    // The visit history of an owner is a range of the (owner_id, visit_date, id) index, read backwards
+    @Query(
+        "select visit from Visit visit left join fetch visit.pet where visit.ownerId = :ownerId and visit.visitDate is not null" +
+        " order by visit.visitDate desc, visit.id desc"
+    )
+    Slice<Visit> findAllWithToOneRelationshipsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query(
+        "select visit from Visit visit left join fetch visit.pet where visit.ownerId = :ownerId" +
+        " and (visit.visitDate, visit.id) < (:visitDate, :id) order by visit.visitDate desc, visit.id desc"
+    )
+    Slice<Visit> findAllWithToOneRelationshipsByOwnerIdAndVisitDateAndIdBefore(
+        @Param("ownerId") Long ownerId,
+        @Param("visitDate") LocalDate visitDate,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    /**
+     * Copy the current owner of some pets to their visits.
+     *
+     * @param petIds the ids of the pets.
+     * @return the number of visits of the pets.
+     */
+    @Modifying
+    @Query("update Visit visit set visit.ownerId = (select pet.owner.id from Pet pet where pet = visit.pet) where visit.pet.id in :petIds")
+    int updateOwnerIdByPetIdIn(@Param("petIds") Collection<Long> petIds);
+
     @Query("select visit from Visit visit left join fetch visit.pet where visit.id =:id")
     Optional<Visit> findOneWithToOneRelationships(@Param("id") Long id);
+
+    @Query("select visit.pet.owner.id from Visit visit where visit.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+    @Query("select visit.id as id, visit.pet.owner.id as ownerId from Visit visit where visit.id in :ids")
+    List<EntityOwnerId> findOwnerIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    String SELECT_SEARCH_DOCUMENTS =
+        "select new org.petclinic.domain.search.VisitSearchDocument(visit.id, visit.visitDate, visit.description," +
+        " pet.id, pet.name, type.id, type.name, owner.id, owner.firstName, owner.lastName, owner.city)" +
+        " from Visit visit left join visit.pet pet left join pet.type type left join pet.owner owner";
+
+    @Query(SELECT_SEARCH_DOCUMENTS + " where visit.id in :ids")
+    List<VisitSearchDocument> findSearchDocumentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_SEARCH_DOCUMENTS + " where visit.id > :id order by visit.id")
+    Slice<VisitSearchDocument> findSearchDocumentsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Rows fetched from the database per round-trip when streaming an export; on MySQL, the connection needs
+     * {@code useCursorFetch} for the driver to honour it instead of reading the whole result.
+     */
+    String EXPORT_FETCH_SIZE = "1000";
+
+    String SELECT_EXPORT_ROWS =
+        "select new org.petclinic.repository.VisitExportRow(visit.id, visit.visitDate, visit.description," +
+        " pet.id, pet.name, owner.id, owner.lastName)" +
+        " from Visit visit left join visit.pet pet left join pet.owner owner";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_EXPORT_ROWS + " order by visit.id")
+    Stream<VisitExportRow> streamExportRows();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_EXPORT_ROWS + " where visit.visitDate between :from and :to order by visit.visitDate, visit.id")
+    Stream<VisitExportRow> streamExportRowsByVisitDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Get the latest visits of each pet of an owner, ranked in one query with a window function.
+     *
+     * @param ownerId the id of the owner.
+     * @param limit the maximum number of visits per pet.
+     * @return the visits, latest first, with their pet unfetched.
+     */
+    @Query(
+        "select visit from Visit visit where visit.id in (" +
+        "select ranked.id from (" +
+        "select recent.id as id, row_number() over (" +
+        "partition by recent.pet.id order by recent.visitDate desc nulls last, recent.id desc) as recency" +
+        " from Visit recent where recent.pet.owner.id = :ownerId) ranked where ranked.recency <= :limit)" +
+        " order by visit.visitDate desc nulls last, visit.id desc"
+    )
+    List<Visit> findLatestPerPetByOwnerId(@Param("ownerId") Long ownerId, @Param("limit") int limit);
+
+    @Query("select visit.id from Visit visit where visit.pet.id in :petIds")
+    List<Long> findIdsByPetIdIn(@Param("petIds") Collection<Long> petIds);
+
+    @Query("select visit.id from Visit visit where visit.pet.owner.id in :ownerIds")
+    List<Long> findIdsByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds);
+
+    @Query("select visit.id from Visit visit where visit.pet.type.id in :petTypeIds")
+    List<Long> findIdsByPetTypeIdIn(@Param("petTypeIds") Collection<Long> petTypeIds);
+
+    @Query(
+        "select visit.version as version, coalesce(pet.version, 0) as embeddedVersion" +
+        " from Visit visit left join visit.pet pet where visit.id = :id"
+    )
+    Optional<EntityVersions> findVersionsById(@Param("id") Long id);
 }
@@ -0,0 +1,39 @@
+package org.petclinic.repository.search;
+
+import java.util.Locale;
+
+/**
+ * Thrown when a search query is rejected by the {@link SearchQueryCompiler}, before it reaches Elasticsearch.
+ */
+public class InvalidSearchQueryException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Reason {
+        SYNTAX,
+        WILDCARD,
+        REGEX,
+        FUZZY,
+        RANGE,
+        BOOST,
+        SHORT_PREFIX,
+        TOO_LONG,
+        TOO_MANY_CLAUSES,
+        TOO_DEEP;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private final Reason reason;
+
+    public InvalidSearchQueryException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
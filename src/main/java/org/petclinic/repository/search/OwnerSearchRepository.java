@@ -1,16 +1,19 @@
 package org.petclinic.repository.search;
 
-import co.elastic.clients.elasticsearch._types.query_dsl.QueryStringQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import java.util.Collection;
 import java.util.List;
 import org.petclinic.domain.Owner;
 import org.petclinic.repository.OwnerRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
 import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 import org.springframework.scheduling.annotation.Async;
@@ -25,26 +28,41 @@ interface OwnerSearchRepositoryInternal {
 
     Page<Owner> search(Query query);
 
+    List<Owner> suggest(String prefix, int size);
+
     @Async
     void index(Owner entity);
 
+    List<Owner> indexAll(Collection<Long> ids);
+
     @Async
     void deleteFromIndexById(Long id);
 }
 
 class OwnerSearchRepositoryInternalImpl implements OwnerSearchRepositoryInternal {
 
+    private static final FetchSourceFilter SUGGEST_SOURCE_FILTER = new FetchSourceFilter(
+        new String[] { "id", "firstName", "lastName", "telephone" },
+        null
+    );
+
     private final ElasticsearchTemplate elasticsearchTemplate;
     private final OwnerRepository repository;
+    private final SearchQueryCompiler searchQueryCompiler;
 
-    OwnerSearchRepositoryInternalImpl(ElasticsearchTemplate elasticsearchTemplate, OwnerRepository repository) {
+    OwnerSearchRepositoryInternalImpl(
+        ElasticsearchTemplate elasticsearchTemplate,
+        OwnerRepository repository,
+        SearchQueryCompiler searchQueryCompiler
+    ) {
         this.elasticsearchTemplate = elasticsearchTemplate;
         this.repository = repository;
+        this.searchQueryCompiler = searchQueryCompiler;
     }
 
     @Override
     public Page<Owner> search(String query, Pageable pageable) {
-        NativeQuery nativeQuery = new NativeQuery(QueryStringQuery.of(qs -> qs.query(query))._toQuery());
+        NativeQuery nativeQuery = new NativeQuery(searchQueryCompiler.compile("owner", query));
         return search(nativeQuery.setPageable(pageable));
     }
 
@@ -55,11 +73,37 @@ class OwnerSearchRepositoryInternalImpl implements OwnerSearchRepositoryInternal
         return new PageImpl<>(hits, query.getPageable(), searchHits.getTotalHits());
     }
 
+    @Override
+    public List<Owner> suggest(String prefix, int size) {
+        NativeQuery nativeQuery = NativeQuery.builder()
+            .withQuery(q ->
+                q.bool(b ->
+                    b
+                        .should(s -> s.match(m -> m.field("lastName.suggest").query(prefix).operator(Operator.And)))
+                        .should(s -> s.match(m -> m.field("telephone.suggest").query(prefix)))
+                )
+            )
+            .withSourceFilter(SUGGEST_SOURCE_FILTER)
+            .withPageable(PageRequest.ofSize(size))
+            .withTrackTotalHits(false)
+            .build();
+        return elasticsearchTemplate.search(nativeQuery, Owner.class).map(SearchHit::getContent).stream().toList();
+    }
+
     @Override
     public void index(Owner entity) {
         repository.findById(entity.getId()).ifPresent(elasticsearchTemplate::save);
     }
 
+    @Override
+    public List<Owner> indexAll(Collection<Long> ids) {
+        List<Owner> entities = repository.findAllById(ids);
+        if (!entities.isEmpty()) {
+            elasticsearchTemplate.save(entities);
+        }
+        return entities;
+    }
+
     @Override
     public void deleteFromIndexById(Long id) {
         elasticsearchTemplate.delete(String.valueOf(id), Owner.class);
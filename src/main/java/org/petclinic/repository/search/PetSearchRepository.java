@@ -1,16 +1,19 @@
 package org.petclinic.repository.search;
 
-import co.elastic.clients.elasticsearch._types.query_dsl.QueryStringQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import java.util.Collection;
 import java.util.List;
 import org.petclinic.domain.Pet;
 import org.petclinic.repository.PetRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
 import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 import org.springframework.scheduling.annotation.Async;
@@ -25,26 +28,41 @@ interface PetSearchRepositoryInternal {
 
     Page<Pet> search(Query query);
 
+    List<Pet> suggest(String prefix, int size);
+
     @Async
     void index(Pet entity);
 
+    List<Pet> indexAll(Collection<Long> ids);
+
     @Async
     void deleteFromIndexById(Long id);
 }
 
 class PetSearchRepositoryInternalImpl implements PetSearchRepositoryInternal {
 
+    private static final FetchSourceFilter SUGGEST_SOURCE_FILTER = new FetchSourceFilter(
+        new String[] { "id", "name", "owner.id", "owner.lastName" },
+        null
+    );
+
     private final ElasticsearchTemplate elasticsearchTemplate;
     private final PetRepository repository;
+    private final SearchQueryCompiler searchQueryCompiler;
 
-    PetSearchRepositoryInternalImpl(ElasticsearchTemplate elasticsearchTemplate, PetRepository repository) {
+    PetSearchRepositoryInternalImpl(
+        ElasticsearchTemplate elasticsearchTemplate,
+        PetRepository repository,
+        SearchQueryCompiler searchQueryCompiler
+    ) {
         this.elasticsearchTemplate = elasticsearchTemplate;
         this.repository = repository;
+        this.searchQueryCompiler = searchQueryCompiler;
     }
 
     @Override
     public Page<Pet> search(String query, Pageable pageable) {
-        NativeQuery nativeQuery = new NativeQuery(QueryStringQuery.of(qs -> qs.query(query))._toQuery());
+        NativeQuery nativeQuery = new NativeQuery(searchQueryCompiler.compile("pet", query));
         return search(nativeQuery.setPageable(pageable));
     }
 
@@ -55,11 +73,31 @@ class PetSearchRepositoryInternalImpl implements PetSearchRepositoryInternal {
         return new PageImpl<>(hits, query.getPageable(), searchHits.getTotalHits());
     }
 
+    @Override
+    public List<Pet> suggest(String prefix, int size) {
+        NativeQuery nativeQuery = NativeQuery.builder()
+            .withQuery(q -> q.match(m -> m.field("name.suggest").query(prefix).operator(Operator.And)))
+            .withSourceFilter(SUGGEST_SOURCE_FILTER)
+            .withPageable(PageRequest.ofSize(size))
+            .withTrackTotalHits(false)
+            .build();
+        return elasticsearchTemplate.search(nativeQuery, Pet.class).map(SearchHit::getContent).stream().toList();
+    }
+
     @Override
     public void index(Pet entity) {
         repository.findOneWithEagerRelationships(entity.getId()).ifPresent(elasticsearchTemplate::save);
     }
 
+    @Override
+    public List<Pet> indexAll(Collection<Long> ids) {
+        List<Pet> entities = repository.findAllWithEagerRelationships(ids);
+        if (!entities.isEmpty()) {
+            elasticsearchTemplate.save(entities);
+        }
+        return entities;
+    }
+
     @Override
     public void deleteFromIndexById(Long id) {
         elasticsearchTemplate.delete(String.valueOf(id), Pet.class);
@@ -1,6 +1,6 @@
 package org.petclinic.repository.search;
 
-import co.elastic.clients.elasticsearch._types.query_dsl.QueryStringQuery;
+import java.util.Collection;
 import java.util.List;
 import org.petclinic.domain.PetType;
 import org.petclinic.repository.PetTypeRepository;
@@ -28,6 +28,8 @@ interface PetTypeSearchRepositoryInternal {
     @Async
     void index(PetType entity);
 
+    List<PetType> indexAll(Collection<Long> ids);
+
     @Async
     void deleteFromIndexById(Long id);
 }
@@ -36,15 +38,21 @@ class PetTypeSearchRepositoryInternalImpl implements PetTypeSearchRepositoryInte
 
     private final ElasticsearchTemplate elasticsearchTemplate;
     private final PetTypeRepository repository;
+    private final SearchQueryCompiler searchQueryCompiler;
 
-    PetTypeSearchRepositoryInternalImpl(ElasticsearchTemplate elasticsearchTemplate, PetTypeRepository repository) {
+    PetTypeSearchRepositoryInternalImpl(
+        ElasticsearchTemplate elasticsearchTemplate,
+        PetTypeRepository repository,
+        SearchQueryCompiler searchQueryCompiler
+    ) {
         this.elasticsearchTemplate = elasticsearchTemplate;
         this.repository = repository;
+        this.searchQueryCompiler = searchQueryCompiler;
     }
 
     @Override
     public Page<PetType> search(String query, Pageable pageable) {
-        NativeQuery nativeQuery = new NativeQuery(QueryStringQuery.of(qs -> qs.query(query))._toQuery());
+        NativeQuery nativeQuery = new NativeQuery(searchQueryCompiler.compile("pettype", query));
         return search(nativeQuery.setPageable(pageable));
     }
 
@@ -60,6 +68,15 @@ class PetTypeSearchRepositoryInternalImpl implements PetTypeSearchRepositoryInte
         repository.findById(entity.getId()).ifPresent(elasticsearchTemplate::save);
     }
 
+    @Override
+    public List<PetType> indexAll(Collection<Long> ids) {
+        List<PetType> entities = repository.findAllById(ids);
+        if (!entities.isEmpty()) {
+            elasticsearchTemplate.save(entities);
+        }
+        return entities;
+    }
+
     @Override
     public void deleteFromIndexById(Long id) {
         elasticsearchTemplate.delete(String.valueOf(id), PetType.class);
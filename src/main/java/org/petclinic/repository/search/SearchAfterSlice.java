@@ -0,0 +1,37 @@
+package org.petclinic.repository.search;
+
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * A {@link org.springframework.data.domain.Slice} of search results read with {@code search_after}: it knows whether
+ * more results follow without a total hit count, and holds the sort values of its last hit to read the next slice.
+ *
+ * @param <T> the type of the results.
+ */
+public class SearchAfterSlice<T> extends SliceImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Object> nextSearchAfter;
+
+    public SearchAfterSlice(List<T> content, Pageable pageable, List<Object> nextSearchAfter) {
+        super(content, pageable, nextSearchAfter != null);
+        this.nextSearchAfter = nextSearchAfter;
+    }
+
+    /**
+     * @return the sort values of the last hit, to pass as {@code search_after} of the next slice, or {@code null} on
+     * the last slice.
+     */
+    public List<Object> getNextSearchAfter() {
+        return nextSearchAfter;
+    }
+
+    @Override
+    public <U> SearchAfterSlice<U> map(Function<? super T, ? extends U> converter) {
+        return new SearchAfterSlice<>(getConvertedContent(converter), getPageable(), nextSearchAfter);
+    }
+}
@@ -0,0 +1,142 @@
+package org.petclinic.repository.search;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Index level operations used to rebuild the search indices behind their aliases.
+ * <p>
+ * The index name declared by each {@code @Document} is used as an alias pointing to a versioned
+ * index named {@code <alias>-<timestamp>}, so a rebuilt index can be swapped in atomically.
+ */
+@Repository
+public class SearchIndexAdminRepository {
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS").withZone(ZoneOffset.UTC);
+
+    private final ElasticsearchTemplate elasticsearchTemplate;
+
+    public SearchIndexAdminRepository(ElasticsearchTemplate elasticsearchTemplate) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+    }
+
+    public String aliasFor(Class<?> entityClass) {
+        return elasticsearchTemplate.getIndexCoordinatesFor(entityClass).getIndexName();
+    }
+
+    /**
+     * Create an empty versioned index with the settings and mapping of the given entity.
+     *
+     * @param entityClass the indexed entity class.
+     * @return the name of the new index.
+     */
+    public String createVersionedIndex(Class<?> entityClass) {
+        String indexName = aliasFor(entityClass) + "-" + VERSION_FORMAT.format(Instant.now());
+        IndexOperations entityIndexOps = elasticsearchTemplate.indexOps(entityClass);
+        elasticsearchTemplate
+            .indexOps(IndexCoordinates.of(indexName))
+            .create(entityIndexOps.createSettings(entityClass), entityIndexOps.createMapping(entityClass));
+        return indexName;
+    }
+
+    public boolean exists(String indexName) {
+        return elasticsearchTemplate.indexOps(IndexCoordinates.of(indexName)).exists();
+    }
+
+    public void delete(String indexName) {
+        elasticsearchTemplate.indexOps(IndexCoordinates.of(indexName)).delete();
+    }
+
+    public void bulkIndex(List<?> entities, String indexName) {
+        if (!entities.isEmpty()) {
+            elasticsearchTemplate.save(entities, IndexCoordinates.of(indexName));
+        }
+    }
+
+    /**
+     * Index entities whose id has no document in the index yet, keeping the documents already there.
+     *
+     * @param entities the entities to index.
+     * @param idGetter the id of an entity.
+     * @param indexName the name of the index.
+     * @throws BulkFailureException if some entities are rejected for another reason than an existing document.
+     */
+    public <T> void bulkCreate(List<T> entities, Function<T, Long> idGetter, String indexName) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        List<IndexQuery> queries = entities
+            .stream()
+            .map(entity ->
+                new IndexQueryBuilder()
+                    .withId(String.valueOf(idGetter.apply(entity)))
+                    .withObject(entity)
+                    .withOpType(IndexQuery.OpType.CREATE)
+                    .build()
+            )
+            .toList();
+        try {
+            elasticsearchTemplate.bulkIndex(queries, IndexCoordinates.of(indexName));
+        } catch (BulkFailureException e) {
+            Map<String, BulkFailureException.FailureDetails> failures = e
+                .getFailedDocuments()
+                .entrySet()
+                .stream()
+                .filter(failure -> !Integer.valueOf(HttpStatus.CONFLICT.value()).equals(failure.getValue().status()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            if (!failures.isEmpty()) {
+                throw new BulkFailureException(e.getMessage(), failures);
+            }
+        }
+    }
+
+    public void deleteAllById(Class<?> entityClass, Collection<Long> ids, String indexName) {
+        NativeQuery query = NativeQuery.builder().withIds(ids.stream().map(String::valueOf).toList()).build();
+        elasticsearchTemplate.delete(query, entityClass, IndexCoordinates.of(indexName));
+    }
+
+    /**
+     * Atomically point the alias of the entity to the given index, then drop the indices it previously pointed to.
+     * An index created before aliases were introduced, which carries the alias name itself, is removed in the same request.
+     *
+     * @param entityClass the indexed entity class.
+     * @param indexName the index that should receive the alias.
+     */
+    public void swapAlias(Class<?> entityClass, String indexName) {
+        String alias = aliasFor(entityClass);
+        IndexOperations aliasIndexOps = elasticsearchTemplate.indexOps(IndexCoordinates.of(alias));
+        // Resolving the alias name returns either the concrete legacy index or the indices behind the alias
+        Set<String> previousIndices = aliasIndexOps.exists() ? aliasIndexOps.getAliasesForIndex(alias).keySet() : Set.of();
+        AliasActions actions = new AliasActions(
+            new AliasAction.Add(AliasActionParameters.builder().withIndices(indexName).withAliases(alias).build())
+        );
+        for (String previous : previousIndices) {
+            if (previous.equals(alias)) {
+                actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(alias).build()));
+            } else if (!previous.equals(indexName)) {
+                actions.add(new AliasAction.Remove(AliasActionParameters.builder().withIndices(previous).withAliases(alias).build()));
+            }
+        }
+        elasticsearchTemplate.indexOps(IndexCoordinates.of(indexName)).alias(actions);
+        previousIndices.stream().filter(previous -> !previous.equals(alias) && !previous.equals(indexName)).forEach(this::delete);
+    }
+}
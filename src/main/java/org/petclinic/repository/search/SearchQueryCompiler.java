@@ -0,0 +1,342 @@
+package org.petclinic.repository.search;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.MultiMatchQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.repository.search.InvalidSearchQueryException.Reason;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiles the queries typed in the search boxes into bounded Elasticsearch queries, in place of a raw
+ * {@code query_string} query.
+ * <p>
+ * The language is the part of the Lucene syntax the search boxes need: words, quoted phrases and prefixes ending with a
+ * star, optionally qualified by a field name ({@code ownerLastName:Franklin}), combined with {@code AND}, {@code OR},
+ * {@code NOT} or a leading {@code -}, and grouped with parentheses. Clauses without an operator between them are
+ * alternatives, and {@code AND} binds tighter than {@code OR}. Every clause becomes a lenient {@code multi_match} on its
+ * field, or on all the fields of the index, so a word never fails on a numeric field.
+ * <p>
+ * Wildcards other than a final star, regular expressions, fuzzy and proximity operators, ranges and boosts are rejected,
+ * as are prefixes shorter than {@code application.search-index.query.min-prefix-length} and queries over the configured
+ * length, number of clauses or nesting depth. Compiled queries are cached by text.
+ * <p>
+ * The cost of each query, one per clause and {@value #PREFIX_COST} per prefix, is recorded per index by the
+ * {@code search.query.cost} summary, and the rejected queries are counted per index and reason by
+ * {@code search.query.rejected}.
+ */
+@Component
+public class SearchQueryCompiler {
+
+    static final String COST_METRIC = "search.query.cost";
+
+    static final String REJECTED_METRIC = "search.query.rejected";
+
+    static final int PREFIX_COST = 5;
+
+    private static final int PREFIX_MAX_EXPANSIONS = 50;
+
+    private static final int MAX_DEPTH = 4;
+
+    private static final Pattern FIELD_NAME = Pattern.compile("[A-Za-z][A-Za-z0-9_]*(\\.[A-Za-z0-9_]+)*");
+
+    private final ApplicationProperties.SearchIndex.QueryLimits queryLimits;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, CompiledQuery> compiledQueries;
+
+    private final Map<String, DistributionSummary> costs = new ConcurrentHashMap<>();
+
+    public SearchQueryCompiler(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.queryLimits = applicationProperties.getSearchIndex().getQuery();
+        this.meterRegistry = meterRegistry;
+        this.compiledQueries = Caffeine.newBuilder().maximumSize(queryLimits.getCacheMaximumSize()).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, compiledQueries, "searchQueries", Tags.of("cache.manager", "searchQuery"));
+    }
+
+    /**
+     * Compile a search query.
+     *
+     * @param index the name of the searched index, used to tag the metrics.
+     * @param text the query typed by the user.
+     * @return the Elasticsearch query.
+     * @throws InvalidSearchQueryException if the query is malformed or too expensive.
+     */
+    public Query compile(String index, String text) {
+        CompiledQuery compiled;
+        try {
+            compiled = compiledQueries.get(text, this::parse);
+        } catch (InvalidSearchQueryException e) {
+            Counter.builder(REJECTED_METRIC)
+                .description("Search queries rejected before reaching Elasticsearch")
+                .tag("index", index)
+                .tag("reason", e.getReason().tag())
+                .register(meterRegistry)
+                .increment();
+            throw e;
+        }
+        costs
+            .computeIfAbsent(index, name ->
+                DistributionSummary.builder(COST_METRIC)
+                    .description("Cost of the search queries, one per clause and " + PREFIX_COST + " per prefix")
+                    .tag("index", name)
+                    .register(meterRegistry)
+            )
+            .record(compiled.cost());
+        return compiled.query();
+    }
+
+    private CompiledQuery parse(String text) {
+        if (text.length() > queryLimits.getMaxLength()) {
+            throw new InvalidSearchQueryException(Reason.TOO_LONG, "Query longer than " + queryLimits.getMaxLength() + " characters");
+        }
+        Parser parser = new Parser(tokenize(text));
+        Query query = parser.parseQuery();
+        return new CompiledQuery(query, parser.cost);
+    }
+
+    private enum TokenType {
+        LPAREN,
+        RPAREN,
+        AND,
+        OR,
+        NOT,
+        FIELD,
+        WORD,
+        PREFIX,
+        PHRASE,
+    }
+
+    private record Token(TokenType type, String text) {}
+
+    private record CompiledQuery(Query query, int cost) {}
+
+    private List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(new Token(c == '(' ? TokenType.LPAREN : TokenType.RPAREN, String.valueOf(c)));
+                i++;
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new InvalidSearchQueryException(Reason.SYNTAX, "Unterminated phrase");
+                }
+                tokens.add(new Token(TokenType.PHRASE, text.substring(i + 1, end)));
+                i = end + 1;
+            } else if (c == '-' && i + 1 < text.length() && !Character.isWhitespace(text.charAt(i + 1))) {
+                tokens.add(new Token(TokenType.NOT, "-"));
+                i++;
+            } else {
+                int end = i;
+                while (end < text.length() && !Character.isWhitespace(text.charAt(end)) && "()\"".indexOf(text.charAt(end)) < 0) {
+                    end++;
+                }
+                addWord(tokens, text.substring(i, end));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    private void addWord(List<Token> tokens, String word) {
+        switch (word) {
+            case "AND" -> tokens.add(new Token(TokenType.AND, word));
+            case "OR" -> tokens.add(new Token(TokenType.OR, word));
+            case "NOT" -> tokens.add(new Token(TokenType.NOT, word));
+            default -> {
+                int colon = word.indexOf(':');
+                if (colon >= 0) {
+                    String field = word.substring(0, colon);
+                    if (!FIELD_NAME.matcher(field).matches()) {
+                        throw new InvalidSearchQueryException(Reason.SYNTAX, "Invalid field name '" + field + "'");
+                    }
+                    tokens.add(new Token(TokenType.FIELD, field));
+                    word = word.substring(colon + 1);
+                    if (word.isEmpty()) {
+                        return;
+                    }
+                }
+                tokens.add(valueToken(word));
+            }
+        }
+    }
+
+    private Token valueToken(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            switch (c) {
+                case '*', '?' -> {
+                    if (c == '?' || i < word.length() - 1 || i == 0) {
+                        throw new InvalidSearchQueryException(Reason.WILDCARD, "Wildcards are only supported at the end of a word");
+                    }
+                }
+                case '/' -> throw new InvalidSearchQueryException(Reason.REGEX, "Regular expressions are not supported");
+                case '~' -> throw new InvalidSearchQueryException(Reason.FUZZY, "Fuzzy and proximity searches are not supported");
+                case '[', ']', '{', '}', '<', '>', '=' -> throw new InvalidSearchQueryException(Reason.RANGE, "Ranges are not supported");
+                case '^' -> throw new InvalidSearchQueryException(Reason.BOOST, "Boosts are not supported");
+                case '\\', '!', '&', '|' -> throw new InvalidSearchQueryException(Reason.SYNTAX, "Unsupported operator '" + c + "'");
+                default -> {
+                    // part of the word
+                }
+            }
+        }
+        if (word.endsWith("*")) {
+            String prefix = word.substring(0, word.length() - 1);
+            if (prefix.length() < queryLimits.getMinPrefixLength()) {
+                throw new InvalidSearchQueryException(
+                    Reason.SHORT_PREFIX,
+                    "Prefixes need at least " + queryLimits.getMinPrefixLength() + " characters"
+                );
+            }
+            return new Token(TokenType.PREFIX, prefix);
+        }
+        return new Token(TokenType.WORD, word);
+    }
+
+    /**
+     * Recursive descent parser of the token list, building the Elasticsearch query as it goes.
+     */
+    private final class Parser {
+
+        private final List<Token> tokens;
+
+        private int position;
+
+        private int clauses;
+
+        private int cost;
+
+        private Parser(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        Query parseQuery() {
+            if (tokens.isEmpty()) {
+                throw new InvalidSearchQueryException(Reason.SYNTAX, "Empty query");
+            }
+            Query query = parseOr(0);
+            if (position < tokens.size()) {
+                throw new InvalidSearchQueryException(Reason.SYNTAX, "Unexpected '" + tokens.get(position).text() + "'");
+            }
+            return query;
+        }
+
+        private Query parseOr(int depth) {
+            List<Query> alternatives = new ArrayList<>();
+            // Exclusions standing on their own apply to the whole group, as "leo -cat" means leo but not cat
+            List<Query> excluded = new ArrayList<>();
+            parseAnd(depth, alternatives, excluded);
+            while (position < tokens.size() && tokens.get(position).type() != TokenType.RPAREN) {
+                if (tokens.get(position).type() == TokenType.OR) {
+                    position++;
+                }
+                parseAnd(depth, alternatives, excluded);
+            }
+            if (alternatives.size() == 1 && excluded.isEmpty()) {
+                return alternatives.get(0);
+            }
+            return BoolQuery.of(b -> {
+                if (!alternatives.isEmpty()) {
+                    b.should(alternatives).minimumShouldMatch("1");
+                }
+                return b.mustNot(excluded);
+            })._toQuery();
+        }
+
+        private void parseAnd(int depth, List<Query> alternatives, List<Query> groupExcluded) {
+            List<Query> required = new ArrayList<>();
+            List<Query> excluded = new ArrayList<>();
+            parseOperand(depth, required, excluded);
+            while (position < tokens.size() && tokens.get(position).type() == TokenType.AND) {
+                position++;
+                parseOperand(depth, required, excluded);
+            }
+            if (required.isEmpty()) {
+                groupExcluded.addAll(excluded);
+            } else if (required.size() == 1 && excluded.isEmpty()) {
+                alternatives.add(required.get(0));
+            } else {
+                alternatives.add(BoolQuery.of(b -> b.must(required).mustNot(excluded))._toQuery());
+            }
+        }
+
+        private void parseOperand(int depth, List<Query> required, List<Query> excluded) {
+            if (position < tokens.size() && tokens.get(position).type() == TokenType.NOT) {
+                position++;
+                excluded.add(parsePrimary(depth));
+            } else {
+                required.add(parsePrimary(depth));
+            }
+        }
+
+        private Query parsePrimary(int depth) {
+            Token token = next();
+            return switch (token.type()) {
+                case LPAREN -> {
+                    if (depth >= MAX_DEPTH) {
+                        throw new InvalidSearchQueryException(Reason.TOO_DEEP, "Groups nested deeper than " + MAX_DEPTH + " levels");
+                    }
+                    Query group = parseOr(depth + 1);
+                    if (next().type() != TokenType.RPAREN) {
+                        throw new InvalidSearchQueryException(Reason.SYNTAX, "Missing ')'");
+                    }
+                    yield group;
+                }
+                case FIELD -> {
+                    Token value = next();
+                    if (value.type() != TokenType.WORD && value.type() != TokenType.PREFIX && value.type() != TokenType.PHRASE) {
+                        throw new InvalidSearchQueryException(Reason.SYNTAX, "Missing value of field '" + token.text() + "'");
+                    }
+                    yield clause(token.text(), value);
+                }
+                case WORD, PREFIX, PHRASE -> clause(null, token);
+                default -> throw new InvalidSearchQueryException(Reason.SYNTAX, "Unexpected '" + token.text() + "'");
+            };
+        }
+
+        private Token next() {
+            if (position >= tokens.size()) {
+                throw new InvalidSearchQueryException(Reason.SYNTAX, "Unexpected end of query");
+            }
+            return tokens.get(position++);
+        }
+
+        private Query clause(String field, Token value) {
+            if (++clauses > queryLimits.getMaxClauses()) {
+                throw new InvalidSearchQueryException(Reason.TOO_MANY_CLAUSES, "More than " + queryLimits.getMaxClauses() + " clauses");
+            }
+            cost += value.type() == TokenType.PREFIX ? PREFIX_COST : 1;
+            return MultiMatchQuery.of(m -> {
+                m.query(value.text()).lenient(true);
+                if (field != null) {
+                    m.fields(field);
+                }
+                return switch (value.type()) {
+                    case PREFIX -> m.type(TextQueryType.PhrasePrefix).maxExpansions(PREFIX_MAX_EXPANSIONS);
+                    case PHRASE -> m.type(TextQueryType.Phrase);
+                    default -> m.operator(Operator.And);
+                };
+            })._toQuery();
+        }
+    }
+}
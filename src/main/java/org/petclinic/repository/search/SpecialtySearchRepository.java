@@ -1,6 +1,6 @@
 package org.petclinic.repository.search;
 
-import co.elastic.clients.elasticsearch._types.query_dsl.QueryStringQuery;
+import java.util.Collection;
 import java.util.List;
 import org.petclinic.domain.Specialty;
 import org.petclinic.repository.SpecialtyRepository;
@@ -28,6 +28,8 @@ interface SpecialtySearchRepositoryInternal {
     @Async
     void index(Specialty entity);
 
+    List<Specialty> indexAll(Collection<Long> ids);
+
     @Async
     void deleteFromIndexById(Long id);
 }
@@ -36,15 +38,21 @@ class SpecialtySearchRepositoryInternalImpl implements SpecialtySearchRepository
 
     private final ElasticsearchTemplate elasticsearchTemplate;
     private final SpecialtyRepository repository;
+    private final SearchQueryCompiler searchQueryCompiler;
 
-    SpecialtySearchRepositoryInternalImpl(ElasticsearchTemplate elasticsearchTemplate, SpecialtyRepository repository) {
+    SpecialtySearchRepositoryInternalImpl(
+        ElasticsearchTemplate elasticsearchTemplate,
+        SpecialtyRepository repository,
+        SearchQueryCompiler searchQueryCompiler
+    ) {
         this.elasticsearchTemplate = elasticsearchTemplate;
         this.repository = repository;
+        this.searchQueryCompiler = searchQueryCompiler;
     }
 
     @Override
     public Page<Specialty> search(String query, Pageable pageable) {
-        NativeQuery nativeQuery = new NativeQuery(QueryStringQuery.of(qs -> qs.query(query))._toQuery());
+        NativeQuery nativeQuery = new NativeQuery(searchQueryCompiler.compile("specialty", query));
         return search(nativeQuery.setPageable(pageable));
     }
 
@@ -60,6 +68,15 @@ class SpecialtySearchRepositoryInternalImpl implements SpecialtySearchRepository
         repository.findById(entity.getId()).ifPresent(elasticsearchTemplate::save);
     }
 
+    @Override
+    public List<Specialty> indexAll(Collection<Long> ids) {
+        List<Specialty> entities = repository.findAllById(ids);
+        if (!entities.isEmpty()) {
+            elasticsearchTemplate.save(entities);
+        }
+        return entities;
+    }
+
     @Override
     public void deleteFromIndexById(Long id) {
         elasticsearchTemplate.delete(String.valueOf(id), Specialty.class);
@@ -1,6 +1,6 @@
 package org.petclinic.repository.search;
 
-import co.elastic.clients.elasticsearch._types.query_dsl.QueryStringQuery;
+import java.util.Collection;
 import java.util.List;
 import org.petclinic.domain.Vet;
 import org.petclinic.repository.VetRepository;
@@ -28,6 +28,8 @@ interface VetSearchRepositoryInternal {
     @Async
     void index(Vet entity);
 
+    List<Vet> indexAll(Collection<Long> ids);
+
     @Async
     void deleteFromIndexById(Long id);
 }
@@ -36,15 +38,21 @@ class VetSearchRepositoryInternalImpl implements VetSearchRepositoryInternal {
 
     private final ElasticsearchTemplate elasticsearchTemplate;
     private final VetRepository repository;
+    private final SearchQueryCompiler searchQueryCompiler;
 
-    VetSearchRepositoryInternalImpl(ElasticsearchTemplate elasticsearchTemplate, VetRepository repository) {
+    VetSearchRepositoryInternalImpl(
+        ElasticsearchTemplate elasticsearchTemplate,
+        VetRepository repository,
+        SearchQueryCompiler searchQueryCompiler
+    ) {
         this.elasticsearchTemplate = elasticsearchTemplate;
         this.repository = repository;
+        this.searchQueryCompiler = searchQueryCompiler;
     }
 
     @Override
     public Page<Vet> search(String query, Pageable pageable) {
-        NativeQuery nativeQuery = new NativeQuery(QueryStringQuery.of(qs -> qs.query(query))._toQuery());
+        NativeQuery nativeQuery = new NativeQuery(searchQueryCompiler.compile("vet", query));
         return search(nativeQuery.setPageable(pageable));
     }
 
@@ -60,6 +68,15 @@ class VetSearchRepositoryInternalImpl implements VetSearchRepositoryInternal {
         repository.findOneWithEagerRelationships(entity.getId()).ifPresent(elasticsearchTemplate::save);
     }
 
+    @Override
+    public List<Vet> indexAll(Collection<Long> ids) {
+        List<Vet> entities = repository.findAllWithEagerRelationships(ids);
+        if (!entities.isEmpty()) {
+            elasticsearchTemplate.save(entities);
+        }
+        return entities;
+    }
+
     @Override
     public void deleteFromIndexById(Long id) {
         elasticsearchTemplate.delete(String.valueOf(id), Vet.class);
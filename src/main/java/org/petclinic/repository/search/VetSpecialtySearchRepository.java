@@ -1,6 +1,7 @@
 package org.petclinic.repository.search;
 
-import co.elastic.clients.elasticsearch._types.query_dsl.QueryStringQuery;
+import java.util.Collection;
+import java.util.List;
 import java.util.stream.Stream;
 import org.petclinic.domain.VetSpecialty;
 import org.petclinic.repository.VetSpecialtyRepository;
@@ -24,6 +25,8 @@ interface VetSpecialtySearchRepositoryInternal {
     @Async
     void index(VetSpecialty entity);
 
+    List<VetSpecialty> indexAll(Collection<Long> ids);
+
     @Async
     void deleteFromIndexById(Long id);
 }
@@ -32,15 +35,21 @@ class VetSpecialtySearchRepositoryInternalImpl implements VetSpecialtySearchRepo
 
     private final ElasticsearchTemplate elasticsearchTemplate;
     private final VetSpecialtyRepository repository;
+    private final SearchQueryCompiler searchQueryCompiler;
 
-    VetSpecialtySearchRepositoryInternalImpl(ElasticsearchTemplate elasticsearchTemplate, VetSpecialtyRepository repository) {
+    VetSpecialtySearchRepositoryInternalImpl(
+        ElasticsearchTemplate elasticsearchTemplate,
+        VetSpecialtyRepository repository,
+        SearchQueryCompiler searchQueryCompiler
+    ) {
         this.elasticsearchTemplate = elasticsearchTemplate;
         this.repository = repository;
+        this.searchQueryCompiler = searchQueryCompiler;
     }
 
     @Override
     public Stream<VetSpecialty> search(String query) {
-        NativeQuery nativeQuery = new NativeQuery(QueryStringQuery.of(qs -> qs.query(query))._toQuery());
+        NativeQuery nativeQuery = new NativeQuery(searchQueryCompiler.compile("vetspecialty", query));
         return search(nativeQuery);
     }
 
@@ -54,6 +63,15 @@ class VetSpecialtySearchRepositoryInternalImpl implements VetSpecialtySearchRepo
         repository.findById(entity.getId()).ifPresent(elasticsearchTemplate::save);
     }
 
+    @Override
+    public List<VetSpecialty> indexAll(Collection<Long> ids) {
+        List<VetSpecialty> entities = repository.findAllById(ids);
+        if (!entities.isEmpty()) {
+            elasticsearchTemplate.save(entities);
+        }
+        return entities;
+    }
+
     @Override
     public void deleteFromIndexById(Long id) {
         elasticsearchTemplate.delete(String.valueOf(id), VetSpecialty.class);
@@ -1,67 +1,122 @@
 package org.petclinic.repository.search;
 
-import co.elastic.clients.elasticsearch._types.query_dsl.QueryStringQuery;
+import java.util.Collection;
 import java.util.List;
 import org.petclinic.domain.Visit;
+import org.petclinic.domain.search.VisitSearchDocument;
 import org.petclinic.repository.VisitRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
 import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 import org.springframework.scheduling.annotation.Async;
 
 /**
- * Spring Data Elasticsearch repository for the {@link Visit} entity.
+ * Spring Data Elasticsearch repository for the {@link Visit} entity, indexed as {@link VisitSearchDocument}.
  */
-public interface VisitSearchRepository extends ElasticsearchRepository<Visit, Long>, VisitSearchRepositoryInternal {}
+public interface VisitSearchRepository extends ElasticsearchRepository<VisitSearchDocument, Long>, VisitSearchRepositoryInternal {}
 
 interface VisitSearchRepositoryInternal {
-    Page<Visit> search(String query, Pageable pageable);
+    Page<VisitSearchDocument> search(String query, Pageable pageable);
 
-    Page<Visit> search(Query query);
+    Page<VisitSearchDocument> search(Query query);
+
+    SearchAfterSlice<VisitSearchDocument> searchAfter(String query, Sort sort, List<Object> searchAfter, int size);
 
     @Async
     void index(Visit entity);
 
+    List<VisitSearchDocument> indexAll(Collection<Long> ids);
+
     @Async
     void deleteFromIndexById(Long id);
 }
 
 class VisitSearchRepositoryInternalImpl implements VisitSearchRepositoryInternal {
 
+    /**
+     * The fields read by {@link org.petclinic.service.mapper.VisitMapper}, the rest of the document is not fetched.
+     */
+    private static final FetchSourceFilter DTO_SOURCE_FILTER = new FetchSourceFilter(
+        new String[] { "id", "visitDate", "description", "petId", "petName" },
+        null
+    );
+
     private final ElasticsearchTemplate elasticsearchTemplate;
     private final VisitRepository repository;
+    private final SearchQueryCompiler searchQueryCompiler;
 
-    VisitSearchRepositoryInternalImpl(ElasticsearchTemplate elasticsearchTemplate, VisitRepository repository) {
+    VisitSearchRepositoryInternalImpl(
+        ElasticsearchTemplate elasticsearchTemplate,
+        VisitRepository repository,
+        SearchQueryCompiler searchQueryCompiler
+    ) {
         this.elasticsearchTemplate = elasticsearchTemplate;
         this.repository = repository;
+        this.searchQueryCompiler = searchQueryCompiler;
     }
 
     @Override
-    public Page<Visit> search(String query, Pageable pageable) {
-        NativeQuery nativeQuery = new NativeQuery(QueryStringQuery.of(qs -> qs.query(query))._toQuery());
+    public Page<VisitSearchDocument> search(String query, Pageable pageable) {
+        NativeQuery nativeQuery = new NativeQuery(searchQueryCompiler.compile("visit", query));
+        nativeQuery.addSourceFilter(DTO_SOURCE_FILTER);
         return search(nativeQuery.setPageable(pageable));
     }
 
     @Override
-    public Page<Visit> search(Query query) {
-        SearchHits<Visit> searchHits = elasticsearchTemplate.search(query, Visit.class);
-        List<Visit> hits = searchHits.map(SearchHit::getContent).stream().toList();
+    public Page<VisitSearchDocument> search(Query query) {
+        SearchHits<VisitSearchDocument> searchHits = elasticsearchTemplate.search(query, VisitSearchDocument.class);
+        List<VisitSearchDocument> hits = searchHits.map(SearchHit::getContent).stream().toList();
         return new PageImpl<>(hits, query.getPageable(), searchHits.getTotalHits());
     }
 
+    @Override
+    public SearchAfterSlice<VisitSearchDocument> searchAfter(String query, Sort sort, List<Object> searchAfter, int size) {
+        Sort order = sort.isUnsorted() ? Sort.by(Sort.Direction.DESC, "_score") : sort;
+        if (order.getOrderFor("id") == null) {
+            // The id breaks the ties, so that every hit has a distinct position to search after
+            order = order.and(Sort.by("id"));
+        }
+        NativeQuery nativeQuery = new NativeQuery(searchQueryCompiler.compile("visit", query));
+        nativeQuery.addSourceFilter(DTO_SOURCE_FILTER);
+        // One more hit than requested tells whether there is a next slice, so the hits are not counted
+        nativeQuery.setPageable(PageRequest.of(0, size + 1, order));
+        nativeQuery.setTrackTotalHits(false);
+        if (searchAfter != null) {
+            nativeQuery.setSearchAfter(searchAfter);
+        }
+        List<SearchHit<VisitSearchDocument>> searchHits = elasticsearchTemplate
+            .search(nativeQuery, VisitSearchDocument.class)
+            .getSearchHits();
+        List<SearchHit<VisitSearchDocument>> hits = searchHits.subList(0, Math.min(size, searchHits.size()));
+        List<Object> nextSearchAfter = searchHits.size() > size ? hits.get(size - 1).getSortValues() : null;
+        return new SearchAfterSlice<>(hits.stream().map(SearchHit::getContent).toList(), PageRequest.of(0, size, order), nextSearchAfter);
+    }
+
     @Override
     public void index(Visit entity) {
-        repository.findOneWithEagerRelationships(entity.getId()).ifPresent(elasticsearchTemplate::save);
+        indexAll(List.of(entity.getId()));
+    }
+
+    @Override
+    public List<VisitSearchDocument> indexAll(Collection<Long> ids) {
+        List<VisitSearchDocument> documents = repository.findSearchDocumentsByIdIn(ids);
+        if (!documents.isEmpty()) {
+            elasticsearchTemplate.save(documents);
+        }
+        return documents;
     }
 
     @Override
     public void deleteFromIndexById(Long id) {
-        elasticsearchTemplate.delete(String.valueOf(id), Visit.class);
+        elasticsearchTemplate.delete(String.valueOf(id), VisitSearchDocument.class);
     }
 }
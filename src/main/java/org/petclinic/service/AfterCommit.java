@@ -0,0 +1,32 @@
+package org.petclinic.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects of a change, such as messages and cache evictions, until the transaction making it commits.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {}
+
+    /**
+     * Run an action once the current transaction commits, or right away outside of a transaction.
+     *
+     * @param action the action, not run if the transaction rolls back.
+     */
+    static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+}
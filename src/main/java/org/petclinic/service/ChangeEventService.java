@@ -0,0 +1,196 @@
+package org.petclinic.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.domain.Owner;
+import org.petclinic.domain.Pet;
+import org.petclinic.domain.Visit;
+import org.petclinic.domain.enumeration.ChangeOperation;
+import org.petclinic.repository.EntityOwnerId;
+import org.petclinic.repository.PetRepository;
+import org.petclinic.repository.VisitRepository;
+import org.petclinic.service.dto.EntityChangeEventDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service publishing an {@link EntityChangeEventDTO} to Kafka for every entity mutation.
+ * <p>
+ * Events are sent once the current transaction commits, so rolled back changes are never published. Owners, pets and
+ * visits are keyed by owner id, which keeps the events of one household in order on a single partition; the other
+ * entities are keyed by entity type and id. Batching and compression are configured on the producer binding.
+ */
+@Service
+public class ChangeEventService {
+
+    public static final String BINDING_NAME = "changeEvents-out-0";
+
+    private final Logger log = LoggerFactory.getLogger(ChangeEventService.class);
+
+    private final StreamBridge streamBridge;
+
+    private final ApplicationProperties.ChangeEvents changeEventsProperties;
+
+    private final Map<Class<?>, Function<Long, Optional<Long>>> ownerIdResolvers;
+
+    private final Map<Class<?>, Function<Collection<Long>, Map<Long, Long>>> ownerIdsResolvers;
+
+    private final Counter publishedCounter;
+
+    private final Counter failedCounter;
+
+    public ChangeEventService(
+        StreamBridge streamBridge,
+        ApplicationProperties applicationProperties,
+        PetRepository petRepository,
+        VisitRepository visitRepository,
+        MeterRegistry meterRegistry
+    ) {
+        this.streamBridge = streamBridge;
+        this.changeEventsProperties = applicationProperties.getChangeEvents();
+        this.ownerIdResolvers = Map.of(
+            Owner.class,
+            Optional::ofNullable,
+            Pet.class,
+            petRepository::findOwnerIdById,
+            Visit.class,
+            visitRepository::findOwnerIdById
+        );
+        this.ownerIdsResolvers = Map.of(
+            Owner.class,
+            ids -> ids.stream().collect(Collectors.toMap(Function.identity(), Function.identity())),
+            Pet.class,
+            ids -> toMap(petRepository.findOwnerIdsByIdIn(ids)),
+            Visit.class,
+            ids -> toMap(visitRepository.findOwnerIdsByIdIn(ids))
+        );
+        this.publishedCounter = Counter.builder("change.events.published")
+            .description("Change events handed to the Kafka producer")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("change.events.failed")
+            .description("Change events the Kafka producer did not accept")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Publish the creation of an entity once the current transaction commits.
+     *
+     * @param entityClass the entity class.
+     * @param id the id of the entity.
+     * @param data the created entity.
+     */
+    public void created(Class<?> entityClass, Long id, Object data) {
+        publish(entityClass, id, ChangeOperation.CREATE, data);
+    }
+
+    /**
+     * Publish the update of an entity once the current transaction commits.
+     *
+     * @param entityClass the entity class.
+     * @param id the id of the entity.
+     * @param data the updated entity.
+     */
+    public void updated(Class<?> entityClass, Long id, Object data) {
+        publish(entityClass, id, ChangeOperation.UPDATE, data);
+    }
+
+    /**
+     * Publish the deletion of an entity once the current transaction commits.
+     * <p>
+     * Must be called before the entity is deleted, so that its owner can still be resolved.
+     *
+     * @param entityClass the entity class.
+     * @param id the id of the entity.
+     */
+    public void deleted(Class<?> entityClass, Long id) {
+        publish(entityClass, id, ChangeOperation.DELETE, null);
+    }
+
+    /**
+     * Publish the creation of entities once the current transaction commits, resolving their owners with one query.
+     *
+     * @param entityClass the entity class.
+     * @param dataById the created entities, by id.
+     */
+    public void createdAll(Class<?> entityClass, Map<Long, ?> dataById) {
+        publishAll(entityClass, ChangeOperation.CREATE, dataById);
+    }
+
+    /**
+     * Publish the update of entities once the current transaction commits, resolving their owners with one query.
+     *
+     * @param entityClass the entity class.
+     * @param dataById the updated entities, by id.
+     */
+    public void updatedAll(Class<?> entityClass, Map<Long, ?> dataById) {
+        publishAll(entityClass, ChangeOperation.UPDATE, dataById);
+    }
+
+    private void publish(Class<?> entityClass, Long id, ChangeOperation operation, Object data) {
+        if (!changeEventsProperties.isEnabled()) {
+            return;
+        }
+        Long ownerId = ownerIdResolvers.getOrDefault(entityClass, entityId -> Optional.empty()).apply(id).orElse(null);
+        Message<EntityChangeEventDTO> message = message(entityClass, id, ownerId, operation, data);
+        AfterCommit.run(() -> send(message));
+    }
+
+    private void publishAll(Class<?> entityClass, ChangeOperation operation, Map<Long, ?> dataById) {
+        if (!changeEventsProperties.isEnabled() || dataById.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> ownerIds = ownerIdsResolvers.getOrDefault(entityClass, ids -> Map.of()).apply(dataById.keySet());
+        List<Message<EntityChangeEventDTO>> messages = dataById
+            .entrySet()
+            .stream()
+            .map(entry -> message(entityClass, entry.getKey(), ownerIds.get(entry.getKey()), operation, entry.getValue()))
+            .toList();
+        AfterCommit.run(() -> messages.forEach(this::send));
+    }
+
+    private Message<EntityChangeEventDTO> message(Class<?> entityClass, Long id, Long ownerId, ChangeOperation operation, Object data) {
+        EntityChangeEventDTO event = new EntityChangeEventDTO();
+        event.setEntityType(entityClass.getSimpleName());
+        event.setEntityId(id);
+        event.setOwnerId(ownerId);
+        event.setOperation(operation);
+        event.setTimestamp(Instant.now());
+        event.setData(data);
+        String key = event.getOwnerId() != null ? event.getOwnerId().toString() : event.getEntityType() + ':' + id;
+        return MessageBuilder.withPayload(event).setHeader(KafkaHeaders.KEY, key.getBytes(StandardCharsets.UTF_8)).build();
+    }
+
+    private static Map<Long, Long> toMap(List<EntityOwnerId> ownerIds) {
+        return ownerIds
+            .stream()
+            .filter(entity -> entity.getOwnerId() != null)
+            .collect(Collectors.toMap(EntityOwnerId::getId, EntityOwnerId::getOwnerId));
+    }
+
+    private void send(Message<EntityChangeEventDTO> message) {
+        try {
+            if (streamBridge.send(BINDING_NAME, message)) {
+                publishedCounter.increment();
+                return;
+            }
+            log.warn("Change event was not accepted by the producer: {}", message.getPayload());
+        } catch (RuntimeException e) {
+            log.warn("Could not publish change event {}: {}", message.getPayload(), e.getMessage());
+        }
+        failedCounter.increment();
+    }
+}
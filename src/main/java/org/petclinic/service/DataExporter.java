@@ -0,0 +1,177 @@
+package org.petclinic.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the rows of an export as they are read from the database, so the memory used does not depend on the number
+ * of rows. Written rows are counted by the {@code export.rows} counter, whose rate is the export throughput, and each
+ * export is timed by the {@code export.duration} timer.
+ */
+class DataExporter {
+
+    /**
+     * Bounds of the date range filters when one is open, the range of the MySQL {@code DATE} type.
+     */
+    static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+
+    static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Logger log = LoggerFactory.getLogger(DataExporter.class);
+
+    private final String entityName;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    DataExporter(String entityName, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.entityName = entityName;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Write rows to an output stream, which is flushed but not closed.
+     *
+     * @param rows the rows, consumed but not closed.
+     * @param rowType the type of the rows, whose components are the exported columns.
+     * @param format the format of the output.
+     * @param out the output stream.
+     * @param <T> the type of the rows.
+     * @return the number of rows written.
+     * @throws IOException if the output stream cannot be written.
+     */
+    <T extends Record> long export(Stream<T> rows, Class<T> rowType, ExportFormat format, OutputStream out) throws IOException {
+        Counter rowCounter = Counter.builder("export.rows")
+            .description("Rows written by the streaming exports")
+            .tag("entity", entityName)
+            .tag("format", format.getFileExtension())
+            .register(meterRegistry);
+        long start = System.nanoTime();
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter<T> rowWriter = format == ExportFormat.CSV ? new CsvRowWriter<>(writer, rowType) : new NdjsonRowWriter<>(writer, rowType);
+        for (Iterator<T> iterator = rows.iterator(); iterator.hasNext(); count++) {
+            rowWriter.write(iterator.next());
+            rowCounter.increment();
+        }
+        rowWriter.flush();
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("export.duration")
+            .description("Duration of the streaming exports")
+            .tag("entity", entityName)
+            .tag("format", format.getFileExtension())
+            .register(meterRegistry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info(
+            "Exported {} {} rows as {} in {} ms ({} rows/s)",
+            count,
+            entityName,
+            format,
+            TimeUnit.NANOSECONDS.toMillis(elapsed),
+            Math.round(count / Math.max(elapsed / 1e9, 1e-3))
+        );
+        return count;
+    }
+
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private final class NdjsonRowWriter<T> implements RowWriter<T> {
+
+        private final JsonGenerator generator;
+
+        private final ObjectWriter objectWriter;
+
+        private NdjsonRowWriter(Writer writer, Class<T> rowType) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            // Lines are ended explicitly, instead of separating root values with a space
+            this.generator.setRootValueSeparator(null);
+            this.objectWriter = objectMapper.writerFor(rowType).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            objectWriter.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter<T extends Record> implements RowWriter<T> {
+
+        private final Writer writer;
+
+        private final RecordComponent[] columns;
+
+        private CsvRowWriter(Writer writer, Class<T> rowType) throws IOException {
+            this.writer = writer;
+            this.columns = rowType.getRecordComponents();
+            for (int i = 0; i < columns.length; i++) {
+                writeValue(i, columns[i].getName());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.length; i++) {
+                Object value;
+                try {
+                    value = columns[i].getAccessor().invoke(row);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new IllegalStateException("Cannot read column " + columns[i].getName() + " of " + row, e);
+                }
+                writeValue(i, value == null ? "" : value.toString());
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeValue(int column, String value) throws IOException {
+            if (column > 0) {
+                writer.write(',');
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
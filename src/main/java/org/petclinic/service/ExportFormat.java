@@ -0,0 +1,46 @@
+package org.petclinic.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * The formats of the streaming exports.
+ */
+public enum ExportFormat {
+    /**
+     * One JSON object per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /**
+     * RFC 4180 comma-separated values with a header line.
+     */
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+
+    private final String fileExtension;
+
+    ExportFormat(String mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Find a format by its name, ignoring case.
+     *
+     * @param name the name of the format.
+     * @return the format, or empty if there is none of that name.
+     */
+    public static Optional<ExportFormat> fromName(String name) {
+        return Arrays.stream(values()).filter(format -> format.name().equals(name.toUpperCase(Locale.ROOT))).findFirst();
+    }
+}
@@ -0,0 +1,67 @@
+package org.petclinic.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.petclinic.repository.TupleProjectionRepository;
+
+/**
+ * The fields a list of DTOs can be restricted to, as paths of their properties such as {@code type.name}.
+ * <p>
+ * The DTO properties have the names of the entity attributes, so the paths of the fields are selected as they are by
+ * {@link TupleProjectionRepository}, and their values are nested back into the shape of the DTO.
+ */
+public final class Fieldset {
+
+    private static final String SEPARATOR = ",";
+
+    private final Set<String> fields;
+
+    public Fieldset(String... fields) {
+        this.fields = Set.of(fields);
+    }
+
+    /**
+     * Get the fields of a comma-separated list of fields.
+     *
+     * @param fields the comma-separated list of fields.
+     * @return the fields, in the order of the list and without duplicates, or empty if the list has no fields or one
+     * that is not in this fieldset.
+     */
+    public Optional<List<String>> parse(String fields) {
+        Set<String> parsedFields = new LinkedHashSet<>();
+        for (String field : fields.split(SEPARATOR, -1)) {
+            String trimmedField = field.trim();
+            if (!this.fields.contains(trimmedField)) {
+                return Optional.empty();
+            }
+            parsedFields.add(trimmedField);
+        }
+        return Optional.of(new ArrayList<>(parsedFields));
+    }
+
+    /**
+     * Nest the values of some fields into maps, one per nested DTO, such as {@code type} for {@code type.name}.
+     *
+     * @param fields the fields.
+     * @param values the values of the fields, in the same order.
+     * @return the fields and their values, in the order of the fields.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> toMap(List<String> fields, Object[] values) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            String[] names = fields.get(i).split("\\.");
+            Map<String, Object> parent = map;
+            for (int j = 0; j < names.length - 1; j++) {
+                parent = (Map<String, Object>) parent.computeIfAbsent(names[j], name -> new LinkedHashMap<>());
+            }
+            parent.put(names[names.length - 1], values[i]);
+        }
+        return map;
+    }
+}
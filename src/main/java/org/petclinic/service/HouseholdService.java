@@ -0,0 +1,163 @@
+package org.petclinic.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.domain.Owner;
+import org.petclinic.domain.Pet;
+import org.petclinic.domain.Visit;
+import org.petclinic.repository.EntityOwnerId;
+import org.petclinic.repository.OwnerRepository;
+import org.petclinic.repository.PetRepository;
+import org.petclinic.repository.VisitRepository;
+import org.petclinic.service.dto.HouseholdDTO;
+import org.petclinic.service.dto.HouseholdDTO.HouseholdPetDTO;
+import org.petclinic.service.dto.HouseholdDTO.HouseholdVisitDTO;
+import org.petclinic.service.mapper.OwnerMapper;
+import org.petclinic.service.mapper.PetMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service reading the household of an owner: the owner, its pets and their latest visits.
+ * <p>
+ * A household is read with three queries whatever the number of pets and visits, and kept in the shared
+ * {@link #HOUSEHOLDS_CACHE} cache. The services writing owners, pets and visits evict the households they change once
+ * their transaction commits; pet type renames show up when the cached households expire.
+ */
+@Service
+@Transactional
+public class HouseholdService {
+
+    public static final String HOUSEHOLDS_CACHE = "households";
+
+    private final Logger log = LoggerFactory.getLogger(HouseholdService.class);
+
+    private final OwnerRepository ownerRepository;
+
+    private final PetRepository petRepository;
+
+    private final VisitRepository visitRepository;
+
+    private final OwnerMapper ownerMapper;
+
+    private final PetMapper petMapper;
+
+    private final CacheManager cacheManager;
+
+    private final int recentVisitsPerPet;
+
+    private final Map<Class<?>, Function<Collection<Long>, Set<Long>>> ownerIdsResolvers;
+
+    public HouseholdService(
+        OwnerRepository ownerRepository,
+        PetRepository petRepository,
+        VisitRepository visitRepository,
+        OwnerMapper ownerMapper,
+        PetMapper petMapper,
+        CacheManager cacheManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.ownerRepository = ownerRepository;
+        this.petRepository = petRepository;
+        this.visitRepository = visitRepository;
+        this.ownerMapper = ownerMapper;
+        this.petMapper = petMapper;
+        this.cacheManager = cacheManager;
+        this.recentVisitsPerPet = applicationProperties.getHousehold().getRecentVisitsPerPet();
+        this.ownerIdsResolvers = Map.of(
+            Owner.class,
+            Set::copyOf,
+            Pet.class,
+            ids -> toOwnerIds(petRepository.findOwnerIdsByIdIn(ids)),
+            Visit.class,
+            ids -> toOwnerIds(visitRepository.findOwnerIdsByIdIn(ids))
+        );
+    }
+
+    /**
+     * Get the household of an owner, read outside of a transaction: a cached household needs no connection, the three
+     * queries of the others each run in a read-only repository transaction.
+     *
+     * @param ownerId the id of the owner.
+     * @return the household, if the owner exists.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Cacheable(cacheNames = HOUSEHOLDS_CACHE, key = "#ownerId", unless = "#result == null")
+    public Optional<HouseholdDTO> findOne(Long ownerId) {
+        log.debug("Request to get the household of Owner : {}", ownerId);
+        return ownerRepository
+            .findById(ownerId)
+            .map(owner -> {
+                List<Pet> pets = petRepository.findAllWithTypeByOwnerId(ownerId);
+                // The visits of all the pets in one query, grouped by the id of their pet proxy
+                Map<Long, List<HouseholdVisitDTO>> visitsByPetId = pets.isEmpty()
+                    ? Map.of()
+                    : visitRepository
+                        .findLatestPerPetByOwnerId(ownerId, recentVisitsPerPet)
+                        .stream()
+                        .collect(
+                            Collectors.groupingBy(
+                                visit -> visit.getPet().getId(),
+                                Collectors.mapping(
+                                    visit -> new HouseholdVisitDTO(visit.getId(), visit.getVisitDate(), visit.getDescription()),
+                                    Collectors.toCollection(ArrayList::new)
+                                )
+                            )
+                        );
+                // Mutable lists, which the cache codec can write
+                List<HouseholdPetDTO> petDTOs = new ArrayList<>(pets.size());
+                for (Pet pet : pets) {
+                    petDTOs.add(
+                        new HouseholdPetDTO(
+                            pet.getId(),
+                            pet.getName(),
+                            pet.getBirthDate(),
+                            pet.getType() == null ? null : petMapper.toDtoPetTypeName(pet.getType()),
+                            visitsByPetId.getOrDefault(pet.getId(), new ArrayList<>())
+                        )
+                    );
+                }
+                return new HouseholdDTO(ownerMapper.toDto(owner), petDTOs);
+            });
+    }
+
+    /**
+     * Evict the households of the owners of entities once the current transaction commits.
+     * <p>
+     * Called before a change for the households the entities leave, and after it for the households they join.
+     *
+     * @param entityClass the entity class, {@link Owner}, {@link Pet} or {@link Visit}.
+     * @param ids the ids of the entities.
+     */
+    public void evict(Class<?> entityClass, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> ownerIds = ownerIdsResolvers.get(entityClass).apply(ids);
+        if (ownerIds.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            Cache cache = Objects.requireNonNull(cacheManager.getCache(HOUSEHOLDS_CACHE));
+            ownerIds.forEach(cache::evict);
+        });
+    }
+
+    private static Set<Long> toOwnerIds(List<EntityOwnerId> ownerIds) {
+        return ownerIds.stream().map(EntityOwnerId::getOwnerId).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+}
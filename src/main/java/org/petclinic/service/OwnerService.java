@@ -1,16 +1,33 @@
 package org.petclinic.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.petclinic.config.ApplicationProperties;
 import org.petclinic.domain.Owner;
+import org.petclinic.repository.OwnerExportRow;
 import org.petclinic.repository.OwnerRepository;
+import org.petclinic.repository.TupleProjectionRepository;
 import org.petclinic.repository.search.OwnerSearchRepository;
 import org.petclinic.service.dto.OwnerDTO;
+import org.petclinic.service.dto.OwnerSuggestionDTO;
 import org.petclinic.service.mapper.OwnerMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -20,18 +37,52 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class OwnerService {
 
+    /**
+     * The fields the owners can be restricted to, those of {@link OwnerDTO}.
+     */
+    public static final Fieldset FIELDSET = new Fieldset("id", "version", "firstName", "lastName", "address", "city", "telephone");
+
     private final Logger log = LoggerFactory.getLogger(OwnerService.class);
 
     private final OwnerRepository ownerRepository;
 
+    private final TupleProjectionRepository tupleProjectionRepository;
+
     private final OwnerMapper ownerMapper;
 
     private final OwnerSearchRepository ownerSearchRepository;
 
-    public OwnerService(OwnerRepository ownerRepository, OwnerMapper ownerMapper, OwnerSearchRepository ownerSearchRepository) {
+    private final SearchIndexOutboxService searchIndexOutboxService;
+
+    private final ChangeEventService changeEventService;
+
+    private final HouseholdService householdService;
+
+    private final DataExporter dataExporter;
+
+    private final SuggestionCache<OwnerSuggestionDTO> suggestionCache;
+
+    public OwnerService(
+        OwnerRepository ownerRepository,
+        TupleProjectionRepository tupleProjectionRepository,
+        OwnerMapper ownerMapper,
+        OwnerSearchRepository ownerSearchRepository,
+        SearchIndexOutboxService searchIndexOutboxService,
+        ChangeEventService changeEventService,
+        HouseholdService householdService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        ObjectMapper objectMapper
+    ) {
         this.ownerRepository = ownerRepository;
+        this.tupleProjectionRepository = tupleProjectionRepository;
         this.ownerMapper = ownerMapper;
         this.ownerSearchRepository = ownerSearchRepository;
+        this.searchIndexOutboxService = searchIndexOutboxService;
+        this.changeEventService = changeEventService;
+        this.householdService = householdService;
+        this.suggestionCache = new SuggestionCache<>("ownerSuggestions", applicationProperties.getSuggest(), meterRegistry);
+        this.dataExporter = new DataExporter("Owner", objectMapper, meterRegistry);
     }
 
     /**
@@ -44,8 +95,10 @@ public class OwnerService {
         log.debug("Request to save Owner : {}", ownerDTO);
         Owner owner = ownerMapper.toEntity(ownerDTO);
         owner = ownerRepository.save(owner);
-        ownerSearchRepository.index(owner);
-        return ownerMapper.toDto(owner);
+        searchIndexOutboxService.index(Owner.class, owner.getId());
+        OwnerDTO result = ownerMapper.toDto(owner);
+        changeEventService.created(Owner.class, result.getId(), result);
+        return result;
     }
 
     /**
@@ -57,9 +110,12 @@ public class OwnerService {
     public OwnerDTO update(OwnerDTO ownerDTO) {
         log.debug("Request to update Owner : {}", ownerDTO);
         Owner owner = ownerMapper.toEntity(ownerDTO);
-        owner = ownerRepository.save(owner);
-        ownerSearchRepository.index(owner);
-        return ownerMapper.toDto(owner);
+        owner = ownerRepository.saveAndFlush(owner);
+        searchIndexOutboxService.index(Owner.class, owner.getId());
+        householdService.evict(Owner.class, List.of(owner.getId()));
+        OwnerDTO result = ownerMapper.toDto(owner);
+        changeEventService.updated(Owner.class, result.getId(), result);
+        return result;
     }
 
     /**
@@ -74,16 +130,24 @@ public class OwnerService {
         return ownerRepository
             .findById(ownerDTO.getId())
             .map(existingOwner -> {
+                if (ownerDTO.getVersion() != null && ownerDTO.getVersion() != existingOwner.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(Owner.class, existingOwner.getId());
+                }
                 ownerMapper.partialUpdate(existingOwner, ownerDTO);
 
                 return existingOwner;
             })
-            .map(ownerRepository::save)
+            .map(ownerRepository::saveAndFlush)
             .map(savedOwner -> {
-                ownerSearchRepository.index(savedOwner);
+                searchIndexOutboxService.index(Owner.class, savedOwner.getId());
+                householdService.evict(Owner.class, List.of(savedOwner.getId()));
                 return savedOwner;
             })
-            .map(ownerMapper::toDto);
+            .map(ownerMapper::toDto)
+            .map(updatedOwner -> {
+                changeEventService.updated(Owner.class, updatedOwner.getId(), updatedOwner);
+                return updatedOwner;
+            });
     }
 
     /**
@@ -98,6 +162,34 @@ public class OwnerService {
         return ownerRepository.findAll(pageable).map(ownerMapper::toDto);
     }
 
+    /**
+     * Get all the owners, restricted to some of their fields.
+     *
+     * @param fields the fields to select, from {@link #FIELDSET}.
+     * @param pageable the pagination information.
+     * @return the list of owners, as maps of their fields.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> findAllFields(List<String> fields, Pageable pageable) {
+        log.debug("Request to get all Owners with fields {}", fields);
+        return tupleProjectionRepository.findAll(Owner.class, fields, pageable).map(values -> Fieldset.toMap(fields, values));
+    }
+
+    /**
+     * Get the owners following the given id, in id order, without counting them.
+     *
+     * @param id the id of the last owner of the previous slice, or {@code null} for the first slice.
+     * @param size the maximum number of owners to return.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<OwnerDTO> findAllAfter(Long id, int size) {
+        log.debug("Request to get {} Owners after id {}", size, id);
+        return ownerRepository
+            .findByIdGreaterThanOrderByIdAsc(Objects.requireNonNullElse(id, 0L), PageRequest.ofSize(size))
+            .map(ownerMapper::toDto);
+    }
+
     /**
      * Get one owner by id.
      *
@@ -117,8 +209,36 @@ public class OwnerService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Owner : {}", id);
+        changeEventService.deleted(Owner.class, id);
+        householdService.evict(Owner.class, List.of(id));
         ownerRepository.deleteById(id);
-        ownerSearchRepository.deleteFromIndexById(id);
+        searchIndexOutboxService.delete(Owner.class, id);
+    }
+
+    /**
+     * Export the owners to an output stream, in id order. The owners are streamed from the database and written one at
+     * a time. With a date range, only the owners with a visit in the range are exported.
+     *
+     * @param from the first visit date of the range, or {@code null} for no lower bound.
+     * @param to the last visit date of the range, or {@code null} for no upper bound.
+     * @param format the format of the output.
+     * @param out the output stream, flushed but not closed.
+     * @return the number of exported owners.
+     * @throws IOException if the output stream cannot be written.
+     */
+    @Transactional(readOnly = true)
+    public long export(LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException {
+        log.debug("Request to export Owners with visits from {} to {} as {}", from, to, format);
+        try (
+            Stream<OwnerExportRow> rows = from == null && to == null
+                ? ownerRepository.streamExportRows()
+                : ownerRepository.streamExportRowsByVisitDateBetween(
+                    Objects.requireNonNullElse(from, DataExporter.MIN_DATE),
+                    Objects.requireNonNullElse(to, DataExporter.MAX_DATE)
+                )
+        ) {
+            return dataExporter.export(rows, OwnerExportRow.class, format, out);
+        }
     }
 
     /**
@@ -133,4 +253,19 @@ public class OwnerService {
         log.debug("Request to search for a page of Owners for query {}", query);
         return ownerSearchRepository.search(query, pageable).map(ownerMapper::toDto);
     }
+
+    /**
+     * Suggest the owners matching a typed prefix, most relevant first.
+     *
+     * @param prefix the prefix typed by the user.
+     * @param size the maximum number of suggestions.
+     * @return the suggestions.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // served from the index alone, no connection needed
+    public List<OwnerSuggestionDTO> suggest(String prefix, int size) {
+        log.debug("Request to suggest {} Owners for prefix {}", size, prefix);
+        return suggestionCache.get(prefix, size, (normalizedPrefix, cappedSize) ->
+            ownerSearchRepository.suggest(normalizedPrefix, cappedSize).stream().map(ownerMapper::toSuggestionDto).toList()
+        );
+    }
 }
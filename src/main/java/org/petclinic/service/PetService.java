@@ -1,16 +1,35 @@
 package org.petclinic.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.petclinic.config.ApplicationProperties;
 import org.petclinic.domain.Pet;
 import org.petclinic.repository.PetRepository;
+import org.petclinic.repository.TupleProjectionRepository;
+import org.petclinic.repository.VisitRepository;
 import org.petclinic.repository.search.PetSearchRepository;
+import org.petclinic.service.dto.BulkItemResultDTO;
 import org.petclinic.service.dto.PetDTO;
+import org.petclinic.service.dto.PetSuggestionDTO;
 import org.petclinic.service.mapper.PetMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -20,18 +39,61 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class PetService {
 
+    /**
+     * The fields the pets can be restricted to, those of {@link PetDTO}.
+     */
+    public static final Fieldset FIELDSET = new Fieldset(
+        "id",
+        "version",
+        "name",
+        "birthDate",
+        "type.id",
+        "type.name",
+        "owner.id",
+        "owner.lastName"
+    );
+
     private final Logger log = LoggerFactory.getLogger(PetService.class);
 
     private final PetRepository petRepository;
 
+    private final VisitRepository visitRepository;
+
+    private final TupleProjectionRepository tupleProjectionRepository;
+
     private final PetMapper petMapper;
 
     private final PetSearchRepository petSearchRepository;
 
-    public PetService(PetRepository petRepository, PetMapper petMapper, PetSearchRepository petSearchRepository) {
+    private final SearchIndexOutboxService searchIndexOutboxService;
+
+    private final ChangeEventService changeEventService;
+
+    private final HouseholdService householdService;
+
+    private final SuggestionCache<PetSuggestionDTO> suggestionCache;
+
+    public PetService(
+        PetRepository petRepository,
+        VisitRepository visitRepository,
+        TupleProjectionRepository tupleProjectionRepository,
+        PetMapper petMapper,
+        PetSearchRepository petSearchRepository,
+        SearchIndexOutboxService searchIndexOutboxService,
+        ChangeEventService changeEventService,
+        HouseholdService householdService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.petRepository = petRepository;
+        this.visitRepository = visitRepository;
+        this.tupleProjectionRepository = tupleProjectionRepository;
         this.petMapper = petMapper;
         this.petSearchRepository = petSearchRepository;
+        this.searchIndexOutboxService = searchIndexOutboxService;
+        this.changeEventService = changeEventService;
+        this.householdService = householdService;
+        this.suggestionCache = new SuggestionCache<>("petSuggestions", applicationProperties.getSuggest(), meterRegistry);
     }
 
     /**
@@ -44,8 +106,11 @@ public class PetService {
         log.debug("Request to save Pet : {}", petDTO);
         Pet pet = petMapper.toEntity(petDTO);
         pet = petRepository.save(pet);
-        petSearchRepository.index(pet);
-        return petMapper.toDto(pet);
+        searchIndexOutboxService.index(Pet.class, pet.getId());
+        householdService.evict(Pet.class, List.of(pet.getId()));
+        PetDTO result = petMapper.toDto(pet);
+        changeEventService.created(Pet.class, result.getId(), result);
+        return result;
     }
 
     /**
@@ -56,10 +121,81 @@ public class PetService {
      */
     public PetDTO update(PetDTO petDTO) {
         log.debug("Request to update Pet : {}", petDTO);
+        householdService.evict(Pet.class, List.of(petDTO.getId()));
         Pet pet = petMapper.toEntity(petDTO);
-        pet = petRepository.save(pet);
-        petSearchRepository.index(pet);
-        return petMapper.toDto(pet);
+        pet = petRepository.saveAndFlush(pet);
+        visitRepository.updateOwnerIdByPetIdIn(List.of(pet.getId()));
+        searchIndexOutboxService.index(Pet.class, pet.getId());
+        householdService.evict(Pet.class, List.of(pet.getId()));
+        PetDTO result = petMapper.toDto(pet);
+        changeEventService.updated(Pet.class, result.getId(), result);
+        return result;
+    }
+
+    /**
+     * Save pets in bulk: pets without an id are created, the others update the pet with their id.
+     * <p>
+     * The pets are written with JDBC batches when the method returns and indexed with one bulk request. A pet whose
+     * version is not the current one is reported as a conflict and not saved, the others still are. A pet changed by
+     * another transaction between the version check and the flush still fails the whole request with an
+     * {@link org.springframework.orm.ObjectOptimisticLockingFailureException}.
+     *
+     * @param petDTOs the entities to save, already validated.
+     * @return the result of each entity, in the order of {@code petDTOs}.
+     */
+    public List<BulkItemResultDTO> saveAll(List<PetDTO> petDTOs) {
+        log.debug("Request to save {} Pets in bulk", petDTOs.size());
+        List<Long> ids = petDTOs.stream().map(PetDTO::getId).filter(Objects::nonNull).toList();
+        // Loads the updated pets in one query, so merging them does not select them one by one
+        Map<Long, Long> existingVersions = petRepository
+            .findAllById(ids)
+            .stream()
+            .collect(Collectors.toMap(Pet::getId, Pet::getVersion));
+        Set<Long> existingIds = existingVersions.keySet();
+        Predicate<PetDTO> stale = petDTO ->
+            petDTO.getId() != null && petDTO.getVersion() != null && !petDTO.getVersion().equals(existingVersions.get(petDTO.getId()));
+        List<Pet> pets = petDTOs
+            .stream()
+            .filter(petDTO -> petDTO.getId() == null || (existingIds.contains(petDTO.getId()) && !stale.test(petDTO)))
+            .map(petDTO -> {
+                Pet pet = petMapper.toEntity(petDTO);
+                if (petDTO.getId() != null && petDTO.getVersion() == null) {
+                    // Without a version, the update overwrites the current version
+                    pet.setVersion(existingVersions.get(petDTO.getId()));
+                }
+                return pet;
+            })
+            .toList();
+        householdService.evict(Pet.class, existingIds);
+        pets = petRepository.saveAllAndFlush(pets);
+        List<Long> savedIds = pets.stream().map(Pet::getId).toList();
+        if (!existingIds.isEmpty()) {
+            visitRepository.updateOwnerIdByPetIdIn(existingIds);
+        }
+        searchIndexOutboxService.indexAll(Pet.class, savedIds);
+        householdService.evict(Pet.class, savedIds);
+
+        List<BulkItemResultDTO> results = new ArrayList<>(petDTOs.size());
+        Map<Long, PetDTO> created = new LinkedHashMap<>();
+        Map<Long, PetDTO> updated = new LinkedHashMap<>();
+        Iterator<Pet> saved = pets.iterator();
+        for (int index = 0; index < petDTOs.size(); index++) {
+            Long id = petDTOs.get(index).getId();
+            if (id != null && !existingIds.contains(id)) {
+                results.add(BulkItemResultDTO.notFound(index, id));
+                continue;
+            }
+            if (stale.test(petDTOs.get(index))) {
+                results.add(BulkItemResultDTO.conflict(index, id));
+                continue;
+            }
+            PetDTO result = petMapper.toDto(saved.next());
+            (id == null ? created : updated).put(result.getId(), result);
+            results.add(id == null ? BulkItemResultDTO.created(index, result.getId()) : BulkItemResultDTO.updated(index, id));
+        }
+        changeEventService.createdAll(Pet.class, created);
+        changeEventService.updatedAll(Pet.class, updated);
+        return results;
     }
 
     /**
@@ -74,16 +210,26 @@ public class PetService {
         return petRepository
             .findById(petDTO.getId())
             .map(existingPet -> {
+                if (petDTO.getVersion() != null && petDTO.getVersion() != existingPet.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(Pet.class, existingPet.getId());
+                }
+                householdService.evict(Pet.class, List.of(existingPet.getId()));
                 petMapper.partialUpdate(existingPet, petDTO);
 
                 return existingPet;
             })
-            .map(petRepository::save)
+            .map(petRepository::saveAndFlush)
             .map(savedPet -> {
-                petSearchRepository.index(savedPet);
+                visitRepository.updateOwnerIdByPetIdIn(List.of(savedPet.getId()));
+                searchIndexOutboxService.index(Pet.class, savedPet.getId());
+                householdService.evict(Pet.class, List.of(savedPet.getId()));
                 return savedPet;
             })
-            .map(petMapper::toDto);
+            .map(petMapper::toDto)
+            .map(updatedPet -> {
+                changeEventService.updated(Pet.class, updatedPet.getId(), updatedPet);
+                return updatedPet;
+            });
     }
 
     /**
@@ -98,6 +244,19 @@ public class PetService {
         return petRepository.findAll(pageable).map(petMapper::toDto);
     }
 
+    /**
+     * Get all the pets, restricted to some of their fields.
+     *
+     * @param fields the fields to select, from {@link #FIELDSET}.
+     * @param pageable the pagination information.
+     * @return the list of pets, as maps of their fields.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> findAllFields(List<String> fields, Pageable pageable) {
+        log.debug("Request to get all Pets with fields {}", fields);
+        return tupleProjectionRepository.findAll(Pet.class, fields, pageable).map(values -> Fieldset.toMap(fields, values));
+    }
+
     /**
      * Get all the pets with eager load of many-to-many relationships.
      *
@@ -107,6 +266,21 @@ public class PetService {
         return petRepository.findAllWithEagerRelationships(pageable).map(petMapper::toDto);
     }
 
+    /**
+     * Get the pets following the given id, in id order, without counting them.
+     *
+     * @param id the id of the last pet of the previous slice, or {@code null} for the first slice.
+     * @param size the maximum number of pets to return.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PetDTO> findAllAfter(Long id, int size) {
+        log.debug("Request to get {} Pets after id {}", size, id);
+        return petRepository
+            .findAllWithEagerRelationshipsByIdGreaterThan(Objects.requireNonNullElse(id, 0L), PageRequest.ofSize(size))
+            .map(petMapper::toDto);
+    }
+
     /**
      * Get one pet by id.
      *
@@ -126,8 +300,10 @@ public class PetService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Pet : {}", id);
+        changeEventService.deleted(Pet.class, id);
+        householdService.evict(Pet.class, List.of(id));
         petRepository.deleteById(id);
-        petSearchRepository.deleteFromIndexById(id);
+        searchIndexOutboxService.delete(Pet.class, id);
     }
 
     /**
@@ -142,4 +318,19 @@ public class PetService {
         log.debug("Request to search for a page of Pets for query {}", query);
         return petSearchRepository.search(query, pageable).map(petMapper::toDto);
     }
+
+    /**
+     * Suggest the pets matching a typed prefix, most relevant first.
+     *
+     * @param prefix the prefix typed by the user.
+     * @param size the maximum number of suggestions.
+     * @return the suggestions.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // served from the index alone, no connection needed
+    public List<PetSuggestionDTO> suggest(String prefix, int size) {
+        log.debug("Request to suggest {} Pets for prefix {}", size, prefix);
+        return suggestionCache.get(prefix, size, (normalizedPrefix, cappedSize) ->
+            petSearchRepository.suggest(normalizedPrefix, cappedSize).stream().map(petMapper::toSuggestionDto).toList()
+        );
+    }
 }
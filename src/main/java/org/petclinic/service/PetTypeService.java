@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,14 +29,22 @@ public class PetTypeService {
 
     private final PetTypeSearchRepository petTypeSearchRepository;
 
+    private final SearchIndexOutboxService searchIndexOutboxService;
+
+    private final ChangeEventService changeEventService;
+
     public PetTypeService(
         PetTypeRepository petTypeRepository,
         PetTypeMapper petTypeMapper,
-        PetTypeSearchRepository petTypeSearchRepository
+        PetTypeSearchRepository petTypeSearchRepository,
+        SearchIndexOutboxService searchIndexOutboxService,
+        ChangeEventService changeEventService
     ) {
         this.petTypeRepository = petTypeRepository;
         this.petTypeMapper = petTypeMapper;
         this.petTypeSearchRepository = petTypeSearchRepository;
+        this.searchIndexOutboxService = searchIndexOutboxService;
+        this.changeEventService = changeEventService;
     }
 
     /**
@@ -48,8 +57,10 @@ public class PetTypeService {
         log.debug("Request to save PetType : {}", petTypeDTO);
         PetType petType = petTypeMapper.toEntity(petTypeDTO);
         petType = petTypeRepository.save(petType);
-        petTypeSearchRepository.index(petType);
-        return petTypeMapper.toDto(petType);
+        searchIndexOutboxService.index(PetType.class, petType.getId());
+        PetTypeDTO result = petTypeMapper.toDto(petType);
+        changeEventService.created(PetType.class, result.getId(), result);
+        return result;
     }
 
     /**
@@ -61,9 +72,11 @@ public class PetTypeService {
     public PetTypeDTO update(PetTypeDTO petTypeDTO) {
         log.debug("Request to update PetType : {}", petTypeDTO);
         PetType petType = petTypeMapper.toEntity(petTypeDTO);
-        petType = petTypeRepository.save(petType);
-        petTypeSearchRepository.index(petType);
-        return petTypeMapper.toDto(petType);
+        petType = petTypeRepository.saveAndFlush(petType);
+        searchIndexOutboxService.index(PetType.class, petType.getId());
+        PetTypeDTO result = petTypeMapper.toDto(petType);
+        changeEventService.updated(PetType.class, result.getId(), result);
+        return result;
     }
 
     /**
@@ -78,16 +91,23 @@ public class PetTypeService {
         return petTypeRepository
             .findById(petTypeDTO.getId())
             .map(existingPetType -> {
+                if (petTypeDTO.getVersion() != null && petTypeDTO.getVersion() != existingPetType.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(PetType.class, existingPetType.getId());
+                }
                 petTypeMapper.partialUpdate(existingPetType, petTypeDTO);
 
                 return existingPetType;
             })
-            .map(petTypeRepository::save)
+            .map(petTypeRepository::saveAndFlush)
             .map(savedPetType -> {
-                petTypeSearchRepository.index(savedPetType);
+                searchIndexOutboxService.index(PetType.class, savedPetType.getId());
                 return savedPetType;
             })
-            .map(petTypeMapper::toDto);
+            .map(petTypeMapper::toDto)
+            .map(updatedPetType -> {
+                changeEventService.updated(PetType.class, updatedPetType.getId(), updatedPetType);
+                return updatedPetType;
+            });
     }
 
     /**
@@ -121,8 +141,9 @@ public class PetTypeService {
      */
     public void delete(Long id) {
         log.debug("Request to delete PetType : {}", id);
+        changeEventService.deleted(PetType.class, id);
         petTypeRepository.deleteById(id);
-        petTypeSearchRepository.deleteFromIndexById(id);
+        searchIndexOutboxService.delete(PetType.class, id);
     }
 
     /**
@@ -0,0 +1,81 @@
+package org.petclinic.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.repository.SearchIndexOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Periodically drains the search index outbox, see {@link SearchIndexOutboxService}.
+ * <p>
+ * The backlog size and the age of the oldest pending entry are published as the
+ * {@code search.index.outbox.backlog} and {@code search.index.outbox.lag} gauges.
+ */
+@Service
+public class SearchIndexOutboxRelay {
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexOutboxRelay.class);
+
+    private final SearchIndexOutboxService searchIndexOutboxService;
+
+    private final SearchIndexOutboxRepository searchIndexOutboxRepository;
+
+    private final ApplicationProperties.SearchIndex.Outbox outboxProperties;
+
+    private final Timer relayTimer;
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public SearchIndexOutboxRelay(
+        SearchIndexOutboxService searchIndexOutboxService,
+        SearchIndexOutboxRepository searchIndexOutboxRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.searchIndexOutboxService = searchIndexOutboxService;
+        this.searchIndexOutboxRepository = searchIndexOutboxRepository;
+        this.outboxProperties = applicationProperties.getSearchIndex().getOutbox();
+        this.relayTimer = Timer.builder("search.index.outbox.relay")
+            .description("Time spent relaying one outbox batch")
+            .register(meterRegistry);
+        Gauge.builder("search.index.outbox.backlog", backlog, AtomicLong::get)
+            .description("Outbox entries waiting to be relayed")
+            .register(meterRegistry);
+        Gauge.builder("search.index.outbox.lag", lagMillis, AtomicLong::get)
+            .description("Age of the oldest outbox entry")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.search-index.outbox.poll-interval:1000}")
+    public void relay() {
+        if (!outboxProperties.isEnabled()) {
+            return;
+        }
+        try {
+            int relayed;
+            do {
+                relayed = relayTimer.record(searchIndexOutboxService::drain);
+            } while (relayed >= outboxProperties.getBatchSize());
+            updateGauges();
+        } catch (RuntimeException e) {
+            log.warn("Could not relay search index outbox, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void updateGauges() {
+        backlog.set(searchIndexOutboxRepository.count());
+        Instant oldest = searchIndexOutboxRepository.findOldestCreatedDate();
+        lagMillis.set(oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis());
+    }
+}
@@ -0,0 +1,373 @@
+package org.petclinic.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.domain.Owner;
+import org.petclinic.domain.Pet;
+import org.petclinic.domain.PetType;
+import org.petclinic.domain.SearchIndexOutbox;
+import org.petclinic.domain.SearchReindexCheckpoint;
+import org.petclinic.domain.Specialty;
+import org.petclinic.domain.Vet;
+import org.petclinic.domain.VetSpecialty;
+import org.petclinic.domain.Visit;
+import org.petclinic.domain.enumeration.SearchIndexOperation;
+import org.petclinic.domain.enumeration.SearchReindexStatus;
+import org.petclinic.domain.search.VisitSearchDocument;
+import org.petclinic.repository.SearchIndexOutboxRepository;
+import org.petclinic.repository.SearchReindexCheckpointRepository;
+import org.petclinic.repository.VisitRepository;
+import org.petclinic.repository.search.OwnerSearchRepository;
+import org.petclinic.repository.search.PetSearchRepository;
+import org.petclinic.repository.search.PetTypeSearchRepository;
+import org.petclinic.repository.search.SearchIndexAdminRepository;
+import org.petclinic.repository.search.SpecialtySearchRepository;
+import org.petclinic.repository.search.VetSearchRepository;
+import org.petclinic.repository.search.VetSpecialtySearchRepository;
+import org.petclinic.repository.search.VisitSearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service keeping the Elasticsearch indices in sync with the database through a transactional outbox.
+ * <p>
+ * Entity services call {@link #index(Class, Long)} and {@link #delete(Class, Long)} inside their own transaction,
+ * so a change is only published if the mutation commits. {@link SearchIndexOutboxRelay} then drains the outbox with
+ * {@link #drain()}, coalescing repeated changes to the same entity and shipping each entity type as one bulk request.
+ * <p>
+ * Visit documents carry fields of their pet, pet type and owner: indexing one of these also re-indexes the documents
+ * of the related visits, in bulk requests of the outbox batch size.
+ * <p>
+ * While an index is being rebuilt by {@link SearchReindexService}, changes are also written to the new index so
+ * they are not lost when its alias is swapped.
+ */
+@Service
+@Transactional
+public class SearchIndexOutboxService {
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexOutboxService.class);
+
+    private final SearchIndexOutboxRepository searchIndexOutboxRepository;
+
+    private final SearchReindexCheckpointRepository searchReindexCheckpointRepository;
+
+    private final SearchIndexAdminRepository searchIndexAdminRepository;
+
+    private final ApplicationProperties.SearchIndex.Outbox outboxProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, SearchIndexTarget> targets = new LinkedHashMap<>();
+
+    private final Map<String, List<SearchIndexDependency>> dependencies = new LinkedHashMap<>();
+
+    public SearchIndexOutboxService(
+        SearchIndexOutboxRepository searchIndexOutboxRepository,
+        SearchReindexCheckpointRepository searchReindexCheckpointRepository,
+        SearchIndexAdminRepository searchIndexAdminRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        OwnerSearchRepository ownerSearchRepository,
+        PetSearchRepository petSearchRepository,
+        PetTypeSearchRepository petTypeSearchRepository,
+        SpecialtySearchRepository specialtySearchRepository,
+        VetSearchRepository vetSearchRepository,
+        VetSpecialtySearchRepository vetSpecialtySearchRepository,
+        VisitSearchRepository visitSearchRepository,
+        VisitRepository visitRepository
+    ) {
+        this.searchIndexOutboxRepository = searchIndexOutboxRepository;
+        this.searchReindexCheckpointRepository = searchReindexCheckpointRepository;
+        this.searchIndexAdminRepository = searchIndexAdminRepository;
+        this.outboxProperties = applicationProperties.getSearchIndex().getOutbox();
+        this.meterRegistry = meterRegistry;
+        register(Owner.class, ownerSearchRepository::indexAll, Owner::getId, ownerSearchRepository::deleteAllById);
+        register(Pet.class, petSearchRepository::indexAll, Pet::getId, petSearchRepository::deleteAllById);
+        register(PetType.class, petTypeSearchRepository::indexAll, PetType::getId, petTypeSearchRepository::deleteAllById);
+        register(Specialty.class, specialtySearchRepository::indexAll, Specialty::getId, specialtySearchRepository::deleteAllById);
+        register(Vet.class, vetSearchRepository::indexAll, Vet::getId, vetSearchRepository::deleteAllById);
+        register(
+            VetSpecialty.class,
+            vetSpecialtySearchRepository::indexAll,
+            VetSpecialty::getId,
+            vetSpecialtySearchRepository::deleteAllById
+        );
+        register(
+            Visit.class,
+            VisitSearchDocument.class,
+            visitSearchRepository::indexAll,
+            VisitSearchDocument::getId,
+            visitSearchRepository::deleteAllById
+        );
+        registerDependency(Pet.class, Visit.class, visitRepository::findIdsByPetIdIn);
+        registerDependency(PetType.class, Visit.class, visitRepository::findIdsByPetTypeIdIn);
+        registerDependency(Owner.class, Visit.class, visitRepository::findIdsByOwnerIdIn);
+    }
+
+    private <T> void register(
+        Class<T> entityClass,
+        Function<Collection<Long>, List<T>> indexer,
+        Function<T, Long> documentId,
+        Consumer<Collection<Long>> deleter
+    ) {
+        register(entityClass, entityClass, indexer, documentId, deleter);
+    }
+
+    private <T> void register(
+        Class<?> entityClass,
+        Class<T> documentClass,
+        Function<Collection<Long>, List<T>> indexer,
+        Function<T, Long> documentId,
+        Consumer<Collection<Long>> deleter
+    ) {
+        targets.put(
+            entityClass.getSimpleName(),
+            new SearchIndexTarget(documentClass, indexer::apply, document -> documentId.apply(documentClass.cast(document)), deleter)
+        );
+    }
+
+    private void registerDependency(Class<?> entityClass, Class<?> dependentClass, Function<Collection<Long>, List<Long>> dependentIds) {
+        dependencies
+            .computeIfAbsent(entityClass.getSimpleName(), type -> new ArrayList<>())
+            .add(new SearchIndexDependency(dependentClass.getSimpleName(), dependentIds));
+    }
+
+    /**
+     * Request (re)indexing of an entity once the current transaction commits.
+     *
+     * @param entityClass the indexed entity class.
+     * @param id the id of the entity.
+     */
+    public void index(Class<?> entityClass, Long id) {
+        record(entityClass, id, SearchIndexOperation.INDEX);
+    }
+
+    /**
+     * Request (re)indexing of entities once the current transaction commits, as one bulk request when the outbox is
+     * disabled.
+     *
+     * @param entityClass the indexed entity class.
+     * @param ids the ids of the entities.
+     */
+    public void indexAll(Class<?> entityClass, Collection<Long> ids) {
+        String entityType = entityType(entityClass);
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!outboxProperties.isEnabled()) {
+            Map<Long, SearchIndexOperation> operations = new LinkedHashMap<>();
+            ids.forEach(id -> operations.put(id, SearchIndexOperation.INDEX));
+            applyDirectly(entityType, operations);
+            return;
+        }
+        Instant now = Instant.now();
+        searchIndexOutboxRepository.saveAll(
+            ids
+                .stream()
+                .map(id -> new SearchIndexOutbox().entityType(entityType).entityId(id).operation(SearchIndexOperation.INDEX))
+                .map(entry -> entry.createdDate(now))
+                .toList()
+        );
+    }
+
+    /**
+     * Request removal of an entity from its index once the current transaction commits.
+     *
+     * @param entityClass the indexed entity class.
+     * @param id the id of the entity.
+     */
+    public void delete(Class<?> entityClass, Long id) {
+        record(entityClass, id, SearchIndexOperation.DELETE);
+    }
+
+    private void record(Class<?> entityClass, Long id, SearchIndexOperation operation) {
+        String entityType = entityType(entityClass);
+        if (!outboxProperties.isEnabled()) {
+            applyDirectly(entityType, Map.of(id, operation));
+            return;
+        }
+        searchIndexOutboxRepository.save(
+            new SearchIndexOutbox().entityType(entityType).entityId(id).operation(operation).createdDate(Instant.now())
+        );
+    }
+
+    private String entityType(Class<?> entityClass) {
+        String entityType = entityClass.getSimpleName();
+        if (!targets.containsKey(entityType)) {
+            throw new IllegalArgumentException("No search index registered for " + entityClass.getName());
+        }
+        return entityType;
+    }
+
+    /**
+     * Apply the oldest batch of pending changes to Elasticsearch and remove them from the outbox.
+     * <p>
+     * If Elasticsearch rejects the batch the transaction rolls back and the entries are retried on the next run.
+     *
+     * @return the number of outbox entries consumed.
+     */
+    public int drain() {
+        List<SearchIndexOutbox> batch = searchIndexOutboxRepository.findBatchForUpdate(PageRequest.of(0, outboxProperties.getBatchSize()));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        // Entries are ordered by id, so the last operation recorded for an entity wins
+        Map<String, Map<Long, SearchIndexOperation>> latest = new LinkedHashMap<>();
+        batch.forEach(entry ->
+            latest.computeIfAbsent(entry.getEntityType(), type -> new LinkedHashMap<>()).put(entry.getEntityId(), entry.getOperation())
+        );
+        List<SearchReindexCheckpoint> unfinishedReindexes = unfinishedReindexes();
+        List<AppliedChanges> changes = new ArrayList<>();
+        int applied = 0;
+        for (Map.Entry<String, Map<Long, SearchIndexOperation>> byType : latest.entrySet()) {
+            if (targets.containsKey(byType.getKey())) {
+                apply(byType.getKey(), byType.getValue(), unfinishedReindexes, changes);
+                applied += byType.getValue().size();
+            } else {
+                log.warn("Dropping search index outbox entries for unknown entity type {}", byType.getKey());
+            }
+        }
+        applyToStartedReindexes(unfinishedReindexes, changes);
+        searchIndexOutboxRepository.deleteAllInBatch(batch);
+        Counter.builder("search.index.outbox.coalesced")
+            .description("Outbox entries superseded by a later change to the same entity")
+            .register(meterRegistry)
+            .increment(batch.size() - applied);
+        log.debug("Relayed {} search index outbox entries as {} index operations", batch.size(), applied);
+        return batch.size();
+    }
+
+    private List<SearchReindexCheckpoint> unfinishedReindexes() {
+        // A failed rebuild is started over rather than resumed, its index is left behind until then
+        return searchReindexCheckpointRepository.findAllByStatus(SearchReindexStatus.RUNNING);
+    }
+
+    private void applyDirectly(String entityType, Map<Long, SearchIndexOperation> operations) {
+        List<SearchReindexCheckpoint> unfinishedReindexes = unfinishedReindexes();
+        List<AppliedChanges> changes = new ArrayList<>();
+        apply(entityType, operations, unfinishedReindexes, changes);
+        applyToStartedReindexes(unfinishedReindexes, changes);
+    }
+
+    /**
+     * Write applied changes to the indices of the rebuilds started since the running rebuilds were read.
+     * <p>
+     * Such a rebuild may have read its chunks before the changes reached the replica it reads from. A rebuild started
+     * after this second read reads its chunks later still, and receives the changes of the next batches.
+     */
+    private void applyToStartedReindexes(List<SearchReindexCheckpoint> unfinishedReindexes, List<AppliedChanges> changes) {
+        Set<String> knownIndices = unfinishedReindexes.stream().map(SearchReindexCheckpoint::getIndexName).collect(Collectors.toSet());
+        for (SearchReindexCheckpoint started : unfinishedReindexes()) {
+            if (knownIndices.contains(started.getIndexName())) {
+                continue;
+            }
+            for (AppliedChanges applied : changes) {
+                if (applied.entityType().equals(started.getEntityType())) {
+                    searchIndexAdminRepository.bulkIndex(applied.indexed(), started.getIndexName());
+                    if (!applied.deletedIds().isEmpty()) {
+                        searchIndexAdminRepository.deleteAllById(applied.documentClass(), applied.deletedIds(), started.getIndexName());
+                    }
+                }
+            }
+        }
+    }
+
+    private void apply(
+        String entityType,
+        Map<Long, SearchIndexOperation> operations,
+        List<SearchReindexCheckpoint> unfinishedReindexes,
+        List<AppliedChanges> changes
+    ) {
+        List<Long> toIndex = new ArrayList<>();
+        List<Long> toDelete = new ArrayList<>();
+        operations.forEach((id, operation) -> (operation == SearchIndexOperation.DELETE ? toDelete : toIndex).add(id));
+        SearchIndexTarget target = targets.get(entityType);
+        List<String> rebuiltIndices = unfinishedReindexes
+            .stream()
+            .filter(checkpoint -> checkpoint.getEntityType().equals(entityType))
+            .map(SearchReindexCheckpoint::getIndexName)
+            .toList();
+        List<?> indexed = List.of();
+        if (!toIndex.isEmpty()) {
+            indexed = target.indexer().apply(toIndex);
+            // An entity deleted since the change was recorded has no row to index, its document is deleted instead
+            Set<Long> indexedIds = indexed.stream().map(target.documentId()).collect(Collectors.toSet());
+            toIndex.stream().filter(id -> !indexedIds.contains(id)).forEach(toDelete::add);
+            List<?> documents = indexed;
+            rebuiltIndices.forEach(indexName -> searchIndexAdminRepository.bulkIndex(documents, indexName));
+            appliedCounter(entityType, SearchIndexOperation.INDEX).increment(toIndex.size());
+            for (SearchIndexDependency dependency : dependencies.getOrDefault(entityType, List.of())) {
+                reindexDependents(dependency, toIndex, unfinishedReindexes, changes);
+            }
+        }
+        changes.add(new AppliedChanges(entityType, target.documentClass(), indexed, toDelete));
+        if (!toDelete.isEmpty()) {
+            target.deleter().accept(toDelete);
+            rebuiltIndices.forEach(indexName -> searchIndexAdminRepository.deleteAllById(target.documentClass(), toDelete, indexName));
+            appliedCounter(entityType, SearchIndexOperation.DELETE).increment(toDelete.size());
+        }
+    }
+
+    private void reindexDependents(
+        SearchIndexDependency dependency,
+        List<Long> ids,
+        List<SearchReindexCheckpoint> unfinishedReindexes,
+        List<AppliedChanges> changes
+    ) {
+        List<Long> dependentIds = dependency.dependentIds().apply(ids);
+        for (int from = 0; from < dependentIds.size(); from += outboxProperties.getBatchSize()) {
+            Map<Long, SearchIndexOperation> operations = new LinkedHashMap<>();
+            dependentIds
+                .subList(from, Math.min(from + outboxProperties.getBatchSize(), dependentIds.size()))
+                .forEach(id -> operations.put(id, SearchIndexOperation.INDEX));
+            apply(dependency.entityType(), operations, unfinishedReindexes, changes);
+        }
+        if (!dependentIds.isEmpty()) {
+            log.debug(
+                "Re-indexed {} {} documents depending on {} changed entities",
+                dependentIds.size(),
+                dependency.entityType(),
+                ids.size()
+            );
+        }
+    }
+
+    private Counter appliedCounter(String entityType, SearchIndexOperation operation) {
+        return Counter.builder("search.index.outbox.applied")
+            .description("Index operations sent to Elasticsearch")
+            .tag("entity", entityType)
+            .tag("operation", operation.name())
+            .register(meterRegistry);
+    }
+
+    private record SearchIndexTarget(
+        Class<?> documentClass,
+        Function<Collection<Long>, List<?>> indexer,
+        Function<Object, Long> documentId,
+        Consumer<Collection<Long>> deleter
+    ) {}
+
+    /**
+     * Documents written to the index of an entity type and ids deleted from it, by one batch of changes.
+     */
+    private record AppliedChanges(String entityType, Class<?> documentClass, List<?> indexed, List<Long> deletedIds) {}
+
+    /**
+     * Documents of another entity type that embed fields of the entity, found by the ids of the changed entities.
+     */
+    private record SearchIndexDependency(String entityType, Function<Collection<Long>, List<Long>> dependentIds) {}
+}
@@ -0,0 +1,396 @@
+package org.petclinic.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.domain.Owner;
+import org.petclinic.domain.Pet;
+import org.petclinic.domain.PetType;
+import org.petclinic.domain.SearchReindexCheckpoint;
+import org.petclinic.domain.Specialty;
+import org.petclinic.domain.Vet;
+import org.petclinic.domain.VetSpecialty;
+import org.petclinic.domain.Visit;
+import org.petclinic.domain.enumeration.SearchReindexStatus;
+import org.petclinic.domain.search.VisitSearchDocument;
+import org.petclinic.repository.OwnerRepository;
+import org.petclinic.repository.PetRepository;
+import org.petclinic.repository.PetTypeRepository;
+import org.petclinic.repository.SearchReindexCheckpointRepository;
+import org.petclinic.repository.SpecialtyRepository;
+import org.petclinic.repository.VetRepository;
+import org.petclinic.repository.VetSpecialtyRepository;
+import org.petclinic.repository.VisitRepository;
+import org.petclinic.repository.search.SearchIndexAdminRepository;
+import org.petclinic.service.dto.SearchReindexStatusDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.util.Streamable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service rebuilding the search indices from the database.
+ * <p>
+ * Each index is rebuilt into a fresh versioned index: rows are streamed in keyset order by id, and the bulk request for
+ * one chunk runs while the next chunk is read. Progress is checkpointed after every chunk so an interrupted rebuild can
+ * resume from the last committed id. Chunks never overwrite the documents that {@link SearchIndexOutboxService} writes to
+ * the new index meanwhile. Once an index is complete its alias is swapped atomically. Database reads are
+ * throttled to {@code application.search-index.reindex.max-documents-per-second} to protect the REST API latency.
+ */
+@Service
+public class SearchReindexService {
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexService.class);
+
+    private final SearchReindexCheckpointRepository searchReindexCheckpointRepository;
+
+    private final SearchIndexAdminRepository searchIndexAdminRepository;
+
+    private final ApplicationProperties.SearchIndex.Reindex reindexProperties;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ReindexSource<?>> sources = new LinkedHashMap<>();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final List<ExecutorService> executors = new ArrayList<>();
+
+    // Guards checkpoint writes, a lock rather than synchronized so that a virtual thread waiting on the database does not pin its carrier
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+
+    public SearchReindexService(
+        SearchReindexCheckpointRepository searchReindexCheckpointRepository,
+        SearchIndexAdminRepository searchIndexAdminRepository,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        OwnerRepository ownerRepository,
+        PetRepository petRepository,
+        PetTypeRepository petTypeRepository,
+        SpecialtyRepository specialtyRepository,
+        VetRepository vetRepository,
+        VetSpecialtyRepository vetSpecialtyRepository,
+        VisitRepository visitRepository
+    ) {
+        this.searchReindexCheckpointRepository = searchReindexCheckpointRepository;
+        this.searchIndexAdminRepository = searchIndexAdminRepository;
+        this.reindexProperties = applicationProperties.getSearchIndex().getReindex();
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        register(
+            new ReindexSource<>(
+                Owner.class,
+                ownerRepository::findByIdGreaterThanOrderByIdAsc,
+                Owner::getId,
+                ownerRepository::findIdsByIdIn
+            )
+        );
+        register(
+            new ReindexSource<>(
+                Pet.class,
+                petRepository::findAllWithEagerRelationshipsByIdGreaterThan,
+                Pet::getId,
+                petRepository::findIdsByIdIn
+            )
+        );
+        register(
+            new ReindexSource<>(
+                PetType.class,
+                petTypeRepository::findByIdGreaterThanOrderByIdAsc,
+                PetType::getId,
+                petTypeRepository::findIdsByIdIn
+            )
+        );
+        register(
+            new ReindexSource<>(
+                Specialty.class,
+                specialtyRepository::findByIdGreaterThanOrderByIdAsc,
+                Specialty::getId,
+                specialtyRepository::findIdsByIdIn
+            )
+        );
+        register(
+            new ReindexSource<>(
+                Vet.class,
+                vetRepository::findAllWithEagerRelationshipsByIdGreaterThan,
+                Vet::getId,
+                vetRepository::findIdsByIdIn
+            )
+        );
+        register(
+            new ReindexSource<>(
+                VetSpecialty.class,
+                vetSpecialtyRepository::findByIdGreaterThanOrderByIdAsc,
+                VetSpecialty::getId,
+                vetSpecialtyRepository::findIdsByIdIn
+            )
+        );
+        register(
+            new ReindexSource<>(
+                Visit.class,
+                VisitSearchDocument.class,
+                visitRepository::findSearchDocumentsByIdGreaterThan,
+                VisitSearchDocument::getId,
+                visitRepository::findIdsByIdIn
+            )
+        );
+    }
+
+    private void register(ReindexSource<?> source) {
+        sources.put(source.entityClass().getSimpleName(), source);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Start rebuilding all the search indices in the background.
+     *
+     * @param resume continue interrupted rebuilds from their last checkpoint instead of starting over, failed rebuilds
+     * are started over.
+     * @return {@code false} if a rebuild is already running on this node.
+     */
+    public boolean start(boolean resume) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        List<CompletableFuture<Void>> jobs = new ArrayList<>();
+        try {
+            ExecutorService jobExecutor = newExecutor("search-reindex-");
+            ExecutorService bulkExecutor = newExecutor("search-reindex-bulk-");
+            Throttle throttle = new Throttle(reindexProperties.getMaxDocumentsPerSecond());
+            for (Map.Entry<String, ReindexSource<?>> source : sources.entrySet()) {
+                SearchReindexCheckpoint checkpoint = prepareCheckpoint(source.getKey(), source.getValue(), resume);
+                jobs.add(CompletableFuture.runAsync(() -> rebuild(source.getValue(), checkpoint, throttle, bulkExecutor), jobExecutor));
+            }
+        } catch (RuntimeException e) {
+            shutdownExecutors();
+            running.set(false);
+            throw e;
+        }
+        CompletableFuture.allOf(jobs.toArray(CompletableFuture[]::new)).whenComplete((result, error) -> {
+            shutdownExecutors();
+            running.set(false);
+        });
+        return true;
+    }
+
+    /**
+     * Get the progress of the latest rebuild of every search index.
+     *
+     * @return the list of statuses.
+     */
+    public List<SearchReindexStatusDTO> getStatus() {
+        return searchReindexCheckpointRepository.findAll().stream().map(this::toStatus).toList();
+    }
+
+    private SearchReindexCheckpoint prepareCheckpoint(String entityType, ReindexSource<?> source, boolean resume) {
+        Optional<SearchReindexCheckpoint> previous = searchReindexCheckpointRepository
+            .findById(entityType)
+            .filter(checkpoint -> checkpoint.getStatus() != SearchReindexStatus.COMPLETED)
+            .filter(checkpoint -> searchIndexAdminRepository.exists(checkpoint.getIndexName()));
+        // A failed rebuild no longer received the dual writes, it misses the changes made since it failed
+        if (resume && previous.filter(checkpoint -> checkpoint.getStatus() == SearchReindexStatus.RUNNING).isPresent()) {
+            log.info("Resuming rebuild of {} after id {}", previous.orElseThrow().getIndexName(), previous.orElseThrow().getLastId());
+            return searchReindexCheckpointRepository.save(previous.orElseThrow().status(SearchReindexStatus.RUNNING));
+        }
+        previous.ifPresent(abandoned -> searchIndexAdminRepository.delete(abandoned.getIndexName()));
+        Instant now = Instant.now();
+        SearchReindexCheckpoint checkpoint = new SearchReindexCheckpoint()
+            .entityType(entityType)
+            .indexName(searchIndexAdminRepository.createVersionedIndex(source.documentClass()))
+            .lastId(0L)
+            .indexedCount(0L)
+            .status(SearchReindexStatus.RUNNING)
+            .startedDate(now)
+            .lastModifiedDate(now);
+        return searchReindexCheckpointRepository.save(checkpoint);
+    }
+
+    private <T> void rebuild(ReindexSource<T> source, SearchReindexCheckpoint checkpoint, Throttle throttle, ExecutorService bulkExecutor) {
+        Counter documents = Counter.builder("search.reindex.documents")
+            .description("Documents written by the search index rebuild")
+            .tag("entity", checkpoint.getEntityType())
+            .register(meterRegistry);
+        Pageable chunk = PageRequest.ofSize(reindexProperties.getChunkSize());
+        try {
+            CompletableFuture<Void> pendingBulk = CompletableFuture.completedFuture(null);
+            long lastId = checkpoint.getLastId();
+            while (true) {
+                throttle.acquire(chunk.getPageSize());
+                long afterId = lastId;
+                List<T> entities = readOnlyTransactionTemplate.execute(status ->
+                    Streamable.of(source.chunkLoader().apply(afterId, chunk)).toList()
+                );
+                pendingBulk.join();
+                if (entities == null || entities.isEmpty()) {
+                    break;
+                }
+                long chunkLastId = source.idGetter().apply(entities.get(entities.size() - 1));
+                pendingBulk = CompletableFuture.runAsync(
+                    () -> {
+                        writeChunk(source, entities, checkpoint.getIndexName());
+                        saveProgress(checkpoint, chunkLastId, entities.size());
+                        documents.increment(entities.size());
+                    },
+                    bulkExecutor
+                );
+                lastId = chunkLastId;
+            }
+            searchIndexAdminRepository.swapAlias(source.documentClass(), checkpoint.getIndexName());
+            updateStatus(checkpoint, SearchReindexStatus.COMPLETED);
+            log.info("Rebuilt {} with {} documents", checkpoint.getIndexName(), checkpoint.getIndexedCount());
+        } catch (RuntimeException e) {
+            log.error("Rebuild of {} failed after id {}", checkpoint.getIndexName(), checkpoint.getLastId(), e);
+            updateStatus(checkpoint, SearchReindexStatus.FAILED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            updateStatus(checkpoint, SearchReindexStatus.FAILED);
+        }
+    }
+
+    /**
+     * Write a chunk to the rebuilt index without overwriting the changes dual-written there since the chunk was read.
+     * <p>
+     * A change is dual-written after it commits, so a document already in the index is at least as recent as the chunk
+     * and is kept. A deletion dual-written before the chunk would bring the document back: the ids that no longer exist
+     * are then deleted again, read from the primary since a replica may not have the deletion yet.
+     */
+    private <T> void writeChunk(ReindexSource<T> source, List<T> entities, String indexName) {
+        searchIndexAdminRepository.bulkCreate(entities, source.idGetter(), indexName);
+        Set<Long> deletedIds = entities.stream().map(source.idGetter()).collect(Collectors.toCollection(HashSet::new));
+        source.existingIds().apply(deletedIds).forEach(deletedIds::remove);
+        if (!deletedIds.isEmpty()) {
+            searchIndexAdminRepository.deleteAllById(source.documentClass(), deletedIds, indexName);
+        }
+    }
+
+    private void saveProgress(SearchReindexCheckpoint checkpoint, long lastId, int count) {
+        checkpointLock.lock();
+        try {
+            checkpoint.lastId(lastId).indexedCount(checkpoint.getIndexedCount() + count).lastModifiedDate(Instant.now());
+            searchReindexCheckpointRepository.save(checkpoint);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    private void updateStatus(SearchReindexCheckpoint checkpoint, SearchReindexStatus status) {
+        checkpointLock.lock();
+        try {
+            checkpoint.status(status).lastModifiedDate(Instant.now());
+            searchReindexCheckpointRepository.save(checkpoint);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    private SearchReindexStatusDTO toStatus(SearchReindexCheckpoint checkpoint) {
+        SearchReindexStatusDTO status = new SearchReindexStatusDTO();
+        status.setEntityType(checkpoint.getEntityType());
+        status.setIndexName(checkpoint.getIndexName());
+        status.setLastId(checkpoint.getLastId());
+        status.setIndexedCount(checkpoint.getIndexedCount());
+        status.setStatus(checkpoint.getStatus());
+        status.setStartedDate(checkpoint.getStartedDate());
+        status.setLastModifiedDate(checkpoint.getLastModifiedDate());
+        long elapsedMillis = Duration.between(checkpoint.getStartedDate(), checkpoint.getLastModifiedDate()).toMillis();
+        status.setDocumentsPerSecond(elapsedMillis > 0 ? checkpoint.getIndexedCount() * 1000.0 / elapsedMillis : 0);
+        return status;
+    }
+
+    private synchronized ExecutorService newExecutor(String threadNamePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(reindexProperties.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executors.add(executor);
+        return executor;
+    }
+
+    @PreDestroy
+    synchronized void shutdownExecutors() {
+        executors.forEach(ExecutorService::shutdownNow);
+        executors.clear();
+    }
+
+    /**
+     * The entities of one index, read by ascending id; the document class is the entity class unless the entity is
+     * indexed as a dedicated document. The ids of the entities that still exist are read without loading them.
+     */
+    private record ReindexSource<T>(
+        Class<?> entityClass,
+        Class<T> documentClass,
+        BiFunction<Long, Pageable, Iterable<T>> chunkLoader,
+        Function<T, Long> idGetter,
+        Function<Collection<Long>, List<Long>> existingIds
+    ) {
+        ReindexSource(
+            Class<T> entityClass,
+            BiFunction<Long, Pageable, Iterable<T>> chunkLoader,
+            Function<T, Long> idGetter,
+            Function<Collection<Long>, List<Long>> existingIds
+        ) {
+            this(entityClass, entityClass, chunkLoader, idGetter, existingIds);
+        }
+    }
+
+    /**
+     * Spaces out database reads so that all rebuilds together stay under a fixed number of documents per second.
+     */
+    private static final class Throttle {
+
+        private final long nanosPerDocument;
+
+        private long nextFreeNanos = System.nanoTime();
+
+        Throttle(int documentsPerSecond) {
+            this.nanosPerDocument = TimeUnit.SECONDS.toNanos(1) / Math.max(1, documentsPerSecond);
+        }
+
+        void acquire(int documents) throws InterruptedException {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long start = Math.max(now, nextFreeNanos);
+                nextFreeNanos = start + documents * nanosPerDocument;
+                waitNanos = start - now;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
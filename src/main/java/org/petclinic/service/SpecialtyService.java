@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,14 +29,22 @@ public class SpecialtyService {
 
     private final SpecialtySearchRepository specialtySearchRepository;
 
+    private final SearchIndexOutboxService searchIndexOutboxService;
+
+    private final ChangeEventService changeEventService;
+
     public SpecialtyService(
         SpecialtyRepository specialtyRepository,
         SpecialtyMapper specialtyMapper,
-        SpecialtySearchRepository specialtySearchRepository
+        SpecialtySearchRepository specialtySearchRepository,
+        SearchIndexOutboxService searchIndexOutboxService,
+        ChangeEventService changeEventService
     ) {
         this.specialtyRepository = specialtyRepository;
         this.specialtyMapper = specialtyMapper;
         this.specialtySearchRepository = specialtySearchRepository;
+        this.searchIndexOutboxService = searchIndexOutboxService;
+        this.changeEventService = changeEventService;
     }
 
     /**
@@ -48,8 +57,10 @@ public class SpecialtyService {
         log.debug("Request to save Specialty : {}", specialtyDTO);
         Specialty specialty = specialtyMapper.toEntity(specialtyDTO);
         specialty = specialtyRepository.save(specialty);
-        specialtySearchRepository.index(specialty);
-        return specialtyMapper.toDto(specialty);
+        searchIndexOutboxService.index(Specialty.class, specialty.getId());
+        SpecialtyDTO result = specialtyMapper.toDto(specialty);
+        changeEventService.created(Specialty.class, result.getId(), result);
+        return result;
     }
 
     /**
@@ -61,9 +72,11 @@ public class SpecialtyService {
     public SpecialtyDTO update(SpecialtyDTO specialtyDTO) {
         log.debug("Request to update Specialty : {}", specialtyDTO);
         Specialty specialty = specialtyMapper.toEntity(specialtyDTO);
-        specialty = specialtyRepository.save(specialty);
-        specialtySearchRepository.index(specialty);
-        return specialtyMapper.toDto(specialty);
+        specialty = specialtyRepository.saveAndFlush(specialty);
+        searchIndexOutboxService.index(Specialty.class, specialty.getId());
+        SpecialtyDTO result = specialtyMapper.toDto(specialty);
+        changeEventService.updated(Specialty.class, result.getId(), result);
+        return result;
     }
 
     /**
@@ -78,16 +91,23 @@ public class SpecialtyService {
         return specialtyRepository
             .findById(specialtyDTO.getId())
             .map(existingSpecialty -> {
+                if (specialtyDTO.getVersion() != null && specialtyDTO.getVersion() != existingSpecialty.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(Specialty.class, existingSpecialty.getId());
+                }
                 specialtyMapper.partialUpdate(existingSpecialty, specialtyDTO);
 
                 return existingSpecialty;
             })
-            .map(specialtyRepository::save)
+            .map(specialtyRepository::saveAndFlush)
             .map(savedSpecialty -> {
-                specialtySearchRepository.index(savedSpecialty);
+                searchIndexOutboxService.index(Specialty.class, savedSpecialty.getId());
                 return savedSpecialty;
             })
-            .map(specialtyMapper::toDto);
+            .map(specialtyMapper::toDto)
+            .map(updatedSpecialty -> {
+                changeEventService.updated(Specialty.class, updatedSpecialty.getId(), updatedSpecialty);
+                return updatedSpecialty;
+            });
     }
 
     /**
@@ -121,8 +141,9 @@ public class SpecialtyService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Specialty : {}", id);
+        changeEventService.deleted(Specialty.class, id);
         specialtyRepository.deleteById(id);
-        specialtySearchRepository.deleteFromIndexById(id);
+        searchIndexOutboxService.delete(Specialty.class, id);
     }
 
     /**
@@ -0,0 +1,52 @@
+package org.petclinic.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiFunction;
+import org.petclinic.config.ApplicationProperties;
+
+/**
+ * Per-node cache of the suggestions of the prefixes typed the most, which are requested once per keystroke by every
+ * front desk. Entries are not invalidated by changes, they expire after {@code application.suggest.cache-time-to-live}.
+ *
+ * @param <T> the type of the suggestions.
+ */
+class SuggestionCache<T> {
+
+    private final Cache<String, List<T>> cache;
+
+    private final int maxResults;
+
+    SuggestionCache(String name, ApplicationProperties.Suggest suggestProperties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(suggestProperties.getCacheMaximumSize())
+            .expireAfterWrite(Duration.ofSeconds(suggestProperties.getCacheTimeToLive()))
+            .recordStats()
+            .build();
+        this.maxResults = suggestProperties.getMaxResults();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name, Tags.of("cache.manager", "suggest"));
+    }
+
+    /**
+     * Get the suggestions of a prefix, loading them on a miss.
+     *
+     * @param prefix the typed prefix, compared case-insensitively.
+     * @param size the number of suggestions, capped at {@code application.suggest.max-results}.
+     * @param loader loads the suggestions of a normalised prefix.
+     * @return the suggestions.
+     */
+    List<T> get(String prefix, int size, BiFunction<String, Integer, List<T>> loader) {
+        String normalizedPrefix = prefix.strip().toLowerCase(Locale.ROOT);
+        int cappedSize = Math.max(1, Math.min(size, maxResults));
+        if (normalizedPrefix.isEmpty()) {
+            return List.of();
+        }
+        return cache.get(cappedSize + ":" + normalizedPrefix, key -> loader.apply(normalizedPrefix, cappedSize));
+    }
+}
@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,10 +29,22 @@ public class VetService {
 
     private final VetSearchRepository vetSearchRepository;
 
-    public VetService(VetRepository vetRepository, VetMapper vetMapper, VetSearchRepository vetSearchRepository) {
+    private final SearchIndexOutboxService searchIndexOutboxService;
+
+    private final ChangeEventService changeEventService;
+
+    public VetService(
+        VetRepository vetRepository,
+        VetMapper vetMapper,
+        VetSearchRepository vetSearchRepository,
+        SearchIndexOutboxService searchIndexOutboxService,
+        ChangeEventService changeEventService
+    ) {
         this.vetRepository = vetRepository;
         this.vetMapper = vetMapper;
         this.vetSearchRepository = vetSearchRepository;
+        this.searchIndexOutboxService = searchIndexOutboxService;
+        this.changeEventService = changeEventService;
     }
 
     /**
@@ -44,8 +57,10 @@ public class VetService {
         log.debug("Request to save Vet : {}", vetDTO);
         Vet vet = vetMapper.toEntity(vetDTO);
         vet = vetRepository.save(vet);
-        vetSearchRepository.index(vet);
-        return vetMapper.toDto(vet);
+        searchIndexOutboxService.index(Vet.class, vet.getId());
+        VetDTO result = vetMapper.toDto(vet);
+        changeEventService.created(Vet.class, result.getId(), result);
+        return result;
     }
 
     /**
@@ -57,9 +72,11 @@ public class VetService {
     public VetDTO update(VetDTO vetDTO) {
         log.debug("Request to update Vet : {}", vetDTO);
         Vet vet = vetMapper.toEntity(vetDTO);
-        vet = vetRepository.save(vet);
-        vetSearchRepository.index(vet);
-        return vetMapper.toDto(vet);
+        vet = vetRepository.saveAndFlush(vet);
+        searchIndexOutboxService.index(Vet.class, vet.getId());
+        VetDTO result = vetMapper.toDto(vet);
+        changeEventService.updated(Vet.class, result.getId(), result);
+        return result;
     }
 
     /**
@@ -74,16 +91,23 @@ public class VetService {
         return vetRepository
             .findById(vetDTO.getId())
             .map(existingVet -> {
+                if (vetDTO.getVersion() != null && vetDTO.getVersion() != existingVet.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(Vet.class, existingVet.getId());
+                }
                 vetMapper.partialUpdate(existingVet, vetDTO);
 
                 return existingVet;
             })
-            .map(vetRepository::save)
+            .map(vetRepository::saveAndFlush)
             .map(savedVet -> {
-                vetSearchRepository.index(savedVet);
+                searchIndexOutboxService.index(Vet.class, savedVet.getId());
                 return savedVet;
             })
-            .map(vetMapper::toDto);
+            .map(vetMapper::toDto)
+            .map(updatedVet -> {
+                changeEventService.updated(Vet.class, updatedVet.getId(), updatedVet);
+                return updatedVet;
+            });
     }
 
     /**
@@ -95,16 +119,19 @@ public class VetService {
     @Transactional(readOnly = true)
     public Page<VetDTO> findAll(Pageable pageable) {
         log.debug("Request to get all Vets");
-        return vetRepository.findAll(pageable).map(vetMapper::toDto);
+        return vetRepository.findAllWithSpecialtyNames(pageable).map(vetMapper::toDto);
     }
 
     /**
      * Get all the vets with eager load of many-to-many relationships.
+     * <p>
+     * Specialties are read with the vets in a single query, so this is the same as {@link #findAll(Pageable)}.
      *
      * @return the list of entities.
      */
+    @Transactional(readOnly = true)
     public Page<VetDTO> findAllWithEagerRelationships(Pageable pageable) {
-        return vetRepository.findAllWithEagerRelationships(pageable).map(vetMapper::toDto);
+        return findAll(pageable);
     }
 
     /**
@@ -116,7 +143,7 @@ public class VetService {
     @Transactional(readOnly = true)
     public Optional<VetDTO> findOne(Long id) {
         log.debug("Request to get Vet : {}", id);
-        return vetRepository.findOneWithEagerRelationships(id).map(vetMapper::toDto);
+        return vetRepository.findOneWithSpecialtyNames(id).map(vetMapper::toDto);
     }
 
     /**
@@ -126,8 +153,9 @@ public class VetService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Vet : {}", id);
+        changeEventService.deleted(Vet.class, id);
         vetRepository.deleteById(id);
-        vetSearchRepository.deleteFromIndexById(id);
+        searchIndexOutboxService.delete(Vet.class, id);
     }
 
     /**
@@ -30,14 +30,22 @@ public class VetSpecialtyService {
 
     private final VetSpecialtySearchRepository vetSpecialtySearchRepository;
 
+    private final SearchIndexOutboxService searchIndexOutboxService;
+
+    private final ChangeEventService changeEventService;
+
     public VetSpecialtyService(
         VetSpecialtyRepository vetSpecialtyRepository,
         VetSpecialtyMapper vetSpecialtyMapper,
-        VetSpecialtySearchRepository vetSpecialtySearchRepository
+        VetSpecialtySearchRepository vetSpecialtySearchRepository,
+        SearchIndexOutboxService searchIndexOutboxService,
+        ChangeEventService changeEventService
     ) {
         this.vetSpecialtyRepository = vetSpecialtyRepository;
         this.vetSpecialtyMapper = vetSpecialtyMapper;
         this.vetSpecialtySearchRepository = vetSpecialtySearchRepository;
+        this.searchIndexOutboxService = searchIndexOutboxService;
+        this.changeEventService = changeEventService;
     }
 
     /**
@@ -50,8 +58,10 @@ public class VetSpecialtyService {
         log.debug("Request to save VetSpecialty : {}", vetSpecialtyDTO);
         VetSpecialty vetSpecialty = vetSpecialtyMapper.toEntity(vetSpecialtyDTO);
         vetSpecialty = vetSpecialtyRepository.save(vetSpecialty);
-        vetSpecialtySearchRepository.index(vetSpecialty);
-        return vetSpecialtyMapper.toDto(vetSpecialty);
+        searchIndexOutboxService.index(VetSpecialty.class, vetSpecialty.getId());
+        VetSpecialtyDTO result = vetSpecialtyMapper.toDto(vetSpecialty);
+        changeEventService.created(VetSpecialty.class, result.getId(), result);
+        return result;
     }
 
     /**
@@ -84,8 +94,9 @@ public class VetSpecialtyService {
      */
     public void delete(Long id) {
         log.debug("Request to delete VetSpecialty : {}", id);
+        changeEventService.deleted(VetSpecialty.class, id);
         vetSpecialtyRepository.deleteById(id);
-        vetSpecialtySearchRepository.deleteFromIndexById(id);
+        searchIndexOutboxService.delete(VetSpecialty.class, id);
     }
 
     /**
@@ -1,16 +1,43 @@
 package org.petclinic.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.petclinic.domain.Pet;
 import org.petclinic.domain.Visit;
+import org.petclinic.repository.EntityOwnerId;
+import org.petclinic.repository.PetRepository;
+import org.petclinic.repository.TupleProjectionRepository;
+import org.petclinic.repository.VisitExportRow;
 import org.petclinic.repository.VisitRepository;
+import org.petclinic.repository.search.SearchAfterSlice;
 import org.petclinic.repository.search.VisitSearchRepository;
+import org.petclinic.service.dto.BulkItemResultDTO;
 import org.petclinic.service.dto.VisitDTO;
 import org.petclinic.service.mapper.VisitMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -20,18 +47,52 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class VisitService {
 
+    /**
+     * The fields the visits can be restricted to, those of {@link VisitDTO}.
+     */
+    public static final Fieldset FIELDSET = new Fieldset("id", "version", "visitDate", "description", "pet.id", "pet.name");
+
     private final Logger log = LoggerFactory.getLogger(VisitService.class);
 
     private final VisitRepository visitRepository;
 
+    private final PetRepository petRepository;
+
+    private final TupleProjectionRepository tupleProjectionRepository;
+
     private final VisitMapper visitMapper;
 
     private final VisitSearchRepository visitSearchRepository;
 
-    public VisitService(VisitRepository visitRepository, VisitMapper visitMapper, VisitSearchRepository visitSearchRepository) {
+    private final SearchIndexOutboxService searchIndexOutboxService;
+
+    private final ChangeEventService changeEventService;
+
+    private final HouseholdService householdService;
+
+    private final DataExporter dataExporter;
+
+    public VisitService(
+        VisitRepository visitRepository,
+        PetRepository petRepository,
+        TupleProjectionRepository tupleProjectionRepository,
+        VisitMapper visitMapper,
+        VisitSearchRepository visitSearchRepository,
+        SearchIndexOutboxService searchIndexOutboxService,
+        ChangeEventService changeEventService,
+        HouseholdService householdService,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry
+    ) {
         this.visitRepository = visitRepository;
+        this.petRepository = petRepository;
+        this.tupleProjectionRepository = tupleProjectionRepository;
         this.visitMapper = visitMapper;
         this.visitSearchRepository = visitSearchRepository;
+        this.searchIndexOutboxService = searchIndexOutboxService;
+        this.changeEventService = changeEventService;
+        this.householdService = householdService;
+        this.dataExporter = new DataExporter("Visit", objectMapper, meterRegistry);
     }
 
     /**
@@ -43,9 +104,13 @@ public class VisitService {
     public VisitDTO save(VisitDTO visitDTO) {
         log.debug("Request to save Visit : {}", visitDTO);
         Visit visit = visitMapper.toEntity(visitDTO);
+        copyOwnerIds(List.of(visit));
         visit = visitRepository.save(visit);
-        visitSearchRepository.index(visit);
-        return visitMapper.toDto(visit);
+        searchIndexOutboxService.index(Visit.class, visit.getId());
+        householdService.evict(Visit.class, List.of(visit.getId()));
+        VisitDTO result = visitMapper.toDto(visit);
+        changeEventService.created(Visit.class, result.getId(), result);
+        return result;
     }
 
     /**
@@ -56,10 +121,81 @@ public class VisitService {
      */
     public VisitDTO update(VisitDTO visitDTO) {
         log.debug("Request to update Visit : {}", visitDTO);
+        householdService.evict(Visit.class, List.of(visitDTO.getId()));
         Visit visit = visitMapper.toEntity(visitDTO);
-        visit = visitRepository.save(visit);
-        visitSearchRepository.index(visit);
-        return visitMapper.toDto(visit);
+        copyOwnerIds(List.of(visit));
+        visit = visitRepository.saveAndFlush(visit);
+        searchIndexOutboxService.index(Visit.class, visit.getId());
+        householdService.evict(Visit.class, List.of(visit.getId()));
+        VisitDTO result = visitMapper.toDto(visit);
+        changeEventService.updated(Visit.class, result.getId(), result);
+        return result;
+    }
+
+    /**
+     * Save visits in bulk: visits without an id are created, the others update the visit with their id.
+     * <p>
+     * The visits are written with JDBC batches when the method returns and indexed with one bulk request. A visit whose
+     * version is not the current one is reported as a conflict and not saved, the others still are. A visit changed by
+     * another transaction between the version check and the flush still fails the whole request with an
+     * {@link org.springframework.orm.ObjectOptimisticLockingFailureException}.
+     *
+     * @param visitDTOs the entities to save, already validated.
+     * @return the result of each entity, in the order of {@code visitDTOs}.
+     */
+    public List<BulkItemResultDTO> saveAll(List<VisitDTO> visitDTOs) {
+        log.debug("Request to save {} Visits in bulk", visitDTOs.size());
+        List<Long> ids = visitDTOs.stream().map(VisitDTO::getId).filter(Objects::nonNull).toList();
+        // Loads the updated visits in one query, so merging them does not select them one by one
+        Map<Long, Long> existingVersions = visitRepository
+            .findAllById(ids)
+            .stream()
+            .collect(Collectors.toMap(Visit::getId, Visit::getVersion));
+        Set<Long> existingIds = existingVersions.keySet();
+        Predicate<VisitDTO> stale = visitDTO ->
+            visitDTO.getId() != null &&
+            visitDTO.getVersion() != null &&
+            !visitDTO.getVersion().equals(existingVersions.get(visitDTO.getId()));
+        List<Visit> visits = visitDTOs
+            .stream()
+            .filter(visitDTO -> visitDTO.getId() == null || (existingIds.contains(visitDTO.getId()) && !stale.test(visitDTO)))
+            .map(visitDTO -> {
+                Visit visit = visitMapper.toEntity(visitDTO);
+                if (visitDTO.getId() != null && visitDTO.getVersion() == null) {
+                    // Without a version, the update overwrites the current version
+                    visit.setVersion(existingVersions.get(visitDTO.getId()));
+                }
+                return visit;
+            })
+            .toList();
+        copyOwnerIds(visits);
+        householdService.evict(Visit.class, existingIds);
+        visits = visitRepository.saveAllAndFlush(visits);
+        List<Long> savedIds = visits.stream().map(Visit::getId).toList();
+        searchIndexOutboxService.indexAll(Visit.class, savedIds);
+        householdService.evict(Visit.class, savedIds);
+
+        List<BulkItemResultDTO> results = new ArrayList<>(visitDTOs.size());
+        Map<Long, VisitDTO> created = new LinkedHashMap<>();
+        Map<Long, VisitDTO> updated = new LinkedHashMap<>();
+        Iterator<Visit> saved = visits.iterator();
+        for (int index = 0; index < visitDTOs.size(); index++) {
+            Long id = visitDTOs.get(index).getId();
+            if (id != null && !existingIds.contains(id)) {
+                results.add(BulkItemResultDTO.notFound(index, id));
+                continue;
+            }
+            if (stale.test(visitDTOs.get(index))) {
+                results.add(BulkItemResultDTO.conflict(index, id));
+                continue;
+            }
+            VisitDTO result = visitMapper.toDto(saved.next());
+            (id == null ? created : updated).put(result.getId(), result);
+            results.add(id == null ? BulkItemResultDTO.created(index, result.getId()) : BulkItemResultDTO.updated(index, id));
+        }
+        changeEventService.createdAll(Visit.class, created);
+        changeEventService.updatedAll(Visit.class, updated);
+        return results;
     }
 
     /**
@@ -74,16 +210,43 @@ public class VisitService {
         return visitRepository
             .findById(visitDTO.getId())
             .map(existingVisit -> {
+                if (visitDTO.getVersion() != null && visitDTO.getVersion() != existingVisit.getVersion()) {
+                    throw new ObjectOptimisticLockingFailureException(Visit.class, existingVisit.getId());
+                }
+                householdService.evict(Visit.class, List.of(existingVisit.getId()));
                 visitMapper.partialUpdate(existingVisit, visitDTO);
+                copyOwnerIds(List.of(existingVisit));
 
                 return existingVisit;
             })
-            .map(visitRepository::save)
+            .map(visitRepository::saveAndFlush)
             .map(savedVisit -> {
-                visitSearchRepository.index(savedVisit);
+                searchIndexOutboxService.index(Visit.class, savedVisit.getId());
+                householdService.evict(Visit.class, List.of(savedVisit.getId()));
                 return savedVisit;
             })
-            .map(visitMapper::toDto);
+            .map(visitMapper::toDto)
+            .map(updatedVisit -> {
+                changeEventService.updated(Visit.class, updatedVisit.getId(), updatedVisit);
+                return updatedVisit;
+            });
+    }
+
+    /**
+     * Copy the owner of the pet of each visit to the visit, with one query for all of them.
+     *
+     * @param visits the visits.
+     */
+    private void copyOwnerIds(List<Visit> visits) {
+        Set<Long> petIds = visits.stream().map(Visit::getPet).filter(Objects::nonNull).map(Pet::getId).collect(Collectors.toSet());
+        Map<Long, Long> ownerIds = petIds.isEmpty()
+            ? Map.of()
+            : petRepository
+                .findOwnerIdsByIdIn(petIds)
+                .stream()
+                .filter(petOwnerId -> petOwnerId.getOwnerId() != null)
+                .collect(Collectors.toMap(EntityOwnerId::getId, EntityOwnerId::getOwnerId));
+        visits.forEach(visit -> visit.setOwnerId(visit.getPet() == null ? null : ownerIds.get(visit.getPet().getId())));
     }
 
     /**
@@ -98,6 +261,19 @@ public class VisitService {
         return visitRepository.findAll(pageable).map(visitMapper::toDto);
     }
 
+    /**
+     * Get all the visits, restricted to some of their fields.
+     *
+     * @param fields the fields to select, from {@link #FIELDSET}.
+     * @param pageable the pagination information.
+     * @return the list of visits, as maps of their fields.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> findAllFields(List<String> fields, Pageable pageable) {
+        log.debug("Request to get all Visits with fields {}", fields);
+        return tupleProjectionRepository.findAll(Visit.class, fields, pageable).map(values -> Fieldset.toMap(fields, values));
+    }
+
     /**
      * Get all the visits with eager load of many-to-many relationships.
      *
@@ -107,6 +283,116 @@ public class VisitService {
         return visitRepository.findAllWithEagerRelationships(pageable).map(visitMapper::toDto);
     }
 
+    /**
+     * Get the visits following the given id, in id order, without counting them.
+     *
+     * @param id the id of the last visit of the previous slice, or {@code null} for the first slice.
+     * @param size the maximum number of visits to return.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<VisitDTO> findAllAfter(Long id, int size) {
+        log.debug("Request to get {} Visits after id {}", size, id);
+        return visitRepository
+            .findAllWithEagerRelationshipsByIdGreaterThan(Objects.requireNonNullElse(id, 0L), PageRequest.ofSize(size))
+            .map(visitMapper::toDto);
+    }
+
+    /**
+     * Get the visits following the given visit date and id, in visit date then id order, without counting them.
+     * Visits without a visit date are not part of this ordering.
+     *
+     * @param direction the direction of the ordering.
+     * @param visitDate the visit date of the last visit of the previous slice, or {@code null} for the first slice.
+     * @param id the id of the last visit of the previous slice.
+     * @param size the maximum number of visits to return.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<VisitDTO> findAllAfterVisitDate(Sort.Direction direction, LocalDate visitDate, Long id, int size) {
+        log.debug("Request to get {} Visits after visit date {} and id {}", size, visitDate, id);
+        Slice<Visit> visits;
+        if (visitDate == null) {
+            visits = visitRepository.findAllWithToOneRelationshipsByVisitDateNotNull(
+                PageRequest.of(0, size, Sort.by(direction, "visitDate", "id"))
+            );
+        } else if (direction.isAscending()) {
+            visits = visitRepository.findAllWithToOneRelationshipsByVisitDateAndIdAfter(visitDate, id, PageRequest.ofSize(size));
+        } else {
+            visits = visitRepository.findAllWithToOneRelationshipsByVisitDateAndIdBefore(visitDate, id, PageRequest.ofSize(size));
+        }
+        return visits.map(visitMapper::toDto);
+    }
+
+    /**
+     * Get the visits of a pet following the given visit date and id, latest first, without counting them. Visits
+     * without a visit date are not part of this ordering.
+     *
+     * @param petId the id of the pet.
+     * @param visitDate the visit date of the last visit of the previous slice, or {@code null} for the first slice.
+     * @param id the id of the last visit of the previous slice.
+     * @param size the maximum number of visits to return.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<VisitDTO> findAllByPetIdBeforeVisitDate(Long petId, LocalDate visitDate, Long id, int size) {
+        log.debug("Request to get {} Visits of Pet {} before visit date {} and id {}", size, petId, visitDate, id);
+        Slice<Visit> visits = visitDate == null
+            ? visitRepository.findAllWithToOneRelationshipsByPetId(petId, PageRequest.ofSize(size))
+            : visitRepository.findAllWithToOneRelationshipsByPetIdAndVisitDateAndIdBefore(petId, visitDate, id, PageRequest.ofSize(size));
+        return visits.map(visitMapper::toDto);
+    }
+
+    /**
+     * Get the visits of the pets of an owner following the given visit date and id, latest first, without counting
+     * them. Visits without a visit date are not part of this ordering.
+     *
+     * @param ownerId the id of the owner.
+     * @param visitDate the visit date of the last visit of the previous slice, or {@code null} for the first slice.
+     * @param id the id of the last visit of the previous slice.
+     * @param size the maximum number of visits to return.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<VisitDTO> findAllByOwnerIdBeforeVisitDate(Long ownerId, LocalDate visitDate, Long id, int size) {
+        log.debug("Request to get {} Visits of Owner {} before visit date {} and id {}", size, ownerId, visitDate, id);
+        Slice<Visit> visits = visitDate == null
+            ? visitRepository.findAllWithToOneRelationshipsByOwnerId(ownerId, PageRequest.ofSize(size))
+            : visitRepository.findAllWithToOneRelationshipsByOwnerIdAndVisitDateAndIdBefore(
+                ownerId,
+                visitDate,
+                id,
+                PageRequest.ofSize(size)
+            );
+        return visits.map(visitMapper::toDto);
+    }
+
+    /**
+     * Export the visits to an output stream, in visit date then id order when filtered by visit date, in id order
+     * otherwise. The visits are streamed from the database and written one at a time.
+     *
+     * @param from the first visit date to export, or {@code null} for no lower bound.
+     * @param to the last visit date to export, or {@code null} for no upper bound.
+     * @param format the format of the output.
+     * @param out the output stream, flushed but not closed.
+     * @return the number of exported visits.
+     * @throws IOException if the output stream cannot be written.
+     */
+    @Transactional(readOnly = true)
+    public long export(LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException {
+        log.debug("Request to export Visits from {} to {} as {}", from, to, format);
+        try (
+            Stream<VisitExportRow> rows = from == null && to == null
+                ? visitRepository.streamExportRows()
+                : visitRepository.streamExportRowsByVisitDateBetween(
+                    Objects.requireNonNullElse(from, DataExporter.MIN_DATE),
+                    Objects.requireNonNullElse(to, DataExporter.MAX_DATE)
+                )
+        ) {
+            return dataExporter.export(rows, VisitExportRow.class, format, out);
+        }
+    }
+
     /**
      * Get one visit by id.
      *
@@ -126,8 +412,10 @@ public class VisitService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Visit : {}", id);
+        changeEventService.deleted(Visit.class, id);
+        householdService.evict(Visit.class, List.of(id));
         visitRepository.deleteById(id);
-        visitSearchRepository.deleteFromIndexById(id);
+        searchIndexOutboxService.delete(Visit.class, id);
     }
 
     /**
@@ -142,4 +430,19 @@ public class VisitService {
         log.debug("Request to search for a page of Visits for query {}", query);
         return visitSearchRepository.search(query, pageable).map(visitMapper::toDto);
     }
+
+    /**
+     * Search for the visits corresponding to the query that follow the given sort values, without counting them.
+     *
+     * @param query the query of the search.
+     * @param sort the order of the results, by relevance when unsorted.
+     * @param searchAfter the sort values of the last visit of the previous slice, or {@code null} for the first slice.
+     * @param size the maximum number of visits to return.
+     * @return the slice of visits, with the sort values to search after for the next slice.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // served from the index alone, no connection needed
+    public SearchAfterSlice<VisitDTO> searchAfter(String query, Sort sort, List<Object> searchAfter, int size) {
+        log.debug("Request to search for {} Visits for query {} after {}", size, query, searchAfter);
+        return visitSearchRepository.searchAfter(query, sort, searchAfter, size).map(visitMapper::toDto);
+    }
 }
@@ -0,0 +1,58 @@
+package org.petclinic.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The outcome of one entity of a bulk request, identified by its position in the request.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record BulkItemResultDTO(int index, Status status, Long id, List<String> errors) implements Serializable {
+    public static BulkItemResultDTO created(int index, Long id) {
+        return new BulkItemResultDTO(index, Status.CREATED, id, List.of());
+    }
+
+    public static BulkItemResultDTO updated(int index, Long id) {
+        return new BulkItemResultDTO(index, Status.UPDATED, id, List.of());
+    }
+
+    public static BulkItemResultDTO notFound(int index, Long id) {
+        return new BulkItemResultDTO(index, Status.NOT_FOUND, id, List.of());
+    }
+
+    public static BulkItemResultDTO conflict(int index, Long id) {
+        return new BulkItemResultDTO(index, Status.CONFLICT, id, List.of());
+    }
+
+    public static BulkItemResultDTO invalid(int index, Long id, List<String> errors) {
+        return new BulkItemResultDTO(index, Status.INVALID, id, errors);
+    }
+
+    /**
+     * The same outcome at another position, for results computed on a subset of the request.
+     *
+     * @param index the position of the entity in the request.
+     * @return the result.
+     */
+    public BulkItemResultDTO withIndex(int index) {
+        return new BulkItemResultDTO(index, status, id, errors);
+    }
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        /**
+         * The entity has an id that matches no existing entity.
+         */
+        NOT_FOUND,
+        /**
+         * The entity has a version that is not the current one and was not saved.
+         */
+        CONFLICT,
+        /**
+         * The entity failed validation and was not saved.
+         */
+        INVALID,
+    }
+}
@@ -0,0 +1,90 @@
+package org.petclinic.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+import java.time.Instant;
+import org.petclinic.domain.enumeration.ChangeOperation;
+
+/**
+ * A change-data event published to Kafka for every entity mutation.
+ * <p>
+ * {@code data} holds the entity as returned by the REST API after a create or an update, and is absent for a delete.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class EntityChangeEventDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String entityType;
+
+    private Long entityId;
+
+    private Long ownerId;
+
+    private ChangeOperation operation;
+
+    private Instant timestamp;
+
+    private Object data;
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(ChangeOperation operation) {
+        this.operation = operation;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    public void setData(Object data) {
+        this.data = data;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EntityChangeEventDTO{" +
+            "entityType='" + getEntityType() + "'" +
+            ", entityId=" + getEntityId() +
+            ", ownerId=" + getOwnerId() +
+            ", operation='" + getOperation() + "'" +
+            ", timestamp='" + getTimestamp() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,21 @@
+package org.petclinic.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The owner detail screen in one read: an owner, its pets with their type and the latest visits of each pet.
+ */
+public record HouseholdDTO(OwnerDTO owner, List<HouseholdPetDTO> pets) implements Serializable {
+    /**
+     * A pet of the household with its latest visits, latest first.
+     */
+    public record HouseholdPetDTO(Long id, String name, LocalDate birthDate, PetTypeDTO type, List<HouseholdVisitDTO> recentVisits)
+        implements Serializable {}
+
+    /**
+     * A visit of a pet of the household.
+     */
+    public record HouseholdVisitDTO(Long id, LocalDate visitDate, String description) implements Serializable {}
+}
@@ -8,10 +8,12 @@ import java.util.Objects;
  * A DTO for the {@link org.petclinic.domain.Owner} entity.
  */
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class OwnerDTO implements Serializable {
+public class OwnerDTO implements Serializable, VersionedDTO {
 
     private Long id;
 
+    private Long version;
+
     @Size(max = 30)
     private String firstName;
 
@@ -27,6 +29,7 @@ public class OwnerDTO implements Serializable {
     @Size(max = 20)
     private String telephone;
 
+    @Override
     public Long getId() {
         return id;
     }
@@ -35,6 +38,16 @@ public class OwnerDTO implements Serializable {
         this.id = id;
     }
 
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getFirstName() {
         return firstName;
     }
@@ -101,6 +114,7 @@ public class OwnerDTO implements Serializable {
     public String toString() {
         return "OwnerDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", firstName='" + getFirstName() + "'" +
             ", lastName='" + getLastName() + "'" +
             ", address='" + getAddress() + "'" +
@@ -0,0 +1,8 @@
+package org.petclinic.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A suggestion of the owner typeahead: the fields the front desk needs to pick the owner.
+ */
+public record OwnerSuggestionDTO(Long id, String firstName, String lastName, String telephone) implements Serializable {}
@@ -1,5 +1,6 @@
 package org.petclinic.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.time.LocalDate;
@@ -9,10 +10,12 @@ import java.util.Objects;
  * A DTO for the {@link org.petclinic.domain.Pet} entity.
  */
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class PetDTO implements Serializable {
+public class PetDTO implements Serializable, VersionedDTO {
 
     private Long id;
 
+    private Long version;
+
     @Size(max = 30)
     private String name;
 
@@ -22,6 +25,7 @@ public class PetDTO implements Serializable {
 
     private OwnerDTO owner;
 
+    @Override
     public Long getId() {
         return id;
     }
@@ -30,6 +34,16 @@ public class PetDTO implements Serializable {
         this.id = id;
     }
 
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -58,6 +72,12 @@ public class PetDTO implements Serializable {
         return owner;
     }
 
+    @Override
+    @JsonIgnore
+    public Long getEmbeddedVersion() {
+        return VersionedDTO.versionOf(type) + VersionedDTO.versionOf(owner);
+    }
+
     public void setOwner(OwnerDTO owner) {
         this.owner = owner;
     }
@@ -88,6 +108,7 @@ public class PetDTO implements Serializable {
     public String toString() {
         return "PetDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", name='" + getName() + "'" +
             ", birthDate='" + getBirthDate() + "'" +
             ", type=" + getType() +
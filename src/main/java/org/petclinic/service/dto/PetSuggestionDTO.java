@@ -0,0 +1,8 @@
+package org.petclinic.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A suggestion of the pet typeahead: the pet with the last name of its owner, to tell pets of the same name apart.
+ */
+public record PetSuggestionDTO(Long id, String name, Long ownerId, String ownerLastName) implements Serializable {}
@@ -8,13 +8,16 @@ import java.util.Objects;
  * A DTO for the {@link org.petclinic.domain.PetType} entity.
  */
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class PetTypeDTO implements Serializable {
+public class PetTypeDTO implements Serializable, VersionedDTO {
 
     private Long id;
 
+    private Long version;
+
     @Size(max = 80)
     private String name;
 
+    @Override
     public Long getId() {
         return id;
     }
@@ -23,6 +26,16 @@ public class PetTypeDTO implements Serializable {
         this.id = id;
     }
 
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -57,6 +70,7 @@ public class PetTypeDTO implements Serializable {
     public String toString() {
         return "PetTypeDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", name='" + getName() + "'" +
             "}";
     }
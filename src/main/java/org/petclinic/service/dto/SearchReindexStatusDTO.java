@@ -0,0 +1,107 @@
+package org.petclinic.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import org.petclinic.domain.enumeration.SearchReindexStatus;
+
+/**
+ * A DTO for the {@link org.petclinic.domain.SearchReindexCheckpoint} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SearchReindexStatusDTO implements Serializable {
+
+    private String entityType;
+
+    private String indexName;
+
+    private Long lastId;
+
+    private Long indexedCount;
+
+    private SearchReindexStatus status;
+
+    private Instant startedDate;
+
+    private Instant lastModifiedDate;
+
+    private double documentsPerSecond;
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(Long lastId) {
+        this.lastId = lastId;
+    }
+
+    public Long getIndexedCount() {
+        return indexedCount;
+    }
+
+    public void setIndexedCount(Long indexedCount) {
+        this.indexedCount = indexedCount;
+    }
+
+    public SearchReindexStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SearchReindexStatus status) {
+        this.status = status;
+    }
+
+    public Instant getStartedDate() {
+        return startedDate;
+    }
+
+    public void setStartedDate(Instant startedDate) {
+        this.startedDate = startedDate;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    public double getDocumentsPerSecond() {
+        return documentsPerSecond;
+    }
+
+    public void setDocumentsPerSecond(double documentsPerSecond) {
+        this.documentsPerSecond = documentsPerSecond;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchReindexStatusDTO{" +
+            "entityType='" + getEntityType() + "'" +
+            ", indexName='" + getIndexName() + "'" +
+            ", lastId=" + getLastId() +
+            ", indexedCount=" + getIndexedCount() +
+            ", status='" + getStatus() + "'" +
+            ", startedDate='" + getStartedDate() + "'" +
+            ", lastModifiedDate='" + getLastModifiedDate() + "'" +
+            ", documentsPerSecond=" + getDocumentsPerSecond() +
+            "}";
+    }
+}
@@ -10,15 +10,18 @@ import java.util.Set;
  * A DTO for the {@link org.petclinic.domain.Specialty} entity.
  */
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class SpecialtyDTO implements Serializable {
+public class SpecialtyDTO implements Serializable, VersionedDTO {
 
     private Long id;
 
+    private Long version;
+
     @Size(max = 80)
     private String name;
 
     private Set<VetDTO> vets = new HashSet<>();
 
+    @Override
     public Long getId() {
         return id;
     }
@@ -27,6 +30,16 @@ public class SpecialtyDTO implements Serializable {
         this.id = id;
     }
 
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -69,6 +82,7 @@ public class SpecialtyDTO implements Serializable {
     public String toString() {
         return "SpecialtyDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", name='" + getName() + "'" +
             ", vets=" + getVets() +
             "}";
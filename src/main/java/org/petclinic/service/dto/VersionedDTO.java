@@ -0,0 +1,38 @@
+package org.petclinic.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * A DTO of a versioned entity, whose version is incremented by each update of the entity.
+ * <p>
+ * The version identifies the state of the entity for the conditional requests of the REST resources, and an update
+ * carrying a version fails if the entity has been updated since. A DTO embedding fields of related entities also
+ * identifies their state with its embedded version.
+ */
+public interface VersionedDTO {
+    Long getId();
+
+    Long getVersion();
+
+    void setVersion(Long version);
+
+    /**
+     * Get the version of the related entities whose fields the DTO embeds, which changes when one of them is updated.
+     *
+     * @return the embedded version, or {@code null} if the DTO embeds no related entity.
+     */
+    @JsonIgnore
+    default Long getEmbeddedVersion() {
+        return null;
+    }
+
+    /**
+     * Get the version of an embedded DTO.
+     *
+     * @param dto the embedded DTO, or {@code null}.
+     * @return its version, {@code 0} if it is absent.
+     */
+    static long versionOf(VersionedDTO dto) {
+        return dto == null || dto.getVersion() == null ? 0 : dto.getVersion();
+    }
+}
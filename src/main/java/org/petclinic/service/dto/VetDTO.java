@@ -1,5 +1,6 @@
 package org.petclinic.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.util.HashSet;
@@ -10,10 +11,12 @@ import java.util.Set;
  * A DTO for the {@link org.petclinic.domain.Vet} entity.
  */
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class VetDTO implements Serializable {
+public class VetDTO implements Serializable, VersionedDTO {
 
     private Long id;
 
+    private Long version;
+
     @Size(max = 30)
     private String firstName;
 
@@ -22,6 +25,7 @@ public class VetDTO implements Serializable {
 
     private Set<SpecialtyDTO> specialties = new HashSet<>();
 
+    @Override
     public Long getId() {
         return id;
     }
@@ -30,6 +34,16 @@ public class VetDTO implements Serializable {
         this.id = id;
     }
 
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getFirstName() {
         return firstName;
     }
@@ -50,6 +64,12 @@ public class VetDTO implements Serializable {
         return specialties;
     }
 
+    @Override
+    @JsonIgnore
+    public Long getEmbeddedVersion() {
+        return specialties.stream().mapToLong(VersionedDTO::versionOf).sum();
+    }
+
     public void setSpecialties(Set<SpecialtyDTO> specialties) {
         this.specialties = specialties;
     }
@@ -80,6 +100,7 @@ public class VetDTO implements Serializable {
     public String toString() {
         return "VetDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", firstName='" + getFirstName() + "'" +
             ", lastName='" + getLastName() + "'" +
             ", specialties=" + getSpecialties() +
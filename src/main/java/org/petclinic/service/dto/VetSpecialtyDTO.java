@@ -7,10 +7,13 @@ import java.util.Objects;
  * A DTO for the {@link org.petclinic.domain.VetSpecialty} entity.
  */
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class VetSpecialtyDTO implements Serializable {
+public class VetSpecialtyDTO implements Serializable, VersionedDTO {
 
     private Long id;
 
+    private Long version;
+
+    @Override
     public Long getId() {
         return id;
     }
@@ -19,6 +22,16 @@ public class VetSpecialtyDTO implements Serializable {
         this.id = id;
     }
 
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -45,6 +58,7 @@ public class VetSpecialtyDTO implements Serializable {
     public String toString() {
         return "VetSpecialtyDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -1,5 +1,6 @@
 package org.petclinic.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.time.LocalDate;
@@ -9,10 +10,12 @@ import java.util.Objects;
  * A DTO for the {@link org.petclinic.domain.Visit} entity.
  */
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class VisitDTO implements Serializable {
+public class VisitDTO implements Serializable, VersionedDTO {
 
     private Long id;
 
+    private Long version;
+
     private LocalDate visitDate;
 
     @Size(max = 255)
@@ -20,6 +23,7 @@ public class VisitDTO implements Serializable {
 
     private PetDTO pet;
 
+    @Override
     public Long getId() {
         return id;
     }
@@ -28,6 +32,16 @@ public class VisitDTO implements Serializable {
         this.id = id;
     }
 
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDate getVisitDate() {
         return visitDate;
     }
@@ -48,6 +62,12 @@ public class VisitDTO implements Serializable {
         return pet;
     }
 
+    @Override
+    @JsonIgnore
+    public Long getEmbeddedVersion() {
+        return VersionedDTO.versionOf(pet);
+    }
+
     public void setPet(PetDTO pet) {
         this.pet = pet;
     }
@@ -78,6 +98,7 @@ public class VisitDTO implements Serializable {
     public String toString() {
         return "VisitDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", visitDate='" + getVisitDate() + "'" +
             ", description='" + getDescription() + "'" +
             ", pet=" + getPet() +
@@ -3,9 +3,12 @@ package org.petclinic.service.mapper;
 import org.mapstruct.*;
 import org.petclinic.domain.Owner;
 import org.petclinic.service.dto.OwnerDTO;
+import org.petclinic.service.dto.OwnerSuggestionDTO;
 
 /**
  * Mapper for the entity {@link Owner} and its DTO {@link OwnerDTO}.
  */
 @Mapper(componentModel = "spring")
-public interface OwnerMapper extends EntityMapper<OwnerDTO, Owner> {}
+public interface OwnerMapper extends EntityMapper<OwnerDTO, Owner> {
+    OwnerSuggestionDTO toSuggestionDto(Owner owner);
+}
@@ -6,6 +6,7 @@ import org.petclinic.domain.Pet;
 import org.petclinic.domain.PetType;
 import org.petclinic.service.dto.OwnerDTO;
 import org.petclinic.service.dto.PetDTO;
+import org.petclinic.service.dto.PetSuggestionDTO;
 import org.petclinic.service.dto.PetTypeDTO;
 
 /**
@@ -17,15 +18,21 @@ public interface PetMapper extends EntityMapper<PetDTO, Pet> {
     @Mapping(target = "owner", source = "owner", qualifiedByName = "ownerLastName")
     PetDTO toDto(Pet s);
 
+    @Mapping(target = "ownerId", source = "owner.id")
+    @Mapping(target = "ownerLastName", source = "owner.lastName")
+    PetSuggestionDTO toSuggestionDto(Pet pet);
+
     @Named("petTypeName")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
     @Mapping(target = "name", source = "name")
+    @Mapping(target = "version", source = "version")
     PetTypeDTO toDtoPetTypeName(PetType petType);
 
     @Named("ownerLastName")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
     @Mapping(target = "lastName", source = "lastName")
+    @Mapping(target = "version", source = "version")
     OwnerDTO toDtoOwnerLastName(Owner owner);
 }
@@ -1,10 +1,12 @@
 package org.petclinic.service.mapper;
 
+import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.mapstruct.*;
 import org.petclinic.domain.Specialty;
 import org.petclinic.domain.Vet;
+import org.petclinic.repository.VetWithSpecialtyNames;
 import org.petclinic.service.dto.SpecialtyDTO;
 import org.petclinic.service.dto.VetDTO;
 
@@ -23,10 +25,35 @@ public interface VetMapper extends EntityMapper<VetDTO, Vet> {
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
     @Mapping(target = "name", source = "name")
+    @Mapping(target = "version", source = "version")
     SpecialtyDTO toDtoSpecialtyName(Specialty specialty);
 
     @Named("specialtyNameSet")
     default Set<SpecialtyDTO> toDtoSpecialtyNameSet(Set<Specialty> specialty) {
         return specialty.stream().map(this::toDtoSpecialtyName).collect(Collectors.toSet());
     }
+
+    default VetDTO toDto(VetWithSpecialtyNames vet) {
+        VetDTO vetDTO = new VetDTO();
+        vetDTO.setId(vet.id());
+        vetDTO.setVersion(vet.version());
+        vetDTO.setFirstName(vet.firstName());
+        vetDTO.setLastName(vet.lastName());
+        Set<SpecialtyDTO> specialties = new HashSet<>();
+        if (vet.specialties() != null) {
+            for (String entry : vet.specialties().split(VetWithSpecialtyNames.SPECIALTY_SEPARATOR)) {
+                String[] fields = entry.split(":", 3);
+                // Databases concatenating null as an empty string produce an entry without id for a vet without specialty
+                if (!fields[0].isEmpty()) {
+                    SpecialtyDTO specialtyDTO = new SpecialtyDTO();
+                    specialtyDTO.setId(Long.valueOf(fields[0]));
+                    specialtyDTO.setVersion(Long.valueOf(fields[1]));
+                    specialtyDTO.setName(fields.length < 3 ? null : fields[2]);
+                    specialties.add(specialtyDTO);
+                }
+            }
+        }
+        vetDTO.setSpecialties(specialties);
+        return vetDTO;
+    }
 }
@@ -3,6 +3,7 @@ package org.petclinic.service.mapper;
 import org.mapstruct.*;
 import org.petclinic.domain.Pet;
 import org.petclinic.domain.Visit;
+import org.petclinic.domain.search.VisitSearchDocument;
 import org.petclinic.service.dto.PetDTO;
 import org.petclinic.service.dto.VisitDTO;
 
@@ -14,9 +15,18 @@ public interface VisitMapper extends EntityMapper<VisitDTO, Visit> {
     @Mapping(target = "pet", source = "pet", qualifiedByName = "petName")
     VisitDTO toDto(Visit s);
 
+    @Mapping(target = "ownerId", ignore = true)
+    Visit toEntity(VisitDTO visitDTO);
+
+    @Mapping(target = "pet.id", source = "petId")
+    @Mapping(target = "pet.name", source = "petName")
+    @Mapping(target = "version", ignore = true)
+    VisitDTO toDto(VisitSearchDocument visitSearchDocument);
+
     @Named("petName")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
     @Mapping(target = "name", source = "name")
+    @Mapping(target = "version", source = "version")
     PetDTO toDtoPetName(Pet pet);
 }
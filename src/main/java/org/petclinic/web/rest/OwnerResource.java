@@ -1,22 +1,38 @@
 package org.petclinic.web.rest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import org.petclinic.repository.OwnerRepository;
+import org.petclinic.service.ExportFormat;
+import org.petclinic.service.HouseholdService;
 import org.petclinic.service.OwnerService;
+import org.petclinic.service.VisitService;
+import org.petclinic.service.dto.HouseholdDTO;
 import org.petclinic.service.dto.OwnerDTO;
+import org.petclinic.service.dto.OwnerSuggestionDTO;
+import org.petclinic.service.dto.VisitDTO;
 import org.petclinic.web.rest.errors.BadRequestAlertException;
 import org.petclinic.web.rest.errors.ElasticsearchExceptionMapper;
+import org.petclinic.web.rest.util.EntityTagUtil;
+import org.petclinic.web.rest.util.ExportUtil;
+import org.petclinic.web.rest.util.KeysetPaginationUtil;
+import org.petclinic.web.rest.util.VisitDateCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -43,9 +59,20 @@ public class OwnerResource {
 
     private final OwnerRepository ownerRepository;
 
-    public OwnerResource(OwnerService ownerService, OwnerRepository ownerRepository) {
+    private final HouseholdService householdService;
+
+    private final VisitService visitService;
+
+    public OwnerResource(
+        OwnerService ownerService,
+        OwnerRepository ownerRepository,
+        HouseholdService householdService,
+        VisitService visitService
+    ) {
         this.ownerService = ownerService;
         this.ownerRepository = ownerRepository;
+        this.householdService = householdService;
+        this.visitService = visitService;
     }
 
     /**
@@ -71,15 +98,18 @@ public class OwnerResource {
      * {@code PUT  /owners/:id} : Updates an existing owner.
      *
      * @param id the id of the ownerDTO to save.
+     * @param ifMatch the entity tag of the ownerDTO the update was made from, if any.
      * @param ownerDTO the ownerDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated ownerDTO,
      * or with status {@code 400 (Bad Request)} if the ownerDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the ownerDTO has been updated since {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the ownerDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<OwnerDTO> updateOwner(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody OwnerDTO ownerDTO
     ) throws URISyntaxException {
         log.debug("REST request to update Owner : {}, {}", id, ownerDTO);
@@ -90,13 +120,15 @@ public class OwnerResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!ownerRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = ownerRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, ownerDTO, version, ENTITY_NAME);
 
         ownerDTO = ownerService.update(ownerDTO);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, ownerDTO.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(ownerDTO.getId(), ownerDTO.getVersion()))
             .body(ownerDTO);
     }
 
@@ -104,16 +136,19 @@ public class OwnerResource {
      * {@code PATCH  /owners/:id} : Partial updates given fields of an existing owner, field will ignore if it is null
      *
      * @param id the id of the ownerDTO to save.
+     * @param ifMatch the entity tag of the ownerDTO the update was made from, if any.
      * @param ownerDTO the ownerDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated ownerDTO,
      * or with status {@code 400 (Bad Request)} if the ownerDTO is not valid,
      * or with status {@code 404 (Not Found)} if the ownerDTO is not found,
+     * or with status {@code 412 (Precondition Failed)} if the ownerDTO has been updated since {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the ownerDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<OwnerDTO> partialUpdateOwner(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody OwnerDTO ownerDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Owner partially : {}, {}", id, ownerDTO);
@@ -124,13 +159,14 @@ public class OwnerResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!ownerRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = ownerRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, ownerDTO, version, ENTITY_NAME);
 
         Optional<OwnerDTO> result = ownerService.partialUpdate(ownerDTO);
 
-        return ResponseUtil.wrapOrNotFound(
+        return EntityTagUtil.wrapOrNotFound(
             result,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, ownerDTO.getId().toString())
         );
@@ -140,13 +176,63 @@ public class OwnerResource {
      * {@code GET  /owners} : get all the owners.
      *
      * @param pageable the pagination information.
+     * @param after the keyset cursor of the page, empty for the first page. Enables keyset pagination ordered by id.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of owners in body.
      */
     @GetMapping("")
-    public ResponseEntity<List<OwnerDTO>> getAllOwners(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<OwnerDTO>> getAllOwners(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
+    ) {
+        if (after != null) {
+            return getAllOwnersAfter(after, pageable);
+        }
         log.debug("REST request to get a page of Owners");
         Page<OwnerDTO> page = ownerService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.pageEntityTag(page)).body(page.getContent());
+    }
+
+    private ResponseEntity<List<OwnerDTO>> getAllOwnersAfter(String after, Pageable pageable) {
+        log.debug("REST request to get a keyset page of Owners after {}", after);
+        if (pageable.getSort().stream().anyMatch(order -> !order.getProperty().equals("id") || order.isDescending())) {
+            throw new BadRequestAlertException("Keyset pagination only supports ascending id order", ENTITY_NAME, "keysetsortunsupported");
+        }
+        Long afterId = after.isEmpty()
+            ? null
+            : KeysetPaginationUtil.decodeCursor(after, "id", values -> Long.valueOf(values[0]), ENTITY_NAME);
+        Slice<OwnerDTO> slice = ownerService.findAllAfter(afterId, pageable.getPageSize());
+        String nextCursor = slice.hasNext()
+            ? KeysetPaginationUtil.encodeCursor("id", slice.getContent().get(slice.getNumberOfElements() - 1).getId())
+            : null;
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), nextCursor);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.pageEntityTag(slice)).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /owners?fields=:fields} : get all the owners, restricted to some of their fields.
+     *
+     * @param fields the comma-separated fields of the owners, such as {@code firstName,lastName}, among those of {@link OwnerService#FIELDSET}.
+     * @param after the keyset cursor of the page, not supported with fields.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of owners in body, with the given fields only,
+     * or with status {@code 400 (Bad Request)} if a field is unknown or a keyset cursor is given.
+     */
+    @GetMapping(value = "", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllOwnerFields(
+        @RequestParam("fields") String fields,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of Owners with fields {}", fields);
+        if (after != null) {
+            throw new BadRequestAlertException("Keyset pagination is not supported with fields", ENTITY_NAME, "keysetfieldsunsupported");
+        }
+        List<String> selectedFields = OwnerService.FIELDSET.parse(fields).orElseThrow(() ->
+            new BadRequestAlertException("Unknown fields " + fields, ENTITY_NAME, "fieldsinvalid")
+        );
+        Page<Map<String, Object>> page = ownerService.findAllFields(selectedFields, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -154,13 +240,78 @@ public class OwnerResource {
      * {@code GET  /owners/:id} : get the "id" owner.
      *
      * @param id the id of the ownerDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ownerDTO, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tag of the ownerDTO held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ownerDTO, or with status {@code 304 (Not Modified)} if it has not changed since {@code ifNoneMatch}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<OwnerDTO> getOwner(@PathVariable("id") Long id) {
+    public ResponseEntity<OwnerDTO> getOwner(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get Owner : {}", id);
-        Optional<OwnerDTO> ownerDTO = ownerService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(ownerDTO);
+        return EntityTagUtil.<OwnerDTO>notModified(ifNoneMatch, id, ownerRepository).orElseGet(() ->
+            EntityTagUtil.wrapOrNotFound(ownerService.findOne(id))
+        );
+    }
+
+    /**
+     * {@code GET  /owners/:id/household} : get the household of the "id" owner: the owner, its pets and their latest visits.
+     *
+     * @param id the id of the owner.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the household, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/household")
+    public ResponseEntity<HouseholdDTO> getOwnerHousehold(@PathVariable("id") Long id) {
+        log.debug("REST request to get the household of Owner : {}", id);
+        return ResponseUtil.wrapOrNotFound(householdService.findOne(id));
+    }
+
+    /**
+     * {@code GET  /owners/:id/visits} : get the visits of the pets of the "id" owner, latest first, with keyset pagination.
+     * Visits without a visit date are not listed.
+     *
+     * @param id the id of the owner.
+     * @param pageable the pagination information, of which only the size is used.
+     * @param after the keyset cursor of the page, empty or absent for the first page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of visits in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/visits")
+    public ResponseEntity<List<VisitDTO>> getOwnerVisits(
+        @PathVariable("id") Long id,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false, defaultValue = "") String after
+    ) {
+        log.debug("REST request to get a keyset page of the Visits of Owner {} after {}", id, after);
+        VisitDateCursor cursor = VisitDateCursor.decode(after, Sort.Direction.DESC, "visit");
+        Slice<VisitDTO> slice = visitService.findAllByOwnerIdBeforeVisitDate(id, cursor.visitDate(), cursor.id(), pageable.getPageSize());
+        if (!slice.hasContent() && !ownerRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        String nextCursor = VisitDateCursor.next(slice, Sort.Direction.DESC);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), nextCursor);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.pageEntityTag(slice)).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /owners/_export} : export the owners, written to the response as they are read from the database.
+     *
+     * @param format the format of the export, {@code ndjson} or {@code csv}.
+     * @param from the first date of the range the exported owners have a visit in, if any.
+     * @param to the last date of the range the exported owners have a visit in, if any.
+     * @param response the response the owners are written to with status {@code 200 (OK)},
+     * or with status {@code 400 (Bad Request)} if the format is not supported or the range ends before it starts.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/_export")
+    public void exportOwners(
+        @RequestParam(name = "format", defaultValue = ExportUtil.DEFAULT_FORMAT) String format,
+        @RequestParam(name = "from", required = false) LocalDate from,
+        @RequestParam(name = "to", required = false) LocalDate to,
+        HttpServletResponse response
+    ) throws IOException {
+        log.debug("REST request to export Owners from {} to {} as {}", from, to, format);
+        ExportFormat exportFormat = ExportUtil.prepareResponse(response, format, from, to, "owners", ENTITY_NAME);
+        ownerService.export(from, to, exportFormat, response.getOutputStream());
     }
 
     /**
@@ -200,4 +351,24 @@ public class OwnerResource {
             throw ElasticsearchExceptionMapper.mapException(e);
         }
     }
+
+    /**
+     * {@code GET  /owners/_suggest?prefix=:prefix} : suggest the owners whose last name or telephone number starts with the typed prefix.
+     *
+     * @param prefix the prefix typed by the user.
+     * @param size the maximum number of suggestions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the suggestions, most relevant first, in body.
+     */
+    @GetMapping("/_suggest")
+    public ResponseEntity<List<OwnerSuggestionDTO>> suggestOwners(
+        @RequestParam("prefix") String prefix,
+        @RequestParam(name = "size", required = false, defaultValue = "10") int size
+    ) {
+        log.debug("REST request to suggest Owners for prefix {}", prefix);
+        try {
+            return ResponseEntity.ok(ownerService.suggest(prefix, size));
+        } catch (RuntimeException e) {
+            throw ElasticsearchExceptionMapper.mapException(e);
+        }
+    }
 }
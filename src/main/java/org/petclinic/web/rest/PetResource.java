@@ -1,29 +1,46 @@
 package org.petclinic.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.repository.EntityVersions;
 import org.petclinic.repository.PetRepository;
 import org.petclinic.service.PetService;
+import org.petclinic.service.VisitService;
+import org.petclinic.service.dto.BulkItemResultDTO;
 import org.petclinic.service.dto.PetDTO;
+import org.petclinic.service.dto.PetSuggestionDTO;
+import org.petclinic.service.dto.VisitDTO;
 import org.petclinic.web.rest.errors.BadRequestAlertException;
 import org.petclinic.web.rest.errors.ElasticsearchExceptionMapper;
+import org.petclinic.web.rest.util.BulkRequestUtil;
+import org.petclinic.web.rest.util.EntityTagUtil;
+import org.petclinic.web.rest.util.KeysetPaginationUtil;
+import org.petclinic.web.rest.util.VisitDateCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link org.petclinic.domain.Pet}.
@@ -43,9 +60,28 @@ public class PetResource {
 
     private final PetRepository petRepository;
 
-    public PetResource(PetService petService, PetRepository petRepository) {
+    private final VisitService visitService;
+
+    private final ApplicationProperties.Bulk bulkProperties;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    public PetResource(
+        PetService petService,
+        PetRepository petRepository,
+        VisitService visitService,
+        ApplicationProperties applicationProperties,
+        Validator validator,
+        ObjectMapper objectMapper
+    ) {
         this.petService = petService;
         this.petRepository = petRepository;
+        this.visitService = visitService;
+        this.bulkProperties = applicationProperties.getBulk();
+        this.validator = validator;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -67,19 +103,62 @@ public class PetResource {
             .body(petDTO);
     }
 
+    /**
+     * {@code POST  /pets/_bulk} : Create or update pets in bulk.
+     * <p>
+     * Pets without an id are created, the others update the pet with their id. Invalid pets, updates of unknown
+     * pets and updates with a stale version are reported in the results and do not prevent the other pets from being
+     * saved.
+     *
+     * @param petDTOs the petDTOs to save.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each pet, in the order of the request,
+     * or with status {@code 400 (Bad Request)} if there are more pets than allowed.
+     */
+    @PostMapping(value = "/_bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BulkItemResultDTO>> bulkSavePets(@RequestBody List<PetDTO> petDTOs) {
+        log.debug("REST request to save {} Pets in bulk", petDTOs.size());
+        List<BulkItemResultDTO> results = BulkRequestUtil.save(
+            petDTOs,
+            bulkProperties.getMaxItems(),
+            ENTITY_NAME,
+            validator,
+            PetDTO::getId,
+            petService::saveAll
+        );
+        return ResponseEntity.ok().body(results);
+    }
+
+    /**
+     * {@code POST  /pets/_bulk} : Create or update pets in bulk, read from NDJSON with one pet per line.
+     *
+     * @param body the NDJSON request body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each pet, in the order of the request,
+     * or with status {@code 400 (Bad Request)} if a line is not a pet or there are more pets than allowed.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/_bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BulkItemResultDTO>> bulkSavePetsFromNdjson(InputStream body) throws IOException {
+        return bulkSavePets(BulkRequestUtil.readNdjson(objectMapper, body, PetDTO.class, bulkProperties.getMaxItems(), ENTITY_NAME));
+    }
+
     /**
      * {@code PUT  /pets/:id} : Updates an existing pet.
      *
      * @param id the id of the petDTO to save.
+     * @param ifMatch the entity tag of the petDTO the update was made from, if any.
      * @param petDTO the petDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated petDTO,
      * or with status {@code 400 (Bad Request)} if the petDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the petDTO has been updated since {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the petDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<PetDTO> updatePet(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody PetDTO petDTO)
-        throws URISyntaxException {
+    public ResponseEntity<PetDTO> updatePet(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @Valid @RequestBody PetDTO petDTO
+    ) throws URISyntaxException {
         log.debug("REST request to update Pet : {}, {}", id, petDTO);
         if (petDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -88,13 +167,15 @@ public class PetResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!petRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersions versions = petRepository
+            .findVersionsById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, petDTO, versions, ENTITY_NAME);
 
         petDTO = petService.update(petDTO);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, petDTO.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(petDTO))
             .body(petDTO);
     }
 
@@ -102,16 +183,19 @@ public class PetResource {
      * {@code PATCH  /pets/:id} : Partial updates given fields of an existing pet, field will ignore if it is null
      *
      * @param id the id of the petDTO to save.
+     * @param ifMatch the entity tag of the petDTO the update was made from, if any.
      * @param petDTO the petDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated petDTO,
      * or with status {@code 400 (Bad Request)} if the petDTO is not valid,
      * or with status {@code 404 (Not Found)} if the petDTO is not found,
+     * or with status {@code 412 (Precondition Failed)} if the petDTO has been updated since {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the petDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<PetDTO> partialUpdatePet(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody PetDTO petDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Pet partially : {}, {}", id, petDTO);
@@ -122,13 +206,14 @@ public class PetResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!petRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersions versions = petRepository
+            .findVersionsById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, petDTO, versions, ENTITY_NAME);
 
         Optional<PetDTO> result = petService.partialUpdate(petDTO);
 
-        return ResponseUtil.wrapOrNotFound(
+        return EntityTagUtil.wrapOrNotFound(
             result,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, petDTO.getId().toString())
         );
@@ -139,13 +224,18 @@ public class PetResource {
      *
      * @param pageable the pagination information.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
+     * @param after the keyset cursor of the page, empty for the first page. Enables keyset pagination ordered by id.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pets in body.
      */
     @GetMapping("")
     public ResponseEntity<List<PetDTO>> getAllPets(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
     ) {
+        if (after != null) {
+            return getAllPetsAfter(after, pageable);
+        }
         log.debug("REST request to get a page of Pets");
         Page<PetDTO> page;
         if (eagerload) {
@@ -154,6 +244,49 @@ public class PetResource {
             page = petService.findAll(pageable);
         }
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.pageEntityTag(page)).body(page.getContent());
+    }
+
+    private ResponseEntity<List<PetDTO>> getAllPetsAfter(String after, Pageable pageable) {
+        log.debug("REST request to get a keyset page of Pets after {}", after);
+        if (pageable.getSort().stream().anyMatch(order -> !order.getProperty().equals("id") || order.isDescending())) {
+            throw new BadRequestAlertException("Keyset pagination only supports ascending id order", ENTITY_NAME, "keysetsortunsupported");
+        }
+        Long afterId = after.isEmpty()
+            ? null
+            : KeysetPaginationUtil.decodeCursor(after, "id", values -> Long.valueOf(values[0]), ENTITY_NAME);
+        Slice<PetDTO> slice = petService.findAllAfter(afterId, pageable.getPageSize());
+        String nextCursor = slice.hasNext()
+            ? KeysetPaginationUtil.encodeCursor("id", slice.getContent().get(slice.getNumberOfElements() - 1).getId())
+            : null;
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), nextCursor);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.pageEntityTag(slice)).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /pets?fields=:fields} : get all the pets, restricted to some of their fields.
+     *
+     * @param fields the comma-separated fields of the pets, such as {@code name,type.name}, among those of {@link PetService#FIELDSET}.
+     * @param after the keyset cursor of the page, not supported with fields.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pets in body, with the given fields only,
+     * or with status {@code 400 (Bad Request)} if a field is unknown or a keyset cursor is given.
+     */
+    @GetMapping(value = "", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllPetFields(
+        @RequestParam("fields") String fields,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of Pets with fields {}", fields);
+        if (after != null) {
+            throw new BadRequestAlertException("Keyset pagination is not supported with fields", ENTITY_NAME, "keysetfieldsunsupported");
+        }
+        List<String> selectedFields = PetService.FIELDSET.parse(fields).orElseThrow(() ->
+            new BadRequestAlertException("Unknown fields " + fields, ENTITY_NAME, "fieldsinvalid")
+        );
+        Page<Map<String, Object>> page = petService.findAllFields(selectedFields, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -161,13 +294,44 @@ public class PetResource {
      * {@code GET  /pets/:id} : get the "id" pet.
      *
      * @param id the id of the petDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the petDTO, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tag of the petDTO held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the petDTO, or with status {@code 304 (Not Modified)} if it has not changed since {@code ifNoneMatch}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PetDTO> getPet(@PathVariable("id") Long id) {
+    public ResponseEntity<PetDTO> getPet(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get Pet : {}", id);
-        Optional<PetDTO> petDTO = petService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(petDTO);
+        return EntityTagUtil.<PetDTO>notModified(ifNoneMatch, id, () -> petRepository.findVersionsById(id)).orElseGet(() ->
+            EntityTagUtil.wrapOrNotFound(petService.findOne(id))
+        );
+    }
+
+    /**
+     * {@code GET  /pets/:id/visits} : get the visits of the "id" pet, latest first, with keyset pagination.
+     * Visits without a visit date are not listed.
+     *
+     * @param id the id of the pet.
+     * @param pageable the pagination information, of which only the size is used.
+     * @param after the keyset cursor of the page, empty or absent for the first page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of visits in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/visits")
+    public ResponseEntity<List<VisitDTO>> getPetVisits(
+        @PathVariable("id") Long id,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false, defaultValue = "") String after
+    ) {
+        log.debug("REST request to get a keyset page of the Visits of Pet {} after {}", id, after);
+        VisitDateCursor cursor = VisitDateCursor.decode(after, Sort.Direction.DESC, "visit");
+        Slice<VisitDTO> slice = visitService.findAllByPetIdBeforeVisitDate(id, cursor.visitDate(), cursor.id(), pageable.getPageSize());
+        if (!slice.hasContent() && !petRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        String nextCursor = VisitDateCursor.next(slice, Sort.Direction.DESC);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), nextCursor);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.pageEntityTag(slice)).body(slice.getContent());
     }
 
     /**
@@ -207,4 +371,24 @@ public class PetResource {
             throw ElasticsearchExceptionMapper.mapException(e);
         }
     }
+
+    /**
+     * {@code GET  /pets/_suggest?prefix=:prefix} : suggest the pets whose name starts with the typed prefix.
+     *
+     * @param prefix the prefix typed by the user.
+     * @param size the maximum number of suggestions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the suggestions, most relevant first, in body.
+     */
+    @GetMapping("/_suggest")
+    public ResponseEntity<List<PetSuggestionDTO>> suggestPets(
+        @RequestParam("prefix") String prefix,
+        @RequestParam(name = "size", required = false, defaultValue = "10") int size
+    ) {
+        log.debug("REST request to suggest Pets for prefix {}", prefix);
+        try {
+            return ResponseEntity.ok(petService.suggest(prefix, size));
+        } catch (RuntimeException e) {
+            throw ElasticsearchExceptionMapper.mapException(e);
+        }
+    }
 }
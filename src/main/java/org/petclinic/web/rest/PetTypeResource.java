@@ -12,6 +12,7 @@ import org.petclinic.service.PetTypeService;
 import org.petclinic.service.dto.PetTypeDTO;
 import org.petclinic.web.rest.errors.BadRequestAlertException;
 import org.petclinic.web.rest.errors.ElasticsearchExceptionMapper;
+import org.petclinic.web.rest.util.EntityTagUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,7 +24,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link org.petclinic.domain.PetType}.
@@ -71,15 +71,18 @@ public class PetTypeResource {
      * {@code PUT  /pet-types/:id} : Updates an existing petType.
      *
      * @param id the id of the petTypeDTO to save.
+     * @param ifMatch the entity tag of the petTypeDTO the update was made from, if any.
      * @param petTypeDTO the petTypeDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated petTypeDTO,
      * or with status {@code 400 (Bad Request)} if the petTypeDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the petTypeDTO has been updated since {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the petTypeDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<PetTypeDTO> updatePetType(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody PetTypeDTO petTypeDTO
     ) throws URISyntaxException {
         log.debug("REST request to update PetType : {}, {}", id, petTypeDTO);
@@ -90,13 +93,15 @@ public class PetTypeResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!petTypeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = petTypeRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, petTypeDTO, version, ENTITY_NAME);
 
         petTypeDTO = petTypeService.update(petTypeDTO);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, petTypeDTO.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(petTypeDTO.getId(), petTypeDTO.getVersion()))
             .body(petTypeDTO);
     }
 
@@ -104,16 +109,19 @@ public class PetTypeResource {
      * {@code PATCH  /pet-types/:id} : Partial updates given fields of an existing petType, field will ignore if it is null
      *
      * @param id the id of the petTypeDTO to save.
+     * @param ifMatch the entity tag of the petTypeDTO the update was made from, if any.
      * @param petTypeDTO the petTypeDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated petTypeDTO,
      * or with status {@code 400 (Bad Request)} if the petTypeDTO is not valid,
      * or with status {@code 404 (Not Found)} if the petTypeDTO is not found,
+     * or with status {@code 412 (Precondition Failed)} if the petTypeDTO has been updated since {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the petTypeDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<PetTypeDTO> partialUpdatePetType(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody PetTypeDTO petTypeDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update PetType partially : {}, {}", id, petTypeDTO);
@@ -124,13 +132,14 @@ public class PetTypeResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!petTypeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = petTypeRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, petTypeDTO, version, ENTITY_NAME);
 
         Optional<PetTypeDTO> result = petTypeService.partialUpdate(petTypeDTO);
 
-        return ResponseUtil.wrapOrNotFound(
+        return EntityTagUtil.wrapOrNotFound(
             result,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, petTypeDTO.getId().toString())
         );
@@ -147,20 +156,25 @@ public class PetTypeResource {
         log.debug("REST request to get a page of PetTypes");
         Page<PetTypeDTO> page = petTypeService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.pageEntityTag(page)).body(page.getContent());
     }
 
     /**
      * {@code GET  /pet-types/:id} : get the "id" petType.
      *
      * @param id the id of the petTypeDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the petTypeDTO, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tag of the petTypeDTO held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the petTypeDTO, or with status {@code 304 (Not Modified)} if it has not changed since {@code ifNoneMatch}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PetTypeDTO> getPetType(@PathVariable("id") Long id) {
+    public ResponseEntity<PetTypeDTO> getPetType(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get PetType : {}", id);
-        Optional<PetTypeDTO> petTypeDTO = petTypeService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(petTypeDTO);
+        return EntityTagUtil.<PetTypeDTO>notModified(ifNoneMatch, id, petTypeRepository).orElseGet(() ->
+            EntityTagUtil.wrapOrNotFound(petTypeService.findOne(id))
+        );
     }
 
     /**
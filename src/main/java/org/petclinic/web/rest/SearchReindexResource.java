@@ -0,0 +1,58 @@
+package org.petclinic.web.rest;
+
+import java.util.List;
+import org.petclinic.security.AuthoritiesConstants;
+import org.petclinic.service.SearchReindexService;
+import org.petclinic.service.dto.SearchReindexStatusDTO;
+import org.petclinic.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for rebuilding the search indices.
+ */
+@RestController
+@RequestMapping("/api/admin/search/reindex")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class SearchReindexResource {
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexResource.class);
+
+    private static final String ENTITY_NAME = "searchReindex";
+
+    private final SearchReindexService searchReindexService;
+
+    public SearchReindexResource(SearchReindexService searchReindexService) {
+        this.searchReindexService = searchReindexService;
+    }
+
+    /**
+     * {@code POST  /admin/search/reindex} : Rebuild all the search indices in the background.
+     *
+     * @param resume continue interrupted rebuilds from their last checkpoint instead of starting over.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the progress of each index, or with status {@code 400 (Bad Request)} if a rebuild is already running.
+     */
+    @PostMapping("")
+    public ResponseEntity<List<SearchReindexStatusDTO>> startReindex(@RequestParam(defaultValue = "true") boolean resume) {
+        log.debug("REST request to rebuild the search indices, resume: {}", resume);
+        if (!searchReindexService.start(resume)) {
+            throw new BadRequestAlertException("A search reindex is already running", ENTITY_NAME, "reindexrunning");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(searchReindexService.getStatus());
+    }
+
+    /**
+     * {@code GET  /admin/search/reindex} : get the progress of the search index rebuilds.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the progress of each index in body.
+     */
+    @GetMapping("")
+    public List<SearchReindexStatusDTO> getReindexStatus() {
+        log.debug("REST request to get the search reindex status");
+        return searchReindexService.getStatus();
+    }
+}
@@ -12,6 +12,7 @@ import org.petclinic.service.SpecialtyService;
 import org.petclinic.service.dto.SpecialtyDTO;
 import org.petclinic.web.rest.errors.BadRequestAlertException;
 import org.petclinic.web.rest.errors.ElasticsearchExceptionMapper;
+import org.petclinic.web.rest.util.EntityTagUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,7 +24,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link org.petclinic.domain.Specialty}.
@@ -71,15 +71,18 @@ public class SpecialtyResource {
      * {@code PUT  /specialties/:id} : Updates an existing specialty.
      *
      * @param id the id of the specialtyDTO to save.
+     * @param ifMatch the entity tag of the specialtyDTO the update was made from, if any.
      * @param specialtyDTO the specialtyDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated specialtyDTO,
      * or with status {@code 400 (Bad Request)} if the specialtyDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the specialtyDTO has been updated since {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the specialtyDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<SpecialtyDTO> updateSpecialty(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody SpecialtyDTO specialtyDTO
     ) throws URISyntaxException {
         log.debug("REST request to update Specialty : {}, {}", id, specialtyDTO);
@@ -90,13 +93,15 @@ public class SpecialtyResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!specialtyRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = specialtyRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, specialtyDTO, version, ENTITY_NAME);
 
         specialtyDTO = specialtyService.update(specialtyDTO);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, specialtyDTO.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(specialtyDTO.getId(), specialtyDTO.getVersion()))
             .body(specialtyDTO);
     }
 
@@ -104,16 +109,19 @@ public class SpecialtyResource {
      * {@code PATCH  /specialties/:id} : Partial updates given fields of an existing specialty, field will ignore if it is null
      *
      * @param id the id of the specialtyDTO to save.
+     * @param ifMatch the entity tag of the specialtyDTO the update was made from, if any.
      * @param specialtyDTO the specialtyDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated specialtyDTO,
      * or with status {@code 400 (Bad Request)} if the specialtyDTO is not valid,
      * or with status {@code 404 (Not Found)} if the specialtyDTO is not found,
+     * or with status {@code 412 (Precondition Failed)} if the specialtyDTO has been updated since {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the specialtyDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<SpecialtyDTO> partialUpdateSpecialty(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody SpecialtyDTO specialtyDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Specialty partially : {}, {}", id, specialtyDTO);
@@ -124,13 +132,14 @@ public class SpecialtyResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!specialtyRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = specialtyRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, specialtyDTO, version, ENTITY_NAME);
 
         Optional<SpecialtyDTO> result = specialtyService.partialUpdate(specialtyDTO);
 
-        return ResponseUtil.wrapOrNotFound(
+        return EntityTagUtil.wrapOrNotFound(
             result,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, specialtyDTO.getId().toString())
         );
@@ -147,20 +156,25 @@ public class SpecialtyResource {
         log.debug("REST request to get a page of Specialties");
         Page<SpecialtyDTO> page = specialtyService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.pageEntityTag(page)).body(page.getContent());
     }
 
     /**
      * {@code GET  /specialties/:id} : get the "id" specialty.
      *
      * @param id the id of the specialtyDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the specialtyDTO, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tag of the specialtyDTO held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the specialtyDTO, or with status {@code 304 (Not Modified)} if it has not changed since {@code ifNoneMatch}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<SpecialtyDTO> getSpecialty(@PathVariable("id") Long id) {
+    public ResponseEntity<SpecialtyDTO> getSpecialty(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get Specialty : {}", id);
-        Optional<SpecialtyDTO> specialtyDTO = specialtyService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(specialtyDTO);
+        return EntityTagUtil.<SpecialtyDTO>notModified(ifNoneMatch, id, specialtyRepository).orElseGet(() ->
+            EntityTagUtil.wrapOrNotFound(specialtyService.findOne(id))
+        );
     }
 
     /**
@@ -7,11 +7,13 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import org.petclinic.repository.EntityVersions;
 import org.petclinic.repository.VetRepository;
 import org.petclinic.service.VetService;
 import org.petclinic.service.dto.VetDTO;
 import org.petclinic.web.rest.errors.BadRequestAlertException;
 import org.petclinic.web.rest.errors.ElasticsearchExceptionMapper;
+import org.petclinic.web.rest.util.EntityTagUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,7 +25,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link org.petclinic.domain.Vet}.
@@ -71,15 +72,20 @@ public class VetResource {
      * {@code PUT  /vets/:id} : Updates an existing vet.
      *
      * @param id the id of the vetDTO to save.
+     * @param ifMatch the entity tag of the vetDTO the update was made from, if any.
      * @param vetDTO the vetDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated vetDTO,
      * or with status {@code 400 (Bad Request)} if the vetDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the vetDTO has been updated since {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the vetDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<VetDTO> updateVet(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody VetDTO vetDTO)
-        throws URISyntaxException {
+    public ResponseEntity<VetDTO> updateVet(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @Valid @RequestBody VetDTO vetDTO
+    ) throws URISyntaxException {
         log.debug("REST request to update Vet : {}, {}", id, vetDTO);
         if (vetDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -88,13 +94,15 @@ public class VetResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!vetRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersions versions = vetRepository
+            .findVersionsById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, vetDTO, versions, ENTITY_NAME);
 
         vetDTO = vetService.update(vetDTO);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, vetDTO.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(vetDTO))
             .body(vetDTO);
     }
 
@@ -102,16 +110,19 @@ public class VetResource {
      * {@code PATCH  /vets/:id} : Partial updates given fields of an existing vet, field will ignore if it is null
      *
      * @param id the id of the vetDTO to save.
+     * @param ifMatch the entity tag of the vetDTO the update was made from, if any.
      * @param vetDTO the vetDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated vetDTO,
      * or with status {@code 400 (Bad Request)} if the vetDTO is not valid,
      * or with status {@code 404 (Not Found)} if the vetDTO is not found,
+     * or with status {@code 412 (Precondition Failed)} if the vetDTO has been updated since {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the vetDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<VetDTO> partialUpdateVet(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody VetDTO vetDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Vet partially : {}, {}", id, vetDTO);
@@ -122,13 +133,14 @@ public class VetResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!vetRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersions versions = vetRepository
+            .findVersionsById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, vetDTO, versions, ENTITY_NAME);
 
         Optional<VetDTO> result = vetService.partialUpdate(vetDTO);
 
-        return ResponseUtil.wrapOrNotFound(
+        return EntityTagUtil.wrapOrNotFound(
             result,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, vetDTO.getId().toString())
         );
@@ -154,20 +166,25 @@ public class VetResource {
             page = vetService.findAll(pageable);
         }
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.pageEntityTag(page)).body(page.getContent());
     }
 
     /**
      * {@code GET  /vets/:id} : get the "id" vet.
      *
      * @param id the id of the vetDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the vetDTO, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tag of the vetDTO held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the vetDTO, or with status {@code 304 (Not Modified)} if it has not changed since {@code ifNoneMatch}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<VetDTO> getVet(@PathVariable("id") Long id) {
+    public ResponseEntity<VetDTO> getVet(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get Vet : {}", id);
-        Optional<VetDTO> vetDTO = vetService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(vetDTO);
+        return EntityTagUtil.<VetDTO>notModified(ifNoneMatch, id, () -> vetRepository.findVersionsById(id)).orElseGet(() ->
+            EntityTagUtil.wrapOrNotFound(vetService.findOne(id))
+        );
     }
 
     /**
@@ -3,19 +3,19 @@ package org.petclinic.web.rest;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
-import java.util.Optional;
 import org.petclinic.repository.VetSpecialtyRepository;
 import org.petclinic.service.VetSpecialtyService;
 import org.petclinic.service.dto.VetSpecialtyDTO;
 import org.petclinic.web.rest.errors.BadRequestAlertException;
 import org.petclinic.web.rest.errors.ElasticsearchExceptionMapper;
+import org.petclinic.web.rest.util.EntityTagUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link org.petclinic.domain.VetSpecialty}.
@@ -74,13 +74,18 @@ public class VetSpecialtyResource {
      * {@code GET  /vet-specialties/:id} : get the "id" vetSpecialty.
      *
      * @param id the id of the vetSpecialtyDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the vetSpecialtyDTO, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tag of the vetSpecialtyDTO held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the vetSpecialtyDTO, or with status {@code 304 (Not Modified)} if it has not changed since {@code ifNoneMatch}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<VetSpecialtyDTO> getVetSpecialty(@PathVariable("id") Long id) {
+    public ResponseEntity<VetSpecialtyDTO> getVetSpecialty(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get VetSpecialty : {}", id);
-        Optional<VetSpecialtyDTO> vetSpecialtyDTO = vetSpecialtyService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(vetSpecialtyDTO);
+        return EntityTagUtil.<VetSpecialtyDTO>notModified(ifNoneMatch, id, vetSpecialtyRepository).orElseGet(() ->
+            EntityTagUtil.wrapOrNotFound(vetSpecialtyService.findOne(id))
+        );
     }
 
     /**
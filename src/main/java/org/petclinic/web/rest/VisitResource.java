@@ -1,29 +1,49 @@
 package org.petclinic.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.repository.EntityVersions;
 import org.petclinic.repository.VisitRepository;
+import org.petclinic.repository.search.SearchAfterSlice;
+import org.petclinic.service.ExportFormat;
 import org.petclinic.service.VisitService;
+import org.petclinic.service.dto.BulkItemResultDTO;
 import org.petclinic.service.dto.VisitDTO;
 import org.petclinic.web.rest.errors.BadRequestAlertException;
 import org.petclinic.web.rest.errors.ElasticsearchExceptionMapper;
+import org.petclinic.web.rest.util.EntityTagUtil;
+import org.petclinic.web.rest.util.ExportUtil;
+import org.petclinic.web.rest.util.BulkRequestUtil;
+import org.petclinic.web.rest.util.KeysetPaginationUtil;
+import org.petclinic.web.rest.util.VisitDateCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link org.petclinic.domain.Visit}.
@@ -43,9 +63,24 @@ public class VisitResource {
 
     private final VisitRepository visitRepository;
 
-    public VisitResource(VisitService visitService, VisitRepository visitRepository) {
+    private final ApplicationProperties.Bulk bulkProperties;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    public VisitResource(
+        VisitService visitService,
+        VisitRepository visitRepository,
+        ApplicationProperties applicationProperties,
+        Validator validator,
+        ObjectMapper objectMapper
+    ) {
         this.visitService = visitService;
         this.visitRepository = visitRepository;
+        this.bulkProperties = applicationProperties.getBulk();
+        this.validator = validator;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -67,19 +102,60 @@ public class VisitResource {
             .body(visitDTO);
     }
 
+    /**
+     * {@code POST  /visits/_bulk} : Create or update visits in bulk.
+     * <p>
+     * Visits without an id are created, the others update the visit with their id. Invalid visits, updates of unknown
+     * visits and updates with a stale version are reported in the results and do not prevent the other visits from being
+     * saved.
+     *
+     * @param visitDTOs the visitDTOs to save.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each visit, in the order of the request,
+     * or with status {@code 400 (Bad Request)} if there are more visits than allowed.
+     */
+    @PostMapping(value = "/_bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BulkItemResultDTO>> bulkSaveVisits(@RequestBody List<VisitDTO> visitDTOs) {
+        log.debug("REST request to save {} Visits in bulk", visitDTOs.size());
+        List<BulkItemResultDTO> results = BulkRequestUtil.save(
+            visitDTOs,
+            bulkProperties.getMaxItems(),
+            ENTITY_NAME,
+            validator,
+            VisitDTO::getId,
+            visitService::saveAll
+        );
+        return ResponseEntity.ok().body(results);
+    }
+
+    /**
+     * {@code POST  /visits/_bulk} : Create or update visits in bulk, read from NDJSON with one visit per line.
+     *
+     * @param body the NDJSON request body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each visit, in the order of the request,
+     * or with status {@code 400 (Bad Request)} if a line is not a visit or there are more visits than allowed.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/_bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<BulkItemResultDTO>> bulkSaveVisitsFromNdjson(InputStream body) throws IOException {
+        return bulkSaveVisits(BulkRequestUtil.readNdjson(objectMapper, body, VisitDTO.class, bulkProperties.getMaxItems(), ENTITY_NAME));
+    }
+
     /**
      * {@code PUT  /visits/:id} : Updates an existing visit.
      *
      * @param id the id of the visitDTO to save.
+     * @param ifMatch the entity tag of the visitDTO the update was made from, if any.
      * @param visitDTO the visitDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated visitDTO,
      * or with status {@code 400 (Bad Request)} if the visitDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the visitDTO has been updated since {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the visitDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<VisitDTO> updateVisit(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody VisitDTO visitDTO
     ) throws URISyntaxException {
         log.debug("REST request to update Visit : {}, {}", id, visitDTO);
@@ -90,13 +166,15 @@ public class VisitResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!visitRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersions versions = visitRepository
+            .findVersionsById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, visitDTO, versions, ENTITY_NAME);
 
         visitDTO = visitService.update(visitDTO);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, visitDTO.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(visitDTO))
             .body(visitDTO);
     }
 
@@ -104,16 +182,19 @@ public class VisitResource {
      * {@code PATCH  /visits/:id} : Partial updates given fields of an existing visit, field will ignore if it is null
      *
      * @param id the id of the visitDTO to save.
+     * @param ifMatch the entity tag of the visitDTO the update was made from, if any.
      * @param visitDTO the visitDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated visitDTO,
      * or with status {@code 400 (Bad Request)} if the visitDTO is not valid,
      * or with status {@code 404 (Not Found)} if the visitDTO is not found,
+     * or with status {@code 412 (Precondition Failed)} if the visitDTO has been updated since {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the visitDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<VisitDTO> partialUpdateVisit(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody VisitDTO visitDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Visit partially : {}, {}", id, visitDTO);
@@ -124,13 +205,14 @@ public class VisitResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!visitRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersions versions = visitRepository
+            .findVersionsById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        EntityTagUtil.checkIfMatch(ifMatch, visitDTO, versions, ENTITY_NAME);
 
         Optional<VisitDTO> result = visitService.partialUpdate(visitDTO);
 
-        return ResponseUtil.wrapOrNotFound(
+        return EntityTagUtil.wrapOrNotFound(
             result,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, visitDTO.getId().toString())
         );
@@ -141,13 +223,18 @@ public class VisitResource {
      *
      * @param pageable the pagination information.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
+     * @param after the keyset cursor of the page, empty for the first page. Enables keyset pagination ordered by id or by visitDate.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of visits in body.
      */
     @GetMapping("")
     public ResponseEntity<List<VisitDTO>> getAllVisits(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
     ) {
+        if (after != null) {
+            return getAllVisitsAfter(after, pageable);
+        }
         log.debug("REST request to get a page of Visits");
         Page<VisitDTO> page;
         if (eagerload) {
@@ -156,6 +243,71 @@ public class VisitResource {
             page = visitService.findAll(pageable);
         }
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.pageEntityTag(page)).body(page.getContent());
+    }
+
+    private ResponseEntity<List<VisitDTO>> getAllVisitsAfter(String after, Pageable pageable) {
+        log.debug("REST request to get a keyset page of Visits after {}", after);
+        Sort sort = pageable.getSort();
+        Sort.Order visitDateOrder = sort.getOrderFor("visitDate");
+        if (
+            sort.stream().anyMatch(order -> !order.getProperty().equals("id") && !order.getProperty().equals("visitDate")) ||
+            (visitDateOrder == null && sort.stream().anyMatch(Sort.Order::isDescending))
+        ) {
+            throw new BadRequestAlertException(
+                "Keyset pagination only supports id or visitDate order",
+                ENTITY_NAME,
+                "keysetsortunsupported"
+            );
+        }
+        Slice<VisitDTO> slice;
+        String nextCursor = null;
+        if (visitDateOrder == null) {
+            Long afterId = after.isEmpty()
+                ? null
+                : KeysetPaginationUtil.decodeCursor(after, "id", values -> Long.valueOf(values[0]), ENTITY_NAME);
+            slice = visitService.findAllAfter(afterId, pageable.getPageSize());
+            if (slice.hasNext()) {
+                nextCursor = KeysetPaginationUtil.encodeCursor("id", slice.getContent().get(slice.getNumberOfElements() - 1).getId());
+            }
+        } else {
+            VisitDateCursor cursor = VisitDateCursor.decode(after, visitDateOrder.getDirection(), ENTITY_NAME);
+            slice = visitService.findAllAfterVisitDate(
+                visitDateOrder.getDirection(),
+                cursor.visitDate(),
+                cursor.id(),
+                pageable.getPageSize()
+            );
+            nextCursor = VisitDateCursor.next(slice, visitDateOrder.getDirection());
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), nextCursor);
+        return ResponseEntity.ok().headers(headers).eTag(EntityTagUtil.pageEntityTag(slice)).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /visits?fields=:fields} : get all the visits, restricted to some of their fields.
+     *
+     * @param fields the comma-separated fields of the visits, such as {@code visitDate,pet.name}, among those of {@link VisitService#FIELDSET}.
+     * @param after the keyset cursor of the page, not supported with fields.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of visits in body, with the given fields only,
+     * or with status {@code 400 (Bad Request)} if a field is unknown or a keyset cursor is given.
+     */
+    @GetMapping(value = "", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllVisitFields(
+        @RequestParam("fields") String fields,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of Visits with fields {}", fields);
+        if (after != null) {
+            throw new BadRequestAlertException("Keyset pagination is not supported with fields", ENTITY_NAME, "keysetfieldsunsupported");
+        }
+        List<String> selectedFields = VisitService.FIELDSET.parse(fields).orElseThrow(() ->
+            new BadRequestAlertException("Unknown fields " + fields, ENTITY_NAME, "fieldsinvalid")
+        );
+        Page<Map<String, Object>> page = visitService.findAllFields(selectedFields, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -163,13 +315,40 @@ public class VisitResource {
      * {@code GET  /visits/:id} : get the "id" visit.
      *
      * @param id the id of the visitDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the visitDTO, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tag of the visitDTO held by the client, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the visitDTO, or with status {@code 304 (Not Modified)} if it has not changed since {@code ifNoneMatch}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<VisitDTO> getVisit(@PathVariable("id") Long id) {
+    public ResponseEntity<VisitDTO> getVisit(
+        @PathVariable("id") Long id,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get Visit : {}", id);
-        Optional<VisitDTO> visitDTO = visitService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(visitDTO);
+        return EntityTagUtil.<VisitDTO>notModified(ifNoneMatch, id, () -> visitRepository.findVersionsById(id)).orElseGet(() ->
+            EntityTagUtil.wrapOrNotFound(visitService.findOne(id))
+        );
+    }
+
+    /**
+     * {@code GET  /visits/_export} : export the visits, written to the response as they are read from the database.
+     *
+     * @param format the format of the export, {@code ndjson} or {@code csv}.
+     * @param from the first visit date to export, if any.
+     * @param to the last visit date to export, if any.
+     * @param response the response the visits are written to with status {@code 200 (OK)},
+     * or with status {@code 400 (Bad Request)} if the format is not supported or the range ends before it starts.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/_export")
+    public void exportVisits(
+        @RequestParam(name = "format", defaultValue = ExportUtil.DEFAULT_FORMAT) String format,
+        @RequestParam(name = "from", required = false) LocalDate from,
+        @RequestParam(name = "to", required = false) LocalDate to,
+        HttpServletResponse response
+    ) throws IOException {
+        log.debug("REST request to export Visits from {} to {} as {}", from, to, format);
+        ExportFormat exportFormat = ExportUtil.prepareResponse(response, format, from, to, "visits", ENTITY_NAME);
+        visitService.export(from, to, exportFormat, response.getOutputStream());
     }
 
     /**
@@ -193,20 +372,63 @@ public class VisitResource {
      *
      * @param query the query of the visit search.
      * @param pageable the pagination information.
+     * @param after the cursor of the page, empty for the first page. Enables {@code search_after} pagination ordered by
+     * relevance, id or visitDate, without a total count.
      * @return the result of the search.
      */
     @GetMapping("/_search")
     public ResponseEntity<List<VisitDTO>> searchVisits(
         @RequestParam("query") String query,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
     ) {
+        if (after != null) {
+            return searchVisitsAfter(query, after, pageable);
+        }
         log.debug("REST request to search for a page of Visits for query {}", query);
         try {
             Page<VisitDTO> page = visitService.search(query, pageable);
             HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            // The search documents have no version, so the hits get no entity tag
             return ResponseEntity.ok().headers(headers).body(page.getContent());
         } catch (RuntimeException e) {
             throw ElasticsearchExceptionMapper.mapException(e);
         }
     }
+
+    private ResponseEntity<List<VisitDTO>> searchVisitsAfter(String query, String after, Pageable pageable) {
+        log.debug("REST request to search for a keyset page of Visits for query {} after {}", query, after);
+        Sort sort = pageable.getSort();
+        if (sort.stream().anyMatch(order -> !order.getProperty().equals("id") && !order.getProperty().equals("visitDate"))) {
+            throw new BadRequestAlertException(
+                "Keyset pagination only supports id or visitDate order",
+                ENTITY_NAME,
+                "keysetsortunsupported"
+            );
+        }
+        // The cursor holds the sort values of the last hit: the score or the visit date as epoch milliseconds, then the id
+        String key = "search," + (sort.isUnsorted() ? "score" : sort.toString());
+        List<Object> searchAfter = after.isEmpty()
+            ? null
+            : KeysetPaginationUtil.decodeCursor(after, key, values -> parseSearchAfter(values, sort.isUnsorted()), ENTITY_NAME);
+        try {
+            SearchAfterSlice<VisitDTO> slice = visitService.searchAfter(query, sort, searchAfter, pageable.getPageSize());
+            String nextCursor = slice.hasNext() ? KeysetPaginationUtil.encodeCursor(key, slice.getNextSearchAfter().toArray()) : null;
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                nextCursor
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        } catch (RuntimeException e) {
+            throw ElasticsearchExceptionMapper.mapException(e);
+        }
+    }
+
+    private static List<Object> parseSearchAfter(String[] values, boolean byScore) {
+        List<Object> searchAfter = new ArrayList<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            searchAfter.add(byScore && i == 0 ? (Object) Double.valueOf(values[i]) : (Object) Long.valueOf(values[i]));
+        }
+        return searchAfter;
+    }
 }
@@ -3,6 +3,7 @@ package org.petclinic.web.rest.errors;
 import co.elastic.clients.elasticsearch._types.ElasticsearchException;
 import co.elastic.clients.elasticsearch._types.ErrorCause;
 import java.util.List;
+import org.petclinic.repository.search.InvalidSearchQueryException;
 import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
 
 public class ElasticsearchExceptionMapper {
@@ -10,6 +11,9 @@ public class ElasticsearchExceptionMapper {
     private ElasticsearchExceptionMapper() {}
 
     public static RuntimeException mapException(RuntimeException originalException) {
+        if (originalException instanceof InvalidSearchQueryException invalidSearchQueryException) {
+            return new QuerySyntaxException(invalidSearchQueryException.getMessage());
+        }
         RuntimeException e = originalException;
         if (e.getCause() instanceof UncategorizedElasticsearchException) {
             e = (UncategorizedElasticsearchException) e.getCause();
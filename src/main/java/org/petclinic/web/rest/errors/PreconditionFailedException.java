@@ -0,0 +1,28 @@
+package org.petclinic.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+/**
+ * Thrown when the {@code If-Match} header of an update does not match the current version of the entity.
+ */
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class PreconditionFailedException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(String entityName) {
+        super(
+            HttpStatus.PRECONDITION_FAILED,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.PRECONDITION_FAILED.value())
+                .withType(ErrorConstants.DEFAULT_TYPE)
+                .withTitle("The entity has been updated since it was read")
+                .withProperty("message", ErrorConstants.ERR_PRECONDITION_FAILED)
+                .withProperty("params", entityName)
+                .build(),
+            null
+        );
+    }
+}
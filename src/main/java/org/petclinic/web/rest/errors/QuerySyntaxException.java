@@ -8,4 +8,8 @@ public class QuerySyntaxException extends BadRequestAlertException {
     public QuerySyntaxException() {
         super("Invalid query syntax!", "elasticseach", "querySyntaxError");
     }
+
+    public QuerySyntaxException(String detail) {
+        super("Invalid query syntax: " + detail, "elasticseach", "querySyntaxError");
+    }
 }
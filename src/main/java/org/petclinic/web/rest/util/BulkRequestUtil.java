@@ -0,0 +1,110 @@
+package org.petclinic.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import org.petclinic.service.dto.BulkItemResultDTO;
+import org.petclinic.web.rest.errors.BadRequestAlertException;
+
+/**
+ * Utility class for bulk requests.
+ * <p>
+ * A bulk request carries the entities to create or update either as a JSON array or as NDJSON, one entity per line.
+ * It is answered with one {@link BulkItemResultDTO} per entity, in the order of the request: invalid entities are
+ * reported and skipped, the others are saved in one transaction.
+ */
+public final class BulkRequestUtil {
+
+    private BulkRequestUtil() {}
+
+    /**
+     * Read the entities of an NDJSON request body.
+     *
+     * @param objectMapper the mapper of the entities.
+     * @param body the request body.
+     * @param type the type of the entities.
+     * @param maxItems the maximum number of entities.
+     * @param entityName the entity name used in the errors.
+     * @param <T> the type of the entities.
+     * @return the entities, in the order of the body.
+     * @throws IOException if the body cannot be read.
+     * @throws BadRequestAlertException if a line is not an entity or there are more than {@code maxItems} entities.
+     */
+    public static <T> List<T> readNdjson(ObjectMapper objectMapper, InputStream body, Class<T> type, int maxItems, String entityName)
+        throws IOException {
+        List<T> items = new ArrayList<>();
+        try (MappingIterator<T> iterator = objectMapper.readerFor(type).readValues(body)) {
+            while (iterator.hasNextValue()) {
+                items.add(iterator.nextValue());
+                checkSize(items.size(), maxItems, entityName);
+            }
+        } catch (JsonProcessingException e) {
+            throw new BadRequestAlertException("Invalid entity at index " + items.size(), entityName, "bulkitemunreadable");
+        }
+        return items;
+    }
+
+    /**
+     * Validate the entities of a bulk request and save the valid ones.
+     *
+     * @param items the entities of the request.
+     * @param maxItems the maximum number of entities.
+     * @param entityName the entity name used in the errors.
+     * @param validator validates each entity.
+     * @param idGetter gets the id of an entity.
+     * @param saver saves the valid entities, returning their results in the same order.
+     * @param <T> the type of the entities.
+     * @return the result of each entity, in the order of the request.
+     * @throws BadRequestAlertException if there are more than {@code maxItems} entities.
+     */
+    public static <T> List<BulkItemResultDTO> save(
+        List<T> items,
+        int maxItems,
+        String entityName,
+        Validator validator,
+        Function<T, Long> idGetter,
+        Function<List<T>, List<BulkItemResultDTO>> saver
+    ) {
+        checkSize(items.size(), maxItems, entityName);
+        BulkItemResultDTO[] results = new BulkItemResultDTO[items.size()];
+        List<T> validItems = new ArrayList<>();
+        List<Integer> validIndices = new ArrayList<>();
+        for (int index = 0; index < items.size(); index++) {
+            T item = items.get(index);
+            List<String> errors = item == null
+                ? List.of("must not be null")
+                : validator
+                    .validate(item)
+                    .stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .toList();
+            if (errors.isEmpty()) {
+                validItems.add(item);
+                validIndices.add(index);
+            } else {
+                results[index] = BulkItemResultDTO.invalid(index, item == null ? null : idGetter.apply(item), errors);
+            }
+        }
+        if (!validItems.isEmpty()) {
+            List<BulkItemResultDTO> saved = saver.apply(validItems);
+            for (int i = 0; i < validIndices.size(); i++) {
+                results[validIndices.get(i)] = saved.get(i).withIndex(validIndices.get(i));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private static void checkSize(int size, int maxItems, String entityName) {
+        if (size > maxItems) {
+            throw new BadRequestAlertException("A bulk request cannot hold more than " + maxItems + " items", entityName, "bulktoolarge");
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package org.petclinic.web.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.petclinic.repository.EntityVersions;
+import org.petclinic.repository.VersionedRepository;
+import org.petclinic.service.dto.VersionedDTO;
+import org.petclinic.web.rest.errors.PreconditionFailedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Utility class for the entity tags of the REST resources.
+ * <p>
+ * An entity is tagged with a strong entity tag made of its id and version. A client holding it revalidates it with
+ * {@code If-None-Match}, answered with {@code 304 (Not Modified)} from a version-only query, and updates it with
+ * {@code If-Match}, answered with {@code 412 (Precondition Failed)} if the entity has been updated since. A page is
+ * tagged with a weak entity tag of the ids and versions of its entities, so an unchanged page is not sent again.
+ * <p>
+ * The tag of an entity whose DTO embeds fields of related entities also carries their version, so renaming a related
+ * entity changes the tag of the entities embedding its name.
+ */
+public final class EntityTagUtil {
+
+    private static final String WILDCARD = "*";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private EntityTagUtil() {}
+
+    /**
+     * Get the strong entity tag of a version of an entity.
+     *
+     * @param id the id of the entity.
+     * @param version the version of the entity.
+     * @return the entity tag, quoted.
+     */
+    public static String entityTag(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Get the strong entity tag of a version of an entity and of the related entities its DTO embeds.
+     *
+     * @param id the id of the entity.
+     * @param version the version of the entity.
+     * @param embeddedVersion the version of the related entities embedded in the DTO of the entity.
+     * @return the entity tag, quoted.
+     */
+    public static String entityTag(Long id, Long version, Long embeddedVersion) {
+        return "\"" + id + "-" + version + "-" + embeddedVersion + "\"";
+    }
+
+    /**
+     * Get the strong entity tag of an entity.
+     *
+     * @param entity the entity.
+     * @return the entity tag, quoted.
+     */
+    public static String entityTag(VersionedDTO entity) {
+        Long embeddedVersion = entity.getEmbeddedVersion();
+        return embeddedVersion == null
+            ? entityTag(entity.getId(), entity.getVersion())
+            : entityTag(entity.getId(), entity.getVersion(), embeddedVersion);
+    }
+
+    /**
+     * Get the weak entity tag of a page of entities, which changes when an entity of the page changes, or when an
+     * entity is added to or removed from the page or the pages following it.
+     *
+     * @param slice the page.
+     * @return the entity tag, quoted.
+     */
+    public static String pageEntityTag(Slice<? extends VersionedDTO> slice) {
+        StringBuilder state = new StringBuilder();
+        state.append(slice instanceof Page<?> page ? page.getTotalElements() : slice.hasNext());
+        for (VersionedDTO entity : slice) {
+            state.append(',').append(entity.getId()).append('-').append(entity.getVersion());
+            if (entity.getEmbeddedVersion() != null) {
+                state.append('-').append(entity.getEmbeddedVersion());
+            }
+        }
+        return WEAK_PREFIX + "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Answer a conditional request for an entity from its version alone, without reading it.
+     *
+     * @param ifNoneMatch the {@code If-None-Match} header of the request, or {@code null}.
+     * @param id the id of the entity.
+     * @param repository the repository of the entity.
+     * @param <T> the type of the response body.
+     * @return the response with status {@code 304 (Not Modified)} if the header matches the current version of the
+     * entity, empty if the entity must be read.
+     */
+    public static <T> Optional<ResponseEntity<T>> notModified(String ifNoneMatch, Long id, VersionedRepository repository) {
+        if (ifNoneMatch == null) {
+            return Optional.empty();
+        }
+        return repository
+            .findVersionById(id)
+            .map(version -> entityTag(id, version))
+            .filter(entityTag -> matches(ifNoneMatch, entityTag, false))
+            .map(entityTag -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag).<T>build());
+    }
+
+    /**
+     * Answer a conditional request for an entity embedding related entities from their versions alone, without
+     * reading them.
+     *
+     * @param ifNoneMatch the {@code If-None-Match} header of the request, or {@code null}.
+     * @param id the id of the entity.
+     * @param versions the query of the versions of the entity and of the related entities its DTO embeds.
+     * @param <T> the type of the response body.
+     * @return the response with status {@code 304 (Not Modified)} if the header matches the current versions, empty
+     * if the entity must be read.
+     */
+    public static <T> Optional<ResponseEntity<T>> notModified(String ifNoneMatch, Long id, Supplier<Optional<EntityVersions>> versions) {
+        if (ifNoneMatch == null) {
+            return Optional.empty();
+        }
+        return versions
+            .get()
+            .map(current -> entityTag(id, current.getVersion(), current.getEmbeddedVersion()))
+            .filter(entityTag -> matches(ifNoneMatch, entityTag, false))
+            .map(entityTag -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag).<T>build());
+    }
+
+    /**
+     * Wrap an entity into a {@link ResponseEntity} tagged with its version, with status {@code 200 (OK)}, or with status
+     * {@code 404 (Not Found)} if it is absent.
+     *
+     * @param maybeResponse the entity.
+     * @param <T> the type of the entity.
+     * @return the response.
+     */
+    public static <T extends VersionedDTO> ResponseEntity<T> wrapOrNotFound(Optional<T> maybeResponse) {
+        return wrapOrNotFound(maybeResponse, null);
+    }
+
+    /**
+     * Wrap an entity into a {@link ResponseEntity} tagged with its version, with status {@code 200 (OK)}, or with status
+     * {@code 404 (Not Found)} if it is absent.
+     *
+     * @param maybeResponse the entity.
+     * @param headers the headers of the response, if any.
+     * @param <T> the type of the entity.
+     * @return the response.
+     */
+    public static <T extends VersionedDTO> ResponseEntity<T> wrapOrNotFound(Optional<T> maybeResponse, HttpHeaders headers) {
+        return maybeResponse
+            .map(response -> ResponseEntity.ok().headers(headers).eTag(entityTag(response)).body(response))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Check the {@code If-Match} header of an update and set the version the update is checked against: the current
+     * version when the header matches it or when the entity carries no version, so the update overwrites it.
+     *
+     * @param ifMatch the {@code If-Match} header of the request, or {@code null}.
+     * @param entity the entity to update.
+     * @param currentVersion the current version of the entity.
+     * @param entityName the entity name used in the error raised when the header does not match.
+     * @throws PreconditionFailedException if the header does not match the current version of the entity.
+     */
+    public static void checkIfMatch(String ifMatch, VersionedDTO entity, Long currentVersion, String entityName) {
+        checkIfMatch(ifMatch, entity, entityTag(entity.getId(), currentVersion), currentVersion, entityName);
+    }
+
+    /**
+     * Check the {@code If-Match} header of an update of an entity embedding related entities, which also fails when
+     * one of them has been updated since, and set the version the update is checked against as
+     * {@link #checkIfMatch(String, VersionedDTO, Long, String)} does.
+     *
+     * @param ifMatch the {@code If-Match} header of the request, or {@code null}.
+     * @param entity the entity to update.
+     * @param current the current versions of the entity and of the related entities its DTO embeds.
+     * @param entityName the entity name used in the error raised when the header does not match.
+     * @throws PreconditionFailedException if the header does not match the current versions.
+     */
+    public static void checkIfMatch(String ifMatch, VersionedDTO entity, EntityVersions current, String entityName) {
+        String currentEntityTag = entityTag(entity.getId(), current.getVersion(), current.getEmbeddedVersion());
+        checkIfMatch(ifMatch, entity, currentEntityTag, current.getVersion(), entityName);
+    }
+
+    private static void checkIfMatch(String ifMatch, VersionedDTO entity, String currentEntityTag, Long currentVersion, String entityName) {
+        if (ifMatch != null) {
+            if (!matches(ifMatch, currentEntityTag, true)) {
+                throw new PreconditionFailedException(entityName);
+            }
+            entity.setVersion(currentVersion);
+        } else if (entity.getVersion() == null) {
+            entity.setVersion(currentVersion);
+        }
+    }
+
+    private static boolean matches(String header, String entityTag, boolean strongComparison) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(WILDCARD)) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                if (strongComparison) {
+                    continue;
+                }
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+package org.petclinic.web.rest.util;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
+import org.petclinic.service.ExportFormat;
+import org.petclinic.web.rest.errors.BadRequestAlertException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Utility class for the streaming exports, which write their rows straight to the response as they are read from the
+ * database, in the format given by the {@code format} parameter.
+ */
+public final class ExportUtil {
+
+    public static final String DEFAULT_FORMAT = "ndjson";
+
+    private ExportUtil() {}
+
+    /**
+     * Check the parameters of an export and set the headers of its response, before any row is written.
+     *
+     * @param response the response of the export.
+     * @param format the name of the format of the export.
+     * @param from the first date of the range of the export, if any.
+     * @param to the last date of the range of the export, if any.
+     * @param fileName the name of the exported file, without extension.
+     * @param entityName the entity name used in the errors.
+     * @return the format of the export.
+     * @throws BadRequestAlertException if the format is not supported or the range ends before it starts.
+     */
+    public static ExportFormat prepareResponse(
+        HttpServletResponse response,
+        String format,
+        LocalDate from,
+        LocalDate to,
+        String fileName,
+        String entityName
+    ) {
+        ExportFormat exportFormat = ExportFormat.fromName(format).orElseThrow(() ->
+            new BadRequestAlertException("Unsupported export format " + format, entityName, "exportformatunsupported")
+        );
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestAlertException("The export range ends before it starts", entityName, "exportrangeinvalid");
+        }
+        response.setContentType(exportFormat.getMediaType() + ";charset=UTF-8");
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(fileName + "." + exportFormat.getFileExtension()).build().toString()
+        );
+        return exportFormat;
+    }
+}
@@ -0,0 +1,77 @@
+package org.petclinic.web.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.petclinic.web.rest.errors.BadRequestAlertException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for keyset (seek) pagination.
+ * <p>
+ * A page is requested with an opaque {@code after} cursor holding the sort key of the last row of the previous page,
+ * so every page is read with an index seek and no total count is computed. The cursor of the next page, if any, is
+ * returned in a {@code Link} header with {@code rel="next"}.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Encode a cursor pointing after the row with the given sort key values.
+     *
+     * @param key the name of the ordering the cursor belongs to.
+     * @param values the sort key values of the last row of the page.
+     * @return the opaque cursor.
+     */
+    public static String encodeCursor(String key, Object... values) {
+        String plain = key + SEPARATOR + Arrays.stream(values).map(String::valueOf).collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encodeCursor(String, Object...)}.
+     *
+     * @param cursor the opaque cursor.
+     * @param key the name of the ordering the cursor must belong to.
+     * @param parser converts the sort key values of the cursor.
+     * @param entityName the entity name used in the error raised for an invalid cursor.
+     * @param <T> the type of the decoded cursor.
+     * @return the decoded cursor.
+     * @throws BadRequestAlertException if the cursor is malformed or belongs to another ordering.
+     */
+    public static <T> T decodeCursor(String cursor, String key, Function<String[], T> parser, String entityName) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\" + SEPARATOR, -1);
+            if (parts[0].equals(key)) {
+                return parser.apply(Arrays.copyOfRange(parts, 1, parts.length));
+            }
+        } catch (RuntimeException e) {
+            // fall through to the bad request below
+        }
+        throw new BadRequestAlertException("Invalid pagination cursor", entityName, "invalidcursor");
+    }
+
+    /**
+     * Generate the {@code Link} header pointing to the next page.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param nextCursor the cursor of the next page, or {@code null} on the last page.
+     * @return the {@link HttpHeaders}.
+     */
+    public static HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            String next = uriBuilder.replaceQueryParam("page").replaceQueryParam(AFTER_PARAMETER, nextCursor).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,51 @@
+package org.petclinic.web.rest.util;
+
+import java.time.LocalDate;
+import org.petclinic.service.dto.VisitDTO;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Keyset cursor of visits ordered by visit date then id, see {@link KeysetPaginationUtil}.
+ *
+ * @param visitDate the visit date of the last visit of the previous page, {@code null} for the first page.
+ * @param id the id of the last visit of the previous page, {@code null} for the first page.
+ */
+public record VisitDateCursor(LocalDate visitDate, Long id) {
+    public static final VisitDateCursor FIRST = new VisitDateCursor(null, null);
+
+    /**
+     * Decode the cursor of a page.
+     *
+     * @param after the cursor of the page, empty for the first page.
+     * @param direction the direction of the ordering.
+     * @param entityName the entity name used in the error raised for an invalid cursor.
+     * @return the decoded cursor.
+     */
+    public static VisitDateCursor decode(String after, Sort.Direction direction, String entityName) {
+        return after.isEmpty() ? FIRST : KeysetPaginationUtil.decodeCursor(after, key(direction), VisitDateCursor::parse, entityName);
+    }
+
+    /**
+     * Encode the cursor of the page following a slice.
+     *
+     * @param slice the visits of the current page.
+     * @param direction the direction of the ordering.
+     * @return the cursor of the next page, or {@code null} on the last page.
+     */
+    public static String next(Slice<VisitDTO> slice, Sort.Direction direction) {
+        if (!slice.hasNext()) {
+            return null;
+        }
+        VisitDTO last = slice.getContent().get(slice.getNumberOfElements() - 1);
+        return KeysetPaginationUtil.encodeCursor(key(direction), last.getVisitDate(), last.getId());
+    }
+
+    private static String key(Sort.Direction direction) {
+        return "visitDate," + direction;
+    }
+
+    private static VisitDateCursor parse(String[] values) {
+        return new VisitDateCursor(LocalDate.parse(values[0]), Long.valueOf(values[1]));
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Utility classes for the Rest layer.
+ */
+package org.petclinic.web.rest.util;
@@ -0,0 +1,106 @@
+package org.petclinic.loadtest;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.*;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * HTTP load scenario against a running instance: list pages, search, detail and visit creation, in the proportions of
+ * a front desk.
+ * <p>
+ * The API expects an OAuth2 access token, pass one of a user of the realm with {@code -DaccessToken=...}. The other
+ * system properties are {@code baseUrl} (http://localhost:8080), {@code users} (100), {@code rampSeconds} (60),
+ * {@code durationSeconds} (300) and {@code maxListPage} (50, the highest page number requested by the list requests).
+ * <p>
+ * Gatling writes the report, response time percentiles included, to {@code target/gatling}.
+ */
+public class PetclinicSimulation extends Simulation {
+
+    private static final String[] SEARCH_TERMS = { "Franklin", "Davis", "Leary", "rabies", "checkup", "Leo", "Max", "Madison" };
+
+    private final int maxListPage = Integer.getInteger("maxListPage", 50);
+
+    private final HttpProtocolBuilder httpProtocol = http
+        .baseUrl(System.getProperty("baseUrl", "http://localhost:8080"))
+        .acceptHeader("application/json")
+        .authorizationHeader("Bearer " + System.getProperty("accessToken", ""))
+        .check(status().in(200, 201));
+
+    private final Iterator<Map<String, Object>> searchTerms = Stream.generate(() -> {
+        String term = SEARCH_TERMS[ThreadLocalRandom.current().nextInt(SEARCH_TERMS.length)];
+        return Map.<String, Object>of("term", term, "prefix", term.substring(0, Math.min(3, term.length())));
+    }).iterator();
+
+    private final Iterator<Map<String, Object>> listPages = Stream.generate(
+        () -> Map.<String, Object>of("page", ThreadLocalRandom.current().nextInt(maxListPage + 1))
+    ).iterator();
+
+    private final ChainBuilder listVisits = feed(listPages).exec(
+        http("List visits")
+            .get("/api/visits?page=#{page}&size=20&sort=id,asc")
+            .check(jsonPath("$[*].id").findRandom().optional().saveAs("visitId"))
+            .check(jsonPath("$[*].pet.id").findRandom().optional().saveAs("petId"))
+    );
+
+    private final ChainBuilder listOwners = feed(listPages).exec(
+        http("List owners").get("/api/owners?page=#{page}&size=20&sort=id,asc")
+    );
+
+    private final ChainBuilder listVisitsByKeyset = exec(http("List visits by keyset").get("/api/visits?after=&size=20"));
+
+    private final ChainBuilder search = feed(searchTerms).exec(
+        http("Search visits").get("/api/visits/_search?query=#{term}&size=20"),
+        http("Search owners").get("/api/owners/_search?query=#{term}&size=20"),
+        http("Suggest owners").get("/api/owners/_suggest?prefix=#{prefix}"),
+        http("Suggest pets").get("/api/pets/_suggest?prefix=#{prefix}")
+    );
+
+    private final ChainBuilder visitDetail = doIf(session -> session.contains("visitId")).then(
+        exec(http("Get visit").get("/api/visits/#{visitId}"))
+    );
+
+    private final ChainBuilder createVisit = doIf(session -> session.contains("petId")).then(
+        // The CSRF cookie is set by every response, the API expects it back as a header on writes
+        exec(getCookieValue(CookieKey("XSRF-TOKEN").saveAs("xsrfToken"))).exec(
+            http("Create visit")
+                .post("/api/visits")
+                .header("X-XSRF-TOKEN", "#{xsrfToken}")
+                .body(
+                    StringBody(
+                        session ->
+                            "{\"visitDate\":\"" + LocalDate.now() + "\",\"description\":\"load test\",\"pet\":{\"id\":" + session.getLong("petId") + "}}"
+                    )
+                )
+                .asJson()
+        )
+    );
+
+    private final ScenarioBuilder frontDesk = scenario("Front desk").forever().on(
+        randomSwitch()
+            .on(
+                percent(35.0).then(listVisits),
+                percent(15.0).then(listOwners),
+                percent(10.0).then(listVisitsByKeyset),
+                percent(20.0).then(search),
+                percent(15.0).then(exec(listVisits, visitDetail)),
+                percent(5.0).then(exec(listVisits, createVisit))
+            )
+            .pause(Duration.ofMillis(200), Duration.ofMillis(1000))
+    );
+
+    {
+        setUp(frontDesk.injectOpen(rampUsers(Integer.getInteger("users", 100)).during(Integer.getInteger("rampSeconds", 60))))
+            .protocols(httpProtocol)
+            .maxDuration(Duration.ofSeconds(Integer.getInteger("durationSeconds", 300)));
+    }
+}
@@ -0,0 +1,359 @@
+package org.petclinic.loadtest;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the database with a large, referentially consistent data set: owners with their pets, visits of these pets,
+ * vets with their specialties.
+ * <p>
+ * Rows are written with batched multi-row inserts, committed every {@code batch-size} rows, with ids following the
+ * highest existing id of each table so the generator can be run on top of existing data. The id sequences of the
+ * application are then moved past the generated ids. Pet types and specialties are only created when their table is
+ * empty. The data is deterministic for a given seed.
+ * <p>
+ * Options, all optional, are given as {@code --name=value}:
+ * {@code url}, {@code username}, {@code password}, {@code owners} (100000), {@code max-pets-per-owner} (3),
+ * {@code visits} (2000000), {@code vets} (500), {@code batch-size} (5000), {@code seed} (42).
+ * <p>
+ * The search indices are not fed by this generator, rebuild them afterwards with {@code POST /api/admin/search/reindex}.
+ */
+public final class SyntheticDataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+        "George",
+        "Betty",
+        "Eduardo",
+        "Harold",
+        "Peter",
+        "Jean",
+        "Jeff",
+        "Maria",
+        "David",
+        "Carlos",
+        "Helen",
+        "Linda",
+        "Rafael",
+        "Sharon",
+        "James",
+        "Aiko",
+        "Noah",
+        "Fatima",
+        "Lucas",
+        "Olga",
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Franklin",
+        "Davis",
+        "Rodriquez",
+        "McTavish",
+        "Coleman",
+        "Black",
+        "Escobito",
+        "Schroeder",
+        "Leary",
+        "Douglas",
+        "Ortega",
+        "Stevens",
+        "Jenkins",
+        "Carter",
+        "Nakamura",
+        "Haddad",
+        "Novak",
+        "Moreau",
+        "Kowalski",
+        "Silva",
+    };
+
+    private static final String[] STREETS = { "Liberty St.", "Lake St.", "Grove St.", "Oak Ave.", "Park Blvd.", "Maple Dr.", "Main St." };
+
+    private static final String[] CITIES = { "Madison", "Sun Prairie", "McFarland", "Windsor", "Monona", "Waunakee", "Middleton" };
+
+    private static final String[] PET_NAMES = {
+        "Leo",
+        "Basil",
+        "Rosy",
+        "Jewel",
+        "Iggy",
+        "George",
+        "Samantha",
+        "Max",
+        "Lucky",
+        "Mulligan",
+        "Freddy",
+        "Sly",
+        "Luna",
+        "Milo",
+        "Bella",
+        "Charlie",
+    };
+
+    private static final String[] VISIT_DESCRIPTIONS = {
+        "rabies shot",
+        "annual checkup",
+        "neutered",
+        "spayed",
+        "dental cleaning",
+        "vaccination booster",
+        "skin allergy",
+        "limping on front leg",
+        "ear infection",
+        "weight control follow-up",
+    };
+
+    private static final String[] PET_TYPES = { "cat", "dog", "lizard", "snake", "bird", "hamster" };
+
+    private static final String[] SPECIALTIES = { "radiology", "surgery", "dentistry", "cardiology", "dermatology" };
+
+    private final Map<String, String> options;
+
+    private final SplittableRandom random;
+
+    private final int batchSize;
+
+    private SyntheticDataGenerator(Map<String, String> options) {
+        this.options = options;
+        this.random = new SplittableRandom(longOption("seed", 42));
+        this.batchSize = (int) longOption("batch-size", 5000);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new SyntheticDataGenerator(options).run();
+    }
+
+    private void run() throws SQLException {
+        String url = options.getOrDefault("url", "jdbc:mysql://localhost:3306/petclinicManagement");
+        if (url.startsWith("jdbc:mysql:") && !url.contains("rewriteBatchedStatements")) {
+            // Lets the driver turn each batch into multi-row inserts
+            url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+        }
+        try (Connection connection = DriverManager.getConnection(url, options.getOrDefault("username", "root"), options.get("password"))) {
+            connection.setAutoCommit(false);
+            long[] petTypeIds = referenceIds(connection, "pet_type", PET_TYPES);
+            long[] specialtyIds = referenceIds(connection, "specialty", SPECIALTIES);
+            long firstPetId = nextId(connection, "pet");
+            long pets = generateOwnersAndPets(connection, longOption("owners", 100_000), firstPetId, petTypeIds);
+            generateVisits(connection, firstPetId, pets, longOption("visits", 2_000_000));
+            generateVets(connection, longOption("vets", 500), specialtyIds);
+            for (String table : new String[] { "pet_type", "specialty", "owner", "pet", "visit", "vet" }) {
+                syncSequence(connection, table);
+            }
+        }
+    }
+
+    private long generateOwnersAndPets(Connection connection, long owners, long firstPetId, long[] petTypeIds) throws SQLException {
+        int maxPetsPerOwner = (int) longOption("max-pets-per-owner", 3);
+        long firstOwnerId = nextId(connection, "owner");
+        long petId = firstPetId;
+        Progress progress = new Progress("owner", owners);
+        try (
+            PreparedStatement ownerInsert = connection.prepareStatement(
+                "insert into owner (id, first_name, last_name, address, city, telephone) values (?, ?, ?, ?, ?, ?)"
+            );
+            PreparedStatement petInsert = connection.prepareStatement(
+                "insert into pet (id, name, birth_date, type_id, owner_id) values (?, ?, ?, ?, ?)"
+            )
+        ) {
+            for (long ownerId = firstOwnerId; ownerId < firstOwnerId + owners; ownerId++) {
+                ownerInsert.setLong(1, ownerId);
+                ownerInsert.setString(2, pick(FIRST_NAMES));
+                ownerInsert.setString(3, pick(LAST_NAMES));
+                ownerInsert.setString(4, (100 + random.nextInt(9900)) + " " + pick(STREETS));
+                ownerInsert.setString(5, pick(CITIES));
+                ownerInsert.setString(6, "608555" + String.format("%04d", random.nextInt(10000)));
+                ownerInsert.addBatch();
+                for (int i = random.nextInt(maxPetsPerOwner) + 1; i > 0; i--) {
+                    petInsert.setLong(1, petId++);
+                    petInsert.setString(2, pick(PET_NAMES));
+                    petInsert.setDate(3, Date.valueOf(LocalDate.now().minusDays(random.nextInt(15 * 365))));
+                    petInsert.setLong(4, petTypeIds[random.nextInt(petTypeIds.length)]);
+                    petInsert.setLong(5, ownerId);
+                    petInsert.addBatch();
+                }
+                if (progress.increment() % batchSize == 0) {
+                    ownerInsert.executeBatch();
+                    petInsert.executeBatch();
+                    connection.commit();
+                }
+            }
+            ownerInsert.executeBatch();
+            petInsert.executeBatch();
+            connection.commit();
+        }
+        progress.done();
+        return petId - firstPetId;
+    }
+
+    private void generateVisits(Connection connection, long firstPetId, long pets, long visits) throws SQLException {
+        long visitId = nextId(connection, "visit");
+        Progress progress = new Progress("visit", visits);
+        try (
+            PreparedStatement visitInsert = connection.prepareStatement(
+                "insert into visit (id, visit_date, description, pet_id) values (?, ?, ?, ?)"
+            )
+        ) {
+            for (long i = 0; i < visits; i++) {
+                visitInsert.setLong(1, visitId++);
+                visitInsert.setDate(2, Date.valueOf(LocalDate.now().minusDays(random.nextInt(5 * 365))));
+                visitInsert.setString(3, pick(VISIT_DESCRIPTIONS));
+                visitInsert.setLong(4, firstPetId + random.nextLong(pets));
+                visitInsert.addBatch();
+                if (progress.increment() % batchSize == 0) {
+                    visitInsert.executeBatch();
+                    connection.commit();
+                }
+            }
+            visitInsert.executeBatch();
+            connection.commit();
+        }
+        progress.done();
+    }
+
+    private void generateVets(Connection connection, long vets, long[] specialtyIds) throws SQLException {
+        long vetId = nextId(connection, "vet");
+        Progress progress = new Progress("vet", vets);
+        try (
+            PreparedStatement vetInsert = connection.prepareStatement("insert into vet (id, first_name, last_name) values (?, ?, ?)");
+            PreparedStatement specialtyInsert = connection.prepareStatement(
+                "insert into rel_vet__specialties (vet_id, specialties_id) values (?, ?)"
+            )
+        ) {
+            for (long i = 0; i < vets; i++, vetId++) {
+                vetInsert.setLong(1, vetId);
+                vetInsert.setString(2, pick(FIRST_NAMES));
+                vetInsert.setString(3, pick(LAST_NAMES));
+                vetInsert.addBatch();
+                // Up to two distinct specialties, some vets have none
+                int first = random.nextInt(specialtyIds.length + 1);
+                if (first < specialtyIds.length) {
+                    specialtyInsert.setLong(1, vetId);
+                    specialtyInsert.setLong(2, specialtyIds[first]);
+                    specialtyInsert.addBatch();
+                    int second = random.nextInt(specialtyIds.length);
+                    if (second != first && random.nextBoolean()) {
+                        specialtyInsert.setLong(1, vetId);
+                        specialtyInsert.setLong(2, specialtyIds[second]);
+                        specialtyInsert.addBatch();
+                    }
+                }
+                progress.increment();
+            }
+            vetInsert.executeBatch();
+            specialtyInsert.executeBatch();
+            connection.commit();
+        }
+        progress.done();
+    }
+
+    private long[] referenceIds(Connection connection, String table, String[] names) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("select id from " + table)) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        if (ids.isEmpty()) {
+            long id = nextId(connection, table);
+            try (PreparedStatement insert = connection.prepareStatement("insert into " + table + " (id, name) values (?, ?)")) {
+                for (String name : names) {
+                    insert.setLong(1, id);
+                    insert.setString(2, name);
+                    insert.addBatch();
+                    ids.add(id++);
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("select coalesce(max(id), 0) + 1 from " + table)
+        ) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Moves the id sequence of a table past its highest id, never backwards as running instances may hold blocks of ids.
+     */
+    private static void syncSequence(Connection connection, String table) throws SQLException {
+        long nextId = nextId(connection, table);
+        boolean mysql = connection.getMetaData().getDatabaseProductName().equals("MySQL");
+        try (Statement statement = connection.createStatement()) {
+            if (mysql) {
+                // MySQL has no sequences, Hibernate keeps the next value in a single row table
+                statement.executeUpdate("update " + table + "_seq set next_val = greatest(next_val, " + nextId + ")");
+            } else {
+                try (ResultSet resultSet = statement.executeQuery("select next value for " + table + "_seq")) {
+                    resultSet.next();
+                    if (resultSet.getLong(1) < nextId) {
+                        statement.execute("alter sequence " + table + "_seq restart with " + nextId);
+                    }
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private long longOption(String name, long defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    private static final class Progress {
+
+        private final String table;
+
+        private final long total;
+
+        private final long start = System.nanoTime();
+
+        private long count;
+
+        private Progress(String table, long total) {
+            this.table = table;
+            this.total = total;
+        }
+
+        private long increment() {
+            count++;
+            if (count % 100_000 == 0) {
+                System.out.printf("%s: %d/%d%n", table, count, total);
+            }
+            return count;
+        }
+
+        private void done() {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%s: %d rows in %.1f s (%.0f rows/s)%n", table, count, seconds, count / Math.max(seconds, 1e-3));
+        }
+    }
+}
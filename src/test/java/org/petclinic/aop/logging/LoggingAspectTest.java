@@ -0,0 +1,38 @@
+package org.petclinic.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+class LoggingAspectTest {
+
+    @Test
+    void rendersArgumentsLikeArraysToString() {
+        assertThat(LoggingAspect.abbreviate(new Object[] { 1L, "owner", null }, 500)).isEqualTo("[1, owner, null]");
+    }
+
+    @Test
+    void rendersTheFirstElementsOfLargeCollections() {
+        List<Integer> values = IntStream.range(0, 1000).boxed().toList();
+
+        assertThat(LoggingAspect.abbreviate(values, 500)).isEqualTo("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9, ... 1000 elements]");
+    }
+
+    @Test
+    void rendersPagesWithoutTheirWholeContent() {
+        PageImpl<Integer> page = new PageImpl<>(IntStream.range(0, 20).boxed().toList(), PageRequest.of(2, 20), 1000);
+
+        assertThat(LoggingAspect.abbreviate(page, 500)).isEqualTo(
+            "Page 2 of size 20 [0, 1, 2, 3, 4, 5, 6, 7, 8, 9, ... 20 elements]"
+        );
+    }
+
+    @Test
+    void cutsLongPayloads() {
+        assertThat(LoggingAspect.abbreviate("x".repeat(1000), 10)).isEqualTo("xxxxxxxxxx...");
+    }
+}
@@ -0,0 +1,119 @@
+package org.petclinic.broker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.petclinic.config.ApplicationProperties;
+
+/**
+ * Unit tests for the {@link SseFanOutHub} class.
+ */
+class SseFanOutHubTest {
+
+    private ApplicationProperties.Sse properties;
+
+    private MeterRegistry meterRegistry;
+
+    private List<Runnable> pendingSends;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ApplicationProperties.Sse();
+        properties.setQueueCapacity(2);
+        meterRegistry = new SimpleMeterRegistry();
+        pendingSends = new ArrayList<>();
+    }
+
+    @Test
+    void publishQueuesEventsWithoutSendingThem() {
+        SseFanOutHub hub = new SseFanOutHub(properties, meterRegistry, pendingSends::add);
+        hub.register("alice");
+        hub.register("bob");
+
+        hub.publish("event");
+
+        assertThat(gauge("sse.subscribers")).isEqualTo(2);
+        assertThat(gauge("sse.queue.depth")).isEqualTo(2);
+        assertThat(pendingSends).hasSize(2);
+    }
+
+    @Test
+    void sendersDrainTheQueues() {
+        SseFanOutHub hub = new SseFanOutHub(properties, meterRegistry, pendingSends::add);
+        hub.register("alice");
+        hub.publish("first");
+        hub.publish("second");
+
+        runPendingSends();
+
+        assertThat(gauge("sse.queue.depth")).isZero();
+        assertThat(meterRegistry.get("sse.events.sent").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void dropOldestKeepsTheQueueBounded() {
+        SseFanOutHub hub = new SseFanOutHub(properties, meterRegistry, pendingSends::add);
+        hub.register("alice");
+
+        hub.publish("first");
+        hub.publish("second");
+        hub.publish("third");
+
+        assertThat(gauge("sse.queue.depth")).isEqualTo(2);
+        assertThat(meterRegistry.get("sse.events.dropped").tag("policy", "DROP_OLDEST").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void coalesceKeepsTheLatestEventOnly() {
+        properties.setOverflowPolicy(ApplicationProperties.Sse.OverflowPolicy.COALESCE);
+        SseFanOutHub hub = new SseFanOutHub(properties, meterRegistry, pendingSends::add);
+        hub.register("alice");
+
+        hub.publish("first");
+        hub.publish("second");
+        hub.publish("third");
+
+        assertThat(gauge("sse.queue.depth")).isEqualTo(1);
+        assertThat(meterRegistry.get("sse.events.dropped").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void registeringTheSameKeyReplacesTheSubscriber() {
+        SseFanOutHub hub = new SseFanOutHub(properties, meterRegistry, pendingSends::add);
+        hub.register("alice");
+        hub.publish("event");
+
+        hub.register("alice");
+
+        assertThat(gauge("sse.subscribers")).isEqualTo(1);
+        assertThat(gauge("sse.queue.depth")).isZero();
+    }
+
+    @Test
+    void unregisterRemovesTheSubscriberAndItsQueue() {
+        SseFanOutHub hub = new SseFanOutHub(properties, meterRegistry, pendingSends::add);
+        hub.register("alice");
+        hub.publish("event");
+
+        hub.unregister("alice");
+        runPendingSends();
+
+        assertThat(gauge("sse.subscribers")).isZero();
+        assertThat(gauge("sse.queue.depth")).isZero();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private void runPendingSends() {
+        while (!pendingSends.isEmpty()) {
+            pendingSends.remove(0).run();
+        }
+    }
+}
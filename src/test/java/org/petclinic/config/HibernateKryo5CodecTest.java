@@ -0,0 +1,134 @@
+package org.petclinic.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import org.hibernate.collection.spi.PersistentSet;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.junit.jupiter.api.Test;
+import org.petclinic.domain.Owner;
+import org.petclinic.domain.Pet;
+import org.petclinic.domain.Specialty;
+import org.petclinic.domain.Vet;
+
+/**
+ * Unit tests for the {@link HibernateKryo5Codec} class.
+ */
+class HibernateKryo5CodecTest {
+
+    private final HibernateKryo5Codec codec = new HibernateKryo5Codec();
+
+    @Test
+    void roundTripsCyclicEntityGraphs() throws IOException {
+        Specialty surgery = new Specialty().id(2L).name("surgery");
+        Vet vet = new Vet().id(11L).firstName("Helen").lastName("Leary");
+        surgery.addVets(vet);
+
+        Vet copy = (Vet) roundTrip(vet);
+
+        assertThat(copy.getFirstName()).isEqualTo("Helen");
+        assertThat(copy.getSpecialties()).singleElement().satisfies(specialty -> {
+            assertThat(specialty.getName()).isEqualTo("surgery");
+            assertThat(specialty.getVets()).containsExactly(copy);
+        });
+    }
+
+    @Test
+    void writesUninitializedProxiesAsIdentifierOnlyEntities() throws IOException {
+        LazyInitializer lazyInitializer = mock(LazyInitializer.class);
+        when(lazyInitializer.isUninitialized()).thenReturn(true);
+        when(lazyInitializer.getPersistentClass()).thenReturn((Class) Owner.class);
+        when(lazyInitializer.getInternalIdentifier()).thenReturn(1001L);
+        Pet pet = new Pet().id(3001L).name("Leo").owner(new OwnerProxy(lazyInitializer));
+
+        Pet copy = (Pet) roundTrip(pet);
+
+        assertThat(copy.getOwner()).isExactlyInstanceOf(Owner.class);
+        assertThat(copy.getOwner().getId()).isEqualTo(1001L);
+        assertThat(copy.getOwner().getLastName()).isNull();
+        verify(lazyInitializer, never()).getImplementation();
+    }
+
+    @Test
+    void writesInitializedProxiesAsTheirTarget() throws IOException {
+        LazyInitializer lazyInitializer = mock(LazyInitializer.class);
+        when(lazyInitializer.isUninitialized()).thenReturn(false);
+        when(lazyInitializer.getImplementation()).thenReturn(new Owner().id(1001L).lastName("Franklin"));
+        Pet pet = new Pet().id(3001L).owner(new OwnerProxy(lazyInitializer));
+
+        Pet copy = (Pet) roundTrip(pet);
+
+        assertThat(copy.getOwner()).isExactlyInstanceOf(Owner.class);
+        assertThat(copy.getOwner().getLastName()).isEqualTo("Franklin");
+    }
+
+    @Test
+    void writesPersistentCollectionsAsPlainCollections() throws IOException {
+        Set<Specialty> specialties = new HashSet<>(Set.of(new Specialty().id(2L).name("surgery")));
+        Vet vet = new Vet().id(11L);
+        vet.setSpecialties(new PersistentSet<>(null, specialties));
+
+        Vet copy = (Vet) roundTrip(vet);
+
+        assertThat(copy.getSpecialties()).isExactlyInstanceOf(HashSet.class);
+        assertThat(copy.getSpecialties()).extracting(Specialty::getName).containsExactly("surgery");
+    }
+
+    @Test
+    void keepsCyclesThroughPersistentCollections() throws IOException {
+        Specialty surgery = new Specialty().id(2L).name("surgery");
+        Vet vet = new Vet().id(11L);
+        vet.setSpecialties(new PersistentSet<>(null, new HashSet<>(Set.of(surgery))));
+        surgery.setVets(new PersistentSet<>(null, new HashSet<>(Set.of(vet))));
+
+        Vet copy = (Vet) roundTrip(vet);
+
+        assertThat(copy.getSpecialties()).singleElement().satisfies(specialty -> {
+            assertThat(specialty.getVets()).isExactlyInstanceOf(HashSet.class).containsExactly(copy);
+        });
+    }
+
+    @Test
+    void writesUninitializedPersistentCollectionsAsNull() throws IOException {
+        Vet vet = new Vet().id(11L).firstName("Helen");
+        vet.setSpecialties(new PersistentSet<>());
+
+        Vet copy = (Vet) roundTrip(vet);
+
+        assertThat(copy.getFirstName()).isEqualTo("Helen");
+        assertThat(copy.getSpecialties()).isNull();
+    }
+
+    private Object roundTrip(Object value) throws IOException {
+        ByteBuf buf = codec.getValueEncoder().encode(value);
+        try {
+            return codec.getValueDecoder().decode(buf, null);
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static class OwnerProxy extends Owner implements HibernateProxy {
+
+        private final transient LazyInitializer lazyInitializer;
+
+        OwnerProxy(LazyInitializer lazyInitializer) {
+            this.lazyInitializer = lazyInitializer;
+        }
+
+        @Override
+        public Object writeReplace() {
+            return this;
+        }
+
+        @Override
+        public LazyInitializer getHibernateLazyInitializer() {
+            return lazyInitializer;
+        }
+    }
+}
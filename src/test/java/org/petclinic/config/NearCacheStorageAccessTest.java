@@ -0,0 +1,79 @@
+package org.petclinic.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link NearCacheStorageAccess} class.
+ */
+class NearCacheStorageAccessTest {
+
+    private DomainDataStorageAccess redis;
+
+    private List<Object> invalidations;
+
+    private NearCacheStorageAccess nearCache;
+
+    @BeforeEach
+    void setUp() {
+        redis = mock(DomainDataStorageAccess.class);
+        invalidations = new ArrayList<>();
+        nearCache = new NearCacheStorageAccess(redis, Caffeine.newBuilder().maximumSize(10).build(), invalidations::add);
+    }
+
+    @Test
+    void getFromCacheReadsRedisOnlyOnLocalMiss() {
+        when(redis.getFromCache("key", null)).thenReturn("value");
+
+        assertThat(nearCache.getFromCache("key", null)).isEqualTo("value");
+        assertThat(nearCache.getFromCache("key", null)).isEqualTo("value");
+
+        verify(redis, times(1)).getFromCache("key", null);
+    }
+
+    @Test
+    void putIntoCacheWritesThroughAndInvalidatesOtherNodes() {
+        nearCache.putIntoCache("key", "value", null);
+
+        verify(redis).putIntoCache("key", "value", null);
+        assertThat(nearCache.getFromCache("key", null)).isEqualTo("value");
+        assertThat(invalidations).containsExactly("key");
+    }
+
+    @Test
+    void putFromLoadDoesNotInvalidateOtherNodes() {
+        nearCache.putFromLoad("key", "value", null);
+
+        verify(redis).putFromLoad("key", "value", null);
+        assertThat(nearCache.getFromCache("key", null)).isEqualTo("value");
+        assertThat(invalidations).isEmpty();
+    }
+
+    @Test
+    void remoteInvalidationDropsLocalEntry() {
+        nearCache.putFromLoad("key", "value", null);
+        when(redis.getFromCache("key", null)).thenReturn("updated");
+
+        nearCache.invalidateLocally("key");
+
+        assertThat(nearCache.getFromCache("key", null)).isEqualTo("updated");
+    }
+
+    @Test
+    void evictDataClearsEveryNode() {
+        nearCache.putFromLoad("key", "value", null);
+
+        nearCache.evictData();
+
+        verify(redis).evictData();
+        assertThat(nearCache.getLocalCache().estimatedSize()).isZero();
+        assertThat(invalidations).containsExactly((Object) null);
+    }
+}
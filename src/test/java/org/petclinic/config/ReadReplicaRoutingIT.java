@@ -0,0 +1,193 @@
+package org.petclinic.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.lifecycle.Startables;
+
+/**
+ * Integration tests for {@link ReadReplicaRoutingDataSource}, with a MySQL primary replicating to a MySQL replica.
+ */
+class ReadReplicaRoutingIT {
+
+    private static final Network network = Network.newNetwork();
+
+    private static final MySQLContainer<?> primary = new MySQLContainer<>("mysql:8.3.0").withNetwork(network).withNetworkAliases("primary");
+
+    private static final MySQLContainer<?> replica = new MySQLContainer<>("mysql:8.3.0").withNetwork(network).withCommand("--server-id=2");
+
+    private static final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static HikariDataSource primaryDataSource;
+
+    private static ReadReplicaRoutingDataSource readReplicaDataSource;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private static TransactionTemplate readWriteTransaction;
+
+    private static TransactionTemplate readOnlyTransaction;
+
+    @BeforeAll
+    static void startReplication() throws SQLException {
+        Startables.deepStart(primary, replica).join();
+        String sourceLogFile;
+        long sourceLogPosition;
+        try (
+            Connection connection = rootConnection(primary);
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SHOW BINARY LOG STATUS")
+        ) {
+            resultSet.next();
+            sourceLogFile = resultSet.getString("File");
+            sourceLogPosition = resultSet.getLong("Position");
+        }
+        execute(
+            replica,
+            "GRANT REPLICATION CLIENT ON *.* TO '" + replica.getUsername() + "'@'%'",
+            "CHANGE REPLICATION SOURCE TO SOURCE_HOST = 'primary', SOURCE_PORT = 3306, SOURCE_USER = 'root', SOURCE_PASSWORD = '" +
+            primary.getPassword() +
+            "', SOURCE_LOG_FILE = '" +
+            sourceLogFile +
+            "', SOURCE_LOG_POS = " +
+            sourceLogPosition +
+            ", GET_SOURCE_PUBLIC_KEY = 1",
+            "START REPLICA"
+        );
+        execute(primary, "CREATE TABLE " + primary.getDatabaseName() + ".marker (id INT PRIMARY KEY)");
+
+        ReadReplicaConfiguration configuration = new ReadReplicaConfiguration();
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl(primary.getJdbcUrl());
+        dataSourceProperties.setUsername(primary.getUsername());
+        dataSourceProperties.setPassword(primary.getPassword());
+        primaryDataSource = configuration.primaryDataSource(dataSourceProperties, meterRegistry);
+        primaryDataSource.setPoolName("Hikari");
+        ApplicationProperties.ReadReplicas properties = new ApplicationProperties.ReadReplicas();
+        properties.setUrls(List.of(replica.getJdbcUrl()));
+        readReplicaDataSource = new ReadReplicaRoutingDataSource(primaryDataSource, properties, meterRegistry);
+        DataSource dataSource = configuration.dataSource(primaryDataSource, readReplicaDataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        // Replicated and caught up
+        await()
+            .atMost(Duration.ofSeconds(30))
+            .until(() -> {
+                readReplicaDataSource.checkLag();
+                return serverId(readOnlyTransaction) == 2;
+            });
+    }
+
+    @AfterAll
+    static void stopReplication() {
+        readReplicaDataSource.close();
+        primaryDataSource.close();
+        replica.stop();
+        primary.stop();
+        network.close();
+    }
+
+    @AfterEach
+    void endRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertThat(serverId(readOnlyTransaction)).isEqualTo(2);
+        assertThat(serverId(readWriteTransaction)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select @@server_id", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void eachPoolHasItsOwnMetrics() {
+        serverId(readOnlyTransaction);
+        serverId(readWriteTransaction);
+
+        assertThat(meterRegistry.get("hikaricp.connections.max").tag("pool", "Hikari").gauge()).isNotNull();
+        assertThat(meterRegistry.get("hikaricp.connections.max").tag("pool", "Hikari-replica-1").gauge()).isNotNull();
+        assertThat(meterRegistry.get("read.replica.lag").tag("pool", "Hikari-replica-1").gauge().value()).isBetween(0.0, 5.0);
+    }
+
+    @Test
+    void readsStickToThePrimaryAfterAWriteInTheSameRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(serverId(readOnlyTransaction)).isEqualTo(2);
+
+        readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("insert into marker (id) values (?)", 1));
+
+        Long markers = readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject("select count(*) from marker", Long.class));
+        assertThat(markers).isOne();
+        assertThat(serverId(readOnlyTransaction)).isEqualTo(1);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(serverId(readOnlyTransaction)).isEqualTo(2);
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaDoesNotReplicate() throws SQLException {
+        double fallbackReads = meterRegistry.get("read.replica.primary.reads").tag("reason", "fallback").counter().count();
+        execute(replica, "STOP REPLICA SQL_THREAD");
+        try {
+            readReplicaDataSource.checkLag();
+
+            assertThat(serverId(readOnlyTransaction)).isEqualTo(1);
+            assertThat(meterRegistry.get("read.replica.primary.reads").tag("reason", "fallback").counter().count()).isEqualTo(
+                fallbackReads + 1
+            );
+        } finally {
+            execute(replica, "START REPLICA SQL_THREAD");
+        }
+
+        await()
+            .atMost(Duration.ofSeconds(30))
+            .until(() -> {
+                readReplicaDataSource.checkLag();
+                return serverId(readOnlyTransaction) == 2;
+            });
+    }
+
+    private static long serverId(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select @@server_id", Long.class));
+    }
+
+    private static Connection rootConnection(MySQLContainer<?> container) throws SQLException {
+        return DriverManager.getConnection(container.getJdbcUrl(), "root", container.getPassword());
+    }
+
+    private static void execute(MySQLContainer<?> container, String... sqls) throws SQLException {
+        try (Connection connection = rootConnection(container); Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.petclinic.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TaskMetricsDecoratorTest {
+
+    private MeterRegistry meterRegistry;
+
+    private TaskMetricsDecorator taskMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskMetrics = new TaskMetricsDecorator(meterRegistry, "async", true);
+    }
+
+    @Test
+    void countsRunningTasks() {
+        double[] activeWhileRunning = new double[1];
+        Runnable task = taskMetrics.decorate(() -> activeWhileRunning[0] = active());
+
+        task.run();
+
+        assertThat(activeWhileRunning[0]).isEqualTo(1);
+        assertThat(active()).isZero();
+    }
+
+    @Test
+    void timesWaitAndExecution() throws InterruptedException {
+        Runnable task = taskMetrics.decorate(() -> {});
+        TimeUnit.MILLISECONDS.sleep(20);
+
+        task.run();
+
+        assertThat(meterRegistry.get("task.executor.wait").tag("threads", "virtual").timer().totalTime(TimeUnit.MILLISECONDS))
+            .isGreaterThanOrEqualTo(20);
+        assertThat(meterRegistry.get("task.executor.execution").tag("name", "async").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsFailedTasks() {
+        Runnable task = taskMetrics.decorate(() -> {
+            throw new IllegalStateException("failed");
+        });
+
+        assertThatThrownBy(task::run).isInstanceOf(IllegalStateException.class);
+        assertThat(active()).isZero();
+        assertThat(meterRegistry.get("task.executor.execution").timer().count()).isEqualTo(1);
+    }
+
+    private double active() {
+        return meterRegistry.get("task.executor.active").gauge().value();
+    }
+}
@@ -0,0 +1,100 @@
+package org.petclinic.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.repository.search.InvalidSearchQueryException.Reason;
+
+class SearchQueryCompilerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SearchQueryCompiler searchQueryCompiler;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearchIndex().getQuery().setMaxClauses(4);
+        meterRegistry = new SimpleMeterRegistry();
+        searchQueryCompiler = new SearchQueryCompiler(applicationProperties, meterRegistry);
+    }
+
+    private String compile(String text) {
+        return searchQueryCompiler.compile("visit", text).toString();
+    }
+
+    private void assertRejected(String text, Reason reason) {
+        assertThatThrownBy(() -> searchQueryCompiler.compile("visit", text))
+            .isInstanceOf(InvalidSearchQueryException.class)
+            .extracting("reason")
+            .isEqualTo(reason);
+    }
+
+    @Test
+    void compilesWordsOnAllFieldsAndFieldsByName() {
+        assertThat(compile("rabies")).contains("\"multi_match\"").contains("\"query\":\"rabies\"").doesNotContain("\"fields\"");
+        assertThat(compile("ownerLastName:Franklin")).contains("\"fields\":[\"ownerLastName\"]").contains("\"lenient\":true");
+    }
+
+    @Test
+    void compilesPhrasesAndPrefixes() {
+        assertThat(compile("description:\"rabies shot\"")).contains("\"type\":\"phrase\"").contains("\"query\":\"rabies shot\"");
+        assertThat(compile("petName:Le*")).contains("\"type\":\"phrase_prefix\"").contains("\"query\":\"Le\"");
+    }
+
+    @Test
+    void andBindsTighterThanOrAndExclusionsApplyToTheGroup() {
+        Query query = searchQueryCompiler.compile("visit", "leo OR max AND checkup -cat");
+
+        assertThat(query.bool().should()).hasSize(2);
+        assertThat(query.bool().should().get(0).multiMatch().query()).isEqualTo("leo");
+        assertThat(query.bool().should().get(1).bool().must())
+            .extracting(must -> must.multiMatch().query())
+            .containsExactly("max", "checkup");
+        assertThat(query.bool().mustNot()).extracting(mustNot -> mustNot.multiMatch().query()).containsExactly("cat");
+        assertThat(query.bool().minimumShouldMatch()).isEqualTo("1");
+    }
+
+    @Test
+    void rejectsExpensiveConstructs() {
+        assertRejected("*klin", Reason.WILDCARD);
+        assertRejected("fr?nklin", Reason.WILDCARD);
+        assertRejected("f*", Reason.SHORT_PREFIX);
+        assertRejected("/fr.*/", Reason.REGEX);
+        assertRejected("franklin~2", Reason.FUZZY);
+        assertRejected("visitDate:[2020-01-01 TO 2021-01-01]", Reason.RANGE);
+        assertRejected("franklin^4", Reason.BOOST);
+        assertRejected("a b c d e", Reason.TOO_MANY_CLAUSES);
+        assertRejected("(((((a)))))", Reason.TOO_DEEP);
+        assertRejected("x".repeat(300), Reason.TOO_LONG);
+    }
+
+    @Test
+    void rejectsMalformedQueries() {
+        assertRejected("", Reason.SYNTAX);
+        assertRejected("(leo", Reason.SYNTAX);
+        assertRejected("leo)", Reason.SYNTAX);
+        assertRejected("\"leo", Reason.SYNTAX);
+        assertRejected("leo AND", Reason.SYNTAX);
+        assertRejected("_id:1", Reason.SYNTAX);
+    }
+
+    @Test
+    void cachesCompiledQueriesAndRecordsMetrics() {
+        Query first = searchQueryCompiler.compile("visit", "petName:Le* AND rabies");
+        Query second = searchQueryCompiler.compile("visit", "petName:Le* AND rabies");
+        assertRejected("*klin", Reason.WILDCARD);
+
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.get(SearchQueryCompiler.COST_METRIC).tag("index", "visit").summary().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(SearchQueryCompiler.COST_METRIC).summary().totalAmount()).isEqualTo(
+            2.0 * (SearchQueryCompiler.PREFIX_COST + 1)
+        );
+        assertThat(meterRegistry.get(SearchQueryCompiler.REJECTED_METRIC).tag("reason", "wildcard").counter().count()).isEqualTo(1);
+    }
+}
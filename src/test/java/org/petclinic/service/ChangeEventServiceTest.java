@@ -0,0 +1,160 @@
+package org.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.domain.Vet;
+import org.petclinic.domain.Visit;
+import org.petclinic.domain.enumeration.ChangeOperation;
+import org.petclinic.repository.EntityOwnerId;
+import org.petclinic.repository.PetRepository;
+import org.petclinic.repository.VisitRepository;
+import org.petclinic.service.dto.EntityChangeEventDTO;
+import org.petclinic.service.dto.VisitDTO;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeEventServiceTest {
+
+    @Mock
+    private StreamBridge streamBridge;
+
+    @Mock
+    private PetRepository petRepository;
+
+    @Mock
+    private VisitRepository visitRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private ChangeEventService changeEventService;
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties = new ApplicationProperties();
+        changeEventService = new ChangeEventService(
+            streamBridge,
+            applicationProperties,
+            petRepository,
+            visitRepository,
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    void keysHouseholdEventsByOwnerId() {
+        when(visitRepository.findOwnerIdById(5L)).thenReturn(Optional.of(42L));
+        when(streamBridge.send(eq(ChangeEventService.BINDING_NAME), any(Object.class))).thenReturn(true);
+        VisitDTO visitDTO = new VisitDTO();
+        visitDTO.setId(5L);
+
+        changeEventService.created(Visit.class, 5L, visitDTO);
+
+        Message<EntityChangeEventDTO> message = sentMessage();
+        assertThat(message.getHeaders().get(KafkaHeaders.KEY)).isEqualTo("42".getBytes(StandardCharsets.UTF_8));
+        assertThat(message.getPayload().getEntityType()).isEqualTo("Visit");
+        assertThat(message.getPayload().getOwnerId()).isEqualTo(42L);
+        assertThat(message.getPayload().getOperation()).isEqualTo(ChangeOperation.CREATE);
+        assertThat(message.getPayload().getData()).isSameAs(visitDTO);
+    }
+
+    @Test
+    void resolvesOwnersOfBulkEventsInOneQuery() {
+        when(visitRepository.findOwnerIdsByIdIn(Set.of(5L, 6L))).thenReturn(List.of(entityOwnerId(5L, 42L), entityOwnerId(6L, 43L)));
+        when(streamBridge.send(eq(ChangeEventService.BINDING_NAME), any(Object.class))).thenReturn(true);
+        Map<Long, VisitDTO> visits = new LinkedHashMap<>();
+        visits.put(5L, new VisitDTO());
+        visits.put(6L, new VisitDTO());
+
+        changeEventService.updatedAll(Visit.class, visits);
+
+        List<Message<EntityChangeEventDTO>> messages = sentMessages(2);
+        assertThat(messages).extracting(message -> message.getPayload().getOwnerId()).containsExactly(42L, 43L);
+        assertThat(messages).extracting(message -> message.getPayload().getOperation()).containsOnly(ChangeOperation.UPDATE);
+        verify(visitRepository, never()).findOwnerIdById(any());
+    }
+
+    @Test
+    void keysOtherEventsByEntityTypeAndId() {
+        when(streamBridge.send(eq(ChangeEventService.BINDING_NAME), any(Object.class))).thenReturn(true);
+
+        changeEventService.deleted(Vet.class, 7L);
+
+        Message<EntityChangeEventDTO> message = sentMessage();
+        assertThat(message.getHeaders().get(KafkaHeaders.KEY)).isEqualTo("Vet:7".getBytes(StandardCharsets.UTF_8));
+        assertThat(message.getPayload().getOwnerId()).isNull();
+        assertThat(message.getPayload().getData()).isNull();
+    }
+
+    @Test
+    void publishesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeEventService.updated(Vet.class, 7L, null);
+            verifyNoInteractions(streamBridge);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(streamBridge).send(eq(ChangeEventService.BINDING_NAME), any(Object.class));
+    }
+
+    @Test
+    void publishesNothingWhenDisabled() {
+        applicationProperties.getChangeEvents().setEnabled(false);
+
+        changeEventService.deleted(Vet.class, 7L);
+
+        verifyNoInteractions(streamBridge, petRepository, visitRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Message<EntityChangeEventDTO>> sentMessages(int count) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(streamBridge, times(count)).send(eq(ChangeEventService.BINDING_NAME), captor.capture());
+        return captor.getAllValues().stream().map(message -> (Message<EntityChangeEventDTO>) message).toList();
+    }
+
+    private static EntityOwnerId entityOwnerId(Long id, Long ownerId) {
+        return new EntityOwnerId() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Message<EntityChangeEventDTO> sentMessage() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(streamBridge).send(eq(ChangeEventService.BINDING_NAME), captor.capture());
+        return (Message<EntityChangeEventDTO>) captor.getValue();
+    }
+}
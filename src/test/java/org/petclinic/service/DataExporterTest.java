@@ -0,0 +1,68 @@
+package org.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.petclinic.repository.VisitExportRow;
+
+class DataExporterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final DataExporter dataExporter = new DataExporter(
+        "visit",
+        new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS),
+        meterRegistry
+    );
+
+    @Test
+    void exportsCsvWithHeaderAndQuotedValues() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = dataExporter.export(rows(), VisitExportRow.class, ExportFormat.CSV, out);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "id,visitDate,description,petId,petName,ownerId,ownerLastName\r\n" +
+            "1,2026-01-02,\"Checkup, \"\"annual\"\"\",10,Leo,100,Franklin\r\n" +
+            "2,2026-01-03,,10,Leo,100,Franklin\r\n"
+        );
+    }
+
+    @Test
+    void exportsOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        dataExporter.export(rows(), VisitExportRow.class, ExportFormat.NDJSON, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+            "{\"id\":1,\"visitDate\":\"2026-01-02\",\"description\":\"Checkup, \\\"annual\\\"\",\"petId\":10,\"petName\":\"Leo\"," +
+            "\"ownerId\":100,\"ownerLastName\":\"Franklin\"}",
+            "{\"id\":2,\"visitDate\":\"2026-01-03\",\"description\":null,\"petId\":10,\"petName\":\"Leo\",\"ownerId\":100," +
+            "\"ownerLastName\":\"Franklin\"}"
+        );
+    }
+
+    @Test
+    void countsExportedRows() throws Exception {
+        dataExporter.export(rows(), VisitExportRow.class, ExportFormat.NDJSON, new ByteArrayOutputStream());
+
+        assertThat(meterRegistry.get("export.rows").tag("entity", "visit").tag("format", "ndjson").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("export.duration").tag("entity", "visit").timer().count()).isEqualTo(1);
+    }
+
+    private static Stream<VisitExportRow> rows() {
+        return Stream.of(
+            new VisitExportRow(1L, LocalDate.of(2026, 1, 2), "Checkup, \"annual\"", 10L, "Leo", 100L, "Franklin"),
+            new VisitExportRow(2L, LocalDate.of(2026, 1, 3), null, 10L, "Leo", 100L, "Franklin")
+        );
+    }
+}
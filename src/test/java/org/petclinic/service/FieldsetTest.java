@@ -0,0 +1,40 @@
+package org.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class FieldsetTest {
+
+    private final Fieldset fieldset = new Fieldset("id", "name", "birthDate", "type.id", "type.name");
+
+    @Test
+    void parseKeepsTheOrderOfTheFieldsWithoutDuplicates() {
+        assertThat(fieldset.parse("type.name, name,type.name")).hasValue(List.of("type.name", "name"));
+    }
+
+    @Test
+    void parseRejectsUnknownOrMissingFields() {
+        assertThat(fieldset.parse("name,owner.lastName")).isEmpty();
+        assertThat(fieldset.parse("type")).isEmpty();
+        assertThat(fieldset.parse("name,")).isEmpty();
+        assertThat(fieldset.parse("")).isEmpty();
+    }
+
+    @Test
+    void toMapNestsTheFieldsOfAssociations() {
+        Map<String, Object> map = Fieldset.toMap(
+            List.of("name", "type.id", "birthDate", "type.name"),
+            new Object[] { "Leo", 2L, LocalDate.of(2020, 9, 7), "dog" }
+        );
+
+        assertThat(map).containsExactly(
+            Map.entry("name", "Leo"),
+            Map.entry("type", Map.of("id", 2L, "name", "dog")),
+            Map.entry("birthDate", LocalDate.of(2020, 9, 7))
+        );
+    }
+}
@@ -0,0 +1,130 @@
+package org.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.domain.Owner;
+import org.petclinic.domain.Pet;
+import org.petclinic.domain.PetType;
+import org.petclinic.domain.Visit;
+import org.petclinic.repository.EntityOwnerId;
+import org.petclinic.repository.OwnerRepository;
+import org.petclinic.repository.PetRepository;
+import org.petclinic.repository.VisitRepository;
+import org.petclinic.service.dto.HouseholdDTO;
+import org.petclinic.service.dto.HouseholdDTO.HouseholdPetDTO;
+import org.petclinic.service.dto.HouseholdDTO.HouseholdVisitDTO;
+import org.petclinic.service.mapper.OwnerMapperImpl;
+import org.petclinic.service.mapper.PetMapperImpl;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class HouseholdServiceTest {
+
+    @Mock
+    private OwnerRepository ownerRepository;
+
+    @Mock
+    private PetRepository petRepository;
+
+    @Mock
+    private VisitRepository visitRepository;
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(HouseholdService.HOUSEHOLDS_CACHE);
+
+    private HouseholdService householdService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getHousehold().setRecentVisitsPerPet(2);
+        householdService = new HouseholdService(
+            ownerRepository,
+            petRepository,
+            visitRepository,
+            new OwnerMapperImpl(),
+            new PetMapperImpl(),
+            cacheManager,
+            applicationProperties
+        );
+    }
+
+    @Test
+    void readsHouseholdWithOneQueryPerLevel() {
+        Owner owner = new Owner().lastName("Franklin");
+        owner.setId(42L);
+        Pet leo = pet(10L, "Leo", owner);
+        Pet basil = pet(11L, "Basil", owner);
+        when(ownerRepository.findById(42L)).thenReturn(Optional.of(owner));
+        when(petRepository.findAllWithTypeByOwnerId(42L)).thenReturn(List.of(basil, leo));
+        when(visitRepository.findLatestPerPetByOwnerId(42L, 2)).thenReturn(
+            List.of(visit(101L, leo, LocalDate.of(2026, 5, 2)), visit(100L, leo, LocalDate.of(2026, 5, 1)))
+        );
+
+        HouseholdDTO household = householdService.findOne(42L).orElseThrow();
+
+        assertThat(household.owner().getLastName()).isEqualTo("Franklin");
+        assertThat(household.pets()).extracting(HouseholdPetDTO::name).containsExactly("Basil", "Leo");
+        assertThat(household.pets().get(0).recentVisits()).isEmpty();
+        assertThat(household.pets().get(1).recentVisits()).extracting(HouseholdVisitDTO::id).containsExactly(101L, 100L);
+        assertThat(household.pets().get(1).type().getName()).isEqualTo("cat");
+        verifyNoMoreInteractions(ownerRepository, petRepository, visitRepository);
+    }
+
+    @Test
+    void evictsHouseholdsOfTheOwnersAfterCommit() {
+        Cache cache = cacheManager.getCache(HouseholdService.HOUSEHOLDS_CACHE);
+        cache.put(42L, "household");
+        when(visitRepository.findOwnerIdsByIdIn(Set.of(100L))).thenReturn(List.of(entityOwnerId(100L, 42L)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            householdService.evict(Visit.class, Set.of(100L));
+            assertThat(cache.get(42L)).isNotNull();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.get(42L)).isNull();
+    }
+
+    private static Pet pet(Long id, String name, Owner owner) {
+        Pet pet = new Pet().name(name).owner(owner).type(new PetType().name("cat"));
+        pet.setId(id);
+        return pet;
+    }
+
+    private static Visit visit(Long id, Pet pet, LocalDate visitDate) {
+        Visit visit = new Visit().pet(pet).visitDate(visitDate);
+        visit.setId(id);
+        return visit;
+    }
+
+    private static EntityOwnerId entityOwnerId(Long id, Long ownerId) {
+        return new EntityOwnerId() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+        };
+    }
+}
@@ -0,0 +1,253 @@
+package org.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.domain.Owner;
+import org.petclinic.domain.Pet;
+import org.petclinic.domain.SearchIndexOutbox;
+import org.petclinic.domain.SearchReindexCheckpoint;
+import org.petclinic.domain.Visit;
+import org.petclinic.domain.enumeration.SearchIndexOperation;
+import org.petclinic.domain.enumeration.SearchReindexStatus;
+import org.petclinic.domain.search.VisitSearchDocument;
+import org.petclinic.repository.SearchIndexOutboxRepository;
+import org.petclinic.repository.SearchReindexCheckpointRepository;
+import org.petclinic.repository.VisitRepository;
+import org.petclinic.repository.search.OwnerSearchRepository;
+import org.petclinic.repository.search.PetSearchRepository;
+import org.petclinic.repository.search.PetTypeSearchRepository;
+import org.petclinic.repository.search.SearchIndexAdminRepository;
+import org.petclinic.repository.search.SpecialtySearchRepository;
+import org.petclinic.repository.search.VetSearchRepository;
+import org.petclinic.repository.search.VetSpecialtySearchRepository;
+import org.petclinic.repository.search.VisitSearchRepository;
+
+@ExtendWith(MockitoExtension.class)
+class SearchIndexOutboxServiceTest {
+
+    @Mock
+    private SearchIndexOutboxRepository searchIndexOutboxRepository;
+
+    @Mock
+    private SearchReindexCheckpointRepository searchReindexCheckpointRepository;
+
+    @Mock
+    private SearchIndexAdminRepository searchIndexAdminRepository;
+
+    @Mock
+    private OwnerSearchRepository ownerSearchRepository;
+
+    @Mock
+    private PetSearchRepository petSearchRepository;
+
+    @Mock
+    private PetTypeSearchRepository petTypeSearchRepository;
+
+    @Mock
+    private SpecialtySearchRepository specialtySearchRepository;
+
+    @Mock
+    private VetSearchRepository vetSearchRepository;
+
+    @Mock
+    private VetSpecialtySearchRepository vetSpecialtySearchRepository;
+
+    @Mock
+    private VisitSearchRepository visitSearchRepository;
+
+    @Mock
+    private VisitRepository visitRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private SearchIndexOutboxService searchIndexOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties = new ApplicationProperties();
+        searchIndexOutboxService = new SearchIndexOutboxService(
+            searchIndexOutboxRepository,
+            searchReindexCheckpointRepository,
+            searchIndexAdminRepository,
+            applicationProperties,
+            new SimpleMeterRegistry(),
+            ownerSearchRepository,
+            petSearchRepository,
+            petTypeSearchRepository,
+            specialtySearchRepository,
+            vetSearchRepository,
+            vetSpecialtySearchRepository,
+            visitSearchRepository,
+            visitRepository
+        );
+    }
+
+    @Test
+    void indexRecordsOutboxEntry() {
+        searchIndexOutboxService.index(Visit.class, 42L);
+
+        verify(searchIndexOutboxRepository).save(
+            argThat(entry ->
+                "Visit".equals(entry.getEntityType()) && entry.getEntityId() == 42L && entry.getOperation() == SearchIndexOperation.INDEX
+            )
+        );
+        verifyNoInteractions(visitSearchRepository);
+    }
+
+    @Test
+    void indexAppliesDirectlyWhenOutboxDisabled() {
+        applicationProperties.getSearchIndex().getOutbox().setEnabled(false);
+
+        searchIndexOutboxService.delete(Pet.class, 7L);
+
+        verify(petSearchRepository).deleteAllById(List.of(7L));
+        verify(searchIndexOutboxRepository, never()).save(any());
+    }
+
+    @Test
+    void indexAllSendsOneBulkRequestWhenOutboxDisabled() {
+        applicationProperties.getSearchIndex().getOutbox().setEnabled(false);
+
+        searchIndexOutboxService.indexAll(Visit.class, List.of(10L, 11L, 12L));
+
+        verify(visitSearchRepository).indexAll(List.of(10L, 11L, 12L));
+        verifyNoInteractions(searchIndexOutboxRepository);
+    }
+
+    @Test
+    void drainCoalescesChangesToTheSameEntity() {
+        List<SearchIndexOutbox> batch = List.of(
+            entry(1L, "Visit", 10L, SearchIndexOperation.INDEX),
+            entry(2L, "Visit", 10L, SearchIndexOperation.INDEX),
+            entry(3L, "Visit", 11L, SearchIndexOperation.INDEX),
+            entry(4L, "Pet", 5L, SearchIndexOperation.INDEX),
+            entry(5L, "Visit", 11L, SearchIndexOperation.DELETE)
+        );
+        when(searchIndexOutboxRepository.findBatchForUpdate(any())).thenReturn(batch);
+        when(visitSearchRepository.indexAll(List.of(10L))).thenReturn(List.of(visitDocument(10L)));
+        when(petSearchRepository.indexAll(List.of(5L))).thenReturn(List.of(new Pet().id(5L)));
+
+        int drained = searchIndexOutboxService.drain();
+
+        assertThat(drained).isEqualTo(5);
+        verify(visitSearchRepository).indexAll(List.of(10L));
+        verify(visitSearchRepository).deleteAllById(List.of(11L));
+        verify(petSearchRepository).indexAll(List.of(5L));
+        verify(searchIndexOutboxRepository).deleteAllInBatch(batch);
+    }
+
+    @Test
+    void drainAlsoWritesToIndicesBeingRebuilt() {
+        List<SearchIndexOutbox> batch = List.of(
+            entry(1L, "Visit", 10L, SearchIndexOperation.INDEX),
+            entry(2L, "Visit", 11L, SearchIndexOperation.DELETE)
+        );
+        List<VisitSearchDocument> visits = List.of(visitDocument(10L));
+        when(searchIndexOutboxRepository.findBatchForUpdate(any())).thenReturn(batch);
+        when(searchReindexCheckpointRepository.findAllByStatus(SearchReindexStatus.RUNNING)).thenReturn(
+            List.of(new SearchReindexCheckpoint().entityType("Visit").indexName("visit-1"))
+        );
+        when(visitSearchRepository.indexAll(List.of(10L))).thenReturn(visits);
+
+        searchIndexOutboxService.drain();
+
+        verify(searchIndexAdminRepository).bulkIndex(visits, "visit-1");
+        verify(searchIndexAdminRepository).deleteAllById(VisitSearchDocument.class, List.of(11L), "visit-1");
+    }
+
+    @Test
+    void drainAlsoWritesToIndicesWhoseRebuildStartedMeanwhile() {
+        List<SearchIndexOutbox> batch = List.of(
+            entry(1L, "Visit", 10L, SearchIndexOperation.INDEX),
+            entry(2L, "Visit", 11L, SearchIndexOperation.DELETE)
+        );
+        List<VisitSearchDocument> visits = List.of(visitDocument(10L));
+        when(searchIndexOutboxRepository.findBatchForUpdate(any())).thenReturn(batch);
+        // The rebuild goes running after the running rebuilds were read, its chunks may not have the changes
+        when(searchReindexCheckpointRepository.findAllByStatus(SearchReindexStatus.RUNNING)).thenReturn(
+            List.of(),
+            List.of(new SearchReindexCheckpoint().entityType("Visit").indexName("visit-2"))
+        );
+        when(visitSearchRepository.indexAll(List.of(10L))).thenReturn(visits);
+
+        searchIndexOutboxService.drain();
+
+        verify(searchIndexAdminRepository).bulkIndex(visits, "visit-2");
+        verify(searchIndexAdminRepository).deleteAllById(VisitSearchDocument.class, List.of(11L), "visit-2");
+    }
+
+    @Test
+    void drainDeletesEntitiesDeletedBeforeAnEarlierIndexOperation() {
+        // The index operation was recorded first, but the delete got the lower outbox id
+        List<SearchIndexOutbox> batch = List.of(
+            entry(1L, "Visit", 10L, SearchIndexOperation.DELETE),
+            entry(2L, "Visit", 10L, SearchIndexOperation.INDEX)
+        );
+        when(searchIndexOutboxRepository.findBatchForUpdate(any())).thenReturn(batch);
+        when(searchReindexCheckpointRepository.findAllByStatus(SearchReindexStatus.RUNNING)).thenReturn(
+            List.of(new SearchReindexCheckpoint().entityType("Visit").indexName("visit-1"))
+        );
+        when(visitSearchRepository.indexAll(List.of(10L))).thenReturn(List.of());
+
+        searchIndexOutboxService.drain();
+
+        verify(visitSearchRepository).deleteAllById(List.of(10L));
+        verify(searchIndexAdminRepository).deleteAllById(VisitSearchDocument.class, List.of(10L), "visit-1");
+    }
+
+    @Test
+    void drainReindexesVisitsOfChangedOwnersInBatches() {
+        applicationProperties.getSearchIndex().getOutbox().setBatchSize(2);
+        List<SearchIndexOutbox> batch = List.of(entry(1L, "Owner", 3L, SearchIndexOperation.INDEX));
+        when(searchIndexOutboxRepository.findBatchForUpdate(any())).thenReturn(batch);
+        when(visitRepository.findIdsByOwnerIdIn(List.of(3L))).thenReturn(List.of(20L, 21L, 22L));
+
+        searchIndexOutboxService.drain();
+
+        verify(ownerSearchRepository).indexAll(List.of(3L));
+        verify(visitSearchRepository).indexAll(List.of(20L, 21L));
+        verify(visitSearchRepository).indexAll(List.of(22L));
+    }
+
+    @Test
+    void deletedOwnerDoesNotReindexVisits() {
+        applicationProperties.getSearchIndex().getOutbox().setEnabled(false);
+
+        searchIndexOutboxService.delete(Owner.class, 3L);
+
+        verifyNoInteractions(visitRepository, visitSearchRepository);
+    }
+
+    @Test
+    void drainKeepsEntriesWhenIndexingFails() {
+        List<SearchIndexOutbox> batch = List.of(entry(1L, "Visit", 10L, SearchIndexOperation.INDEX));
+        when(searchIndexOutboxRepository.findBatchForUpdate(any())).thenReturn(batch);
+        doThrow(new IllegalStateException("es down")).when(visitSearchRepository).indexAll(any());
+
+        assertThatThrownBy(() -> searchIndexOutboxService.drain()).isInstanceOf(IllegalStateException.class);
+
+        verify(searchIndexOutboxRepository, never()).deleteAllInBatch(any());
+    }
+
+    private static VisitSearchDocument visitDocument(Long id) {
+        VisitSearchDocument document = new VisitSearchDocument();
+        document.setId(id);
+        return document;
+    }
+
+    private static SearchIndexOutbox entry(Long id, String entityType, Long entityId, SearchIndexOperation operation) {
+        return new SearchIndexOutbox().id(id).entityType(entityType).entityId(entityId).operation(operation).createdDate(Instant.now());
+    }
+}
@@ -0,0 +1,145 @@
+package org.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.petclinic.config.ApplicationProperties;
+import org.petclinic.domain.Owner;
+import org.petclinic.domain.SearchReindexCheckpoint;
+import org.petclinic.domain.enumeration.SearchReindexStatus;
+import org.petclinic.repository.OwnerRepository;
+import org.petclinic.repository.PetRepository;
+import org.petclinic.repository.PetTypeRepository;
+import org.petclinic.repository.SearchReindexCheckpointRepository;
+import org.petclinic.repository.SpecialtyRepository;
+import org.petclinic.repository.VetRepository;
+import org.petclinic.repository.VetSpecialtyRepository;
+import org.petclinic.repository.VisitRepository;
+import org.petclinic.repository.search.SearchIndexAdminRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SearchReindexServiceTest {
+
+    @Mock
+    private SearchReindexCheckpointRepository searchReindexCheckpointRepository;
+
+    @Mock
+    private SearchIndexAdminRepository searchIndexAdminRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OwnerRepository ownerRepository;
+
+    @Mock
+    private PetRepository petRepository;
+
+    @Mock
+    private PetTypeRepository petTypeRepository;
+
+    @Mock
+    private SpecialtyRepository specialtyRepository;
+
+    @Mock
+    private VetRepository vetRepository;
+
+    @Mock
+    private VetSpecialtyRepository vetSpecialtyRepository;
+
+    @Mock
+    private VisitRepository visitRepository;
+
+    private SearchReindexService searchReindexService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearchIndex().getReindex().setMaxDocumentsPerSecond(1_000_000);
+        searchReindexService = new SearchReindexService(
+            searchReindexCheckpointRepository,
+            searchIndexAdminRepository,
+            applicationProperties,
+            transactionManager,
+            new SimpleMeterRegistry(),
+            ownerRepository,
+            petRepository,
+            petTypeRepository,
+            specialtyRepository,
+            vetRepository,
+            vetSpecialtyRepository,
+            visitRepository
+        );
+        when(searchReindexCheckpointRepository.save(any())).then(returnsFirstArg());
+        when(searchIndexAdminRepository.createVersionedIndex(any())).thenReturn("index-1");
+        when(ownerRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+        when(petRepository.findAllWithEagerRelationshipsByIdGreaterThan(anyLong(), any(Pageable.class))).thenReturn(
+            new SliceImpl<>(List.of())
+        );
+        when(visitRepository.findSearchDocumentsByIdGreaterThan(anyLong(), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+    }
+
+    @Test
+    void rebuildKeepsDualWrittenDocumentsAndDeletesRemovedEntities() {
+        Owner kept = new Owner();
+        kept.setId(1L);
+        Owner deleted = new Owner();
+        deleted.setId(2L);
+        List<Owner> chunk = List.of(kept, deleted);
+        when(ownerRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(new SliceImpl<>(chunk));
+        // The second owner is deleted, and its deletion dual-written, while the chunk is being written
+        when(ownerRepository.findIdsByIdIn(any())).thenReturn(List.of(1L));
+
+        assertThat(searchReindexService.start(false)).isTrue();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> !searchReindexService.isRunning());
+
+        verify(searchIndexAdminRepository).bulkCreate(eq(chunk), any(), eq("index-1"));
+        verify(searchIndexAdminRepository, never()).bulkIndex(any(), any());
+        verify(searchIndexAdminRepository).deleteAllById(Owner.class, Set.of(2L), "index-1");
+        verify(searchIndexAdminRepository).swapAlias(Owner.class, "index-1");
+        verify(searchReindexCheckpointRepository, atLeastOnce()).save(
+            argThat(
+                (SearchReindexCheckpoint checkpoint) ->
+                    "Owner".equals(checkpoint.getEntityType()) && checkpoint.getStatus() == SearchReindexStatus.COMPLETED
+            )
+        );
+    }
+
+    @Test
+    void resumeStartsFailedRebuildOver() {
+        SearchReindexCheckpoint failed = new SearchReindexCheckpoint()
+            .entityType("Owner")
+            .indexName("owner-1")
+            .lastId(500L)
+            .status(SearchReindexStatus.FAILED);
+        when(searchReindexCheckpointRepository.findById("Owner")).thenReturn(Optional.of(failed));
+        when(searchIndexAdminRepository.exists("owner-1")).thenReturn(true);
+
+        assertThat(searchReindexService.start(true)).isTrue();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> !searchReindexService.isRunning());
+
+        verify(searchIndexAdminRepository).delete("owner-1");
+        verify(ownerRepository).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class));
+        verify(searchIndexAdminRepository).swapAlias(Owner.class, "index-1");
+    }
+}
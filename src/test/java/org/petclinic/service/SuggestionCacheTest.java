@@ -0,0 +1,53 @@
+package org.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.petclinic.config.ApplicationProperties;
+
+class SuggestionCacheTest {
+
+    private final List<String> loads = new ArrayList<>();
+
+    private SuggestionCache<String> suggestionCache;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties.Suggest suggestProperties = new ApplicationProperties.Suggest();
+        suggestProperties.setMaxResults(5);
+        suggestionCache = new SuggestionCache<>("test", suggestProperties, new SimpleMeterRegistry());
+    }
+
+    private List<String> load(String prefix, int size) {
+        loads.add(prefix + "/" + size);
+        return List.of(prefix);
+    }
+
+    @Test
+    void prefixesDifferingByCaseAndSpacesShareTheirSuggestions() {
+        assertThat(suggestionCache.get("Fra", 3, this::load)).containsExactly("fra");
+        assertThat(suggestionCache.get(" fRA ", 3, this::load)).containsExactly("fra");
+
+        assertThat(loads).containsExactly("fra/3");
+    }
+
+    @Test
+    void sizeIsCappedAndPartOfTheKey() {
+        suggestionCache.get("fra", 3, this::load);
+        suggestionCache.get("fra", 100, this::load);
+        suggestionCache.get("fra", 5, this::load);
+
+        assertThat(loads).containsExactly("fra/3", "fra/5");
+    }
+
+    @Test
+    void blankPrefixIsNotLoaded() {
+        assertThat(suggestionCache.get("  ", 3, this::load)).isEmpty();
+
+        assertThat(loads).isEmpty();
+    }
+}
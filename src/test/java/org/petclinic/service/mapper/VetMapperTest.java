@@ -1,10 +1,15 @@
 package org.petclinic.service.mapper;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.petclinic.domain.VetAsserts.*;
 import static org.petclinic.domain.VetTestSamples.*;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.petclinic.repository.VetWithSpecialtyNames;
+import org.petclinic.service.dto.SpecialtyDTO;
+import org.petclinic.service.dto.VetDTO;
 
 class VetMapperTest {
 
@@ -21,4 +26,41 @@ class VetMapperTest {
         var actual = vetMapper.toEntity(vetMapper.toDto(expected));
         assertVetAllPropertiesEquals(expected, actual);
     }
+
+    @Test
+    void shouldConvertAggregatedSpecialtiesToDto() {
+        String specialties = "2:4:radiology" + VetWithSpecialtyNames.SPECIALTY_SEPARATOR + "1:0:surgery: soft tissue";
+
+        VetDTO vetDTO = vetMapper.toDto(new VetWithSpecialtyNames(7L, 3L, "Helen", "Leary", specialties));
+
+        assertThat(vetDTO.getId()).isEqualTo(7L);
+        assertThat(vetDTO.getVersion()).isEqualTo(3L);
+        assertThat(vetDTO.getFirstName()).isEqualTo("Helen");
+        assertThat(vetDTO.getLastName()).isEqualTo("Leary");
+        assertThat(vetDTO.getSpecialties())
+            .extracting(SpecialtyDTO::getId, SpecialtyDTO::getVersion, SpecialtyDTO::getName)
+            .containsExactlyInAnyOrder(
+                tuple(2L, 4L, "radiology"),
+                tuple(1L, 0L, "surgery: soft tissue")
+            );
+        assertThat(vetDTO.getEmbeddedVersion()).isEqualTo(4L);
+    }
+
+    @Test
+    void shouldConvertSpecialtyWithoutNameToDto() {
+        String specialties = "2:1" + VetWithSpecialtyNames.SPECIALTY_SEPARATOR + "1:0:";
+
+        VetDTO vetDTO = vetMapper.toDto(new VetWithSpecialtyNames(7L, 3L, "Helen", "Leary", specialties));
+
+        assertThat(vetDTO.getSpecialties())
+            .extracting(SpecialtyDTO::getId, SpecialtyDTO::getName)
+            .containsExactlyInAnyOrder(tuple(2L, null), tuple(1L, ""));
+    }
+
+    @Test
+    void shouldConvertVetWithoutSpecialtyToDto() {
+        assertThat(vetMapper.toDto(new VetWithSpecialtyNames(7L, 3L, "Helen", "Leary", null)).getSpecialties()).isEmpty();
+        assertThat(vetMapper.toDto(new VetWithSpecialtyNames(7L, 3L, "Helen", "Leary", "::")).getSpecialties()).isEmpty();
+        assertThat(vetMapper.toDto(new VetWithSpecialtyNames(7L, 3L, "Helen", "Leary", "")).getSpecialties()).isEmpty();
+    }
 }
@@ -2,6 +2,9 @@ package org.petclinic.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.petclinic.domain.OwnerAsserts.*;
@@ -12,6 +15,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
@@ -22,6 +26,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.petclinic.IntegrationTest;
 import org.petclinic.domain.Owner;
+import org.petclinic.domain.Pet;
+import org.petclinic.domain.Visit;
 import org.petclinic.repository.OwnerRepository;
 import org.petclinic.repository.search.OwnerSearchRepository;
 import org.petclinic.service.dto.OwnerDTO;
@@ -60,6 +66,7 @@ class OwnerResourceIT {
     private static final String ENTITY_API_URL = "/api/owners";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
     private static final String ENTITY_SEARCH_API_URL = "/api/owners/_search";
+    private static final String ENTITY_SUGGEST_API_URL = "/api/owners/_suggest";
 
     private static Random random = new Random();
     private static AtomicLong longCount = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -223,6 +230,55 @@ class OwnerResourceIT {
         restOwnerMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getNotModifiedOwner() throws Exception {
+        // Initialize the database
+        ownerRepository.saveAndFlush(owner);
+        String entityTag = "\"" + owner.getId() + "-" + owner.getVersion() + "\"";
+
+        // Get the owner, then revalidate it
+        restOwnerMockMvc
+            .perform(get(ENTITY_API_URL_ID, owner.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", entityTag));
+        restOwnerMockMvc
+            .perform(get(ENTITY_API_URL_ID, owner.getId()).header("If-None-Match", entityTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", entityTag));
+
+        // Update the owner, which changes its version
+        ownerRepository.saveAndFlush(owner.firstName(UPDATED_FIRST_NAME));
+        restOwnerMockMvc
+            .perform(get(ENTITY_API_URL_ID, owner.getId()).header("If-None-Match", entityTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.firstName").value(UPDATED_FIRST_NAME));
+    }
+
+    @Test
+    @Transactional
+    void putOwnerWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        ownerRepository.saveAndFlush(owner);
+        String staleEntityTag = "\"" + owner.getId() + "-" + (owner.getVersion() + 1) + "\"";
+
+        OwnerDTO ownerDTO = ownerMapper.toDto(owner);
+        ownerDTO.setFirstName(UPDATED_FIRST_NAME);
+
+        restOwnerMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, ownerDTO.getId())
+                    .header("If-Match", staleEntityTag)
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(ownerDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Owner in the database
+        assertThat(ownerRepository.findById(owner.getId()).orElseThrow().getFirstName()).isEqualTo(DEFAULT_FIRST_NAME);
+    }
+
     @Test
     @Transactional
     void putExistingOwner() throws Exception {
@@ -522,6 +578,97 @@ class OwnerResourceIT {
             .andExpect(jsonPath("$.[*].telephone").value(hasItem(DEFAULT_TELEPHONE)));
     }
 
+    @Test
+    @Transactional
+    void suggestOwner() throws Exception {
+        // Initialize the database
+        owner = ownerRepository.saveAndFlush(owner.lastName("Frankenfeld").telephone("608-555-0173"));
+        ownerSearchRepository.save(owner);
+
+        // Suggest the owner from the start of its last name, then of its telephone number
+        restOwnerMockMvc
+            .perform(get(ENTITY_SUGGEST_API_URL + "?prefix=FRANKENF&size=5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(owner.getId().intValue())))
+            .andExpect(jsonPath("$.[*].lastName").value(hasItem("Frankenfeld")))
+            .andExpect(jsonPath("$.[*].address").doesNotExist());
+        restOwnerMockMvc
+            .perform(get(ENTITY_SUGGEST_API_URL + "?prefix=6085550"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].telephone").value(hasItem("608-555-0173")));
+    }
+
+    @Test
+    @Transactional
+    void getOwnerHousehold() throws Exception {
+        // Initialize the database with an owner, two pets and more visits than returned per pet
+        owner = ownerRepository.saveAndFlush(owner);
+        Pet basil = new Pet().name("Basil").owner(owner);
+        Pet leo = new Pet().name("Leo").owner(owner);
+        em.persist(basil);
+        em.persist(leo);
+        for (int day = 1; day <= 6; day++) {
+            em.persist(new Visit().pet(leo).visitDate(LocalDate.of(2026, 5, day)).description("checkup " + day));
+        }
+        em.flush();
+
+        // Get the household
+        restOwnerMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/household", owner.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.owner.id").value(owner.getId().intValue()))
+            .andExpect(jsonPath("$.owner.lastName").value(DEFAULT_LAST_NAME))
+            .andExpect(jsonPath("$.pets.[*].name").value(contains("Basil", "Leo")))
+            .andExpect(jsonPath("$.pets.[0].recentVisits").isEmpty())
+            .andExpect(jsonPath("$.pets.[1].recentVisits.length()").value(5))
+            .andExpect(jsonPath("$.pets.[1].recentVisits.[0].description").value("checkup 6"));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingOwnerHousehold() throws Exception {
+        restOwnerMockMvc.perform(get(ENTITY_API_URL_ID + "/household", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getOwnerVisits() throws Exception {
+        // Initialize the database with an owner and a visit of each of its two pets
+        owner = ownerRepository.saveAndFlush(owner);
+        Pet basil = new Pet().name("Basil").owner(owner);
+        Pet leo = new Pet().name("Leo").owner(owner);
+        em.persist(basil);
+        em.persist(leo);
+        Visit earlier = new Visit().pet(leo).ownerId(owner.getId()).visitDate(LocalDate.of(2026, 5, 1));
+        Visit later = new Visit().pet(basil).ownerId(owner.getId()).visitDate(LocalDate.of(2026, 5, 2));
+        em.persist(earlier);
+        em.persist(later);
+        em.flush();
+
+        // Get the visits of the owner's pets, latest first
+        restOwnerMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/visits", owner.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Link"))
+            .andExpect(jsonPath("$.[*].id").value(contains(later.getId().intValue(), earlier.getId().intValue())))
+            .andExpect(jsonPath("$.[*].pet.name").value(contains("Basil", "Leo")));
+    }
+
+    @Test
+    @Transactional
+    void exportOwners() throws Exception {
+        // Initialize the database
+        owner = ownerRepository.saveAndFlush(owner);
+
+        // Export the owners, one JSON object per line
+        restOwnerMockMvc
+            .perform(get(ENTITY_API_URL + "/_export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andExpect(content().string(containsString("{\"id\":" + owner.getId() + ",\"firstName\":\"" + DEFAULT_FIRST_NAME + "\"")))
+            .andExpect(content().string(endsWith("}\n")));
+    }
+
     protected long getRepositoryCount() {
         return ownerRepository.count();
     }
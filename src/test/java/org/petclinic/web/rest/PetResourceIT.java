@@ -2,7 +2,9 @@ package org.petclinic.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.*;
 import static org.petclinic.domain.PetAsserts.*;
 import static org.petclinic.web.rest.TestUtil.createUpdateProxyForBean;
@@ -27,7 +29,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.petclinic.IntegrationTest;
+import org.petclinic.domain.Owner;
 import org.petclinic.domain.Pet;
+import org.petclinic.domain.Visit;
 import org.petclinic.repository.PetRepository;
 import org.petclinic.repository.search.PetSearchRepository;
 import org.petclinic.service.PetService;
@@ -61,6 +65,7 @@ class PetResourceIT {
     private static final String ENTITY_API_URL = "/api/pets";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
     private static final String ENTITY_SEARCH_API_URL = "/api/pets/_search";
+    private static final String ENTITY_SUGGEST_API_URL = "/api/pets/_suggest";
 
     private static Random random = new Random();
     private static AtomicLong longCount = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -208,6 +213,31 @@ class PetResourceIT {
         verify(petRepositoryMock, times(1)).findAll(any(Pageable.class));
     }
 
+    @Test
+    @Transactional
+    void getAllPetsWithFields() throws Exception {
+        // Initialize the database
+        petRepository.saveAndFlush(pet);
+
+        // Get the name and type name of the pets
+        restPetMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&fields=id,name,type.name"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(jsonPath("$.[0].id").value(pet.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[0].type.name").isEmpty())
+            .andExpect(jsonPath("$.[0].birthDate").doesNotExist())
+            .andExpect(jsonPath("$.[0].owner").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getAllPetsWithUnknownFields() throws Exception {
+        restPetMockMvc.perform(get(ENTITY_API_URL + "?fields=name,owner.telephone")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getPet() throws Exception {
@@ -231,6 +261,45 @@ class PetResourceIT {
         restPetMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getPetVisitsWithKeysetPagination() throws Exception {
+        // Initialize the database with three visits of the pet, two of them on the same day, and a visit of another pet
+        petRepository.saveAndFlush(pet);
+        Visit first = new Visit().pet(pet).visitDate(LocalDate.of(2026, 5, 1));
+        Visit second = new Visit().pet(pet).visitDate(LocalDate.of(2026, 5, 2));
+        Visit third = new Visit().pet(pet).visitDate(LocalDate.of(2026, 5, 2));
+        em.persist(first);
+        em.persist(second);
+        em.persist(third);
+        Pet otherPet = createEntity(em);
+        em.persist(otherPet);
+        em.persist(new Visit().pet(otherPet).visitDate(LocalDate.of(2026, 5, 3)));
+        em.flush();
+
+        // Get the visits of the pet, two at a time, latest first
+        String link = restPetMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/visits?size=2", pet.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(third.getId().intValue(), second.getId().intValue())))
+            .andReturn()
+            .getResponse()
+            .getHeader("Link");
+        assertThat(link).endsWith("; rel=\"next\"");
+
+        restPetMockMvc
+            .perform(get(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Link"))
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingPetVisits() throws Exception {
+        restPetMockMvc.perform(get(ENTITY_API_URL_ID + "/visits", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     void putExistingPet() throws Exception {
@@ -273,6 +342,36 @@ class PetResourceIT {
             });
     }
 
+    @Test
+    @Transactional
+    void putExistingPetMovesItsVisitsToItsNewOwner() throws Exception {
+        // Initialize the database with a visit of the pet
+        Owner owner = new Owner().lastName("Franklin");
+        em.persist(owner);
+        petRepository.saveAndFlush(pet);
+        Visit visit = new Visit().pet(pet).visitDate(LocalDate.of(2026, 5, 1));
+        em.persist(visit);
+        em.flush();
+
+        // Give the pet an owner
+        Pet updatedPet = petRepository.findById(pet.getId()).orElseThrow();
+        em.detach(updatedPet);
+        PetDTO petDTO = petMapper.toDto(updatedPet.owner(owner));
+
+        restPetMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, petDTO.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(petDTO))
+            )
+            .andExpect(status().isOk());
+
+        // The visit is part of the visit history of the owner
+        em.refresh(visit);
+        assertThat(visit.getOwnerId()).isEqualTo(owner.getId());
+    }
+
     @Test
     @Transactional
     void putNonExistingPet() throws Exception {
@@ -346,6 +445,53 @@ class PetResourceIT {
         assertThat(searchDatabaseSizeAfter).isEqualTo(searchDatabaseSizeBefore);
     }
 
+    @Test
+    @Transactional
+    void bulkSavePets() throws Exception {
+        long databaseSizeBeforeBulk = getRepositoryCount();
+        List<PetDTO> petDTOs = List.of(
+            petMapper.toDto(createEntity(em)),
+            petMapper.toDto(createEntity(em).name("A".repeat(31))),
+            petMapper.toDto(createUpdatedEntity(em))
+        );
+
+        restPetMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk").with(csrf()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(petDTOs))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains("CREATED", "INVALID", "CREATED")))
+            .andExpect(jsonPath("$.[1].errors").value(contains(startsWith("name:"))));
+
+        // Validate the Pets in the database
+        assertThat(getRepositoryCount()).isEqualTo(databaseSizeBeforeBulk + 2);
+    }
+
+    @Test
+    @Transactional
+    void bulkSavePetsWithStaleVersion() throws Exception {
+        // Initialize the database
+        petRepository.saveAndFlush(pet);
+
+        long databaseSizeBeforeBulk = getRepositoryCount();
+        PetDTO stalePetDTO = petMapper.toDto(pet);
+        stalePetDTO.setVersion(pet.getVersion() + 1);
+        stalePetDTO.setName(UPDATED_NAME);
+        List<PetDTO> petDTOs = List.of(stalePetDTO, petMapper.toDto(createEntity(em)));
+
+        restPetMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk").with(csrf()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(petDTOs))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains("CONFLICT", "CREATED")))
+            .andExpect(jsonPath("$.[0].id").value(pet.getId().intValue()));
+
+        // Validate the Pets in the database
+        assertThat(getRepositoryCount()).isEqualTo(databaseSizeBeforeBulk + 1);
+        assertThat(petRepository.findById(pet.getId()).orElseThrow().getName()).isEqualTo(DEFAULT_NAME);
+    }
+
     @Test
     @Transactional
     void partialUpdatePetWithPatch() throws Exception {
@@ -517,6 +663,24 @@ class PetResourceIT {
             .andExpect(jsonPath("$.[*].birthDate").value(hasItem(DEFAULT_BIRTH_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void suggestPet() throws Exception {
+        // Initialize the database
+        Owner owner = new Owner().lastName("Franklin");
+        em.persist(owner);
+        pet = petRepository.saveAndFlush(pet.name("Leonardo").owner(owner));
+        petSearchRepository.save(pet);
+
+        // Suggest the pet from the start of its name
+        restPetMockMvc
+            .perform(get(ENTITY_SUGGEST_API_URL + "?prefix=leon"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(pet.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem("Leonardo")))
+            .andExpect(jsonPath("$.[*].ownerLastName").value(hasItem("Franklin")));
+    }
+
     protected long getRepositoryCount() {
         return petRepository.count();
     }
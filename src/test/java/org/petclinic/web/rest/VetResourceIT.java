@@ -25,6 +25,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.petclinic.IntegrationTest;
+import org.petclinic.domain.Specialty;
 import org.petclinic.domain.Vet;
 import org.petclinic.repository.VetRepository;
 import org.petclinic.repository.search.VetSearchRepository;
@@ -203,7 +204,7 @@ class VetResourceIT {
         when(vetServiceMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
 
         restVetMockMvc.perform(get(ENTITY_API_URL + "?eagerload=false")).andExpect(status().isOk());
-        verify(vetRepositoryMock, times(1)).findAll(any(Pageable.class));
+        verify(vetRepositoryMock, times(1)).findAllWithSpecialtyNames(any(Pageable.class));
     }
 
     @Test
@@ -222,6 +223,102 @@ class VetResourceIT {
             .andExpect(jsonPath("$.lastName").value(DEFAULT_LAST_NAME));
     }
 
+    @Test
+    @Transactional
+    void getVetWithSpecialties() throws Exception {
+        // Initialize the database
+        Specialty surgery = new Specialty().name("surgery");
+        Specialty radiology = new Specialty().name("radiology");
+        em.persist(surgery);
+        em.persist(radiology);
+        vet.addSpecialties(surgery).addSpecialties(radiology);
+        vetRepository.saveAndFlush(vet);
+        em.clear();
+
+        // Get the vet
+        restVetMockMvc
+            .perform(get(ENTITY_API_URL_ID, vet.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.specialties.length()").value(2))
+            .andExpect(jsonPath("$.specialties.[*].id").value(hasItem(surgery.getId().intValue())))
+            .andExpect(jsonPath("$.specialties.[*].name").value(hasItem("radiology")));
+    }
+
+    @Test
+    @Transactional
+    void getNotModifiedVet() throws Exception {
+        // Initialize the database
+        vetRepository.saveAndFlush(vet);
+        String entityTag = "\"" + vet.getId() + "-" + vet.getVersion() + "-0\"";
+
+        // Get the vet, then revalidate it
+        restVetMockMvc
+            .perform(get(ENTITY_API_URL_ID, vet.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", entityTag));
+        restVetMockMvc
+            .perform(get(ENTITY_API_URL_ID, vet.getId()).header("If-None-Match", entityTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", entityTag));
+
+        // Update the vet, which changes its version
+        vetRepository.saveAndFlush(vet.firstName(UPDATED_FIRST_NAME));
+        restVetMockMvc
+            .perform(get(ENTITY_API_URL_ID, vet.getId()).header("If-None-Match", entityTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.firstName").value(UPDATED_FIRST_NAME));
+    }
+
+    @Test
+    @Transactional
+    void putVetWithIfMatch() throws Exception {
+        // Initialize the database
+        vetRepository.saveAndFlush(vet);
+        String entityTag = "\"" + vet.getId() + "-" + vet.getVersion() + "-0\"";
+        String updatedEntityTag = "\"" + vet.getId() + "-" + (vet.getVersion() + 1) + "-0\"";
+
+        VetDTO vetDTO = vetMapper.toDto(vet);
+        vetDTO.setFirstName(UPDATED_FIRST_NAME);
+
+        restVetMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, vetDTO.getId())
+                    .header("If-Match", entityTag)
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(vetDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", updatedEntityTag));
+
+        // Validate the Vet in the database
+        assertThat(vetRepository.findById(vet.getId()).orElseThrow().getFirstName()).isEqualTo(UPDATED_FIRST_NAME);
+    }
+
+    @Test
+    @Transactional
+    void putVetWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        vetRepository.saveAndFlush(vet);
+        String staleEntityTag = "\"" + vet.getId() + "-" + (vet.getVersion() + 1) + "-0\"";
+
+        VetDTO vetDTO = vetMapper.toDto(vet);
+        vetDTO.setFirstName(UPDATED_FIRST_NAME);
+
+        restVetMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, vetDTO.getId())
+                    .header("If-Match", staleEntityTag)
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(vetDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Vet in the database
+        assertThat(vetRepository.findById(vet.getId()).orElseThrow().getFirstName()).isEqualTo(DEFAULT_FIRST_NAME);
+    }
+
     @Test
     @Transactional
     void getNonExistingVet() throws Exception {
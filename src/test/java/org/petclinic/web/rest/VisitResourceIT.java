@@ -2,7 +2,11 @@ package org.petclinic.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.*;
 import static org.petclinic.domain.VisitAsserts.*;
 import static org.petclinic.web.rest.TestUtil.createUpdateProxyForBean;
@@ -27,7 +31,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.petclinic.IntegrationTest;
+import org.petclinic.domain.Owner;
+import org.petclinic.domain.Pet;
 import org.petclinic.domain.Visit;
+import org.petclinic.domain.search.VisitSearchDocument;
 import org.petclinic.repository.VisitRepository;
 import org.petclinic.repository.search.VisitSearchRepository;
 import org.petclinic.service.VisitService;
@@ -191,6 +198,88 @@ class VisitResourceIT {
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)));
     }
 
+    @Test
+    @Transactional
+    void searchVisitByPetAndOwner() throws Exception {
+        // Initialize the database
+        Owner owner = new Owner().firstName("George").lastName("Franklin").city("Madison");
+        em.persist(owner);
+        Pet pet = new Pet().name("Leo").owner(owner);
+        em.persist(pet);
+        visit = visitRepository.saveAndFlush(visit.pet(pet));
+        visitSearchRepository.indexAll(List.of(visit.getId()));
+
+        // Search the visit on the fields of its pet and owner
+        restVisitMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=ownerLastName:Franklin AND ownerCity:Madison AND petName:Leo"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(visit.getId().intValue())))
+            .andExpect(jsonPath("$.[*].pet.id").value(hasItem(pet.getId().intValue())))
+            .andExpect(jsonPath("$.[*].pet.name").value(hasItem("Leo")));
+    }
+
+    @Test
+    @Transactional
+    void getAllVisitsWithKeysetPagination() throws Exception {
+        // Initialize the database with visits later than any other
+        Visit first = visitRepository.saveAndFlush(createEntity(em).visitDate(LocalDate.of(3000, 1, 1)));
+        Visit second = visitRepository.saveAndFlush(createEntity(em).visitDate(LocalDate.of(3000, 1, 2)));
+        Visit third = visitRepository.saveAndFlush(createEntity(em).visitDate(LocalDate.of(3000, 1, 2)));
+
+        // Get the latest visits, two at a time
+        String link = restVisitMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=visitDate,desc&size=2&after="))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(second.getId().intValue()))
+            .andReturn()
+            .getResponse()
+            .getHeader("Link");
+        assertThat(link).endsWith("; rel=\"next\"");
+
+        restVisitMockMvc
+            .perform(get(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllVisitsWithInvalidKeysetCursor() throws Exception {
+        restVisitMockMvc.perform(get(ENTITY_API_URL + "?sort=visitDate,desc&after=invalid")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void exportVisitsAsCsvInDateRange() throws Exception {
+        // Initialize the database with a visit in the range and one after it
+        Visit inRange = visitRepository.saveAndFlush(createEntity(em).visitDate(LocalDate.of(3001, 3, 1)));
+        Visit afterRange = visitRepository.saveAndFlush(createEntity(em).visitDate(LocalDate.of(3001, 4, 1)));
+
+        // Export the visits of March
+        String csv = restVisitMockMvc
+            .perform(get(ENTITY_API_URL + "/_export?format=csv&from=3001-03-01&to=3001-03-31"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(header().string("Content-Disposition", containsString("visits.csv")))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        assertThat(csv.split("\r\n")).containsExactly(
+            "id,visitDate,description,petId,petName,ownerId,ownerLastName",
+            inRange.getId() + ",3001-03-01," + DEFAULT_DESCRIPTION + ",,,,"
+        );
+        assertThat(csv).doesNotContain(afterRange.getId() + ",3001-04-01");
+    }
+
+    @Test
+    @Transactional
+    void exportVisitsWithUnsupportedFormat() throws Exception {
+        restVisitMockMvc.perform(get(ENTITY_API_URL + "/_export?format=xml")).andExpect(status().isBadRequest());
+        restVisitMockMvc.perform(get(ENTITY_API_URL + "/_export?from=3001-04-01&to=3001-03-01")).andExpect(status().isBadRequest());
+    }
+
     @SuppressWarnings({ "unchecked" })
     void getAllVisitsWithEagerRelationshipsIsEnabled() throws Exception {
         when(visitServiceMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
@@ -224,6 +313,32 @@ class VisitResourceIT {
             .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION));
     }
 
+    @Test
+    @Transactional
+    void getVisitAfterRenamingItsPet() throws Exception {
+        // Initialize the database
+        Pet pet = new Pet().name("Leo");
+        em.persist(pet);
+        visitRepository.saveAndFlush(visit.pet(pet));
+
+        // Get the visit, then rename its pet, which leaves the version of the visit unchanged
+        String entityTag = restVisitMockMvc
+            .perform(get(ENTITY_API_URL_ID, visit.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+        pet.setName("Max");
+        em.flush();
+
+        // Revalidate the visit, which embeds the new name of its pet
+        restVisitMockMvc
+            .perform(get(ENTITY_API_URL_ID, visit.getId()).header("If-None-Match", entityTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", not(entityTag)))
+            .andExpect(jsonPath("$.pet.name").value("Max"));
+    }
+
     @Test
     @Transactional
     void getNonExistingVisit() throws Exception {
@@ -238,7 +353,7 @@ class VisitResourceIT {
         visitRepository.saveAndFlush(visit);
 
         long databaseSizeBeforeUpdate = getRepositoryCount();
-        visitSearchRepository.save(visit);
+        visitSearchRepository.indexAll(List.of(visit.getId()));
         int searchDatabaseSizeBefore = IterableUtil.sizeOf(visitSearchRepository.findAll());
 
         // Update the visit
@@ -266,10 +381,12 @@ class VisitResourceIT {
             .untilAsserted(() -> {
                 int searchDatabaseSizeAfter = IterableUtil.sizeOf(visitSearchRepository.findAll());
                 assertThat(searchDatabaseSizeAfter).isEqualTo(searchDatabaseSizeBefore);
-                List<Visit> visitSearchList = Streamable.of(visitSearchRepository.findAll()).toList();
-                Visit testVisitSearch = visitSearchList.get(searchDatabaseSizeAfter - 1);
+                List<VisitSearchDocument> visitSearchList = Streamable.of(visitSearchRepository.findAll()).toList();
+                VisitSearchDocument testVisitSearch = visitSearchList.get(searchDatabaseSizeAfter - 1);
 
-                assertVisitAllPropertiesEquals(testVisitSearch, updatedVisit);
+                assertThat(testVisitSearch.getId()).isEqualTo(updatedVisit.getId());
+                assertThat(testVisitSearch.getVisitDate()).isEqualTo(UPDATED_VISIT_DATE);
+                assertThat(testVisitSearch.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
             });
     }
 
@@ -346,6 +463,55 @@ class VisitResourceIT {
         assertThat(searchDatabaseSizeAfter).isEqualTo(searchDatabaseSizeBefore);
     }
 
+    @Test
+    @Transactional
+    void bulkSaveVisitsFromNdjson() throws Exception {
+        // Initialize the database
+        visitRepository.saveAndFlush(visit);
+
+        long databaseSizeBeforeBulk = getRepositoryCount();
+        Visit updatedVisit = createUpdatedEntity(em).id(visit.getId());
+        List<VisitDTO> visitDTOs = List.of(
+            visitMapper.toDto(createEntity(em)),
+            visitMapper.toDto(updatedVisit),
+            visitMapper.toDto(createEntity(em).id(longCount.incrementAndGet())),
+            visitMapper.toDto(createEntity(em).description("A".repeat(256)))
+        );
+        StringBuilder body = new StringBuilder();
+        for (VisitDTO visitDTO : visitDTOs) {
+            body.append(om.writeValueAsString(visitDTO)).append('\n');
+        }
+
+        restVisitMockMvc
+            .perform(post(ENTITY_API_URL + "/_bulk").with(csrf()).contentType(MediaType.APPLICATION_NDJSON).content(body.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2, 3)))
+            .andExpect(jsonPath("$.[*].status").value(contains("CREATED", "UPDATED", "NOT_FOUND", "INVALID")))
+            .andExpect(jsonPath("$.[1].id").value(visit.getId().intValue()))
+            .andExpect(jsonPath("$.[3].errors.[0]").value(startsWith("description:")));
+
+        // Validate the Visit in the database
+        assertIncrementedRepositoryCount(databaseSizeBeforeBulk);
+        assertPersistedVisitToMatchUpdatableProperties(updatedVisit);
+    }
+
+    @Test
+    @Transactional
+    void bulkSaveVisitsWithUnreadableLine() throws Exception {
+        long databaseSizeBeforeBulk = getRepositoryCount();
+
+        restVisitMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content(om.writeValueAsString(visitMapper.toDto(visit)) + "\n{\"visitDate\":")
+            )
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeBulk);
+    }
+
     @Test
     @Transactional
     void partialUpdateVisitWithPatch() throws Exception {
@@ -483,7 +649,7 @@ class VisitResourceIT {
         // Initialize the database
         visitRepository.saveAndFlush(visit);
         visitRepository.save(visit);
-        visitSearchRepository.save(visit);
+        visitSearchRepository.indexAll(List.of(visit.getId()));
 
         long databaseSizeBeforeDelete = getRepositoryCount();
         int searchDatabaseSizeBefore = IterableUtil.sizeOf(visitSearchRepository.findAll());
@@ -505,7 +671,7 @@ class VisitResourceIT {
     void searchVisit() throws Exception {
         // Initialize the database
         visit = visitRepository.saveAndFlush(visit);
-        visitSearchRepository.save(visit);
+        visitSearchRepository.indexAll(List.of(visit.getId()));
 
         // Search the visit
         restVisitMockMvc
@@ -517,6 +683,53 @@ class VisitResourceIT {
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)));
     }
 
+    @Test
+    @Transactional
+    void searchVisitWithKeysetPagination() throws Exception {
+        // Initialize the database with visits only this search matches
+        Visit first = visitRepository.saveAndFlush(createEntity(em).description("keysetsearch"));
+        Visit second = visitRepository.saveAndFlush(createEntity(em).description("keysetsearch"));
+        Visit third = visitRepository.saveAndFlush(createEntity(em).description("keysetsearch"));
+        visitSearchRepository.indexAll(List.of(first.getId(), second.getId(), third.getId()));
+
+        // Search the visits, two at a time
+        String link = restVisitMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=description:keysetsearch&sort=id,desc&size=2&after="))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(second.getId().intValue()))
+            .andExpect(jsonPath("$.[0].description").value("keysetsearch"))
+            .andReturn()
+            .getResponse()
+            .getHeader("Link");
+        assertThat(link).endsWith("; rel=\"next\"");
+
+        restVisitMockMvc
+            .perform(get(link.substring(link.indexOf('<') + 1, link.indexOf('>'))))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Link"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void searchVisitWithExpensiveQuery() throws Exception {
+        restVisitMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=description:*shot"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.querySyntaxError"));
+    }
+
+    @Test
+    @Transactional
+    void searchVisitWithUnsupportedKeysetSort() throws Exception {
+        restVisitMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=id:1&sort=description,asc&after="))
+            .andExpect(status().isBadRequest());
+    }
+
     protected long getRepositoryCount() {
         return visitRepository.count();
     }
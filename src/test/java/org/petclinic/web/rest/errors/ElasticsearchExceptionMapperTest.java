@@ -6,6 +6,7 @@ import co.elastic.clients.elasticsearch._types.ElasticsearchException;
 import co.elastic.clients.elasticsearch._types.ErrorCause;
 import co.elastic.clients.elasticsearch._types.ErrorResponse;
 import org.junit.jupiter.api.Test;
+import org.petclinic.repository.search.InvalidSearchQueryException;
 import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
 
 class ElasticsearchExceptionMapperTest {
@@ -24,4 +25,19 @@ class ElasticsearchExceptionMapperTest {
             ElasticsearchExceptionMapper.mapException(new UncategorizedElasticsearchException("", cause))
         );
     }
+
+    @Test
+    void testMapInvalidSearchQueryException() {
+        RuntimeException mapped = ElasticsearchExceptionMapper.mapException(
+            new InvalidSearchQueryException(
+                InvalidSearchQueryException.Reason.WILDCARD,
+                "Wildcards are only supported at the end of a word"
+            )
+        );
+        assertInstanceOf(QuerySyntaxException.class, mapped);
+        assertEquals(
+            "Invalid query syntax: Wildcards are only supported at the end of a word",
+            ((QuerySyntaxException) mapped).getBody().getTitle()
+        );
+    }
 }
@@ -0,0 +1,71 @@
+package org.petclinic.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.petclinic.service.dto.BulkItemResultDTO;
+import org.petclinic.service.dto.PetDTO;
+import org.petclinic.web.rest.errors.BadRequestAlertException;
+
+class BulkRequestUtilTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void saveReportsInvalidItemsAtTheirPosition() {
+        List<List<PetDTO>> savedBatches = new ArrayList<>();
+        List<PetDTO> pets = List.of(pet(null, "Leo"), pet(null, "A".repeat(31)), pet(7L, "Basil"));
+
+        List<BulkItemResultDTO> results = BulkRequestUtil.save(pets, 10, "pet", validator, PetDTO::getId, valid -> {
+            savedBatches.add(valid);
+            return List.of(BulkItemResultDTO.created(0, 100L), BulkItemResultDTO.updated(1, 7L));
+        });
+
+        assertThat(savedBatches).containsExactly(List.of(pets.get(0), pets.get(2)));
+        assertThat(results).extracting(BulkItemResultDTO::index).containsExactly(0, 1, 2);
+        assertThat(results)
+            .extracting(BulkItemResultDTO::status)
+            .containsExactly(BulkItemResultDTO.Status.CREATED, BulkItemResultDTO.Status.INVALID, BulkItemResultDTO.Status.UPDATED);
+        assertThat(results.get(1).errors()).singleElement().asString().startsWith("name:");
+    }
+
+    @Test
+    void readNdjsonReadsOneEntityPerLine() throws Exception {
+        String body = "{\"name\":\"Leo\"}\n\n{\"id\":7,\"name\":\"Basil\"}\n";
+
+        List<PetDTO> pets = BulkRequestUtil.readNdjson(objectMapper, stream(body), PetDTO.class, 10, "pet");
+
+        assertThat(pets).extracting(PetDTO::getName).containsExactly("Leo", "Basil");
+        assertThat(pets.get(1).getId()).isEqualTo(7L);
+    }
+
+    @Test
+    void readNdjsonRejectsMoreItemsThanAllowed() {
+        String body = "{\"name\":\"Leo\"}\n{\"name\":\"Basil\"}\n{\"name\":\"Rosy\"}\n";
+
+        assertThatThrownBy(() -> BulkRequestUtil.readNdjson(objectMapper, stream(body), PetDTO.class, 2, "pet")).isInstanceOf(
+            BadRequestAlertException.class
+        );
+    }
+
+    private static PetDTO pet(Long id, String name) {
+        PetDTO pet = new PetDTO();
+        pet.setId(id);
+        pet.setName(name);
+        return pet;
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
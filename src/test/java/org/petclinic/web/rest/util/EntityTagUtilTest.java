@@ -0,0 +1,152 @@
+package org.petclinic.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.petclinic.repository.EntityVersions;
+import org.petclinic.repository.VersionedRepository;
+import org.petclinic.service.dto.OwnerDTO;
+import org.petclinic.service.dto.PetDTO;
+import org.petclinic.service.dto.VisitDTO;
+import org.petclinic.web.rest.errors.PreconditionFailedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class EntityTagUtilTest {
+
+    private static final VersionedRepository repository = id -> id == 1L ? Optional.of(3L) : Optional.empty();
+
+    @Test
+    void notModifiedWhenIfNoneMatchHasTheCurrentVersion() {
+        Optional<ResponseEntity<OwnerDTO>> response = EntityTagUtil.notModified("\"1-2\", W/\"1-3\"", 1L, repository);
+
+        assertThat(response).hasValueSatisfying(entity -> {
+            assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(entity.getHeaders().getETag()).isEqualTo("\"1-3\"");
+        });
+        assertThat(EntityTagUtil.notModified("*", 1L, repository)).isPresent();
+    }
+
+    @Test
+    void notModifiedIsEmptyWhenTheEntityMustBeRead() {
+        assertThat(EntityTagUtil.notModified(null, 1L, repository)).isEmpty();
+        assertThat(EntityTagUtil.notModified("\"1-2\"", 1L, repository)).isEmpty();
+        assertThat(EntityTagUtil.notModified("\"2-3\"", 2L, repository)).isEmpty();
+    }
+
+    @Test
+    void wrapOrNotFoundTagsTheEntity() {
+        ResponseEntity<OwnerDTO> response = EntityTagUtil.wrapOrNotFound(Optional.of(owner(1L, 3L)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"1-3\"");
+    }
+
+    @Test
+    void checkIfMatchSetsTheCurrentVersion() {
+        OwnerDTO matched = owner(1L, 1L);
+        EntityTagUtil.checkIfMatch("\"1-3\"", matched, 3L, "owner");
+        OwnerDTO unversioned = owner(1L, null);
+        EntityTagUtil.checkIfMatch(null, unversioned, 3L, "owner");
+        OwnerDTO versioned = owner(1L, 2L);
+        EntityTagUtil.checkIfMatch(null, versioned, 3L, "owner");
+
+        assertThat(matched.getVersion()).isEqualTo(3L);
+        assertThat(unversioned.getVersion()).isEqualTo(3L);
+        assertThat(versioned.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void checkIfMatchRejectsAnotherVersion() {
+        assertThatThrownBy(() -> EntityTagUtil.checkIfMatch("\"1-2\"", owner(1L, null), 3L, "owner")).isInstanceOf(
+            PreconditionFailedException.class
+        );
+        assertThatThrownBy(() -> EntityTagUtil.checkIfMatch("W/\"1-3\"", owner(1L, null), 3L, "owner")).isInstanceOf(
+            PreconditionFailedException.class
+        );
+    }
+
+    @Test
+    void pageEntityTagChangesWithTheVersionsOfThePage() {
+        String pageTag = EntityTagUtil.pageEntityTag(page(4, 0L, 0L));
+
+        assertThat(pageTag).startsWith("W/\"");
+        assertThat(EntityTagUtil.pageEntityTag(page(4, 0L, 0L))).isEqualTo(pageTag);
+        assertThat(EntityTagUtil.pageEntityTag(page(4, 0L, 1L))).isNotEqualTo(pageTag);
+        assertThat(EntityTagUtil.pageEntityTag(page(5, 0L, 0L))).isNotEqualTo(pageTag);
+        assertThat(EntityTagUtil.pageEntityTag(new SliceImpl<>(List.of(owner(1L, 0L)), PageRequest.of(0, 2), false))).isNotEqualTo(
+            EntityTagUtil.pageEntityTag(new SliceImpl<>(List.of(owner(1L, 0L)), PageRequest.of(0, 2), true))
+        );
+    }
+
+    @Test
+    void entityTagChangesWithTheVersionOfTheEmbeddedEntities() {
+        ResponseEntity<VisitDTO> response = EntityTagUtil.wrapOrNotFound(Optional.of(visit(1L, 3L, 5L)));
+
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"1-3-5\"");
+        assertThat(EntityTagUtil.notModified("\"1-3-5\"", 1L, () -> Optional.of(versions(3L, 5L)))).isPresent();
+        assertThat(EntityTagUtil.notModified("\"1-3-5\"", 1L, () -> Optional.of(versions(3L, 6L)))).isEmpty();
+        assertThat(EntityTagUtil.pageEntityTag(new PageImpl<>(List.of(visit(1L, 3L, 5L))))).isNotEqualTo(
+            EntityTagUtil.pageEntityTag(new PageImpl<>(List.of(visit(1L, 3L, 6L))))
+        );
+    }
+
+    @Test
+    void checkIfMatchRejectsAnotherVersionOfTheEmbeddedEntities() {
+        VisitDTO matched = visit(1L, null, null);
+        EntityTagUtil.checkIfMatch("\"1-3-5\"", matched, versions(3L, 5L), "visit");
+
+        assertThat(matched.getVersion()).isEqualTo(3L);
+        assertThatThrownBy(() -> EntityTagUtil.checkIfMatch("\"1-3-5\"", visit(1L, null, null), versions(3L, 6L), "visit")).isInstanceOf(
+            PreconditionFailedException.class
+        );
+    }
+
+    private static Page<OwnerDTO> page(long total, Long... versions) {
+        List<OwnerDTO> owners = new ArrayList<>();
+        for (Long version : versions) {
+            owners.add(owner(owners.size() + 1L, version));
+        }
+        return new PageImpl<>(owners, PageRequest.of(0, versions.length), total);
+    }
+
+    private static OwnerDTO owner(Long id, Long version) {
+        OwnerDTO owner = new OwnerDTO();
+        owner.setId(id);
+        owner.setVersion(version);
+        return owner;
+    }
+
+    private static VisitDTO visit(Long id, Long version, Long petVersion) {
+        PetDTO pet = new PetDTO();
+        pet.setId(2L);
+        pet.setVersion(petVersion);
+        VisitDTO visit = new VisitDTO();
+        visit.setId(id);
+        visit.setVersion(version);
+        visit.setPet(pet);
+        return visit;
+    }
+
+    private static EntityVersions versions(Long version, Long embeddedVersion) {
+        return new EntityVersions() {
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+
+            @Override
+            public Long getEmbeddedVersion() {
+                return embeddedVersion;
+            }
+        };
+    }
+}
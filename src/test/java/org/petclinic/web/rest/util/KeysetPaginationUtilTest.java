@@ -0,0 +1,59 @@
+package org.petclinic.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.petclinic.web.rest.errors.BadRequestAlertException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+class KeysetPaginationUtilTest {
+
+    @Test
+    void decodeCursorReturnsEncodedValues() {
+        String cursor = KeysetPaginationUtil.encodeCursor("visitDate,DESC", LocalDate.of(2024, 5, 25), 42L);
+
+        String[] values = KeysetPaginationUtil.decodeCursor(cursor, "visitDate,DESC", parts -> parts, "visit");
+
+        assertThat(values).containsExactly("2024-05-25", "42");
+    }
+
+    @Test
+    void decodeCursorRejectsCursorOfAnotherOrdering() {
+        String cursor = KeysetPaginationUtil.encodeCursor("id", 42L);
+
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor(cursor, "visitDate,ASC", parts -> parts, "visit")).isInstanceOf(
+            BadRequestAlertException.class
+        );
+    }
+
+    @Test
+    void decodeCursorRejectsMalformedCursor() {
+        String cursor = KeysetPaginationUtil.encodeCursor("id", "not-a-number");
+
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor("%%%", "id", parts -> Long.valueOf(parts[0]), "visit")).isInstanceOf(
+            BadRequestAlertException.class
+        );
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor(cursor, "id", parts -> Long.valueOf(parts[0]), "visit")).isInstanceOf(
+            BadRequestAlertException.class
+        );
+    }
+
+    @Test
+    void generateKeysetHttpHeadersLinksToNextPage() {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString("http://localhost/api/visits?size=2&page=3&after=");
+
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(uriBuilder, "abc");
+
+        assertThat(headers.getFirst(HttpHeaders.LINK)).isEqualTo("<http://localhost/api/visits?size=2&after=abc>; rel=\"next\"");
+    }
+
+    @Test
+    void generateKeysetHttpHeadersOmitsLinkOnLastPage() {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString("http://localhost/api/visits?after=");
+
+        assertThat(KeysetPaginationUtil.generateKeysetHttpHeaders(uriBuilder, null).containsKey(HttpHeaders.LINK)).isFalse();
+    }
+}
@@ -0,0 +1,63 @@
+package org.petclinic.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+import org.petclinic.domain.Owner;
+import org.petclinic.domain.Pet;
+import org.petclinic.domain.PetType;
+import org.petclinic.domain.Specialty;
+import org.petclinic.domain.Vet;
+import org.petclinic.domain.VetSpecialty;
+import org.petclinic.domain.Visit;
+
+/**
+ * Entity graphs shaped like the ones the application loads: pets with their type and owner, visits with their pet,
+ * vets with their specialties.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    static Owner owner(long id) {
+        return new Owner()
+            .id(id)
+            .firstName("George")
+            .lastName("Franklin")
+            .address("110 W. Liberty St.")
+            .city("Madison")
+            .telephone("6085551023");
+    }
+
+    static PetType petType(long id) {
+        return new PetType().id(id).name("dog");
+    }
+
+    static Pet pet(long id) {
+        return new Pet().id(id).name("Leo").birthDate(LocalDate.of(2020, 9, 7)).type(petType(2L)).owner(owner(id / 2 + 1));
+    }
+
+    static Visit visit(long id) {
+        return new Visit().id(id).visitDate(LocalDate.of(2024, 5, 25)).description("rabies shot").pet(pet(id / 3 + 1));
+    }
+
+    static Specialty specialty(long id) {
+        return new Specialty().id(id).name(id % 2 == 0 ? "surgery" : "radiology");
+    }
+
+    static Vet vet(long id) {
+        Vet vet = new Vet().id(id).firstName("Helen").lastName("Leary");
+        specialty(1L).addVets(vet);
+        specialty(2L).addVets(vet);
+        return vet;
+    }
+
+    static VetSpecialty vetSpecialty(long id) {
+        return new VetSpecialty().id(id);
+    }
+
+    static <T> List<T> page(int size, LongFunction<T> factory) {
+        return LongStream.rangeClosed(1, size).mapToObj(factory).toList();
+    }
+}
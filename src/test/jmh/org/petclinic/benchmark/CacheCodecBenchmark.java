@@ -0,0 +1,107 @@
+package org.petclinic.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.petclinic.config.HibernateKryo5Codec;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.SerializationCodec;
+
+/**
+ * Compares the Redisson cache codecs on every domain class: encoded payload size, encode and decode throughput.
+ * <p>
+ * Payload sizes are printed before the benchmarks run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    @Param({ "Owner", "Pet", "PetType", "Specialty", "Vet", "VetSpecialty", "Visit" })
+    private String entity;
+
+    @Param({ "serialization", "kryo" })
+    private String codecName;
+
+    private Codec codec;
+
+    private Object value;
+
+    private ByteBuf encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        codec = codec(codecName);
+        value = sample(entity);
+        encoded = codec.getValueEncoder().encode(value);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        encoded.release();
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        ByteBuf buf = codec.getValueEncoder().encode(value);
+        int size = buf.readableBytes();
+        buf.release();
+        return size;
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return codec.getValueDecoder().decode(encoded.duplicate(), null);
+    }
+
+    static Codec codec(String codecName) {
+        return switch (codecName) {
+            case "serialization" -> new SerializationCodec();
+            case "kryo" -> new HibernateKryo5Codec();
+            default -> throw new IllegalArgumentException("Unknown codec " + codecName);
+        };
+    }
+
+    static Object sample(String entity) {
+        return switch (entity) {
+            case "Owner" -> BenchmarkData.owner(1001L);
+            case "Pet" -> BenchmarkData.pet(3001L);
+            case "PetType" -> BenchmarkData.petType(2L);
+            case "Specialty" -> BenchmarkData.specialty(1L);
+            case "Vet" -> BenchmarkData.vet(11L);
+            case "VetSpecialty" -> BenchmarkData.vetSpecialty(21L);
+            case "Visit" -> BenchmarkData.visit(5001L);
+            default -> throw new IllegalArgumentException("Unknown entity " + entity);
+        };
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        for (String entity : new String[] { "Owner", "Pet", "PetType", "Specialty", "Vet", "VetSpecialty", "Visit" }) {
+            for (String codecName : new String[] { "serialization", "kryo" }) {
+                ByteBuf buf = codec(codecName).getValueEncoder().encode(sample(entity));
+                System.out.printf("%-13s %-14s %5d bytes%n", entity, codecName, buf.readableBytes());
+                buf.release();
+            }
+        }
+        new Runner(new OptionsBuilder().include(CacheCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
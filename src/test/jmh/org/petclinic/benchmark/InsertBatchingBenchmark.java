@@ -0,0 +1,130 @@
+package org.petclinic.benchmark;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.petclinic.config.MysqlTestContainer;
+import org.petclinic.domain.Owner;
+import org.petclinic.domain.Pet;
+import org.petclinic.domain.PetType;
+import org.petclinic.domain.Visit;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+
+/**
+ * Measures the insertion of a transaction of visits on MySQL, started with {@link MysqlTestContainer} so Docker must
+ * be available: with an {@code IDENTITY} id, which makes Hibernate send one insert per row to read back the generated
+ * key, against the pooled sequence of {@link Visit}, which lets Hibernate send the inserts as JDBC batches.
+ * <p>
+ * The batch size and id optimizer are those of the application. With {@code rewriteBatchedStatements} the MySQL
+ * driver also turns each batch into one multi-row insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBatchingBenchmark {
+
+    @Param({ "1000" })
+    private int rows;
+
+    @Param({ "true", "false" })
+    private boolean rewriteBatchedStatements;
+
+    private final MysqlTestContainer mysql = new MysqlTestContainer();
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        mysql.afterPropertiesSet();
+        JdbcDatabaseContainer<?> container = mysql.getTestContainer();
+        String url = container.getJdbcUrl();
+        url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=" + rewriteBatchedStatements;
+        sessionFactory = new Configuration()
+            .addAnnotatedClass(Owner.class)
+            .addAnnotatedClass(PetType.class)
+            .addAnnotatedClass(Pet.class)
+            .addAnnotatedClass(Visit.class)
+            .addAnnotatedClass(IdentityVisit.class)
+            .setProperty(AvailableSettings.JAKARTA_JDBC_URL, url)
+            .setProperty(AvailableSettings.JAKARTA_JDBC_USER, container.getUsername())
+            .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, container.getPassword())
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+            .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "25")
+            .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+            .setProperty(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo")
+            .buildSessionFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        mysql.destroy();
+    }
+
+    @Benchmark
+    public void insertWithIdentity() {
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < rows; i++) {
+                session.persist(new IdentityVisit(LocalDate.now(), "annual checkup " + i));
+            }
+        });
+    }
+
+    @Benchmark
+    public void insertWithPooledSequence() {
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < rows; i++) {
+                session.persist(new Visit().visitDate(LocalDate.now()).description("annual checkup " + i));
+            }
+        });
+    }
+
+    /**
+     * The columns of {@link Visit} with the id generation it had before, in a table of its own.
+     */
+    @Entity
+    @Table(name = "identity_visit")
+    public static class IdentityVisit {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "visit_date")
+        private LocalDate visitDate;
+
+        @Column(name = "description")
+        private String description;
+
+        protected IdentityVisit() {}
+
+        IdentityVisit(LocalDate visitDate, String description) {
+            this.visitDate = visitDate;
+            this.description = description;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.petclinic.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.petclinic.config.JacksonConfiguration;
+import org.petclinic.service.dto.PetDTO;
+import org.petclinic.service.dto.VetDTO;
+import org.petclinic.service.dto.VisitDTO;
+import org.petclinic.service.mapper.PetMapper;
+import org.petclinic.service.mapper.VetMapper;
+import org.petclinic.service.mapper.VisitMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Measures the JSON serialization of one page of a REST list response, with the modules of {@link JacksonConfiguration}.
+ * <p>
+ * {@code entities} serializes the entity graph itself, which goes through the Hibernate module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBenchmark {
+
+    @Param({ "Visit", "Pet", "Vet" })
+    private String entity;
+
+    @Param({ "20" })
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+
+    private List<?> entities;
+
+    private List<?> dtos;
+
+    private JavaType dtoPageType;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        // Same modules and defaults as the ObjectMapper auto-configured by Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(
+                jacksonConfiguration.javaTimeModule(),
+                jacksonConfiguration.jdk8TimeModule(),
+                jacksonConfiguration.hibernate6Module()
+            )
+            .build();
+        switch (entity) {
+            case "Visit" -> {
+                entities = BenchmarkData.page(pageSize, BenchmarkData::visit);
+                dtos = Mappers.getMapper(VisitMapper.class).toDto(BenchmarkData.page(pageSize, BenchmarkData::visit));
+                dtoPageType = objectMapper.getTypeFactory().constructCollectionType(List.class, VisitDTO.class);
+            }
+            case "Pet" -> {
+                entities = BenchmarkData.page(pageSize, BenchmarkData::pet);
+                dtos = Mappers.getMapper(PetMapper.class).toDto(BenchmarkData.page(pageSize, BenchmarkData::pet));
+                dtoPageType = objectMapper.getTypeFactory().constructCollectionType(List.class, PetDTO.class);
+            }
+            case "Vet" -> {
+                entities = BenchmarkData.page(pageSize, BenchmarkData::vet);
+                dtos = Mappers.getMapper(VetMapper.class).toDto(BenchmarkData.page(pageSize, BenchmarkData::vet));
+                dtoPageType = objectMapper.getTypeFactory().constructCollectionType(List.class, VetDTO.class);
+            }
+            default -> throw new IllegalArgumentException("Unknown entity " + entity);
+        }
+        json = objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] serializeDtos() throws IOException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public Object deserializeDtos() throws IOException {
+        return objectMapper.readValue(json, dtoPageType);
+    }
+
+    @Benchmark
+    public byte[] serializeEntities() throws IOException {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+}
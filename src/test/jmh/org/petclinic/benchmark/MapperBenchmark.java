@@ -0,0 +1,99 @@
+package org.petclinic.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.petclinic.domain.Pet;
+import org.petclinic.domain.Vet;
+import org.petclinic.domain.Visit;
+import org.petclinic.service.dto.PetDTO;
+import org.petclinic.service.dto.VetDTO;
+import org.petclinic.service.dto.VisitDTO;
+import org.petclinic.service.mapper.PetMapper;
+import org.petclinic.service.mapper.VetMapper;
+import org.petclinic.service.mapper.VisitMapper;
+
+/**
+ * Measures the MapStruct mappers on one page of entities, nested mappings such as {@code toDtoPetName} and
+ * {@code toDtoSpecialtyNameSet} included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({ "20" })
+    private int pageSize;
+
+    private final VisitMapper visitMapper = Mappers.getMapper(VisitMapper.class);
+
+    private final PetMapper petMapper = Mappers.getMapper(PetMapper.class);
+
+    private final VetMapper vetMapper = Mappers.getMapper(VetMapper.class);
+
+    private List<Visit> visits;
+
+    private List<VisitDTO> visitDTOs;
+
+    private List<Pet> pets;
+
+    private List<PetDTO> petDTOs;
+
+    private List<Vet> vets;
+
+    private List<VetDTO> vetDTOs;
+
+    @Setup
+    public void setUp() {
+        visits = BenchmarkData.page(pageSize, BenchmarkData::visit);
+        visitDTOs = visitMapper.toDto(visits);
+        pets = BenchmarkData.page(pageSize, BenchmarkData::pet);
+        petDTOs = petMapper.toDto(pets);
+        vets = BenchmarkData.page(pageSize, BenchmarkData::vet);
+        vetDTOs = vetMapper.toDto(vets);
+    }
+
+    @Benchmark
+    public List<VisitDTO> visitToDto() {
+        return visitMapper.toDto(visits);
+    }
+
+    @Benchmark
+    public List<Visit> visitToEntity() {
+        return visitMapper.toEntity(visitDTOs);
+    }
+
+    @Benchmark
+    public List<PetDTO> petToDto() {
+        return petMapper.toDto(pets);
+    }
+
+    @Benchmark
+    public List<Pet> petToEntity() {
+        return petMapper.toEntity(petDTOs);
+    }
+
+    @Benchmark
+    public List<VetDTO> vetToDto() {
+        return vetMapper.toDto(vets);
+    }
+
+    @Benchmark
+    public List<Vet> vetToEntity() {
+        return vetMapper.toEntity(vetDTOs);
+    }
+}
@@ -0,0 +1,164 @@
+package org.petclinic.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.petclinic.config.JacksonConfiguration;
+import org.petclinic.domain.Owner;
+import org.petclinic.domain.Pet;
+import org.petclinic.domain.PetType;
+import org.petclinic.domain.Visit;
+import org.petclinic.repository.TupleProjectionRepository;
+import org.petclinic.service.Fieldset;
+import org.petclinic.service.PetService;
+import org.petclinic.service.mapper.PetMapper;
+import org.petclinic.service.mapper.PetMapperImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Compares a page of the pet list endpoint, from the query to the JSON payload, on an in-memory H2 database: loading
+ * the pets with their type and owner and mapping them to DTOs, against selecting the requested fields alone with
+ * {@link TupleProjectionRepository}.
+ * <p>
+ * The payload sizes of both are printed once the database is filled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SparseFieldsetBenchmark {
+
+    private static final int PETS = 5000;
+
+    @Param({ "20", "100", "1000" })
+    private int pageSize;
+
+    @Param({ "name,type.name", "id,version,name,birthDate,type.id,type.name,owner.id,owner.lastName" })
+    private String fields;
+
+    private final PetMapper petMapper = new PetMapperImpl();
+
+    private final TupleProjectionRepository tupleProjectionRepository = new TupleProjectionRepository();
+
+    private ObjectMapper objectMapper;
+
+    private SessionFactory sessionFactory;
+
+    private EntityManager entityManager;
+
+    private Pageable pageable;
+
+    private List<String> selectedFields;
+
+    @Setup
+    public void setUp() throws IOException {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule())
+            .build();
+        sessionFactory = new Configuration()
+            .addAnnotatedClass(Owner.class)
+            .addAnnotatedClass(PetType.class)
+            .addAnnotatedClass(Pet.class)
+            .addAnnotatedClass(Visit.class)
+            .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:pets;DB_CLOSE_DELAY=-1;MODE=MYSQL")
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+            .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "100")
+            .buildSessionFactory();
+        sessionFactory.inTransaction(session -> {
+            List<PetType> petTypes = new ArrayList<>();
+            for (String name : new String[] { "cat", "dog", "lizard", "snake", "bird", "hamster" }) {
+                PetType petType = new PetType().name(name);
+                session.persist(petType);
+                petTypes.add(petType);
+            }
+            Owner owner = null;
+            for (int i = 0; i < PETS; i++) {
+                if (i % 2 == 0) {
+                    owner = new Owner()
+                        .firstName("George" + i)
+                        .lastName("Franklin" + i)
+                        .address("110 W. Liberty St.")
+                        .city("Madison")
+                        .telephone("6085551023");
+                    session.persist(owner);
+                }
+                session.persist(
+                    new Pet().name("Leo" + i).birthDate(LocalDate.of(2020, 9, 7)).type(petTypes.get(i % petTypes.size())).owner(owner)
+                );
+            }
+        });
+        entityManager = sessionFactory.createEntityManager();
+        ReflectionTestUtils.setField(tupleProjectionRepository, "entityManager", entityManager);
+        pageable = PageRequest.of(1, pageSize, Sort.by("id"));
+        selectedFields = PetService.FIELDSET.parse(fields).orElseThrow();
+        System.out.printf(
+            "Payload of %d pets: %d bytes as DTOs, %d bytes with fields %s%n",
+            pageSize,
+            listDtos().length,
+            listFields().length,
+            fields
+        );
+        entityManager.clear();
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearPersistenceContext() {
+        entityManager.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public byte[] listDtos() throws IOException {
+        // The pet type is joined as well, there is no second-level cache here
+        List<Pet> pets = entityManager
+            .createQuery("select pet from Pet pet left join fetch pet.type left join fetch pet.owner order by pet.id", Pet.class)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+        Page<Pet> page = PageableExecutionUtils.getPage(pets, pageable, () ->
+            entityManager.createQuery("select count(pet) from Pet pet", Long.class).getSingleResult()
+        );
+        return objectMapper.writeValueAsBytes(page.map(petMapper::toDto).getContent());
+    }
+
+    @Benchmark
+    public byte[] listFields() throws IOException {
+        Page<Object[]> page = tupleProjectionRepository.findAll(Pet.class, selectedFields, pageable);
+        return objectMapper.writeValueAsBytes(page.map(values -> Fieldset.toMap(selectedFields, values)).getContent());
+    }
+}
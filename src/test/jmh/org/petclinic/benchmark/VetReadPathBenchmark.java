@@ -0,0 +1,142 @@
+package org.petclinic.benchmark;
+
+import jakarta.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.petclinic.domain.Specialty;
+import org.petclinic.domain.Vet;
+import org.petclinic.repository.VetRepositoryWithBagRelationshipsImpl;
+import org.petclinic.repository.VetRepositoryWithSpecialtyNamesImpl;
+import org.petclinic.service.dto.VetDTO;
+import org.petclinic.service.mapper.VetMapper;
+import org.petclinic.service.mapper.VetMapperImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Compares the two read paths of the vet list and detail endpoints, mapping to {@link VetDTO} included, on an
+ * in-memory H2 database: loading the entities then their specialties bag, as {@code findAllWithEagerRelationships}
+ * did, against the single grouped query of {@link VetRepositoryWithSpecialtyNamesImpl}.
+ * <p>
+ * The persistence context is cleared after every call, so that each call reads from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VetReadPathBenchmark {
+
+    private static final int VETS = 5000;
+
+    private static final String[] SPECIALTIES = { "radiology", "surgery", "dentistry", "cardiology", "dermatology" };
+
+    @Param({ "20", "100", "1000" })
+    private int pageSize;
+
+    private final VetMapper vetMapper = new VetMapperImpl();
+
+    private final VetRepositoryWithBagRelationshipsImpl bagRelationships = new VetRepositoryWithBagRelationshipsImpl();
+
+    private final VetRepositoryWithSpecialtyNamesImpl specialtyNames = new VetRepositoryWithSpecialtyNamesImpl();
+
+    private SessionFactory sessionFactory;
+
+    private EntityManager entityManager;
+
+    private Pageable pageable;
+
+    private long vetId;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+            .addAnnotatedClass(Vet.class)
+            .addAnnotatedClass(Specialty.class)
+            .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:vets;DB_CLOSE_DELAY=-1;MODE=MYSQL")
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+            .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "100")
+            .buildSessionFactory();
+        sessionFactory.inTransaction(session -> {
+            SplittableRandom random = new SplittableRandom(42);
+            List<Specialty> specialties = Arrays.stream(SPECIALTIES).map(name -> new Specialty().name(name)).toList();
+            specialties.forEach(session::persist);
+            for (int i = 0; i < VETS; i++) {
+                Vet vet = new Vet().firstName("Vet" + i).lastName("Benchmark" + i);
+                for (int j = random.nextInt(3); j > 0; j--) {
+                    vet.addSpecialties(specialties.get(random.nextInt(specialties.size())));
+                }
+                session.persist(vet);
+            }
+        });
+        entityManager = sessionFactory.createEntityManager();
+        ReflectionTestUtils.setField(bagRelationships, "entityManager", entityManager);
+        ReflectionTestUtils.setField(specialtyNames, "entityManager", entityManager);
+        pageable = PageRequest.of(1, pageSize, Sort.by("id"));
+        vetId = entityManager.createQuery("select min(vet.id) from Vet vet", Long.class).getSingleResult() + VETS / 2;
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearPersistenceContext() {
+        entityManager.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Page<VetDTO> listWithBagRelationships() {
+        List<Vet> vets = entityManager
+            .createQuery("select vet from Vet vet order by vet.id", Vet.class)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+        Page<Vet> page = PageableExecutionUtils.getPage(vets, pageable, () ->
+            entityManager.createQuery("select count(vet) from Vet vet", Long.class).getSingleResult()
+        );
+        return bagRelationships.fetchBagRelationships(page).map(vetMapper::toDto);
+    }
+
+    @Benchmark
+    public Page<VetDTO> listWithSpecialtyNames() {
+        return specialtyNames.findAllWithSpecialtyNames(pageable).map(vetMapper::toDto);
+    }
+
+    @Benchmark
+    public Optional<VetDTO> detailWithBagRelationships() {
+        return bagRelationships.fetchBagRelationships(Optional.ofNullable(entityManager.find(Vet.class, vetId))).map(vetMapper::toDto);
+    }
+
+    @Benchmark
+    public Optional<VetDTO> detailWithSpecialtyNames() {
+        return specialtyNames.findOneWithSpecialtyNames(vetId).map(vetMapper::toDto);
+    }
+}